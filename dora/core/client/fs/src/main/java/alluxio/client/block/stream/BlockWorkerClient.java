@@ -12,6 +12,8 @@
 package alluxio.client.block.stream;
 
 import alluxio.conf.AlluxioConfiguration;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
 import alluxio.grpc.CacheRequest;
 import alluxio.grpc.ClearMetricsRequest;
 import alluxio.grpc.ClearMetricsResponse;
@@ -211,6 +213,14 @@ public interface BlockWorkerClient extends Closeable {
    */
   GetStatusPResponse getStatus(GetStatusPRequest request);
 
+  /**
+   * get the statuses of multiple files.
+   *
+   * @param request the batch get status request
+   * @return listenable future of the statuses, in the order of the requested paths
+   */
+  ListenableFuture<BatchGetStatusPResponse> batchGetStatus(BatchGetStatusPRequest request);
+
   /**
    * List status from Worker.
    * @param request
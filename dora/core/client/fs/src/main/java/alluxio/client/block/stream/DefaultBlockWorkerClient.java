@@ -15,6 +15,8 @@ import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.status.AlluxioStatusException;
 import alluxio.exception.status.UnauthenticatedException;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
 import alluxio.grpc.BlockWorkerGrpc;
 import alluxio.grpc.CacheRequest;
 import alluxio.grpc.ClearMetricsRequest;
@@ -349,6 +351,13 @@ public class DefaultBlockWorkerClient implements BlockWorkerClient {
         .getStatus(request);
   }
 
+  @Override
+  public ListenableFuture<BatchGetStatusPResponse> batchGetStatus(
+      BatchGetStatusPRequest request) {
+    return mRpcFutureStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
+        .batchGetStatus(request);
+  }
+
   @Override
   public Iterator<ListStatusPResponse> listStatus(ListStatusPRequest request) {
     return mRpcBlockingStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
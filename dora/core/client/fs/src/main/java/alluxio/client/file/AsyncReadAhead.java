@@ -0,0 +1,394 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.PositionReader;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.NioDirectBufferPool;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Asynchronous read-ahead of a {@link PositionReader}, used by {@link PositionReadFileInStream}.
+ * <p>
+ * Each read is checked against the previous reads of the stream, by its position and the number
+ * of bytes actually read. Sequential reads, which start where the previous read ended, are
+ * followed by read-ahead requests of a fixed size. Strided reads, which are of the same length
+ * and start at a fixed distance from the previous read, are followed by read-ahead requests of
+ * the next strides. The number of requests kept in flight doubles on each read which follows the
+ * pattern, and the window collapses on any other read, discarding the requests in flight.
+ * <p>
+ * Requests are read into pooled direct buffers by a thread pool shared by all streams, and the
+ * total size of the buffers is bounded by a memory budget shared by all streams of the client.
+ * Both are created with the configuration of the first stream reading ahead.
+ */
+@NotThreadSafe
+final class AsyncReadAhead implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncReadAhead.class);
+
+  private final PositionReader mReader;
+  private final long mFileLength;
+  private final int mRequestSize;
+  private final int mMaxRequests;
+  private final Executor mExecutor;
+  private final MemoryBudget mBudget;
+  /** Requests in flight, ordered by position. */
+  private final Deque<Request> mRequests = new ArrayDeque<>();
+
+  /** Position and length of the previous read, -1 before the first read. */
+  private long mLastPos = -1;
+  private int mLastLength;
+  /** Distance between the last two reads. */
+  private long mStride;
+  private boolean mStrided;
+  /** Number of requests to keep in flight. */
+  private int mWindow;
+  /** Position of the next request to issue. */
+  private long mNextPos;
+
+  /**
+   * Creates a read-ahead with the executor and memory budget shared by the client.
+   *
+   * @param reader the reader to read ahead from
+   * @param fileLength the length of the file
+   * @param conf the configuration
+   * @return the read-ahead
+   */
+  static AsyncReadAhead create(PositionReader reader, long fileLength,
+      AlluxioConfiguration conf) {
+    SharedResources shared = SharedResources.get(conf);
+    return new AsyncReadAhead(reader, fileLength,
+        (int) conf.getBytes(PropertyKey.USER_POSITION_READER_READ_AHEAD_REQUEST_SIZE),
+        conf.getInt(PropertyKey.USER_POSITION_READER_READ_AHEAD_MAX_REQUESTS),
+        shared.mExecutor, shared.mBudget);
+  }
+
+  @VisibleForTesting
+  AsyncReadAhead(PositionReader reader, long fileLength, int requestSize, int maxRequests,
+      Executor executor, MemoryBudget budget) {
+    Preconditions.checkArgument(requestSize > 0, "requestSize should be positive");
+    Preconditions.checkArgument(maxRequests > 0, "maxRequests should be positive");
+    mReader = reader;
+    mFileLength = fileLength;
+    mRequestSize = requestSize;
+    mMaxRequests = maxRequests;
+    mExecutor = executor;
+    mBudget = budget;
+  }
+
+  /**
+   * Reads into the buffer, first from the requests in flight and then from the reader, and issues
+   * read-ahead requests following the access pattern.
+   *
+   * @param position the position in the file to read from
+   * @param buffer the buffer to read into, up to its limit
+   * @return the number of bytes read, or -1 if no data is read
+   */
+  int read(long position, ByteBuffer buffer) throws IOException {
+    int length = buffer.remaining();
+    int bytesRead = readFromRequests(position, buffer);
+    if (buffer.hasRemaining()) {
+      int bytesReadFromReader =
+          mReader.read(position + bytesRead, buffer, buffer.remaining());
+      if (bytesReadFromReader > 0) {
+        bytesRead += bytesReadFromReader;
+      }
+    }
+    updatePattern(position, bytesRead);
+    issueRequests(position + bytesRead);
+    return bytesRead == 0 && length > 0 ? -1 : bytesRead;
+  }
+
+  @VisibleForTesting
+  int getWindow() {
+    return mWindow;
+  }
+
+  @VisibleForTesting
+  int getNumRequests() {
+    return mRequests.size();
+  }
+
+  private void updatePattern(long position, int length) {
+    if (mLastPos >= 0 && position == mLastPos + mLastLength) {
+      if (mStrided || mWindow == 0) {
+        switchPattern(false, position);
+      }
+      mWindow = Math.max(1, Math.min(mMaxRequests, mWindow * 2));
+    } else if (mLastPos >= 0 && length == mLastLength && position - mLastPos == mStride
+        && mStride > length) {
+      if (!mStrided || mWindow == 0) {
+        switchPattern(true, position + mStride);
+      }
+      mWindow = Math.max(1, Math.min(mMaxRequests, mWindow * 2));
+    } else {
+      // random access, the requests in flight are unlikely to be read
+      mWindow = 0;
+      discardRequests(Long.MAX_VALUE);
+    }
+    mStride = mLastPos >= 0 ? position - mLastPos : 0;
+    mLastPos = position;
+    mLastLength = length;
+  }
+
+  private void switchPattern(boolean strided, long nextPos) {
+    // requests of the previous pattern are discarded to keep the requests ordered by position
+    discardRequests(Long.MAX_VALUE);
+    mStrided = strided;
+    mWindow = 0;
+    mNextPos = nextPos;
+  }
+
+  private int readFromRequests(long position, ByteBuffer buffer) {
+    discardRequests(position);
+    long pos = position;
+    while (buffer.hasRemaining() && !mRequests.isEmpty()) {
+      Request request = mRequests.peekFirst();
+      if (request.mPosition > pos) {
+        // a gap between the requests, which is read from the reader
+        break;
+      }
+      int requestBytesRead = request.await();
+      long offset = pos - request.mPosition;
+      if (offset >= requestBytesRead) {
+        // the request failed or ended early
+        discardRequests(Long.MAX_VALUE);
+        break;
+      }
+      int size = (int) Math.min(buffer.remaining(), requestBytesRead - offset);
+      ByteBuffer src = request.mBuffer.duplicate();
+      src.position((int) offset).limit((int) offset + size);
+      buffer.put(src);
+      request.mBytesConsumed += size;
+      pos += size;
+      if (pos >= request.mPosition + request.mLength) {
+        mRequests.pollFirst();
+        request.release();
+      }
+    }
+    int bytesRead = (int) (pos - position);
+    if (bytesRead > 0) {
+      MetricsSystem.meter(MetricKey.CLIENT_READ_AHEAD_BYTES_HIT.getName()).mark(bytesRead);
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Discards the requests which end before the position.
+   *
+   * @param position the position
+   */
+  private void discardRequests(long position) {
+    while (!mRequests.isEmpty()) {
+      Request request = mRequests.peekFirst();
+      if (request.mPosition + request.mLength > position) {
+        return;
+      }
+      mRequests.pollFirst();
+      request.release();
+    }
+  }
+
+  private void issueRequests(long readEnd) {
+    if (!mStrided) {
+      mNextPos = Math.max(mNextPos, readEnd);
+    }
+    while (mRequests.size() < mWindow && mNextPos < mFileLength) {
+      // sequential requests are aligned to the request size, so that they match the pages of the
+      // cache when the request size is a multiple of the page size
+      int length = (int) Math.min(
+          mStrided ? mLastLength : mRequestSize - mNextPos % mRequestSize,
+          mFileLength - mNextPos);
+      if (!mBudget.tryAcquire(length)) {
+        return;
+      }
+      Request request = new Request(mNextPos, length);
+      mRequests.addLast(request);
+      request.issue();
+      mNextPos += mStrided ? mStride : length;
+    }
+  }
+
+  /**
+   * Discards the requests in flight and waits for the started ones to complete, so that the reader
+   * can be closed.
+   */
+  @Override
+  public void close() {
+    for (Request request : mRequests) {
+      request.release();
+      request.await();
+    }
+    mRequests.clear();
+  }
+
+  /**
+   * A read-ahead request.
+   */
+  private final class Request {
+    private final long mPosition;
+    private final int mLength;
+    private final ByteBuffer mBuffer;
+    private CompletableFuture<Integer> mFuture;
+    /** Set when the request is discarded, so that it is skipped if not started yet. */
+    private volatile boolean mDiscarded;
+    private int mBytesConsumed;
+
+    Request(long position, int length) {
+      mPosition = position;
+      mLength = length;
+      mBuffer = NioDirectBufferPool.acquire(length);
+    }
+
+    void issue() {
+      mFuture = CompletableFuture.supplyAsync(() -> {
+        if (mDiscarded) {
+          return 0;
+        }
+        try {
+          int bytesRead = mReader.read(mPosition, mBuffer.duplicate(), mLength);
+          bytesRead = Math.max(bytesRead, 0);
+          MetricsSystem.meter(MetricKey.CLIENT_READ_AHEAD_BYTES_READ.getName()).mark(bytesRead);
+          return bytesRead;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, mExecutor);
+    }
+
+    /**
+     * @return the number of bytes read by the request, 0 if it failed
+     */
+    int await() {
+      try {
+        return mFuture.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return 0;
+      } catch (ExecutionException e) {
+        LOG.debug("Read-ahead of {} bytes at position {} failed", mLength, mPosition,
+            e.getCause());
+        return 0;
+      }
+    }
+
+    /**
+     * Releases the buffer and the memory budget once the request completes.
+     */
+    void release() {
+      mDiscarded = true;
+      mFuture.whenComplete((bytesRead, error) -> {
+        if (bytesRead != null && bytesRead > mBytesConsumed) {
+          MetricsSystem.meter(MetricKey.CLIENT_READ_AHEAD_BYTES_WASTED.getName())
+              .mark(bytesRead - mBytesConsumed);
+        }
+        NioDirectBufferPool.release(mBuffer);
+        mBudget.release(mLength);
+      });
+    }
+  }
+
+  /**
+   * A memory budget shared by the read-ahead of multiple streams.
+   */
+  @ThreadSafe
+  static final class MemoryBudget {
+    private final AtomicLong mAvailable;
+
+    /**
+     * @param size the size of the budget in bytes
+     */
+    MemoryBudget(long size) {
+      mAvailable = new AtomicLong(size);
+    }
+
+    /**
+     * @param bytes the number of bytes to acquire
+     * @return whether the bytes are acquired
+     */
+    boolean tryAcquire(long bytes) {
+      long available;
+      do {
+        available = mAvailable.get();
+        if (available < bytes) {
+          return false;
+        }
+      } while (!mAvailable.compareAndSet(available, available - bytes));
+      return true;
+    }
+
+    /**
+     * @param bytes the number of bytes to release
+     */
+    void release(long bytes) {
+      mAvailable.addAndGet(bytes);
+    }
+
+    /**
+     * @return the number of bytes available
+     */
+    long getAvailable() {
+      return mAvailable.get();
+    }
+  }
+
+  /**
+   * Resources shared by the read-ahead of all streams, created on first use.
+   */
+  private static final class SharedResources {
+    @Nullable
+    private static SharedResources sInstance;
+
+    private final Executor mExecutor;
+    private final MemoryBudget mBudget;
+
+    private SharedResources(AlluxioConfiguration conf) {
+      mExecutor = Executors.newFixedThreadPool(
+          conf.getInt(PropertyKey.USER_POSITION_READER_READ_AHEAD_THREADS),
+          ThreadFactoryUtils.build("position-reader-read-ahead-%d", true));
+      mBudget = new MemoryBudget(
+          conf.getBytes(PropertyKey.USER_POSITION_READER_READ_AHEAD_MEMORY_SIZE));
+    }
+
+    /**
+     * @param conf the configuration used if the resources are not created yet
+     * @return the shared resources
+     */
+    static synchronized SharedResources get(AlluxioConfiguration conf) {
+      if (sInstance == null) {
+        sInstance = new SharedResources(conf);
+      }
+      return sInstance;
+    }
+  }
+}
@@ -59,9 +59,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 /**
  * Dora Cache file system implementation.
@@ -153,6 +158,64 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     }
   }
 
+  /**
+   * Gets the statuses of multiple files or directories, with batched requests sent to the workers
+   * in parallel instead of one request per path.
+   *
+   * @param paths the paths
+   * @param options the options applied to all paths, over the defaults of the path configuration
+   *                of each path as in {@link #getStatus(AlluxioURI, GetStatusPOptions)}
+   * @return the statuses of the existing paths, keyed by path in the order of the given paths
+   */
+  public Map<AlluxioURI, URIStatus> getStatuses(List<AlluxioURI> paths,
+      GetStatusPOptions options) throws IOException, AlluxioException {
+    if (mMetadataCacheEnabled) {
+      Map<String, AlluxioURI> ufsPaths = new LinkedHashMap<>();
+      // the paths are looked up in one batch per set of merged options, usually a single one
+      Map<GetStatusPOptions, List<String>> batches = new LinkedHashMap<>();
+      for (AlluxioURI path : paths) {
+        String ufsPath = convertAlluxioPathToUFSPath(path).toString();
+        if (ufsPaths.put(ufsPath, path) != null) {
+          continue;
+        }
+        GetStatusPOptions mergedOptions = FileSystemOptionsUtils.getStatusDefaults(
+            mFsContext.getPathConf(path)).toBuilder().mergeFrom(options).build();
+        batches.computeIfAbsent(mergedOptions, k -> new ArrayList<>()).add(ufsPath);
+      }
+      try {
+        Map<String, URIStatus> statuses = new HashMap<>();
+        for (Map.Entry<GetStatusPOptions, List<String>> batch : batches.entrySet()) {
+          statuses.putAll(mDoraClient.getStatuses(batch.getValue(), batch.getKey()));
+        }
+        Map<AlluxioURI, URIStatus> result = new LinkedHashMap<>();
+        ufsPaths.forEach((ufsPath, path) -> {
+          URIStatus status = statuses.get(ufsPath);
+          if (status != null) {
+            result.put(path, status);
+          }
+        });
+        return result;
+      } catch (RuntimeException ex) {
+        if (!mUfsFallbackEnabled) {
+          throw ex;
+        }
+        UFS_FALLBACK_COUNTER.inc();
+        LOG.debug("Dora client batch get status error ({} times). Fall back to UFS.",
+            UFS_FALLBACK_COUNTER.getCount(), ex);
+      }
+    }
+    Map<AlluxioURI, URIStatus> result = new LinkedHashMap<>();
+    for (AlluxioURI path : paths) {
+      try {
+        result.put(path, mDelegatedFileSystem.getStatus(convertAlluxioPathToUFSPath(path),
+            options));
+      } catch (FileDoesNotExistException e) {
+        // only the statuses of the existing paths are returned
+      }
+    }
+    return result;
+  }
+
   @Override
   public FileInStream openFile(AlluxioURI path, OpenFilePOptions options)
       throws IOException, AlluxioException {
@@ -228,28 +291,57 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   @Override
   public List<URIStatus> listStatus(AlluxioURI path, ListStatusPOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException {
+    List<URIStatus> statuses = new ArrayList<>();
+    // the statuses received before a failure are dropped, so the listing can fall back to UFS
+    AlluxioURI fallbackPath = listStatusFromWorker(path, options, statuses::add, true);
+    if (fallbackPath != null) {
+      return mDelegatedFileSystem.listStatus(fallbackPath, options);
+    }
+    return statuses;
+  }
+
+  /**
+   * Lists a path through the worker, passing the statuses to the action as they arrive. A path
+   * that does not exist is listed as empty.
+   *
+   * @param path the Alluxio path to list
+   * @param options the list status options
+   * @param action the action applied to each status
+   * @param restartable whether the listing can fall back to UFS after statuses were passed to the
+   *        action
+   * @return the UFS path to list instead if the listing falls back to UFS, null otherwise
+   * @throws IOException if the worker denies the listing
+   */
+  @Nullable
+  private AlluxioURI listStatusFromWorker(AlluxioURI path, ListStatusPOptions options,
+      Consumer<? super URIStatus> action, boolean restartable) throws IOException {
     AlluxioURI ufsFullPath = convertAlluxioPathToUFSPath(path);
     ufsFullPath = new AlluxioURI(PathUtils.normalizePath(ufsFullPath.toString(), "/"));
 
+    AtomicBoolean iterated = new AtomicBoolean(false);
     try {
       ListStatusPOptions mergedOptions = FileSystemOptionsUtils.listStatusDefaults(
           mFsContext.getPathConf(path)).toBuilder().mergeFrom(options).build();
 
-      return mDoraClient.listStatus(ufsFullPath.toString(), mergedOptions);
+      mDoraClient.iterateStatus(ufsFullPath.toString(), mergedOptions, status -> {
+        iterated.set(true);
+        action.accept(status);
+      });
+      return null;
     } catch (RuntimeException ex) {
       if (ex instanceof StatusRuntimeException) {
         if (((StatusRuntimeException) ex).getStatus().getCode() == Status.NOT_FOUND.getCode()) {
-          return Collections.emptyList();
+          return null;
         }
       }
-      if (!mUfsFallbackEnabled) {
+      if (!mUfsFallbackEnabled || (iterated.get() && !restartable)) {
         throw ex;
       }
 
       UFS_FALLBACK_COUNTER.inc();
       LOG.debug("Dora client list status error ({} times). Fall back to UFS.",
           UFS_FALLBACK_COUNTER.getCount(), ex);
-      return mDelegatedFileSystem.listStatus(ufsFullPath, options);
+      return ufsFullPath;
     }
   }
 
@@ -275,7 +367,9 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
       outStreamOptions.setMountId(status.getMountId());
       outStreamOptions.setAcl(status.getAcl());
 
-      FileOutStream ufsOutStream = mDelegatedFileSystem.createFile(ufsFullPath, options);
+      // with ASYNC_THROUGH, the worker uploads the file to UFS instead
+      FileOutStream ufsOutStream = outStreamOptions.getUnderStorageType().isSyncPersist()
+          ? mDelegatedFileSystem.createFile(ufsFullPath, options) : null;
 
       FileOutStream doraOutStream = mDoraClient.getOutStream(ufsFullPath, mFsContext,
           outStreamOptions, ufsOutStream, uuid);
@@ -357,7 +451,12 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public void iterateStatus(AlluxioURI path, ListStatusPOptions options,
                             Consumer<? super URIStatus> action)
       throws FileDoesNotExistException, IOException, AlluxioException {
-    listStatus(path, options).forEach(action);
+    // statuses are passed to the action as they arrive, so that large listings are not kept
+    // in memory; the listing only falls back to UFS if it fails before any status arrives
+    AlluxioURI fallbackPath = listStatusFromWorker(path, options, action, false);
+    if (fallbackPath != null) {
+      mDelegatedFileSystem.iterateStatus(fallbackPath, options, action);
+    }
   }
 
   @Override
@@ -17,6 +17,7 @@ import alluxio.client.UnderStorageType;
 import alluxio.client.file.dora.DoraCacheClient;
 import alluxio.client.file.dora.netty.NettyDataWriter;
 import alluxio.client.file.options.OutStreamOptions;
+import alluxio.conf.PropertyKey;
 import alluxio.exception.PreconditionMessage;
 import alluxio.grpc.CompleteFilePOptions;
 import alluxio.grpc.FileSystemMasterCommonPOptions;
@@ -28,10 +29,13 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.io.Closer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -41,6 +45,9 @@ import javax.annotation.concurrent.ThreadSafe;
  * Alluxio space in the local machine or remote machines. If the {@link UnderStorageType} is
  * {@link UnderStorageType#SYNC_PERSIST}, another stream will write the data to the under storage
  * system.
+ * <p>
+ * Small writes are coalesced in a buffer of up to a packet, which is sent to the worker and the
+ * under storage when it is full, or when the stream is flushed or closed.
  */
 @NotThreadSafe
 public class DoraFileOutStream extends FileOutStream {
@@ -68,6 +75,12 @@ public class DoraFileOutStream extends FileOutStream {
 
   private final String mUuid;
 
+  /** The size of the buffer to coalesce small writes, 0 if writes are not buffered. */
+  private final int mWriteBufferSize;
+  /** The buffer of the bytes written but not sent yet, allocated from a pool when written. */
+  @Nullable
+  private ByteBuf mCurrentChunk;
+
   /**
    * Creates a new file output stream.
    *
@@ -100,6 +113,10 @@ public class DoraFileOutStream extends FileOutStream {
       mCanceled = false;
       mWriteToAlluxio = mAlluxioStorageType.isStore();
       mBytesWritten = 0;
+      // a chunk is sent to the worker as a single packet
+      mWriteBufferSize = (int) Math.min(
+          context.getClusterConf().getBytes(PropertyKey.DORA_CLIENT_WRITE_BUFFER_SIZE),
+          dataWriter.chunkSize());
 
       if (mUnderStorageType.isSyncPersist()) {
         // Write is through to the under storage, create mUnderStorageOutputStream.
@@ -123,8 +140,20 @@ public class DoraFileOutStream extends FileOutStream {
     if (mClosed) {
       return;
     }
+    IOException sendError = null;
     try (Timer.Context ctx = MetricsSystem
             .uniformTimer(MetricKey.CLOSE_ALLUXIO_OUTSTREAM_LATENCY.getName()).time()) {
+      try {
+        if (!mCanceled) {
+          sendCurrentChunk();
+        }
+      } catch (Exception e) {
+        // the buffered bytes are lost, so the file is canceled rather than completed truncated
+        sendError = e instanceof IOException ? (IOException) e : new IOException(e);
+        mCanceled = true;
+      } finally {
+        releaseCurrentChunk();
+      }
       try {
         if (mAlluxioStorageType.isStore()) {
           if (mCanceled) {
@@ -163,23 +192,29 @@ public class DoraFileOutStream extends FileOutStream {
         }
       }
 
-      CompleteFilePOptions options = CompleteFilePOptions.newBuilder()
-          .setUfsLength(mNettyDataWriter.pos())
-          .setCommonOptions(FileSystemMasterCommonPOptions.newBuilder().build())
-          .setContentHash("HASH-256") // compute hash here
-          .build();
-      mClosed = true;
-      mDoraClient.completeFile(mUri.toString(), options, mUuid);
+      if (sendError == null) {
+        CompleteFilePOptions options = CompleteFilePOptions.newBuilder()
+            .setUfsLength(mNettyDataWriter.pos())
+            .setCommonOptions(FileSystemMasterCommonPOptions.newBuilder().build())
+            .setContentHash("HASH-256") // compute hash here
+            .build();
+        mClosed = true;
+        mDoraClient.completeFile(mUri.toString(), options, mUuid);
+      }
     } catch (Exception e) {
       // Ignore.
     } finally {
       mClosed = true;
       mCloser.close();
     }
+    if (sendError != null) {
+      throw sendError;
+    }
   }
 
   @Override
   public void flush() throws IOException {
+    sendCurrentChunk();
     mNettyDataWriter.flush();
     if (mUnderStorageType.isSyncPersist()) {
       mUnderStorageOutputStream.flush();
@@ -203,6 +238,17 @@ public class DoraFileOutStream extends FileOutStream {
   }
 
   private void writeInternal(int b) throws IOException {
+    if (mWriteBufferSize > 0) {
+      if (mCurrentChunk == null) {
+        mCurrentChunk = PooledByteBufAllocator.DEFAULT.buffer(mWriteBufferSize, mWriteBufferSize);
+      }
+      mCurrentChunk.writeByte(b);
+      if (!mCurrentChunk.isWritable()) {
+        sendCurrentChunk();
+      }
+      mBytesWritten++;
+      return;
+    }
     if (mWriteToAlluxio) {
       Integer intVal = b;
       byte[] bytes = new byte[]{intVal.byteValue()};
@@ -222,6 +268,25 @@ public class DoraFileOutStream extends FileOutStream {
     Preconditions.checkArgument(off >= 0 && len >= 0 && len + off <= b.length,
         PreconditionMessage.ERR_BUFFER_STATE.toString(), b.length, off, len);
 
+    if (len < mWriteBufferSize) {
+      int written = 0;
+      while (written < len) {
+        if (mCurrentChunk == null) {
+          mCurrentChunk =
+              PooledByteBufAllocator.DEFAULT.buffer(mWriteBufferSize, mWriteBufferSize);
+        }
+        int toWrite = Math.min(len - written, mCurrentChunk.writableBytes());
+        mCurrentChunk.writeBytes(b, off + written, toWrite);
+        written += toWrite;
+        if (!mCurrentChunk.isWritable()) {
+          sendCurrentChunk();
+        }
+      }
+      mBytesWritten += len;
+      return;
+    }
+    // large writes are sent directly after the bytes written before them
+    sendCurrentChunk();
     if (mWriteToAlluxio) {
       mNettyDataWriter.writeChunk(b, off, len);
       Metrics.BYTES_WRITTEN_ALLUXIO.inc(len);
@@ -233,6 +298,46 @@ public class DoraFileOutStream extends FileOutStream {
     mBytesWritten += len;
   }
 
+  /**
+   * Sends the buffered bytes to the worker and the under storage, and returns the buffer to the
+   * pool.
+   */
+  private void sendCurrentChunk() throws IOException {
+    if (mCurrentChunk == null) {
+      return;
+    }
+    ByteBuf chunk = mCurrentChunk;
+    mCurrentChunk = null;
+    try {
+      int length = chunk.readableBytes();
+      if (length == 0) {
+        return;
+      }
+      if (mUnderStorageType.isSyncPersist()) {
+        chunk.getBytes(chunk.readerIndex(), mUnderStorageOutputStream, length);
+        Metrics.BYTES_WRITTEN_UFS.inc(length);
+      }
+      if (mWriteToAlluxio) {
+        // the writer takes over the chunk, and releases it once it is sent or fails to be sent
+        ByteBuf toSend = chunk;
+        chunk = null;
+        mNettyDataWriter.writeChunk(toSend);
+        Metrics.BYTES_WRITTEN_ALLUXIO.inc(length);
+      }
+    } finally {
+      if (chunk != null) {
+        chunk.release();
+      }
+    }
+  }
+
+  private void releaseCurrentChunk() {
+    if (mCurrentChunk != null) {
+      mCurrentChunk.release();
+      mCurrentChunk = null;
+    }
+  }
+
   /**
    * Class that contains metrics about FileOutStream.
    */
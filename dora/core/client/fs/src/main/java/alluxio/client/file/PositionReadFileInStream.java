@@ -27,6 +27,7 @@ import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Objects;
+import javax.annotation.Nullable;
 
 /**
  * Implementation of {@link FileInStream} that reads from a dora cache if possible.
@@ -38,6 +39,11 @@ public class PositionReadFileInStream extends FileInStream {
   private boolean mClosed;
   private final PositionReader mPositionReader;
   private final PrefetchCache mCache;
+  @Nullable
+  private final AsyncReadAhead mReadAhead;
+  /** The read-ahead of positioned reads, whose pattern is separate from the stream reads. */
+  @Nullable
+  private final AsyncReadAhead mPositionedReadAhead;
 
   private static class PrefetchCache implements AutoCloseable {
     private final long mFileLength;
@@ -162,6 +168,32 @@ public class PositionReadFileInStream extends FileInStream {
     mLength = length;
     mCache = new PrefetchCache(
         Configuration.getInt(PropertyKey.USER_POSITION_READER_STREAMING_MULTIPLIER), mLength);
+    if (Configuration.getBoolean(PropertyKey.USER_POSITION_READER_READ_AHEAD_ENABLED)) {
+      mReadAhead = AsyncReadAhead.create(reader, length, Configuration.global());
+      mPositionedReadAhead = AsyncReadAhead.create(reader, length, Configuration.global());
+    } else {
+      mReadAhead = null;
+      mPositionedReadAhead = null;
+    }
+  }
+
+  /**
+   * Creates a stream which reads ahead asynchronously with the given read-ahead.
+   *
+   * @param reader the position reader
+   * @param length the file length
+   * @param readAhead the read-ahead of the stream reads
+   * @param positionedReadAhead the read-ahead of the positioned reads
+   */
+  @VisibleForTesting
+  PositionReadFileInStream(PositionReader reader, long length, AsyncReadAhead readAhead,
+      AsyncReadAhead positionedReadAhead) {
+    mPositionReader = reader;
+    mLength = length;
+    mCache = new PrefetchCache(
+        Configuration.getInt(PropertyKey.USER_POSITION_READER_STREAMING_MULTIPLIER), mLength);
+    mReadAhead = readAhead;
+    mPositionedReadAhead = positionedReadAhead;
   }
 
   @Override
@@ -193,6 +225,13 @@ public class PositionReadFileInStream extends FileInStream {
   @Override
   public int read(ByteBuffer byteBuffer, int off, int len) throws IOException {
     byteBuffer.position(off).limit(off + len);
+    if (mReadAhead != null) {
+      int bytesRead = mReadAhead.read(mPos, byteBuffer);
+      if (bytesRead > 0) {
+        mPos += bytesRead;
+      }
+      return bytesRead;
+    }
     mCache.addTrace(mPos, len);
     int totalBytesRead = 0;
     int bytesReadFromCache = mCache.fillWithCache(mPos, byteBuffer);
@@ -231,6 +270,9 @@ public class PositionReadFileInStream extends FileInStream {
       throws IOException {
     long pos = position;
     ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, offset, len);
+    if (mPositionedReadAhead != null) {
+      return mPositionedReadAhead.read(position, byteBuffer);
+    }
     mCache.addTrace(position, len);
     int totalBytesRead = 0;
     int bytesReadFromCache = mCache.fillWithCache(pos, byteBuffer);
@@ -298,6 +340,12 @@ public class PositionReadFileInStream extends FileInStream {
       return;
     }
     mClosed = true;
+    if (mReadAhead != null) {
+      mReadAhead.close();
+    }
+    if (mPositionedReadAhead != null) {
+      mPositionedReadAhead.close();
+    }
     mPositionReader.close();
     mCache.close();
   }
@@ -19,6 +19,7 @@ import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
 
@@ -110,7 +111,10 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
      */
     public static CacheManager create(AlluxioConfiguration conf) throws IOException {
       CacheManagerOptions options = CacheManagerOptions.create(conf);
-      return create(conf, options, PageMetaStore.create(options));
+      // the memory tier is configured by the client cache properties, so only the client cache
+      // is tiered
+      return create(conf, options, PageMetaStore.create(options),
+          conf.getBytes(PropertyKey.USER_CLIENT_CACHE_MEMORY_TIER_SIZE) > 0);
     }
 
     /**
@@ -121,6 +125,11 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
      */
     public static CacheManager create(AlluxioConfiguration conf,
         CacheManagerOptions options, PageMetaStore pageMetaStore) throws IOException {
+      return create(conf, options, pageMetaStore, false);
+    }
+
+    private static CacheManager create(AlluxioConfiguration conf, CacheManagerOptions options,
+        PageMetaStore pageMetaStore, boolean isTiered) throws IOException {
       try {
         boolean isShadowCacheEnabled =
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_SHADOW_ENABLED);
@@ -130,12 +139,14 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
         if (isNettyDataTransmissionEnable) {
           options.setIsAsyncWriteEnabled(false);
         }
+        CacheManager cacheManager = isTiered
+            ? TieredCacheManager.create(conf, options, pageMetaStore)
+            : LocalCacheManager.create(options, pageMetaStore);
         if (isShadowCacheEnabled) {
           return new NoExceptionCacheManager(
-              new CacheManagerWithShadowCache(LocalCacheManager.create(options, pageMetaStore),
-                  conf));
+              new CacheManagerWithShadowCache(cacheManager, conf));
         }
-        return new NoExceptionCacheManager(LocalCacheManager.create(options, pageMetaStore));
+        return new NoExceptionCacheManager(cacheManager);
       } catch (IOException e) {
         Metrics.CREATE_ERRORS.inc();
         LOG.error("Failed to create CacheManager", e);
@@ -293,7 +304,8 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
 
   /**
    * Reads a part of a page if the queried page is found in the cache, stores the result in buffer.
-   * Loads the page otherwise.
+   * Loads the page otherwise. Implementations may coalesce concurrent loads of the same page into
+   * a single call to the external data supplier.
    *
    * @param pageId page identifier
    * @param pageOffset offset into the page
@@ -306,6 +318,16 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
       ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier);
 
+  /**
+   * Checks whether a page is cached, without reading it or updating its recency.
+   *
+   * @param pageId page identifier
+   * @return true if the page is cached; false if it is not, or if the cache cannot tell
+   */
+  default boolean hasPage(PageId pageId) {
+    return false;
+  }
+
   /**
    * Get page ids by the given file id.
    * @param fileId file identifier
@@ -316,6 +338,26 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Pins the pages of a file, e.g. pages which are not persisted elsewhere yet, so that they are
+   * not evicted until the file is unpinned. Pinning a file more than once requires unpinning it
+   * as many times.
+   *
+   * @param fileId the file id
+   */
+  default void pinFile(String fileId) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Unpins the pages of a file pinned by {@link #pinFile(String)}.
+   *
+   * @param fileId the file id
+   */
+  default void unpinFile(String fileId) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Deletes all pages of the given file.
    *
@@ -346,6 +388,24 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
    */
   boolean append(PageId pageId, int appendAt, byte[] page, CacheContext cacheContext);
 
+  /**
+   * Appends the remaining bytes of a buffer to a page, e.g. a slice of a network buffer, which
+   * may be reused by the caller once this method returns. By default, the bytes are copied and
+   * appended as an array.
+   *
+   * @param pageId page identifier
+   * @param appendAt the current size of the page, where the bytes are appended
+   * @param page the bytes to append
+   * @param cacheContext cache related context
+   * @return true if append was successful
+   */
+  default boolean append(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
+    byte[] bytes = new byte[page.remaining()];
+    page.get(bytes);
+    return append(pageId, appendAt, bytes, cacheContext);
+  }
+
   /**
    * Invalidate the pages that match the given predicate.
    * @param predicate
@@ -363,6 +423,16 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
    */
   void commitFile(String fileId);
 
+  /**
+   * Syncs the pages of a committed file to the storage of the page store, so that they are not
+   * lost when the process or the host restarts.
+   *
+   * @param fileId the file ID
+   */
+  default void syncFile(String fileId) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Get a {@link DataFileChannel} which wraps a {@link io.netty.channel.FileRegion}.
    * @param pageId the page id
@@ -374,4 +444,22 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   Optional<DataFileChannel> getDataFileChannel(
       PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
       throws PageNotFoundException;
+
+  /**
+   * Get a {@link DataBuffer} which reads from the page without copying it, such as a
+   * {@link DataFileChannel} for a page file or a reference-counted slice of a page in memory.
+   * The caller takes ownership of the buffer and must release it.
+   *
+   * @param pageId the page id
+   * @param pageOffset the offset inside the page
+   * @param bytesToRead the bytes to read
+   * @param cacheContext the cache context
+   * @return the buffer, or empty if the page cannot be read without copying
+   */
+  default Optional<DataBuffer> getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
+      throws PageNotFoundException {
+    return getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext)
+        .map(DataBuffer.class::cast);
+  }
 }
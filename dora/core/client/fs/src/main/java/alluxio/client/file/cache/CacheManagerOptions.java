@@ -11,12 +11,14 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.admission.CacheAdmissionPolicyOptions;
 import alluxio.client.file.cache.evictor.CacheEvictorOptions;
 import alluxio.client.file.cache.store.PageStoreOptions;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 
 import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * Options for initiating local cache manager.
@@ -25,14 +27,21 @@ public class CacheManagerOptions {
   private boolean mAsyncRestoreEnabled;
   private boolean mAsyncWriteEnabled;
   private int mAsyncWriteThreads;
+  private CacheAdmissionPolicyOptions mCacheAdmissionPolicyOptions =
+      new CacheAdmissionPolicyOptions();
   private CacheEvictorOptions mCacheEvictorOptions;
+  private boolean mCompactMetaStoreEnabled;
   private int mMaxEvictionRetries;
   private long mPageSize;
+  private boolean mPageIndexEnabled;
+  private long mPageIndexCheckpointIntervalMs;
   private List<PageStoreOptions> mPageStoreOptions;
   private boolean mQuotaEnabled;
   private boolean mTtlEnabled;
   private long mTtlCheckIntervalSeconds;
   private long mTtlThresholdSeconds;
+  @Nullable
+  private String mTraceFile;
 
   /**
    * @param conf
@@ -44,21 +53,39 @@ public class CacheManagerOptions {
         .setIsNondeterministic(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED))
         .setLFULogBase(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE));
+    List<PageStoreOptions> pageStoreOptions = PageStoreOptions.create(conf);
+    long windowSize = conf.getInt(PropertyKey.USER_CLIENT_CACHE_ADMISSION_WINDOW_SIZE);
+    if (windowSize == 0) {
+      long cacheSize = pageStoreOptions.stream().mapToLong(PageStoreOptions::getCacheSize).sum();
+      windowSize = 2 * Math.max(1,
+          cacheSize / conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE));
+    }
+    CacheAdmissionPolicyOptions cacheAdmissionPolicyOptions = new CacheAdmissionPolicyOptions()
+        .setPolicyClass(conf.getClass(PropertyKey.USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS))
+        .setWindowSize(windowSize);
     CacheManagerOptions options = new CacheManagerOptions()
         .setAsyncRestoreEnabled(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED))
         .setAsyncWriteThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_THREADS))
         .setIsAsyncWriteEnabled(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED))
+        .setCompactMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_COMPACT_META_STORE_ENABLED))
         .setMaxEvictionRetries(conf.getInt(PropertyKey.USER_CLIENT_CACHE_EVICTION_RETRIES))
         .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
+        .setPageIndexEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_PAGE_INDEX_ENABLED))
+        .setPageIndexCheckpointIntervalMs(
+            conf.getMs(PropertyKey.USER_CLIENT_CACHE_PAGE_INDEX_CHECKPOINT_INTERVAL))
+        .setTraceFile(conf.isSet(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE)
+            ? conf.getString(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE) : null)
         .setQuotaEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_QUOTA_ENABLED))
         .setTtlEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_TTL_ENABLED))
         .setTtlCheckIntervalSeconds(
             conf.getLong(PropertyKey.USER_CLIENT_CACHE_TTL_CHECK_INTERVAL_SECONDS))
         .setTtlThresholdSeconds(conf.getLong(PropertyKey.USER_CLIENT_CACHE_TTL_THRESHOLD_SECONDS))
+        .setCacheAdmissionPolicyOptions(cacheAdmissionPolicyOptions)
         .setCacheEvictorOptions(cacheEvictorOptions)
-        .setPageStoreOptions(PageStoreOptions.create(conf));
+        .setPageStoreOptions(pageStoreOptions);
     return options;
   }
 
@@ -78,8 +105,15 @@ public class CacheManagerOptions {
         .setAsyncWriteThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_THREADS))
         .setIsAsyncWriteEnabled(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED))
+        .setCompactMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_COMPACT_META_STORE_ENABLED))
         .setMaxEvictionRetries(conf.getInt(PropertyKey.WORKER_PAGE_STORE_EVICTION_RETRIES))
         .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
+        .setPageIndexEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_PAGE_INDEX_ENABLED))
+        .setPageIndexCheckpointIntervalMs(
+            conf.getMs(PropertyKey.WORKER_PAGE_STORE_PAGE_INDEX_CHECKPOINT_INTERVAL))
+        .setTraceFile(conf.isSet(PropertyKey.WORKER_PAGE_STORE_TRACE_FILE)
+            ? conf.getString(PropertyKey.WORKER_PAGE_STORE_TRACE_FILE) : null)
         .setQuotaEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED))
         .setCacheEvictorOptions(cacheEvictorOptions)
         .setPageStoreOptions(PageStoreOptions.createForWorkerPageStore(conf));
@@ -92,6 +126,30 @@ public class CacheManagerOptions {
   public CacheManagerOptions() {
   }
 
+  /**
+   * @return a copy of these options, which can be updated without changing these options
+   */
+  public CacheManagerOptions copy() {
+    CacheManagerOptions copy = new CacheManagerOptions();
+    copy.mAsyncRestoreEnabled = mAsyncRestoreEnabled;
+    copy.mAsyncWriteEnabled = mAsyncWriteEnabled;
+    copy.mAsyncWriteThreads = mAsyncWriteThreads;
+    copy.mCacheAdmissionPolicyOptions = mCacheAdmissionPolicyOptions;
+    copy.mCacheEvictorOptions = mCacheEvictorOptions;
+    copy.mCompactMetaStoreEnabled = mCompactMetaStoreEnabled;
+    copy.mMaxEvictionRetries = mMaxEvictionRetries;
+    copy.mPageSize = mPageSize;
+    copy.mPageIndexEnabled = mPageIndexEnabled;
+    copy.mPageIndexCheckpointIntervalMs = mPageIndexCheckpointIntervalMs;
+    copy.mPageStoreOptions = mPageStoreOptions;
+    copy.mQuotaEnabled = mQuotaEnabled;
+    copy.mTtlEnabled = mTtlEnabled;
+    copy.mTtlCheckIntervalSeconds = mTtlCheckIntervalSeconds;
+    copy.mTtlThresholdSeconds = mTtlThresholdSeconds;
+    copy.mTraceFile = mTraceFile;
+    return copy;
+  }
+
   /**
    * @return if async restore is enabled
    */
@@ -113,6 +171,13 @@ public class CacheManagerOptions {
     return mAsyncWriteThreads;
   }
 
+  /**
+   * @return if the compact page meta store is enabled
+   */
+  public boolean isCompactMetaStoreEnabled() {
+    return mCompactMetaStoreEnabled;
+  }
+
   /**
    * @return if quota is enabled
    */
@@ -156,6 +221,28 @@ public class CacheManagerOptions {
     return mPageSize;
   }
 
+  /**
+   * @return if the persistent page index is enabled
+   */
+  public boolean isPageIndexEnabled() {
+    return mPageIndexEnabled;
+  }
+
+  /**
+   * @return the interval to checkpoint the page index in ms
+   */
+  public long getPageIndexCheckpointIntervalMs() {
+    return mPageIndexCheckpointIntervalMs;
+  }
+
+  /**
+   * @return the file to record the page accesses to, or null if they are not recorded
+   */
+  @Nullable
+  public String getTraceFile() {
+    return mTraceFile;
+  }
+
   /**
    * @return the list of PageStoreOptions
    */
@@ -163,6 +250,13 @@ public class CacheManagerOptions {
     return mPageStoreOptions;
   }
 
+  /**
+   * @return the options of cache admission policy
+   */
+  public CacheAdmissionPolicyOptions getCacheAdmissionPolicyOptions() {
+    return mCacheAdmissionPolicyOptions;
+  }
+
   /**
    * @return the options of cache evictor
    */
@@ -197,6 +291,16 @@ public class CacheManagerOptions {
     return this;
   }
 
+  /**
+   * @param cacheAdmissionPolicyOptions
+   * @return the updated options
+   */
+  public CacheManagerOptions setCacheAdmissionPolicyOptions(
+      CacheAdmissionPolicyOptions cacheAdmissionPolicyOptions) {
+    mCacheAdmissionPolicyOptions = cacheAdmissionPolicyOptions;
+    return this;
+  }
+
   /**
    * @param cacheEvictorOptions
    * @return the updated options
@@ -224,6 +328,42 @@ public class CacheManagerOptions {
     return this;
   }
 
+  /**
+   * @param isCompactMetaStoreEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setCompactMetaStoreEnabled(boolean isCompactMetaStoreEnabled) {
+    mCompactMetaStoreEnabled = isCompactMetaStoreEnabled;
+    return this;
+  }
+
+  /**
+   * @param isPageIndexEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setPageIndexEnabled(boolean isPageIndexEnabled) {
+    mPageIndexEnabled = isPageIndexEnabled;
+    return this;
+  }
+
+  /**
+   * @param checkpointIntervalMs
+   * @return the updated options
+   */
+  public CacheManagerOptions setPageIndexCheckpointIntervalMs(long checkpointIntervalMs) {
+    mPageIndexCheckpointIntervalMs = checkpointIntervalMs;
+    return this;
+  }
+
+  /**
+   * @param traceFile the file to record the page accesses to, or null to not record them
+   * @return the updated options
+   */
+  public CacheManagerOptions setTraceFile(@Nullable String traceFile) {
+    mTraceFile = traceFile;
+    return this;
+  }
+
   /**
    * @param isQuotaEnabled
    * @return the updated options
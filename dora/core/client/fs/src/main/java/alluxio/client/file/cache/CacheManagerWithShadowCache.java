@@ -20,6 +20,7 @@ import alluxio.exception.PageNotFoundException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
@@ -27,6 +28,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.PrimitiveSink;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -55,6 +57,11 @@ public class CacheManagerWithShadowCache implements CacheManager {
     mCacheManager.commitFile(fileId);
   }
 
+  @Override
+  public void syncFile(String fileId) throws IOException {
+    mCacheManager.syncFile(fileId);
+  }
+
   @Override
   public boolean put(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
     updateShadowCache(pageId, page.remaining(), cacheContext);
@@ -158,6 +165,12 @@ public class CacheManagerWithShadowCache implements CacheManager {
     return mCacheManager.append(pageId, appendAt, page, cacheContext);
   }
 
+  @Override
+  public boolean append(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
+    return mCacheManager.append(pageId, appendAt, page, cacheContext);
+  }
+
   @Override
   public void close() throws Exception {
     mCacheManager.close();
@@ -168,6 +181,21 @@ public class CacheManagerWithShadowCache implements CacheManager {
     mCacheManager.deleteFile(fileId);
   }
 
+  @Override
+  public boolean hasPage(PageId pageId) {
+    return mCacheManager.hasPage(pageId);
+  }
+
+  @Override
+  public void pinFile(String fileId) {
+    mCacheManager.pinFile(fileId);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mCacheManager.unpinFile(fileId);
+  }
+
   @Override
   public Optional<CacheUsage> getUsage() {
     return mCacheManager.getUsage();
@@ -179,6 +207,12 @@ public class CacheManagerWithShadowCache implements CacheManager {
     return mCacheManager.getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext);
   }
 
+  @Override
+  public Optional<DataBuffer> getDataBuffer(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) throws PageNotFoundException {
+    return mCacheManager.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+  }
+
   /**
    * Decrease each item's clock and clean stale items.
    */
@@ -110,6 +110,71 @@ public interface CacheUsage extends CacheUsageView {
     static ScopePartition scope(CacheScope scope) {
       return new ScopePartition(scope);
     }
+
+    /**
+     * Creates a partition of a cache tier.
+     *
+     * @param tier the cache tier
+     * @return the partition
+     */
+    static TierPartition tier(TierPartition.Tier tier) {
+      return new TierPartition(tier);
+    }
+  }
+
+  /**
+   * Partition on a tier of a tiered cache.
+   */
+  final class TierPartition implements PartitionDescriptor<TierPartition.Tier> {
+    /**
+     * Tiers of a tiered cache.
+     */
+    public enum Tier {
+      /** The memory tier in front of the cache directories. */
+      MEMORY,
+      /** The cache directories. */
+      DISK,
+    }
+
+    private final Tier mTier;
+
+    /**
+     * Creates a partition over a cache tier.
+     *
+     * @param tier the cache tier
+     */
+    public TierPartition(Tier tier) {
+      mTier = tier;
+    }
+
+    @Override
+    public Tier getIdentifier() {
+      return mTier;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TierPartition that = (TierPartition) o;
+      return mTier == that.mTier;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(mTier);
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("tier", mTier)
+          .toString();
+    }
   }
 
   /**
@@ -0,0 +1,421 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.quota.CacheScope;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A page table optimized for memory footprint, for caches holding a very large number of pages.
+ * <p>
+ * Each file id is stored once, and the info of each page is stored in slots of primitive arrays
+ * instead of a {@link PageInfo} object per page. The pages of a file are indexed by an open
+ * addressing hash map from page index to slot, so a cached page costs a few dozen bytes of heap
+ * and no object. The {@link PageInfo} objects returned are created on access and not retained by
+ * the table. Once most of the slots are free after pages are removed, the pages are moved into
+ * smaller arrays.
+ */
+@NotThreadSafe
+public class CompactPageTable implements PageTable {
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int NO_SLOT = -1;
+
+  /** Files with pages in the table, by file id. */
+  private final Map<String, FileEntry> mFiles = new HashMap<>();
+
+  private final Interner<PageStoreDir> mDirs = new Interner<>();
+  private final Interner<CacheScope> mScopes = new Interner<>();
+
+  // columns of page info, indexed by slot
+  private long[] mPageIndexes = new long[INITIAL_CAPACITY];
+  private int[] mPageSizes = new int[INITIAL_CAPACITY];
+  private long[] mCreatedTimes = new long[INITIAL_CAPACITY];
+  private int[] mPageDirs = new int[INITIAL_CAPACITY];
+  private int[] mPageScopes = new int[INITIAL_CAPACITY];
+  private final IntStack mFreeSlots = new IntStack();
+  private int mNextSlot;
+  private int mSize;
+
+  @Override
+  public boolean contains(PageId pageId) {
+    FileEntry file = mFiles.get(pageId.getFileId());
+    return file != null && file.mSlots.get(pageId.getPageIndex()) != NO_SLOT;
+  }
+
+  @Override
+  @Nullable
+  public PageInfo get(PageId pageId) {
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      return null;
+    }
+    int slot = file.mSlots.get(pageId.getPageIndex());
+    if (slot == NO_SLOT) {
+      return null;
+    }
+    return toPageInfo(slot, pageId);
+  }
+
+  @Override
+  public boolean add(PageInfo pageInfo) {
+    Preconditions.checkArgument(pageInfo.getPageSize() <= Integer.MAX_VALUE,
+        "page size %s is too large", pageInfo.getPageSize());
+    PageId pageId = pageInfo.getPageId();
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      file = new FileEntry(pageId.getFileId());
+      mFiles.put(file.mFileId, file);
+    } else if (file.mSlots.get(pageId.getPageIndex()) != NO_SLOT) {
+      return false;
+    }
+    int slot = allocateSlot();
+    mPageIndexes[slot] = pageId.getPageIndex();
+    mPageSizes[slot] = (int) pageInfo.getPageSize();
+    mCreatedTimes[slot] = pageInfo.getCreatedTimestamp();
+    mPageDirs[slot] = mDirs.intern(pageInfo.getLocalCacheDir());
+    mPageScopes[slot] = mScopes.intern(pageInfo.getScope());
+    file.mSlots.put(pageId.getPageIndex(), slot);
+    mSize++;
+    return true;
+  }
+
+  @Override
+  @Nullable
+  public PageInfo remove(PageId pageId) {
+    FileEntry file = mFiles.get(pageId.getFileId());
+    if (file == null) {
+      return null;
+    }
+    int slot = file.mSlots.remove(pageId.getPageIndex());
+    if (slot == NO_SLOT) {
+      return null;
+    }
+    PageInfo pageInfo = toPageInfo(slot, pageId);
+    mFreeSlots.push(slot);
+    mSize--;
+    if (file.mSlots.isEmpty()) {
+      mFiles.remove(file.mFileId);
+    }
+    if (mPageIndexes.length > INITIAL_CAPACITY && mSize < mPageIndexes.length / 4) {
+      compact(mPageIndexes.length / 2);
+    }
+    return pageInfo;
+  }
+
+  @Override
+  public Set<PageInfo> getByFileId(String fileId) {
+    FileEntry file = mFiles.get(fileId);
+    if (file == null) {
+      return Collections.emptySet();
+    }
+    Set<PageInfo> pages = new HashSet<>();
+    file.mSlots.forEachValue(slot ->
+        pages.add(toPageInfo(slot, new PageId(file.mFileId, mPageIndexes[slot]))));
+    return pages;
+  }
+
+  @Override
+  @Nullable
+  public PageInfo getFirstByFileId(String fileId) {
+    FileEntry file = mFiles.get(fileId);
+    if (file == null) {
+      return null;
+    }
+    int slot = file.mSlots.anyValue();
+    return toPageInfo(slot, new PageId(file.mFileId, mPageIndexes[slot]));
+  }
+
+  @Override
+  public int size() {
+    return mSize;
+  }
+
+  @Override
+  public void clear() {
+    mFiles.clear();
+    mDirs.clear();
+    mScopes.clear();
+    mPageIndexes = new long[INITIAL_CAPACITY];
+    mPageSizes = new int[INITIAL_CAPACITY];
+    mCreatedTimes = new long[INITIAL_CAPACITY];
+    mPageDirs = new int[INITIAL_CAPACITY];
+    mPageScopes = new int[INITIAL_CAPACITY];
+    mFreeSlots.clear();
+    mNextSlot = 0;
+    mSize = 0;
+  }
+
+  private PageInfo toPageInfo(int slot, PageId pageId) {
+    return new PageInfo(pageId, mPageSizes[slot], mScopes.get(mPageScopes[slot]),
+        mDirs.get(mPageDirs[slot]), mCreatedTimes[slot]);
+  }
+
+  /**
+   * @return the number of slots of the columns
+   */
+  @VisibleForTesting
+  int capacity() {
+    return mPageIndexes.length;
+  }
+
+  private int allocateSlot() {
+    if (!mFreeSlots.isEmpty()) {
+      return mFreeSlots.pop();
+    }
+    if (mNextSlot == mPageIndexes.length) {
+      int capacity = grow(mPageIndexes.length);
+      mPageIndexes = Arrays.copyOf(mPageIndexes, capacity);
+      mPageSizes = Arrays.copyOf(mPageSizes, capacity);
+      mCreatedTimes = Arrays.copyOf(mCreatedTimes, capacity);
+      mPageDirs = Arrays.copyOf(mPageDirs, capacity);
+      mPageScopes = Arrays.copyOf(mPageScopes, capacity);
+    }
+    return mNextSlot++;
+  }
+
+  /**
+   * Moves the pages into the first slots of columns with the given capacity, which is at least the
+   * number of pages.
+   */
+  private void compact(int capacity) {
+    long[] pageIndexes = mPageIndexes;
+    int[] pageSizes = mPageSizes;
+    long[] createdTimes = mCreatedTimes;
+    int[] pageDirs = mPageDirs;
+    int[] pageScopes = mPageScopes;
+    mPageIndexes = new long[capacity];
+    mPageSizes = new int[capacity];
+    mCreatedTimes = new long[capacity];
+    mPageDirs = new int[capacity];
+    mPageScopes = new int[capacity];
+    mFreeSlots.clear();
+    mNextSlot = 0;
+    for (FileEntry file : mFiles.values()) {
+      file.mSlots.replaceValues(slot -> {
+        int newSlot = mNextSlot++;
+        mPageIndexes[newSlot] = pageIndexes[slot];
+        mPageSizes[newSlot] = pageSizes[slot];
+        mCreatedTimes[newSlot] = createdTimes[slot];
+        mPageDirs[newSlot] = pageDirs[slot];
+        mPageScopes[newSlot] = pageScopes[slot];
+        return newSlot;
+      });
+    }
+  }
+
+  private static int grow(int capacity) {
+    Preconditions.checkState(capacity < Integer.MAX_VALUE - 8, "page table is full");
+    return (int) Math.min((long) capacity * 2, Integer.MAX_VALUE - 8);
+  }
+
+  /**
+   * A file with pages in the table.
+   */
+  private static final class FileEntry {
+    private final String mFileId;
+    private final PageSlots mSlots = new PageSlots();
+
+    private FileEntry(String fileId) {
+      mFileId = fileId;
+    }
+  }
+
+  /**
+   * An open addressing hash map from page index to slot, with linear probing and backward shift
+   * deletion so that no tombstone is left behind.
+   */
+  private static final class PageSlots {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] mKeys = new long[INITIAL_CAPACITY];
+    /** Slots of the entries, {@link #NO_SLOT} marks an empty entry. */
+    private int[] mValues = newValues(INITIAL_CAPACITY);
+    private int mSize;
+
+    int get(long key) {
+      int mask = mKeys.length - 1;
+      for (int i = index(key, mask); ; i = (i + 1) & mask) {
+        if (mValues[i] == NO_SLOT) {
+          return NO_SLOT;
+        }
+        if (mKeys[i] == key) {
+          return mValues[i];
+        }
+      }
+    }
+
+    /**
+     * Puts an entry whose key is not in the map.
+     */
+    void put(long key, int value) {
+      if ((mSize + 1) * 4 > mKeys.length * 3) {
+        resize(mKeys.length * 2);
+      }
+      int mask = mKeys.length - 1;
+      int i = index(key, mask);
+      while (mValues[i] != NO_SLOT) {
+        i = (i + 1) & mask;
+      }
+      mKeys[i] = key;
+      mValues[i] = value;
+      mSize++;
+    }
+
+    int remove(long key) {
+      int mask = mKeys.length - 1;
+      int gap = index(key, mask);
+      while (mKeys[gap] != key || mValues[gap] == NO_SLOT) {
+        if (mValues[gap] == NO_SLOT) {
+          return NO_SLOT;
+        }
+        gap = (gap + 1) & mask;
+      }
+      int removed = mValues[gap];
+      for (int i = (gap + 1) & mask; mValues[i] != NO_SLOT; i = (i + 1) & mask) {
+        // moves the entry into the gap unless the gap precedes its home position
+        int home = index(mKeys[i], mask);
+        if (((i - home) & mask) >= ((i - gap) & mask)) {
+          mKeys[gap] = mKeys[i];
+          mValues[gap] = mValues[i];
+          gap = i;
+        }
+      }
+      mValues[gap] = NO_SLOT;
+      mSize--;
+      if (mKeys.length > INITIAL_CAPACITY && mSize * 8 < mKeys.length) {
+        resize(mKeys.length / 2);
+      }
+      return removed;
+    }
+
+    boolean isEmpty() {
+      return mSize == 0;
+    }
+
+    int anyValue() {
+      for (int value : mValues) {
+        if (value != NO_SLOT) {
+          return value;
+        }
+      }
+      return NO_SLOT;
+    }
+
+    void forEachValue(IntConsumer consumer) {
+      for (int value : mValues) {
+        if (value != NO_SLOT) {
+          consumer.accept(value);
+        }
+      }
+    }
+
+    void replaceValues(IntUnaryOperator operator) {
+      for (int i = 0; i < mValues.length; i++) {
+        if (mValues[i] != NO_SLOT) {
+          mValues[i] = operator.applyAsInt(mValues[i]);
+        }
+      }
+    }
+
+    private void resize(int capacity) {
+      long[] keys = mKeys;
+      int[] values = mValues;
+      mKeys = new long[capacity];
+      mValues = newValues(capacity);
+      mSize = 0;
+      for (int i = 0; i < keys.length; i++) {
+        if (values[i] != NO_SLOT) {
+          put(keys[i], values[i]);
+        }
+      }
+    }
+
+    private static int index(long key, int mask) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int[] newValues(int capacity) {
+      int[] values = new int[capacity];
+      Arrays.fill(values, NO_SLOT);
+      return values;
+    }
+  }
+
+  /**
+   * Interns objects shared by many pages into integer handles.
+   */
+  private static final class Interner<T> {
+    private final List<T> mValues = new ArrayList<>();
+    private final Map<T, Integer> mHandles = new HashMap<>();
+
+    int intern(T value) {
+      return mHandles.computeIfAbsent(value, v -> {
+        mValues.add(v);
+        return mValues.size() - 1;
+      });
+    }
+
+    T get(int handle) {
+      return mValues.get(handle);
+    }
+
+    void clear() {
+      mValues.clear();
+      mHandles.clear();
+    }
+  }
+
+  /**
+   * A growable stack of ints.
+   */
+  private static final class IntStack {
+    private int[] mValues = new int[16];
+    private int mSize;
+
+    void push(int value) {
+      if (mSize == mValues.length) {
+        mValues = Arrays.copyOf(mValues, mSize * 2);
+      }
+      mValues[mSize++] = value;
+    }
+
+    int pop() {
+      return mValues[--mSize];
+    }
+
+    boolean isEmpty() {
+      return mSize == 0;
+    }
+
+    void clear() {
+      mValues = new int[16];
+      mSize = 0;
+    }
+  }
+}
@@ -18,8 +18,7 @@ import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.quota.CacheScope;
-import alluxio.collections.IndexDefinition;
-import alluxio.collections.IndexedSet;
+import alluxio.concurrent.StripedReadWriteLock;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.exception.PageNotFoundException;
 import alluxio.metrics.MetricKey;
@@ -34,8 +33,9 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReadWriteLock;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -48,20 +48,21 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public class DefaultPageMetaStore implements PageMetaStore {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultPageMetaStore.class);
-  /** A map from PageId to page info. */
-  private final IndexedSet<PageInfo> mPages = new IndexedSet<>(INDEX_PAGE_ID, INDEX_FILE_ID);
+  /** A table of page info indexed by PageId and file id. */
+  private final PageTable mPages;
   private final ImmutableList<PageStoreDir> mDirs;
   /** The number of logical bytes used. */
   private final AtomicLong mBytes = new AtomicLong(0);
+  /** The number of pins of each pinned file, which are updated without the lock. */
+  private final ConcurrentHashMap<String, Integer> mPinnedFiles = new ConcurrentHashMap<>();
 
-  protected final ReentrantReadWriteLock mLock = new ReentrantReadWriteLock();
+  /**
+   * Lock of the meta store, striped as pages are looked up by many concurrent readers while
+   * updates are short and less frequent.
+   */
+  protected final ReadWriteLock mLock = new StripedReadWriteLock();
   private final Allocator mAllcator;
 
-  private static final IndexDefinition<PageInfo, PageId> INDEX_PAGE_ID =
-      IndexDefinition.ofUnique(PageInfo::getPageId);
-  private static final IndexDefinition<PageInfo, String> INDEX_FILE_ID =
-      IndexDefinition.ofNonUnique(pageInfo -> pageInfo.getPageId().getFileId());
-
   /**
    * @param dirs storage directories
    */
@@ -76,22 +77,34 @@ public class DefaultPageMetaStore implements PageMetaStore {
    * @param allocator storage allocator
    */
   public DefaultPageMetaStore(List<PageStoreDir> dirs, Allocator allocator) {
+    this(dirs, allocator, new IndexedSetPageTable());
+  }
+
+  /**
+   * Constructor of DefaultMetaStore.
+   *
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   * @param pages the table to keep page info in
+   */
+  public DefaultPageMetaStore(List<PageStoreDir> dirs, Allocator allocator, PageTable pages) {
     mDirs = ImmutableList.copyOf(requireNonNull(dirs));
     mAllcator = requireNonNull(allocator);
+    mPages = requireNonNull(pages);
     //metrics for the num of pages stored in the cache
     MetricsSystem.registerGaugeIfAbsent(MetricKey.CLIENT_CACHE_PAGES.getName(),
         mPages::size);
   }
 
   @Override
-  public ReentrantReadWriteLock getLock() {
+  public ReadWriteLock getLock() {
     return mLock;
   }
 
   @Override
   @GuardedBy("getLock()")
   public boolean hasPage(PageId pageId) {
-    return mPages.contains(INDEX_PAGE_ID, pageId);
+    return mPages.contains(pageId);
   }
 
   @Override
@@ -118,7 +131,7 @@ public class DefaultPageMetaStore implements PageMetaStore {
   @Override
   @GuardedBy("getLock().writeLock()")
   public void commitFile(String fileId, String newFileId) throws PageNotFoundException {
-    Set<PageInfo> pages = mPages.getByField(INDEX_FILE_ID, fileId);
+    Set<PageInfo> pages = mPages.getByFileId(fileId);
     if (pages.size() == 0) {
       throw new PageNotFoundException(
           String.format("No Pages found for file %s when committing", fileId));
@@ -127,14 +140,14 @@ public class DefaultPageMetaStore implements PageMetaStore {
       PageId newPageId = new PageId(newFileId, oldPage.getPageId().getPageIndex());
       PageInfo newPageInfo = new PageInfo(newPageId, oldPage.getPageSize(), oldPage.getScope(),
           oldPage.getLocalCacheDir());
-      mPages.remove(oldPage);
+      mPages.remove(oldPage.getPageId());
       mPages.add(newPageInfo);
     }
   }
 
   @Override
   public PageStoreDir getStoreDirOfFile(String fileId) throws FileDoesNotExistException {
-    PageInfo pageInfo = mPages.getFirstByField(INDEX_FILE_ID, fileId);
+    PageInfo pageInfo = mPages.getFirstByFileId(fileId);
     if (pageInfo == null) {
       throw new FileDoesNotExistException(String.format("File %s does not exist in cache", fileId));
     }
@@ -154,10 +167,10 @@ public class DefaultPageMetaStore implements PageMetaStore {
   @Override
   @GuardedBy("getLock()")
   public PageInfo getPageInfo(PageId pageId) throws PageNotFoundException {
-    if (!mPages.contains(INDEX_PAGE_ID, pageId)) {
+    PageInfo pageInfo = mPages.get(pageId);
+    if (pageInfo == null) {
       throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
     }
-    PageInfo pageInfo = mPages.getFirstByField(INDEX_PAGE_ID, pageId);
     pageInfo.getLocalCacheDir().getEvictor().updateOnGet(pageId);
     return pageInfo;
   }
@@ -165,12 +178,10 @@ public class DefaultPageMetaStore implements PageMetaStore {
   @Override
   @GuardedBy("getLock()")
   public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
-    if (!mPages.contains(INDEX_PAGE_ID, pageId)) {
+    PageInfo pageInfo = mPages.remove(pageId);
+    if (pageInfo == null) {
       throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
     }
-
-    PageInfo pageInfo = mPages.getFirstByField(INDEX_PAGE_ID, pageId);
-    mPages.remove(pageInfo);
     mBytes.addAndGet(-pageInfo.getPageSize());
     Metrics.SPACE_USED.dec(pageInfo.getPageSize());
     if (isTemporary) {
@@ -214,11 +225,12 @@ public class DefaultPageMetaStore implements PageMetaStore {
   }
 
   PageInfo evictInternal(CacheEvictor evictor) {
-    PageId victim = evictor.evict();
+    PageId victim = mPinnedFiles.isEmpty() ? evictor.evict()
+        : evictor.evictMatching(pageId -> !mPinnedFiles.containsKey(pageId.getFileId()));
     if (victim == null) {
       return null;
     }
-    PageInfo victimInfo = mPages.getFirstByField(INDEX_PAGE_ID, victim);
+    PageInfo victimInfo = mPages.get(victim);
     if (victimInfo == null) {
       LOG.error("Invalid result returned by evictor: page {} not available", victim);
       evictor.updateOnDelete(victim);
@@ -227,10 +239,20 @@ public class DefaultPageMetaStore implements PageMetaStore {
     return victimInfo;
   }
 
+  @Override
+  public void pinFile(String fileId) {
+    mPinnedFiles.merge(fileId, 1, Integer::sum);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mPinnedFiles.computeIfPresent(fileId, (id, pins) -> pins == 1 ? null : pins - 1);
+  }
+
   @Override
   @GuardedBy("getLock().readLock()")
   public Set<PageInfo> getAllPagesByFileId(String fileId) {
-    Set<PageInfo> pages = mPages.getByField(INDEX_FILE_ID, fileId);
+    Set<PageInfo> pages = mPages.getByFileId(fileId);
     return pages;
   }
 
@@ -260,7 +282,7 @@ public class DefaultPageMetaStore implements PageMetaStore {
     public Optional<CacheUsage> partitionedBy(PartitionDescriptor<?> partition) {
       if (partition instanceof FilePartition) {
         String fileId = ((FilePartition) partition).getIdentifier();
-        Set<PageInfo> pages = mPages.getByField(INDEX_FILE_ID, fileId);
+        Set<PageInfo> pages = mPages.getByFileId(fileId);
         long used = pages.stream().mapToLong(PageInfo::getPageSize).sum();
         long capacity = capacity();
         long available = capacity - bytes();
@@ -115,6 +115,9 @@ public class LocalCacheFileInStream extends FileInStream {
       mCacheContext = status.getCacheContext();
     } else {
       mCacheContext = CacheContext.defaults();
+      if (status.getCacheContext() != null) {
+        mCacheContext.setAdmissionBypassed(status.getCacheContext().isAdmissionBypassed());
+      }
     }
     Metrics.registerGauges();
 
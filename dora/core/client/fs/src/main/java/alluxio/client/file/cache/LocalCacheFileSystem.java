@@ -19,6 +19,7 @@ import alluxio.client.file.DelegatingFileSystem;
 import alluxio.client.file.FileInStream;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.URIStatus;
+import alluxio.client.file.cache.admission.PathAdmissionRules;
 import alluxio.client.file.cache.filter.CacheFilter;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
@@ -26,11 +27,13 @@ import alluxio.exception.AlluxioException;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.grpc.OpenFilePOptions;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import javax.annotation.Nullable;
 
 /**
  * A FileSystem implementation with a local cache.
@@ -39,6 +42,7 @@ public class LocalCacheFileSystem extends DelegatingFileSystem {
   private static final Logger LOG = LoggerFactory.getLogger(LocalCacheFileSystem.class);
   private final CacheManager mCacheManager;
   private final CacheFilter mCacheFilter;
+  private final PathAdmissionRules mAdmissionRules;
   private final AlluxioConfiguration mConf;
 
   /**
@@ -51,6 +55,7 @@ public class LocalCacheFileSystem extends DelegatingFileSystem {
     mCacheManager = Preconditions.checkNotNull(cacheManage, "cacheManager");
     mConf = Preconditions.checkNotNull(conf, "conf");
     mCacheFilter = CacheFilter.create(conf);
+    mAdmissionRules = PathAdmissionRules.create(conf);
   }
 
   @Override
@@ -74,7 +79,11 @@ public class LocalCacheFileSystem extends DelegatingFileSystem {
         || !mCacheFilter.needsCache(status)) {
       return mDelegatedFileSystem.openFile(status, options);
     }
-    return new LocalCacheFileInStream(status,
+    URIStatus cachedStatus = applyAdmissionRules(status);
+    if (cachedStatus == null) {
+      return mDelegatedFileSystem.openFile(status, options);
+    }
+    return new LocalCacheFileInStream(cachedStatus,
         uriStatus -> mDelegatedFileSystem.openFile(status, options), mCacheManager, mConf);
   }
 
@@ -95,9 +104,66 @@ public class LocalCacheFileSystem extends DelegatingFileSystem {
     if (mCacheManager == null || mCacheManager.state() == CacheManager.State.NOT_IN_USE) {
       return mDelegatedFileSystem.openPositionRead(status, options);
     }
+    URIStatus cachedStatus = applyAdmissionRules(status);
+    if (cachedStatus == null) {
+      return mDelegatedFileSystem.openPositionRead(status, options);
+    }
     return LocalCachePositionReader.create(mConf, mCacheManager,
         new CloseableSupplier<>(() -> mDelegatedFileSystem.openPositionRead(status, options)),
-        status, mConf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE),
-        status.getCacheContext() == null ? CacheContext.defaults() : status.getCacheContext());
+        cachedStatus, mConf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE),
+        cachedStatus.getCacheContext() == null
+            ? CacheContext.defaults() : cachedStatus.getCacheContext());
+  }
+
+  /**
+   * Applies the cache admission rule of the path of a file.
+   *
+   * @param status the status of the file
+   * @return the status to read the file with, or null if the file is not cached
+   */
+  @VisibleForTesting
+  @Nullable
+  URIStatus applyAdmissionRules(URIStatus status) {
+    switch (mAdmissionRules.match(status.getPath())) {
+      case NEVER:
+        return null;
+      case ALWAYS:
+        // the context of the status may be shared by the caller, so it is not changed
+        CacheContext context = status.getCacheContext();
+        return new URIStatus(status.getFileInfo(), context == null
+            ? CacheContext.defaults().setAdmissionBypassed(true)
+            : new AdmissionBypassedContext(context));
+      default:
+        return status;
+    }
+  }
+
+  /**
+   * A copy of the cache context of a file whose pages are admitted regardless of the admission
+   * policy. The counters are incremented on the original context, which may be a subclass
+   * tracking them.
+   */
+  private static final class AdmissionBypassedContext extends CacheContext {
+    private final CacheContext mContext;
+
+    private AdmissionBypassedContext(CacheContext context) {
+      mContext = context;
+      setCacheIdentifier(context.getCacheIdentifier());
+      setCacheQuota(context.getCacheQuota());
+      setCacheScope(context.getCacheScope());
+      setHiveCacheContext(context.getHiveCacheContext());
+      setTemporary(context.isTemporary());
+      setAdmissionBypassed(true);
+    }
+
+    @Override
+    public void incrementCounter(String name, long value) {
+      mContext.incrementCounter(name, value);
+    }
+
+    @Override
+    public void incrementCounter(String name, StatsUnit unit, long value) {
+      mContext.incrementCounter(name, unit, value);
+    }
   }
 }
@@ -17,10 +17,15 @@ import static alluxio.client.file.cache.CacheManager.State.NOT_IN_USE;
 import static alluxio.client.file.cache.CacheManager.State.READ_ONLY;
 import static alluxio.client.file.cache.CacheManager.State.READ_WRITE;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.admission.CacheAdmissionPolicy;
+import alluxio.client.file.cache.store.LocalPageIndex;
+import alluxio.client.file.cache.store.LocalPageStoreDir;
 import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.trace.CacheTraceWriter;
 import alluxio.client.quota.CacheQuota;
 import alluxio.client.quota.CacheScope;
 import alluxio.collections.ConcurrentHashSet;
@@ -32,22 +37,31 @@ import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
+import alluxio.util.io.FileUtils;
 
 import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
@@ -82,6 +96,10 @@ import javax.annotation.concurrent.ThreadSafe;
  * <li>Update the pagestore and evictor</li>
  * <li>Release corresponding page lock</li>
  * </ol>
+ * <p>
+ * Concurrent cache misses on the same page are coalesced in {@link #getAndLoad} so that only one
+ * of them reads the page from external storage. Callers wait for the in-flight load without
+ * holding any page or metastore lock, so the lock hierarchy above is preserved.
  */
 @ThreadSafe
 public class LocalCacheManager implements CacheManager {
@@ -106,12 +124,47 @@ public class LocalCacheManager implements CacheManager {
   private final Optional<ExecutorService> mAsyncCacheExecutor;
   /** Executor service for execute the cache ttl check tasks. */
   private final Optional<ScheduledExecutorService> mTtlEnforcerExecutor;
+  /** Persistent page indexes of the page store dirs, if enabled. */
+  private final Map<PageStoreDir, LocalPageIndex> mPageIndexes;
+  /** Executor service for execute the page index checkpoint tasks. */
+  private final Optional<ScheduledExecutorService> mPageIndexExecutor;
   private final ConcurrentHashSet<PageId> mPendingRequests;
+  /**
+   * Pages being loaded from external storage, used to coalesce concurrent misses on a page.
+   */
+  private final ConcurrentHashMap<PageId, CompletableFuture<byte[]>> mInflightLoads =
+      new ConcurrentHashMap<>();
   /**
    * State of this cache.
    */
   private final AtomicReference<CacheManager.State> mState = new AtomicReference<>();
   private final CacheManagerOptions mOptions;
+  /** Decides whether the pages put are worth caching. */
+  private final CacheAdmissionPolicy mAdmissionPolicy;
+  /** Records the page accesses, if enabled. */
+  @Nullable
+  private final CacheTraceWriter mTraceWriter;
+  /** Receives the pages evicted to make room for other pages, if set. */
+  @Nullable
+  private final EvictionListener mEvictionListener;
+  /** Whether the pages of every page store can be read without copying them. */
+  private final boolean mZeroCopySupported;
+
+  /**
+   * Listener of the pages evicted to make room for other pages, e.g. to move them to a lower
+   * cache tier instead of dropping them.
+   */
+  @FunctionalInterface
+  interface EvictionListener {
+    /**
+     * Called with the content of an evicted page before it is deleted from its page store. The
+     * page stays locked until this method returns.
+     *
+     * @param pageInfo info of the evicted page
+     * @param page the content of the evicted page
+     */
+    void onEvicted(PageInfo pageInfo, byte[] page);
+  }
 
   /**
    * @param options       the options of local cache manager
@@ -121,7 +174,18 @@ public class LocalCacheManager implements CacheManager {
   public static LocalCacheManager create(CacheManagerOptions options,
                                          PageMetaStore pageMetaStore)
       throws IOException {
-    LocalCacheManager manager = new LocalCacheManager(options, pageMetaStore);
+    return create(options, pageMetaStore, null);
+  }
+
+  /**
+   * @param options          the options of local cache manager
+   * @param pageMetaStore    the metadata store for local cache
+   * @param evictionListener the listener of evicted pages, or null
+   * @return an instance of {@link LocalCacheManager}
+   */
+  static LocalCacheManager create(CacheManagerOptions options, PageMetaStore pageMetaStore,
+      @Nullable EvictionListener evictionListener) throws IOException {
+    LocalCacheManager manager = new LocalCacheManager(options, pageMetaStore, evictionListener);
     List<PageStoreDir> pageStoreDirs = pageMetaStore.getStoreDirs();
     if (manager.mInitService.isPresent()) {
       manager.mInitService.get().submit(() -> {
@@ -143,10 +207,18 @@ public class LocalCacheManager implements CacheManager {
    */
   @VisibleForTesting
   LocalCacheManager(CacheManagerOptions options, PageMetaStore pageMetaStore) {
+    this(options, pageMetaStore, null);
+  }
+
+  private LocalCacheManager(CacheManagerOptions options, PageMetaStore pageMetaStore,
+      @Nullable EvictionListener evictionListener) {
     mPageMetaStore = pageMetaStore;
+    mEvictionListener = evictionListener;
     mPageStoreDirs = pageMetaStore.getStoreDirs();
     mOptions = options;
     mCacheSize = mPageStoreDirs.stream().map(PageStoreDir::getCapacityBytes).reduce(0L, Long::sum);
+    mZeroCopySupported = mPageStoreDirs.stream()
+        .allMatch(dir -> dir.getPageStore().isZeroCopySupported());
     for (int i = 0; i < LOCK_SIZE; i++) {
       mPageLocks[i] = new ReentrantReadWriteLock(true /* fair ordering */);
     }
@@ -175,15 +247,74 @@ public class LocalCacheManager implements CacheManager {
     } else {
       mTtlEnforcerExecutor = Optional.empty();
     }
+    if (options.isPageIndexEnabled()) {
+      ImmutableMap.Builder<PageStoreDir, LocalPageIndex> pageIndexes = ImmutableMap.builder();
+      for (PageStoreDir dir : mPageStoreDirs) {
+        // only scanning page files is slow enough to benefit from an index
+        if (dir instanceof LocalPageStoreDir) {
+          pageIndexes.put(dir, new LocalPageIndex(dir, options.getPageSize()));
+        }
+      }
+      mPageIndexes = pageIndexes.build();
+      long interval = options.getPageIndexCheckpointIntervalMs();
+      mPageIndexExecutor = Optional.of(newScheduledThreadPool(1));
+      mPageIndexExecutor.get().scheduleAtFixedRate(this::checkpointPageIndexes,
+          interval, interval, MILLISECONDS);
+    } else {
+      mPageIndexes = ImmutableMap.of();
+      mPageIndexExecutor = Optional.empty();
+    }
+    mAdmissionPolicy = CacheAdmissionPolicy.create(options.getCacheAdmissionPolicyOptions());
+    mTraceWriter = createTraceWriter(options);
     Metrics.registerGauges(mCacheSize, mPageMetaStore);
     mState.set(READ_ONLY);
     Metrics.STATE.inc();
   }
 
+  @Nullable
+  private static CacheTraceWriter createTraceWriter(CacheManagerOptions options) {
+    if (options.getTraceFile() == null) {
+      return null;
+    }
+    try {
+      return CacheTraceWriter.create(options.getTraceFile(), options.getPageSize());
+    } catch (IOException e) {
+      LOG.warn("Failed to create cache trace {}, page accesses are not recorded: {}",
+          options.getTraceFile(), e.toString());
+      return null;
+    }
+  }
+
   @Override
   public Optional<DataFileChannel> getDataFileChannel(
       PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
       throws PageNotFoundException {
+    return Optional.of(getZeroCopyBuffer(pageId, pageOffset, bytesToRead, cacheContext,
+        (pageStore, isTemporary) ->
+            pageStore.getDataFileChannel(pageId, pageOffset, bytesToRead, isTemporary)));
+  }
+
+  @Override
+  public Optional<DataBuffer> getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
+      throws PageNotFoundException {
+    if (!mZeroCopySupported) {
+      // checked before the page is looked up, so that the get is recorded only once when the
+      // caller falls back to copying the page
+      return Optional.empty();
+    }
+    return Optional.of(getZeroCopyBuffer(pageId, pageOffset, bytesToRead, cacheContext,
+        (pageStore, isTemporary) ->
+            pageStore.getDataBuffer(pageId, pageOffset, bytesToRead, isTemporary)));
+  }
+
+  /**
+   * Reads a range of a page from its page store without copying it, while holding the page
+   * lock so that the page is not removed until the read buffer is created.
+   */
+  private <T extends DataBuffer> T getZeroCopyBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext,
+      ZeroCopyReader<T> reader) throws PageNotFoundException {
     Preconditions.checkArgument(pageOffset <= mOptions.getPageSize(),
         "Read exceeds page boundary: offset=%s size=%s",
         pageOffset, mOptions.getPageSize());
@@ -202,18 +333,19 @@ public class LocalCacheManager implements CacheManager {
       } catch (PageNotFoundException e) {
         LOG.debug("getDataChannel({},pageOffset={}) fails due to page not found in metastore",
             pageId, pageOffset);
+        recordGet(pageId, pageOffset, bytesToRead, false);
         throw e;
       }
+      recordGet(pageId, pageOffset, bytesToRead, true);
 
       try {
-        DataFileChannel dataFileChannel = pageInfo.getLocalCacheDir().getPageStore()
-            .getDataFileChannel(pageInfo.getPageId(), pageOffset, bytesToRead,
-                cacheContext.isTemporary());
+        T dataBuffer = reader.read(pageInfo.getLocalCacheDir().getPageStore(),
+            cacheContext.isTemporary());
         MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getName()).mark(bytesToRead);
         cacheContext.incrementCounter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getMetricName(), BYTE,
             bytesToRead);
         LOG.debug("getDataChannel({},pageOffset={}) exits", pageId, pageOffset);
-        return Optional.of(dataFileChannel);
+        return dataBuffer;
       } catch (PageNotFoundException e) {
         LOG.debug("getDataChannel({},pageOffset={}) fails due to page file not found",
             pageId, pageOffset);
@@ -221,7 +353,7 @@ public class LocalCacheManager implements CacheManager {
         Metrics.GET_STORE_READ_ERRORS.inc();
         // something is wrong to read this page, let's remove it from meta store
         try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
-          mPageMetaStore.removePage(pageId);
+          recordPageRemoved(mPageMetaStore.removePage(pageId));
           throw e;
         } catch (PageNotFoundException ex) {
           // best effort to remove this page from meta store and ignore the exception
@@ -236,6 +368,16 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
+  /**
+   * Reads a range of a page from a page store without copying it.
+   *
+   * @param <T> the type of the buffer
+   */
+  @FunctionalInterface
+  private interface ZeroCopyReader<T extends DataBuffer> {
+    T read(PageStore pageStore, boolean isTemporary) throws PageNotFoundException;
+  }
+
   /**
    * @param pageId page identifier
    * @return the page lock id
@@ -314,11 +456,18 @@ public class LocalCacheManager implements CacheManager {
   @Override
   public boolean put(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
     LOG.debug("put({},{} bytes) enters", pageId, page.remaining());
+    recordPut(pageId, page.remaining());
     if (mState.get() != READ_WRITE) {
       Metrics.PUT_NOT_READY_ERRORS.inc();
       Metrics.PUT_ERRORS.inc();
       return false;
     }
+    // temporary pages are written rather than read, and are always kept
+    if (!cacheContext.isTemporary() && !cacheContext.isAdmissionBypassed()
+        && !mAdmissionPolicy.admit(pageId, page.remaining(), cacheContext)) {
+      LOG.debug("put({},{} bytes) exits: not admitted", pageId, page.remaining());
+      return false;
+    }
     int originPosition = page.position();
     if (!mOptions.isAsyncWriteEnabled()) {
       boolean ok = putInternal(pageId, page, cacheContext);
@@ -361,9 +510,11 @@ public class LocalCacheManager implements CacheManager {
     PutResult result = PutResult.OK;
     boolean forcedToEvict = false;
     for (int i = 0; i <= mOptions.getMaxEvictionRetries(); i++) {
-      result = putAttempt(pageId, page, cacheContext, forcedToEvict);
+      // a failed write may have consumed the page, so each attempt writes from its own view
+      result = putAttempt(pageId, page.duplicate(), cacheContext, forcedToEvict);
       switch (result) {
         case OK:
+          page.position(page.limit());
           return true;
         case BENIGN_RACING:
           // failed put attempt due to a benign race, try again.
@@ -399,8 +550,16 @@ public class LocalCacheManager implements CacheManager {
     // TODO(JiamingMai): we still need to commit the data (not only the page metadata)
     // call commit method of PageStoreDir
     try {
-      PageStoreDir dir = mPageMetaStore.getStoreDirOfFile(fileId);
+      PageStoreDir dir;
+      try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+        dir = mPageMetaStore.getStoreDirOfFile(fileId);
+      }
       dir.commit(fileId, fileId);
+      if (mPageIndexes.containsKey(dir)) {
+        try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+          mPageMetaStore.getAllPagesByFileId(fileId).forEach(this::recordPageAdded);
+        }
+      }
     } catch (FileDoesNotExistException notExistException) {
       LOG.error(notExistException.getMessage());
     } catch (IllegalStateException illegalStateException) {
@@ -412,10 +571,22 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public void syncFile(String fileId) throws IOException {
+    PageStoreDir dir;
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      dir = mPageMetaStore.getStoreDirOfFile(fileId);
+    } catch (FileDoesNotExistException e) {
+      throw new IOException(e);
+    }
+    dir.getPageStore().sync(fileId);
+  }
+
   private PutResult putAttempt(PageId pageId, ByteBuffer page, CacheContext cacheContext,
                                boolean forcedToEvict) {
     LOG.debug("putInternal({},{} bytes) enters", pageId, page.remaining());
     PageInfo victimPageInfo = null;
+    PageInfo newPageInfo = null;
     CacheScope scopeToEvict;
     ReadWriteLock pageLock = getPageLock(pageId);
     PageStoreDir pageStoreDir;
@@ -431,7 +602,7 @@ public class LocalCacheManager implements CacheManager {
             cacheContext.getCacheScope(),
             cacheContext.getCacheQuota(), forcedToEvict);
         if (scopeToEvict == null) {
-          addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
+          newPageInfo = addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
         } else {
           if (mOptions.isQuotaEnabled()) {
             victimPageInfo =
@@ -451,6 +622,9 @@ public class LocalCacheManager implements CacheManager {
         try {
           int bytesToWrite = page.remaining();
           pageStoreDir.getPageStore().put(pageId, page, cacheContext.isTemporary());
+          if (!cacheContext.isTemporary()) {
+            recordPageAdded(newPageInfo);
+          }
           // Bytes written to the cache
           MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_WRITTEN_CACHE.getName())
               .mark(bytesToWrite);
@@ -481,7 +655,7 @@ public class LocalCacheManager implements CacheManager {
           return PutResult.OK;
         }
         try {
-          mPageMetaStore.removePage(victimPageInfo.getPageId());
+          recordPageRemoved(mPageMetaStore.removePage(victimPageInfo.getPageId()));
         } catch (PageNotFoundException e) {
           LOG.debug("Page {} is unavailable to evict, likely due to a benign race",
               victimPageInfo.getPageId());
@@ -491,12 +665,15 @@ public class LocalCacheManager implements CacheManager {
         scopeToEvict = checkScopeToEvict(page.remaining(), pageStoreDir,
             cacheContext.getCacheScope(), cacheContext.getCacheQuota(), false);
         if (scopeToEvict == null) {
-          addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
+          newPageInfo = addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
         }
       }
       // phase2: remove victim and add new page in pagestore
       // Regardless of enoughSpace, delete the victim as it has been removed from the metastore
       PageId victim = victimPageInfo.getPageId();
+      if (mEvictionListener != null) {
+        notifyEvicted(victimPageInfo);
+      }
       try {
         pageStoreDir.getPageStore().delete(victim);
         // Bytes evicted from the cache
@@ -523,6 +700,9 @@ public class LocalCacheManager implements CacheManager {
       try {
         int bytesToWrite = page.remaining();
         pageStoreDir.getPageStore().put(pageId, page, cacheContext.isTemporary());
+        if (!cacheContext.isTemporary()) {
+          recordPageAdded(newPageInfo);
+        }
         // Bytes written to the cache
         MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_WRITTEN_CACHE.getName())
             .mark(bytesToWrite);
@@ -542,8 +722,27 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
-  private void addPageToMetaStore(PageId pageId, ByteBuffer page, CacheContext cacheContext,
-                                  PageStoreDir pageStoreDir) {
+  /**
+   * Passes the content of an evicted page to the eviction listener. The page must be locked and
+   * still in its page store.
+   *
+   * @param pageInfo info of the evicted page
+   */
+  private void notifyEvicted(PageInfo pageInfo) {
+    byte[] page = new byte[(int) pageInfo.getPageSize()];
+    if (getPage(pageInfo, 0, page.length, new ByteArrayTargetBuffer(page, 0),
+        CacheContext.defaults()) != page.length) {
+      return;
+    }
+    try {
+      mEvictionListener.onEvicted(pageInfo, page);
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to handle the eviction of page {}", pageInfo.getPageId(), e);
+    }
+  }
+
+  private PageInfo addPageToMetaStore(PageId pageId, ByteBuffer page, CacheContext cacheContext,
+                                      PageStoreDir pageStoreDir) {
     PageInfo pageInfo =
         new PageInfo(pageId, page.remaining(), cacheContext.getCacheScope(), pageStoreDir);
     if (cacheContext.isTemporary()) {
@@ -551,6 +750,31 @@ public class LocalCacheManager implements CacheManager {
     } else {
       mPageMetaStore.addPage(pageId, pageInfo);
     }
+    return pageInfo;
+  }
+
+  /**
+   * Records a page added to its page store dir in the page index of the dir, if any.
+   *
+   * @param pageInfo info of the added page
+   */
+  private void recordPageAdded(PageInfo pageInfo) {
+    LocalPageIndex pageIndex = mPageIndexes.get(pageInfo.getLocalCacheDir());
+    if (pageIndex != null) {
+      pageIndex.recordAdd(pageInfo);
+    }
+  }
+
+  /**
+   * Records a page removed from the meta store in the page index of its dir, if any.
+   *
+   * @param pageInfo info of the removed page
+   */
+  private void recordPageRemoved(PageInfo pageInfo) {
+    LocalPageIndex pageIndex = mPageIndexes.get(pageInfo.getLocalCacheDir());
+    if (pageIndex != null) {
+      pageIndex.recordDelete(pageInfo.getPageId());
+    }
   }
 
   private void undoAddPage(PageId pageId) {
@@ -574,6 +798,7 @@ public class LocalCacheManager implements CacheManager {
         pageInfo = mPageMetaStore.getPageInfo(pageId); //check if page exists and refresh LRU items
       } catch (PageNotFoundException e) {
         LOG.debug("get({},pageOffset={}) fails due to page not found", pageId, pageOffset);
+        recordGet(pageId, pageOffset, 0, false);
         return 0;
       }
       pageSize = pageInfo.getPageSize();
@@ -603,8 +828,10 @@ public class LocalCacheManager implements CacheManager {
         pageInfo = mPageMetaStore.getPageInfo(pageId); //check if page exists and refresh LRU items
       } catch (PageNotFoundException e) {
         LOG.debug("get({},pageOffset={}) fails due to page not found", pageId, pageOffset);
+        recordGet(pageId, pageOffset, bytesToRead, false);
         return 0;
       }
+      recordGet(pageId, pageOffset, bytesToRead, true);
       int bytesRead =
           getPage(pageInfo, pageOffset, bytesToRead, buffer, cacheContext);
       if (bytesRead <= 0) {
@@ -612,7 +839,7 @@ public class LocalCacheManager implements CacheManager {
         Metrics.GET_STORE_READ_ERRORS.inc();
         // something is wrong to read this page, let's remove it from meta store
         try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
-          mPageMetaStore.removePage(pageId);
+          recordPageRemoved(mPageMetaStore.removePage(pageId));
         } catch (PageNotFoundException e) {
           // best effort to remove this page from meta store and ignore the exception
           Metrics.CLEANUP_GET_ERRORS.inc();
@@ -639,16 +866,30 @@ public class LocalCacheManager implements CacheManager {
     if (bytesRead > 0) {
       return bytesRead;
     }
+    return load(pageId, pageOffset, bytesToRead, buffer, cacheContext, externalDataSupplier);
+  }
+
+  /**
+   * Reads a part of a page from external storage after a cache miss, and adds the page to the
+   * cache.
+   *
+   * @param pageId page identifier
+   * @param pageOffset offset into the page
+   * @param bytesToRead number of bytes to read in this page
+   * @param buffer destination buffer to write
+   * @param cacheContext cache related context
+   * @param externalDataSupplier the external data supplier to read a page
+   * @return number of bytes read
+   */
+  int load(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
+      CacheContext cacheContext, Supplier<byte[]> externalDataSupplier) {
     // on local cache miss, read a complete page from external storage. This will always make
     // progress or throw an exception
     // Note that we cannot synchronize on the new page, as this will cause deadlock due to
-    // incompatible lock order within putAttempt
-    // Not synchronizing may cause the same page to be read multiple times from UFS by two or more
-    // concurrent requests,
-    // but this is acceptable, and is expected to be rare as long as the number of striping locks
-    // is big enough
+    // incompatible lock order within putAttempt. Concurrent requests for the same page are
+    // instead coalesced onto a single in-flight load which is waited on without holding any lock
     long startTime = System.nanoTime();
-    byte[] page = externalDataSupplier.get();
+    byte[] page = loadPage(pageId, cacheContext, externalDataSupplier);
     long timeElapse = System.nanoTime() - startTime;
     buffer.writeBytes(page, pageOffset, bytesToRead);
     MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getName())
@@ -659,10 +900,48 @@ public class LocalCacheManager implements CacheManager {
     cacheContext.incrementCounter(
         MetricKey.CLIENT_CACHE_PAGE_READ_EXTERNAL_TIME_NS.getMetricName(), NANO,
         timeElapse);
-    put(pageId, page, cacheContext);
     return bytesToRead;
   }
 
+  /**
+   * Loads a page from external storage and adds it to the cache. If another thread is already
+   * loading the same page, waits for that load to finish and returns its result instead of
+   * issuing another read. No locks must be held when calling this method.
+   *
+   * @param pageId page identifier
+   * @param cacheContext cache related context
+   * @param externalDataSupplier the external data supplier to read a page
+   * @return the content of the page
+   */
+  private byte[] loadPage(PageId pageId, CacheContext cacheContext,
+                          Supplier<byte[]> externalDataSupplier) {
+    CompletableFuture<byte[]> load = new CompletableFuture<>();
+    CompletableFuture<byte[]> inflightLoad = mInflightLoads.putIfAbsent(pageId, load);
+    if (inflightLoad != null) {
+      Metrics.EXTERNAL_LOADS_COALESCED.inc();
+      try {
+        return inflightLoad.join();
+      } catch (CompletionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw e;
+      }
+    }
+    Metrics.EXTERNAL_LOADS.inc();
+    try {
+      byte[] page = externalDataSupplier.get();
+      load.complete(page);
+      // the page is added to the cache before the load is unregistered, so that requests arriving
+      // after this point find the page either in the cache or in mInflightLoads
+      put(pageId, page, cacheContext);
+      return page;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      mInflightLoads.remove(pageId, load);
+    }
+  }
+
   /**
    * delete the specified page.
    *
@@ -671,6 +950,9 @@ public class LocalCacheManager implements CacheManager {
    * @return whether the page is deleted successfully or not
    */
   public boolean delete(PageId pageId, boolean isTemporary) {
+    if (mTraceWriter != null && !isTemporary) {
+      mTraceWriter.recordDelete(pageId);
+    }
     if (mState.get() != READ_WRITE) {
       Metrics.DELETE_NOT_READY_ERRORS.inc();
       Metrics.DELETE_ERRORS.inc();
@@ -689,6 +971,9 @@ public class LocalCacheManager implements CacheManager {
           return false;
         }
       }
+      if (!isTemporary) {
+        recordPageRemoved(pageInfo);
+      }
       boolean ok = deletePage(pageInfo, isTemporary);
       LOG.debug("delete({}) exits, success: {}", pageId, ok);
       if (!ok) {
@@ -704,6 +989,18 @@ public class LocalCacheManager implements CacheManager {
     return delete(pageId, false);
   }
 
+  private void recordGet(PageId pageId, int pageOffset, int bytesToRead, boolean hit) {
+    if (mTraceWriter != null) {
+      mTraceWriter.recordGet(pageId, pageOffset, bytesToRead, hit);
+    }
+  }
+
+  private void recordPut(PageId pageId, int pageSize) {
+    if (mTraceWriter != null) {
+      mTraceWriter.recordPut(pageId, pageSize);
+    }
+  }
+
   @Override
   public State state() {
     return mState.get();
@@ -711,22 +1008,98 @@ public class LocalCacheManager implements CacheManager {
 
   @Override
   public boolean append(PageId pageId, int appendAt, byte[] page, CacheContext cacheContext) {
+    return append(pageId, appendAt, ByteBuffer.wrap(page), cacheContext);
+  }
+
+  /**
+   * Appends to the page synchronously even if asynchronous writes are enabled, as the page is
+   * usually appended again right after and the buffer may be reused by the caller.
+   */
+  @Override
+  public boolean append(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
     if (mState.get() != READ_WRITE) {
       Metrics.PUT_NOT_READY_ERRORS.inc();
       Metrics.PUT_ERRORS.inc();
       return false;
     }
     if (appendAt > 0) {
-      byte[] newPage = new byte[appendAt + page.length];
+      if (cacheContext.isTemporary()
+          && appendInPlace(pageId, appendAt, page.duplicate(), cacheContext)) {
+        recordPut(pageId, appendAt + page.remaining());
+        page.position(page.limit());
+        return true;
+      }
+      byte[] newPage = new byte[appendAt + page.remaining()];
       int readBytes = get(pageId, 0, appendAt,
           new ByteArrayTargetBuffer(newPage, 0), cacheContext);
       boolean success = delete(pageId, cacheContext.isTemporary());
       LOG.debug("delete pageId: " + pageId
           + ", appendAt: " + appendAt + ", readBytes: " + readBytes + ", success: " + success);
-      System.arraycopy(page, 0, newPage, appendAt, page.length);
-      return put(pageId, newPage, cacheContext);
+      page.get(newPage, appendAt, page.remaining());
+      page = ByteBuffer.wrap(newPage);
+    }
+    // the page is put again with the appended data, after its deletion is recorded
+    recordPut(pageId, page.remaining());
+    boolean ok = putInternal(pageId, page, cacheContext);
+    if (!ok) {
+      Metrics.PUT_ERRORS.inc();
+    }
+    return ok;
+  }
+
+  /**
+   * Appends to a temporary page in its page store without reading it back and rewriting it, and
+   * resizes the page in the meta store.
+   *
+   * @return false if the page can't be appended in place, e.g. when it has a different size or
+   *         the append needs pages to be evicted, so that it is appended by rewriting the page
+   */
+  private boolean appendInPlace(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
+    int bytesToWrite = page.remaining();
+    ReadWriteLock pageLock = getPageLock(pageId);
+    try (LockResource r = new LockResource(pageLock.writeLock())) {
+      PageInfo pageInfo;
+      try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
+        try {
+          pageInfo = mPageMetaStore.getPageInfo(pageId);
+        } catch (PageNotFoundException e) {
+          return false;
+        }
+        if (pageInfo.getPageSize() != appendAt
+            || checkScopeToEvict(bytesToWrite, pageInfo.getLocalCacheDir(),
+            cacheContext.getCacheScope(), cacheContext.getCacheQuota(), false) != null) {
+          return false;
+        }
+        // account for the appended bytes before writing them, as put does for a new page
+        resizeTempPage(pageInfo, appendAt + bytesToWrite);
+      }
+      try {
+        pageInfo.getLocalCacheDir().getPageStore().append(pageId, appendAt, page, true);
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_WRITTEN_CACHE.getName())
+            .mark(bytesToWrite);
+        return true;
+      } catch (ResourceExhaustedException | IOException | PageNotFoundException e) {
+        LOG.warn("Failed to append to page {} in pageStore, rewriting the page", pageId, e);
+        try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
+          resizeTempPage(pageInfo, pageInfo.getPageSize());
+        }
+        return false;
+      }
+    }
+  }
+
+  @GuardedBy("mPageMetaStore.getLock().writeLock()")
+  private void resizeTempPage(PageInfo pageInfo, long pageSize) {
+    try {
+      mPageMetaStore.removePage(pageInfo.getPageId(), true);
+    } catch (PageNotFoundException e) {
+      // the page lock is held, so the page can't be removed by others
+      throw new IllegalStateException(e);
     }
-    return put(pageId, page, cacheContext);
+    mPageMetaStore.addTempPage(pageInfo.getPageId(), new PageInfo(pageInfo.getPageId(), pageSize,
+        pageInfo.getScope(), pageInfo.getLocalCacheDir(), pageInfo.getCreatedTimestamp()));
   }
 
   /**
@@ -751,6 +1124,7 @@ public class LocalCacheManager implements CacheManager {
           Metrics.STATE.dec();
           throw e;
         }
+        resetPageIndex(pageStoreDir);
       }
     }
     LOG.info("Cache is in READ_WRITE.");
@@ -763,6 +1137,7 @@ public class LocalCacheManager implements CacheManager {
     long restoredBytes = mPageMetaStore.bytes();
     long discardPages = Metrics.PAGE_DISCARDED.getCount();
     long discardBytes = Metrics.BYTE_DISCARDED.getCount();
+    long startTime = System.currentTimeMillis();
     LOG.info("Restoring PageStoreDir ({})", pageStoreDir.getRootPath());
 
     if (!Files.exists(pageStoreDir.getRootPath())) {
@@ -770,25 +1145,135 @@ public class LocalCacheManager implements CacheManager {
           pageStoreDir.getRootPath());
       return false;
     }
+    LocalPageIndex pageIndex = mPageIndexes.get(pageStoreDir);
     try {
-      pageStoreDir.scanPages(pageInfo -> {
-        if (pageInfo.isPresent()) {
-          addPageToDir(pageStoreDir, pageInfo.get());
-        }
-      });
+      if (pageIndex == null) {
+        deleteStalePageIndex(pageStoreDir);
+        pageStoreDir.scanPages(pageInfo -> {
+          if (pageInfo.isPresent()) {
+            addPageToDir(pageStoreDir, pageInfo.get());
+          }
+        });
+      } else if (!restoreFromPageIndex(pageStoreDir, pageIndex)) {
+        scanPagesToPageIndex(pageStoreDir, pageIndex);
+      }
     } catch (IOException | RuntimeException e) {
       LOG.error("Failed to restore PageStore", e);
       return false;
     }
+    long elapsedTime = System.currentTimeMillis() - startTime;
+    Metrics.PAGES_RESTORED.inc(mPageMetaStore.numPages() - restoredPages);
+    Metrics.RESTORE_TIME_MS.inc(elapsedTime);
     LOG.info("PageStore ({}) restored with {} pages ({} bytes), "
-            + "discarded {} pages ({} bytes)",
+            + "discarded {} pages ({} bytes) in {} ms",
         pageStoreDir.getRootPath(), mPageMetaStore.numPages() - restoredPages,
         mPageMetaStore.bytes() - restoredBytes, Metrics.PAGE_DISCARDED.getCount() - discardPages,
-        Metrics.BYTE_DISCARDED.getCount() - discardBytes);
+        Metrics.BYTE_DISCARDED.getCount() - discardBytes, elapsedTime);
+    return true;
+  }
+
+  /**
+   * Restores the pages of a page store dir from its page index.
+   *
+   * @return true if restored, false if the page index cannot be used
+   */
+  private boolean restoreFromPageIndex(PageStoreDir pageStoreDir, LocalPageIndex pageIndex)
+      throws IOException {
+    List<PageId> discardedPages = new ArrayList<>();
+    if (!pageIndex.restore(pageInfo -> {
+      if (!addPageToDir(pageStoreDir, pageInfo)) {
+        discardedPages.add(pageInfo.getPageId());
+      }
+    })) {
+      LOG.info("Unable to restore PageStore ({}) from page index, scanning page files instead",
+          pageStoreDir.getRootPath());
+      return false;
+    }
+    openPageIndex(pageIndex);
+    discardedPages.forEach(pageIndex::recordDelete);
     return true;
   }
 
-  private void addPageToDir(PageStoreDir pageStoreDir, PageInfo pageInfo) {
+  /**
+   * Restores the pages of a page store dir by scanning its page files, and rebuilds the page
+   * index from the restored pages.
+   */
+  private void scanPagesToPageIndex(PageStoreDir pageStoreDir, LocalPageIndex pageIndex)
+      throws IOException {
+    try (LocalPageIndex.CheckpointWriter checkpoint = pageIndex.newCheckpoint()) {
+      pageStoreDir.scanPages(pageInfo -> {
+        if (pageInfo.isPresent() && addPageToDir(pageStoreDir, pageInfo.get())) {
+          checkpoint.add(pageInfo.get());
+        }
+      });
+      checkpoint.commit();
+    }
+    openPageIndex(pageIndex);
+  }
+
+  /**
+   * Starts recording page updates in the page index. On failure the page index is dropped, so
+   * the next restore scans page files instead of using an outdated index.
+   */
+  private void openPageIndex(LocalPageIndex pageIndex) {
+    try {
+      pageIndex.open();
+    } catch (IOException | RuntimeException e) {
+      LOG.error("Failed to open page index, page updates will not be indexed", e);
+      try {
+        pageIndex.reset();
+      } catch (IOException ex) {
+        LOG.error("Failed to reset page index", ex);
+      }
+    }
+  }
+
+  /**
+   * Recreates an empty page index for a page store dir that has been reset.
+   */
+  private void resetPageIndex(PageStoreDir pageStoreDir) {
+    LocalPageIndex pageIndex = mPageIndexes.get(pageStoreDir);
+    if (pageIndex == null) {
+      return;
+    }
+    try {
+      pageIndex.reset();
+      try (LocalPageIndex.CheckpointWriter checkpoint = pageIndex.newCheckpoint()) {
+        checkpoint.commit();
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to reset page index, page updates will not be indexed", e);
+      return;
+    }
+    openPageIndex(pageIndex);
+  }
+
+  /**
+   * Deletes the page index left in a local page store dir when the page index was enabled
+   * before, as it becomes outdated once pages are updated without being indexed.
+   */
+  private void deleteStalePageIndex(PageStoreDir pageStoreDir) throws IOException {
+    Path indexDir = LocalPageIndex.getIndexDir(pageStoreDir.getRootPath());
+    if (pageStoreDir instanceof LocalPageStoreDir && Files.exists(indexDir)) {
+      LOG.info("Deleting outdated page index {}", indexDir);
+      FileUtils.deletePathRecursively(indexDir.toString());
+    }
+  }
+
+  private void checkpointPageIndexes() {
+    for (LocalPageIndex pageIndex : mPageIndexes.values()) {
+      try {
+        pageIndex.checkpoint();
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Failed to checkpoint page index", e);
+      }
+    }
+  }
+
+  /**
+   * @return true if the page is added, false if it is discarded due to insufficient space
+   */
+  private boolean addPageToDir(PageStoreDir pageStoreDir, PageInfo pageInfo) {
     PageId pageId = pageInfo.getPageId();
     ReadWriteLock pageLock = getPageLock(pageId);
     try (LockResource r = new LockResource(pageLock.writeLock())) {
@@ -809,6 +1294,7 @@ public class LocalCacheManager implements CacheManager {
         Metrics.PAGE_DISCARDED.inc();
         Metrics.BYTE_DISCARDED.inc(pageInfo.getPageSize());
       }
+      return enoughSpace;
     }
   }
 
@@ -828,6 +1314,49 @@ public class LocalCacheManager implements CacheManager {
     return pageIds;
   }
 
+  @Override
+  public boolean hasPage(PageId pageId) {
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      return mPageMetaStore.hasPage(pageId);
+    }
+  }
+
+  /**
+   * Reads a whole page without counting it as a read of the cache, e.g. to move the page to
+   * another cache.
+   *
+   * @param pageId page identifier
+   * @return the content of the page, or null if the page is not cached or cannot be read
+   */
+  @Nullable
+  byte[] readPage(PageId pageId) {
+    ReadWriteLock pageLock = getPageLock(pageId);
+    try (LockResource r = new LockResource(pageLock.readLock())) {
+      PageInfo pageInfo;
+      try (LockResource r2 = new LockResource(mPageMetaStore.getLock().readLock())) {
+        pageInfo = mPageMetaStore.getPageInfo(pageId);
+      } catch (PageNotFoundException e) {
+        return null;
+      }
+      byte[] page = new byte[(int) pageInfo.getPageSize()];
+      if (getPage(pageInfo, 0, page.length, new ByteArrayTargetBuffer(page, 0),
+          CacheContext.defaults()) != page.length) {
+        return null;
+      }
+      return page;
+    }
+  }
+
+  @Override
+  public void pinFile(String fileId) {
+    mPageMetaStore.pinFile(fileId);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mPageMetaStore.unpinFile(fileId);
+  }
+
   @Override
   public void deleteFile(String fileId) {
     Set<PageInfo> pages;
@@ -854,6 +1383,14 @@ public class LocalCacheManager implements CacheManager {
 
   @Override
   public void close() throws Exception {
+    mPageIndexExecutor.ifPresent(ExecutorService::shutdownNow);
+    for (LocalPageIndex pageIndex : mPageIndexes.values()) {
+      try {
+        pageIndex.close();
+      } catch (IOException e) {
+        LOG.error("Failed to checkpoint page index on close", e);
+      }
+    }
     for (PageStoreDir pageStoreDir : mPageStoreDirs) {
       pageStoreDir.close();
     }
@@ -861,6 +1398,9 @@ public class LocalCacheManager implements CacheManager {
     mInitService.ifPresent(ExecutorService::shutdownNow);
     mAsyncCacheExecutor.ifPresent(ExecutorService::shutdownNow);
     mTtlEnforcerExecutor.ifPresent(ExecutorService::shutdownNow);
+    if (mTraceWriter != null) {
+      mTraceWriter.close();
+    }
   }
 
   /**
@@ -975,6 +1515,16 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter DELETE_STORE_DELETE_ERRORS =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_DELETE_FROM_STORE_ERRORS.getName());
+    /**
+     * Page loads issued to external storage on cache misses.
+     */
+    private static final Counter EXTERNAL_LOADS =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_LOADS.getName());
+    /**
+     * Cache misses served by an in-flight load of the same page.
+     */
+    private static final Counter EXTERNAL_LOADS_COALESCED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_LOADS_COALESCED.getName());
     /**
      * Errors when getting pages.
      */
@@ -995,6 +1545,11 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter PAGE_DISCARDED =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_PAGES_DISCARDED.getName());
+    /**
+     * Total number of pages restored when restoring the page store.
+     */
+    private static final Counter PAGES_RESTORED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_PAGES_RESTORED.getName());
     /**
      * Errors when adding pages.
      */
@@ -1040,6 +1595,11 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter PUT_STORE_WRITE_NO_SPACE_ERRORS =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_PUT_STORE_WRITE_NO_SPACE_ERRORS.getName());
+    /**
+     * Time in milliseconds taken to restore the page store.
+     */
+    private static final Counter RESTORE_TIME_MS =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_RESTORE_TIME_MS.getName());
     /**
      * State of the cache.
      */
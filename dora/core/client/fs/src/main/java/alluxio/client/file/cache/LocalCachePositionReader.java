@@ -25,6 +25,7 @@ import alluxio.file.FileId;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -179,6 +180,32 @@ public class LocalCachePositionReader implements PositionReader {
     }
   }
 
+  /**
+   * Get a {@link DataBuffer} which reads from the cached page without copying it.
+   *
+   * @param position the start position to read
+   * @param length   how many bytes to read, capped to the end of the page
+   * @return the buffer, or empty if the page is not cached or cannot be read without copying
+   */
+  public Optional<DataBuffer> getDataBuffer(long position, int length) {
+    long currentPage = position / mPageSize;
+    PageId pageId;
+    if (mCacheContext.getCacheIdentifier() != null) {
+      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
+    } else {
+      pageId = new PageId(mFileId.toString(), currentPage);
+    }
+    int currentPageOffset = (int) (position % mPageSize);
+    int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
+    int bytesToReadInPage = Math.min(bytesLeftInPage, length);
+    try {
+      return mCacheManager.getDataBuffer(
+          pageId, currentPageOffset, bytesToReadInPage, mCacheContext);
+    } catch (PageNotFoundException e) {
+      return Optional.empty();
+    }
+  }
+
   private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
                               long position, Stopwatch stopwatch) {
     long currentPage = position / mPageSize;
@@ -16,12 +16,14 @@ import alluxio.exception.PageNotFoundException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Optional;
@@ -51,6 +53,12 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public void syncFile(String fileId) throws IOException {
+    // the caller has to know whether the pages are durable
+    mCacheManager.syncFile(fileId);
+  }
+
   @Override
   public boolean put(PageId pageId, byte[] page) {
     try {
@@ -179,6 +187,23 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public Optional<DataBuffer> getDataBuffer(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) {
+    try {
+      return mCacheManager.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+    } catch (Exception e) {
+      if (e instanceof PageNotFoundException) {
+        // In cold read, this may be expected behavior
+        LOG.debug("Failed to getDataBuffer of page {}", pageId, e);
+      } else {
+        LOG.error("Failed to getDataBuffer of page {}", pageId, e);
+      }
+      Metrics.GET_ERRORS.inc();
+      return Optional.empty();
+    }
+  }
+
   @Override
   public State state() {
     return mCacheManager.state();
@@ -189,6 +214,12 @@ public class NoExceptionCacheManager implements CacheManager {
     return mCacheManager.append(pageId, appendAt, page, cacheContext);
   }
 
+  @Override
+  public boolean append(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
+    return mCacheManager.append(pageId, appendAt, page, cacheContext);
+  }
+
   @Override
   public void close() throws Exception {
     try {
@@ -203,6 +234,26 @@ public class NoExceptionCacheManager implements CacheManager {
     return mCacheManager.getCachedPageIdsByFileId(fileId, fileLength);
   }
 
+  @Override
+  public boolean hasPage(PageId pageId) {
+    try {
+      return mCacheManager.hasPage(pageId);
+    } catch (Exception e) {
+      LOG.error("Failed to check page {}", pageId, e);
+      return false;
+    }
+  }
+
+  @Override
+  public void pinFile(String fileId) {
+    mCacheManager.pinFile(fileId);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mCacheManager.unpinFile(fileId);
+  }
+
   @Override
   public void deleteFile(String fileId) {
     try {
@@ -111,7 +111,7 @@ public class PageInfo {
     }
     PageInfo pageInfo = (PageInfo) o;
     return mPageSize == pageInfo.mPageSize && Objects.equals(mPageId, pageInfo.mPageId)
-        && mCacheScope == pageInfo.mCacheScope;
+        && Objects.equals(mCacheScope, pageInfo.mCacheScope);
   }
 
   @Override
@@ -11,6 +11,7 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.quota.CacheScope;
 import alluxio.exception.FileDoesNotExistException;
@@ -32,10 +33,11 @@ public interface PageMetaStore extends CacheStatus {
    */
   static PageMetaStore create(CacheManagerOptions options) throws IOException {
     List<PageStoreDir> dirs = PageStoreDir.createPageStoreDirs(options);
+    PageTable pages = PageTable.create(options);
     if (options.isQuotaEnabled()) {
-      return new QuotaPageMetaStore(options.getCacheEvictorOptions(), dirs);
+      return new QuotaPageMetaStore(options.getCacheEvictorOptions(), dirs, pages);
     }
-    return new DefaultPageMetaStore(dirs);
+    return new DefaultPageMetaStore(dirs, new HashAllocator(dirs), pages);
   }
 
   /**
@@ -157,4 +159,19 @@ public interface PageMetaStore extends CacheStatus {
    * @return a page to evict
    */
   PageInfo evict(CacheScope cacheScope, PageStoreDir pageStoreDir);
+
+  /**
+   * Pins the pages of a file, which are not evicted until the file is unpinned. Pinning a file
+   * more than once requires unpinning it as many times.
+   *
+   * @param fileId the file id
+   */
+  void pinFile(String fileId);
+
+  /**
+   * Unpins the pages of a file.
+   *
+   * @param fileId the file id
+   */
+  void unpinFile(String fileId);
 }
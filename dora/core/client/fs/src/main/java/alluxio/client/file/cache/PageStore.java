@@ -17,9 +17,11 @@ import alluxio.client.file.cache.store.PageStoreOptions;
 import alluxio.client.file.cache.store.RocksPageStore;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
@@ -119,6 +121,33 @@ public interface PageStore extends AutoCloseable {
       ByteBuffer page,
       boolean isTemporary) throws ResourceExhaustedException, IOException;
 
+  /**
+   * Appends data to the end of an existing page, so that a page written in chunks is not copied
+   * and rewritten for every chunk. By default, the page is read back and put again with the data
+   * appended.
+   *
+   * @param pageId page identifier
+   * @param appendAt the current size of the page, where the data is appended
+   * @param page the data to append
+   * @param isTemporary is page data temporary
+   * @throws ResourceExhaustedException when there is not enough space found on disk
+   * @throws IOException when the store fails to write this page
+   * @throws PageNotFoundException when the page isn't found in the store
+   */
+  default void append(PageId pageId,
+      int appendAt,
+      ByteBuffer page,
+      boolean isTemporary) throws ResourceExhaustedException, IOException, PageNotFoundException {
+    byte[] newPage = new byte[appendAt + page.remaining()];
+    int bytesRead = get(pageId, 0, appendAt, new ByteArrayTargetBuffer(newPage, 0), isTemporary);
+    if (bytesRead != appendAt) {
+      throw new IOException(String.format(
+          "Failed to append to page %s at %d, the page has %d bytes", pageId, appendAt, bytesRead));
+    }
+    page.get(newPage, appendAt, page.remaining());
+    put(pageId, newPage, isTemporary);
+  }
+
   /**
    * Gets a page from the store to the destination buffer.
    *
@@ -208,6 +237,14 @@ public interface PageStore extends AutoCloseable {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Syncs the pages of a committed file to the storage.
+   * @param fileId
+   */
+  default void sync(String fileId) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Abort a temporary file.
    * @param fileId
@@ -231,6 +268,32 @@ public interface PageStore extends AutoCloseable {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Get a {@link DataBuffer} which reads from the page without copying it. The caller takes
+   * ownership of the buffer and must release it. By default, this is the
+   * {@link DataFileChannel} of the page.
+   *
+   * @param pageId the page id
+   * @param pageOffset the offset inside the page
+   * @param bytesToRead the bytes to read
+   * @param isTemporary whether it is temporary or not
+   * @return the buffer
+   * @throws PageNotFoundException if the page is not found
+   * @throws UnsupportedOperationException if the page store does not support zero-copy reads
+   */
+  default DataBuffer getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, boolean isTemporary)
+      throws PageNotFoundException {
+    return getDataFileChannel(pageId, pageOffset, bytesToRead, isTemporary);
+  }
+
+  /**
+   * @return whether {@link #getDataBuffer} can read the pages of this store without copying them
+   */
+  default boolean isZeroCopySupported() {
+    return false;
+  }
+
   /**
    * Metrics.
    */
@@ -0,0 +1,87 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * The table holding the info of all pages tracked by a {@link DefaultPageMetaStore}, indexed by
+ * page id and by file id. Implementations are not required to be thread safe, as the meta store
+ * accesses the table under its own lock.
+ */
+public interface PageTable {
+
+  /**
+   * @param options the options of cache
+   * @return the page table configured by the options
+   */
+  static PageTable create(CacheManagerOptions options) {
+    if (options.isCompactMetaStoreEnabled()) {
+      return new CompactPageTable();
+    }
+    return new IndexedSetPageTable();
+  }
+
+  /**
+   * @param pageId page identifier
+   * @return if the page is in the table
+   */
+  boolean contains(PageId pageId);
+
+  /**
+   * @param pageId page identifier
+   * @return info of the page, or null if the page is not in the table
+   */
+  @Nullable
+  PageInfo get(PageId pageId);
+
+  /**
+   * Adds a page to the table.
+   *
+   * @param pageInfo info of the page
+   * @return true if the page is added, false if a page with the same id is already in the table
+   */
+  boolean add(PageInfo pageInfo);
+
+  /**
+   * Removes a page from the table.
+   *
+   * @param pageId page identifier
+   * @return info of the removed page, or null if the page is not in the table
+   */
+  @Nullable
+  PageInfo remove(PageId pageId);
+
+  /**
+   * @param fileId file identifier
+   * @return info of all pages of the file, or an empty set if no page of the file is in the table
+   */
+  Set<PageInfo> getByFileId(String fileId);
+
+  /**
+   * @param fileId file identifier
+   * @return info of any page of the file, or null if no page of the file is in the table
+   */
+  @Nullable
+  PageInfo getFirstByFileId(String fileId);
+
+  /**
+   * @return the number of pages in the table
+   */
+  int size();
+
+  /**
+   * Removes all pages from the table.
+   */
+  void clear();
+}
@@ -11,6 +11,7 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.allocator.HashAllocator;
 import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.evictor.CacheEvictorOptions;
 import alluxio.client.file.cache.store.PageStoreDir;
@@ -41,7 +42,17 @@ public class QuotaPageMetaStore extends DefaultPageMetaStore {
    * @param dirs storage directories
    */
   public QuotaPageMetaStore(CacheEvictorOptions cacheEvictorOptions, List<PageStoreDir> dirs) {
-    super(dirs);
+    this(cacheEvictorOptions, dirs, new IndexedSetPageTable());
+  }
+
+  /**
+   * @param cacheEvictorOptions options of cache evictor
+   * @param dirs storage directories
+   * @param pages the table to keep page info in
+   */
+  public QuotaPageMetaStore(CacheEvictorOptions cacheEvictorOptions, List<PageStoreDir> dirs,
+      PageTable pages) {
+    super(dirs, new HashAllocator(dirs), pages);
     mBytesInScope = new ConcurrentHashMap<>();
     mCacheEvictors = new ConcurrentHashMap<>();
     mSupplier = () -> CacheEvictor.create(cacheEvictorOptions);
@@ -0,0 +1,581 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.admission.CacheAdmissionPolicyOptions;
+import alluxio.client.file.cache.evictor.FrequencySketch;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.collections.ConcurrentHashSet;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.PageNotFoundException;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.network.protocol.databuffer.DataFileChannel;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A cache manager with a bounded memory tier in front of the cache directories.
+ * <p>
+ * Pages enter the cache through the memory tier. A page evicted from the memory tier is demoted
+ * to the cache directories instead of being dropped, and a page read repeatedly from the cache
+ * directories is promoted back to the memory tier, so that the hottest pages are read from
+ * memory while the cache directories hold the rest. A page is in one tier at a time, except
+ * briefly while it is moved, so the capacity of the cache is the sum of both tiers.
+ * <p>
+ * Pages are moved between the tiers by a background thread, so that reads and writes of the
+ * cache do not wait for them. Reads from the cache directories are only sampled to pick the
+ * pages to promote when no other read is sampling them, and a demoted page is read from memory
+ * until it is written to the cache directories. Moves are dropped while too many are pending,
+ * in which case a demoted page is evicted from the cache like in a single tier.
+ * <p>
+ * Temporary pages, appended pages and committed files are kept in the cache directories, where
+ * they are persisted.
+ */
+@ThreadSafe
+public class TieredCacheManager implements CacheManager {
+  private static final Logger LOG = LoggerFactory.getLogger(TieredCacheManager.class);
+  /** The maximum number of promotions and demotions waiting to be run. */
+  private static final int MAX_PENDING_MOVES = 1024;
+
+  private final LocalCacheManager mMemoryTier;
+  private final LocalCacheManager mDiskTier;
+  /** Runs the promotions and demotions. */
+  private final ExecutorService mMover;
+  /** The number of recent reads from the disk tier after which a page is promoted. */
+  private final int mPromotionHits;
+  private final Lock mDiskTierReadsLock = new ReentrantLock();
+  /** The recent reads of the pages in the disk tier. */
+  @GuardedBy("mDiskTierReadsLock")
+  private final FrequencySketch mDiskTierReads = new FrequencySketch();
+  /** The pages being promoted. */
+  private final ConcurrentHashSet<PageId> mPromotions = new ConcurrentHashSet<>();
+  /** The pages evicted from the memory tier which are not written to the disk tier yet. */
+  private final ConcurrentHashMap<PageId, Demotion> mDemotions = new ConcurrentHashMap<>();
+
+  /**
+   * @param conf the Alluxio configuration
+   * @param options the options of the cache directories, which are not modified
+   * @param pageMetaStore the meta store of the cache directories
+   * @return an instance of {@link TieredCacheManager}
+   */
+  public static TieredCacheManager create(AlluxioConfiguration conf,
+      CacheManagerOptions options, PageMetaStore pageMetaStore) throws IOException {
+    CacheManagerOptions memoryOptions = createMemoryTierOptions(conf, options);
+    PageMetaStore memoryMetaStore = PageMetaStore.create(memoryOptions);
+    Metrics.registerGauges(memoryMetaStore, pageMetaStore);
+    // pages are admitted and traced when they enter the memory tier
+    CacheManagerOptions diskOptions = options.copy()
+        .setCacheAdmissionPolicyOptions(new CacheAdmissionPolicyOptions())
+        .setTraceFile(null);
+    LocalCacheManager diskTier = LocalCacheManager.create(diskOptions, pageMetaStore);
+    return new TieredCacheManager(memoryOptions, memoryMetaStore, diskTier,
+        conf.getInt(PropertyKey.USER_CLIENT_CACHE_MEMORY_TIER_PROMOTION_HITS),
+        capacity(pageMetaStore) / options.getPageSize());
+  }
+
+  /**
+   * @param memoryOptions the options of the memory tier
+   * @param memoryMetaStore the meta store of the memory tier
+   * @param diskTier the disk tier
+   * @param promotionHits the number of recent reads from the disk tier to promote a page
+   * @param diskTierPages the number of pages the disk tier holds
+   */
+  private TieredCacheManager(CacheManagerOptions memoryOptions, PageMetaStore memoryMetaStore,
+      LocalCacheManager diskTier, int promotionHits, long diskTierPages) throws IOException {
+    Preconditions.checkArgument(promotionHits > 0,
+        "Invalid number of hits to promote a page %s", promotionHits);
+    mDiskTier = diskTier;
+    mPromotionHits = promotionHits;
+    mDiskTierReads.ensureCapacity(Math.max(1, diskTierPages));
+    mMover = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(MAX_PENDING_MOVES),
+        ThreadFactoryUtils.build("tiered-cache-mover-%d", true));
+    mMemoryTier = LocalCacheManager.create(memoryOptions, memoryMetaStore, this::scheduleDemotion);
+  }
+
+  /**
+   * Creates the options of the memory tier, which is a single page store in memory configured
+   * like the cache directories.
+   */
+  private static CacheManagerOptions createMemoryTierOptions(AlluxioConfiguration conf,
+      CacheManagerOptions options) {
+    InstancedConfiguration memoryConf = new InstancedConfiguration(conf.copyProperties());
+    memoryConf.set(PropertyKey.USER_CLIENT_CACHE_STORE_TYPE, PageStoreType.MEM);
+    memoryConf.set(PropertyKey.USER_CLIENT_CACHE_DIRS,
+        conf.getList(PropertyKey.USER_CLIENT_CACHE_DIRS).get(0));
+    memoryConf.set(PropertyKey.USER_CLIENT_CACHE_SIZE,
+        String.valueOf(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_MEMORY_TIER_SIZE)));
+    CacheManagerOptions memoryOptions = CacheManagerOptions.create(memoryConf)
+        .setIsAsyncWriteEnabled(options.isAsyncWriteEnabled());
+    // the admission window covers the pages of both tiers
+    memoryOptions.getCacheAdmissionPolicyOptions()
+        .setWindowSize(options.getCacheAdmissionPolicyOptions().getWindowSize());
+    return memoryOptions;
+  }
+
+  private static long capacity(PageMetaStore pageMetaStore) {
+    return pageMetaStore.getStoreDirs().stream().mapToLong(PageStoreDir::getCapacityBytes).sum();
+  }
+
+  /**
+   * Queues a page evicted from the memory tier to be written to the disk tier. This is called
+   * with the page locked in the memory tier.
+   */
+  private void scheduleDemotion(PageInfo pageInfo, byte[] page) {
+    Demotion demotion = new Demotion(pageInfo, page);
+    mDemotions.put(pageInfo.getPageId(), demotion);
+    try {
+      mMover.execute(() -> demote(demotion));
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Dropped the demotion of page {}", pageInfo.getPageId());
+      mDemotions.remove(pageInfo.getPageId(), demotion);
+    }
+  }
+
+  /**
+   * Writes a page evicted from the memory tier to the disk tier, unless it is deleted meanwhile.
+   * The pending demotion is only removed once the page is in the disk tier, so that the page can
+   * be read meanwhile. A deletion which cancels the demotion while the page is written waits for
+   * the write to finish, see {@link Demotion#cancel()}.
+   */
+  private void demote(Demotion demotion) {
+    PageId pageId = demotion.mPageInfo.getPageId();
+    if (!demotion.start()) {
+      return;
+    }
+    try {
+      if (mDiskTier.put(pageId, demotion.mPage,
+          CacheContext.defaults().setCacheScope(demotion.mPageInfo.getScope()))) {
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_DEMOTED.getName()).mark();
+      }
+    } finally {
+      demotion.finish();
+      mDemotions.remove(pageId, demotion);
+    }
+  }
+
+  /**
+   * Cancels the pending demotions matching a predicate, waiting for those being written.
+   *
+   * @return whether any demotion is canceled
+   */
+  private boolean cancelDemotions(Predicate<Demotion> predicate) {
+    boolean canceled = false;
+    for (Map.Entry<PageId, Demotion> entry : mDemotions.entrySet()) {
+      if (predicate.test(entry.getValue())
+          && mDemotions.remove(entry.getKey(), entry.getValue())) {
+        entry.getValue().cancel();
+        canceled = true;
+      }
+    }
+    return canceled;
+  }
+
+  /**
+   * Records a read of a page from the disk tier. The read is not recorded if another thread is
+   * recording one, since the reads are only a sample to find the hottest pages.
+   *
+   * @return whether the page is read often enough to be promoted
+   */
+  private boolean recordDiskTierRead(PageId pageId) {
+    if (!mDiskTierReadsLock.tryLock()) {
+      return false;
+    }
+    try {
+      mDiskTierReads.increment(pageId);
+      return mDiskTierReads.frequency(pageId) >= mPromotionHits;
+    } finally {
+      mDiskTierReadsLock.unlock();
+    }
+  }
+
+  private void schedulePromotion(PageId pageId, CacheContext cacheContext) {
+    if (!mPromotions.add(pageId)) {
+      return;
+    }
+    try {
+      mMover.execute(() -> promote(pageId, cacheContext));
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Dropped the promotion of page {}", pageId);
+      mPromotions.remove(pageId);
+    }
+  }
+
+  /**
+   * Moves a page from the disk tier to the memory tier.
+   */
+  private void promote(PageId pageId, CacheContext cacheContext) {
+    try {
+      byte[] page = mDiskTier.readPage(pageId);
+      if (page == null) {
+        return;
+      }
+      // the page is put into the memory tier before it is deleted from the disk tier, so that
+      // it can be read from either tier meanwhile
+      CacheContext context = CacheContext.defaults()
+          .setCacheScope(cacheContext.getCacheScope())
+          .setAdmissionBypassed(true);
+      if (!mMemoryTier.put(pageId, page, context)) {
+        return;
+      }
+      if (mDiskTier.delete(pageId)) {
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_PROMOTED.getName()).mark();
+      } else {
+        // the page was deleted while it was promoted
+        mMemoryTier.delete(pageId);
+      }
+    } finally {
+      mPromotions.remove(pageId);
+    }
+  }
+
+  /**
+   * Waits until no promotion or demotion is pending.
+   */
+  @VisibleForTesting
+  void waitForPendingMoves() throws Exception {
+    do {
+      mMover.submit(() -> { }).get();
+    } while (!mPromotions.isEmpty() || !mDemotions.isEmpty());
+  }
+
+  @Override
+  public boolean put(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
+    if (cacheContext.isTemporary()) {
+      return mDiskTier.put(pageId, page, cacheContext);
+    }
+    return mMemoryTier.put(pageId, page, cacheContext);
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, ReadTargetBuffer buffer,
+      CacheContext cacheContext) {
+    int bytesRead = mMemoryTier.get(pageId, pageOffset, buffer, cacheContext);
+    if (bytesRead > 0) {
+      return bytesRead;
+    }
+    Demotion demotion = mDemotions.get(pageId);
+    if (demotion != null) {
+      return demotion.read(pageOffset, demotion.mPage.length - pageOffset, buffer);
+    }
+    bytesRead = mDiskTier.get(pageId, pageOffset, buffer, cacheContext);
+    if (bytesRead > 0 && !cacheContext.isTemporary() && recordDiskTierRead(pageId)) {
+      schedulePromotion(pageId, cacheContext);
+    }
+    return bytesRead;
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
+      CacheContext cacheContext) {
+    int bytesRead = mMemoryTier.get(pageId, pageOffset, bytesToRead, buffer, cacheContext);
+    if (bytesRead > 0) {
+      return bytesRead;
+    }
+    Demotion demotion = mDemotions.get(pageId);
+    if (demotion != null) {
+      return demotion.read(pageOffset, bytesToRead, buffer);
+    }
+    bytesRead = mDiskTier.get(pageId, pageOffset, bytesToRead, buffer, cacheContext);
+    if (bytesRead > 0 && !cacheContext.isTemporary() && recordDiskTierRead(pageId)) {
+      schedulePromotion(pageId, cacheContext);
+    }
+    return bytesRead;
+  }
+
+  @Override
+  public int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier) {
+    int bytesRead = get(pageId, pageOffset, bytesToRead, buffer, cacheContext);
+    if (bytesRead > 0) {
+      return bytesRead;
+    }
+    return mMemoryTier.load(pageId, pageOffset, bytesToRead, buffer, cacheContext,
+        externalDataSupplier);
+  }
+
+  @Override
+  public boolean hasPage(PageId pageId) {
+    return mMemoryTier.hasPage(pageId) || mDemotions.containsKey(pageId)
+        || mDiskTier.hasPage(pageId);
+  }
+
+  @Override
+  public List<PageId> getCachedPageIdsByFileId(String fileId, long fileLength) {
+    return Stream.concat(
+        Stream.concat(mMemoryTier.getCachedPageIdsByFileId(fileId, fileLength).stream(),
+            mDemotions.keySet().stream().filter(pageId -> pageId.getFileId().equals(fileId))),
+        mDiskTier.getCachedPageIdsByFileId(fileId, fileLength).stream())
+        .distinct()
+        .sorted(Comparator.comparingLong(PageId::getPageIndex))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void pinFile(String fileId) {
+    // pinned pages stay in the tier they are in
+    mMemoryTier.pinFile(fileId);
+    mDiskTier.pinFile(fileId);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mMemoryTier.unpinFile(fileId);
+    mDiskTier.unpinFile(fileId);
+  }
+
+  @Override
+  public void deleteFile(String fileId) {
+    mMemoryTier.deleteFile(fileId);
+    // waits for the pages of the file being demoted
+    cancelDemotions(demotion -> demotion.mPageInfo.getPageId().getFileId().equals(fileId));
+    mDiskTier.deleteFile(fileId);
+  }
+
+  @Override
+  public boolean delete(PageId pageId) {
+    // a page may be in both tiers while it is moved
+    boolean deleted = mMemoryTier.hasPage(pageId) && mMemoryTier.delete(pageId);
+    // waits for the page if it is being demoted
+    Demotion demotion = mDemotions.remove(pageId);
+    if (demotion != null) {
+      demotion.cancel();
+      deleted = true;
+    }
+    return (mDiskTier.hasPage(pageId) && mDiskTier.delete(pageId)) || deleted;
+  }
+
+  @Override
+  public State state() {
+    State memoryTierState = mMemoryTier.state();
+    State diskTierState = mDiskTier.state();
+    return memoryTierState.getValue() < diskTierState.getValue()
+        ? memoryTierState : diskTierState;
+  }
+
+  @Override
+  public boolean append(PageId pageId, int appendAt, byte[] page, CacheContext cacheContext) {
+    return mDiskTier.append(pageId, appendAt, page, cacheContext);
+  }
+
+  @Override
+  public boolean append(PageId pageId, int appendAt, ByteBuffer page,
+      CacheContext cacheContext) {
+    return mDiskTier.append(pageId, appendAt, page, cacheContext);
+  }
+
+  @Override
+  public void invalidate(Predicate<PageInfo> predicate) {
+    mMemoryTier.invalidate(predicate);
+    cancelDemotions(demotion -> predicate.test(demotion.mPageInfo));
+    mDiskTier.invalidate(predicate);
+  }
+
+  @Override
+  public void commitFile(String fileId) {
+    mDiskTier.commitFile(fileId);
+  }
+
+  @Override
+  public void syncFile(String fileId) throws IOException {
+    mDiskTier.syncFile(fileId);
+  }
+
+  @Override
+  public Optional<DataFileChannel> getDataFileChannel(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) throws PageNotFoundException {
+    if (mMemoryTier.hasPage(pageId)) {
+      return mMemoryTier.getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext);
+    }
+    return mDiskTier.getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext);
+  }
+
+  @Override
+  public Optional<DataBuffer> getDataBuffer(PageId pageId, int pageOffset, int bytesToRead,
+      CacheContext cacheContext) throws PageNotFoundException {
+    if (mMemoryTier.hasPage(pageId)) {
+      try {
+        return mMemoryTier.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+      } catch (PageNotFoundException e) {
+        // the page has just been demoted
+      }
+    }
+    return mDiskTier.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return Optional.of(new Usage());
+  }
+
+  @Override
+  public void close() throws Exception {
+    mMover.shutdownNow();
+    mMemoryTier.close();
+    mDiskTier.close();
+  }
+
+  /**
+   * The usage of both tiers. The usage of a tier is partitioned by a {@link TierPartition}, and
+   * the cache directories are partitioned by their index as in the disk tier.
+   */
+  private final class Usage implements CacheUsage {
+    @Override
+    public long used() {
+      return mMemoryTier.getUsage().map(CacheUsage::used).orElse(0L)
+          + mDiskTier.getUsage().map(CacheUsage::used).orElse(0L);
+    }
+
+    @Override
+    public long available() {
+      return mMemoryTier.getUsage().map(CacheUsage::available).orElse(0L)
+          + mDiskTier.getUsage().map(CacheUsage::available).orElse(0L);
+    }
+
+    @Override
+    public long capacity() {
+      return mMemoryTier.getUsage().map(CacheUsage::capacity).orElse(0L)
+          + mDiskTier.getUsage().map(CacheUsage::capacity).orElse(0L);
+    }
+
+    @Override
+    public Optional<CacheUsage> partitionedBy(PartitionDescriptor<?> partition) {
+      if (partition instanceof TierPartition) {
+        return ((TierPartition) partition).getIdentifier() == TierPartition.Tier.MEMORY
+            ? mMemoryTier.getUsage() : mDiskTier.getUsage();
+      }
+      if (partition instanceof DirPartition) {
+        return mDiskTier.getUsage().flatMap(usage -> usage.partitionedBy(partition));
+      }
+      Optional<CacheUsage> memoryTierUsage =
+          mMemoryTier.getUsage().flatMap(usage -> usage.partitionedBy(partition));
+      Optional<CacheUsage> diskTierUsage =
+          mDiskTier.getUsage().flatMap(usage -> usage.partitionedBy(partition));
+      if (!memoryTierUsage.isPresent() || !diskTierUsage.isPresent()) {
+        return memoryTierUsage.isPresent() ? memoryTierUsage : diskTierUsage;
+      }
+      CacheUsage memory = memoryTierUsage.get();
+      CacheUsage disk = diskTierUsage.get();
+      return Optional.of(new CacheUsageView.ImmutableCacheUsageView(
+          memory.used() + disk.used(), memory.available() + disk.available(),
+          memory.capacity() + disk.capacity()));
+    }
+  }
+
+  /**
+   * A page evicted from the memory tier and waiting to be written to the disk tier.
+   */
+  private static final class Demotion {
+    private final PageInfo mPageInfo;
+    private final byte[] mPage;
+    /** Counted down once the page is written to the disk tier, or failed to be. */
+    private final CountDownLatch mWritten = new CountDownLatch(1);
+    @GuardedBy("this")
+    private boolean mStarted = false;
+    @GuardedBy("this")
+    private boolean mCanceled = false;
+
+    private Demotion(PageInfo pageInfo, byte[] page) {
+      mPageInfo = pageInfo;
+      mPage = page;
+    }
+
+    /**
+     * @return whether the page is to be written, i.e. the demotion is not canceled
+     */
+    private synchronized boolean start() {
+      if (mCanceled) {
+        return false;
+      }
+      mStarted = true;
+      return true;
+    }
+
+    private void finish() {
+      mWritten.countDown();
+    }
+
+    /**
+     * Cancels the demotion. If the page is being written to the disk tier, this waits for the
+     * write to finish, so that the page can be deleted from the disk tier afterwards.
+     */
+    private void cancel() {
+      synchronized (this) {
+        mCanceled = true;
+        if (!mStarted) {
+          return;
+        }
+      }
+      Uninterruptibles.awaitUninterruptibly(mWritten);
+    }
+
+    private int read(int pageOffset, int bytesToRead, ReadTargetBuffer buffer) {
+      int bytesRead = Math.min(bytesToRead, mPage.length - pageOffset);
+      if (bytesRead <= 0) {
+        return 0;
+      }
+      buffer.writeBytes(mPage, pageOffset, bytesRead);
+      return bytesRead;
+    }
+  }
+
+  private static final class Metrics {
+    /**
+     * Registers the space gauges of the whole cache, before the tiers register the gauges of
+     * their own.
+     */
+    private static void registerGauges(PageMetaStore memoryTier, PageMetaStore diskTier) {
+      long cacheSize = capacity(memoryTier) + capacity(diskTier);
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_SPACE_AVAILABLE.getName()),
+          () -> cacheSize - memoryTier.bytes() - diskTier.bytes());
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_SPACE_USED.getName()),
+          () -> memoryTier.bytes() + diskTier.bytes());
+    }
+  }
+}
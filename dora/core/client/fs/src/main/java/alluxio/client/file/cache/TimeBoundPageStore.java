@@ -17,6 +17,7 @@ import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
@@ -88,6 +89,39 @@ public class TimeBoundPageStore implements PageStore {
     }
   }
 
+  @Override
+  public void append(PageId pageId,
+      int appendAt,
+      ByteBuffer page,
+      boolean isTemporary) throws IOException, PageNotFoundException {
+    Callable<Void> callable = () -> {
+      mPageStore.append(pageId, appendAt, page, isTemporary);
+      return null;
+    };
+    try {
+      mTimeLimter.callWithTimeout(callable, mTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      // Task got cancelled by others, interrupt the current thread
+      // and then throw a runtime ex to make the higher level stop.
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (TimeoutException e) {
+      Metrics.STORE_PUT_TIMEOUT.inc();
+      throw new IOException(e);
+    } catch (RejectedExecutionException e) {
+      Metrics.STORE_THREADS_REJECTED.inc();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), ResourceExhaustedException.class,
+          IOException.class);
+      Throwables.propagateIfPossible(e.getCause(), PageNotFoundException.class);
+      throw new IOException(e);
+    } catch (Throwable t) {
+      Throwables.propagateIfPossible(t, IOException.class);
+      throw new IOException(t);
+    }
+  }
+
   @Override
   public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
       boolean isTemporary) throws IOException, PageNotFoundException {
@@ -143,6 +177,17 @@ public class TimeBoundPageStore implements PageStore {
     return mPageStore.getDataFileChannel(pageId, pageOffset, bytesToRead, isTemporary);
   }
 
+  @Override
+  public DataBuffer getDataBuffer(PageId pageId, int pageOffset, int bytesToRead,
+                                  boolean isTemporary) throws PageNotFoundException {
+    return mPageStore.getDataBuffer(pageId, pageOffset, bytesToRead, isTemporary);
+  }
+
+  @Override
+  public boolean isZeroCopySupported() {
+    return mPageStore.isZeroCopySupported();
+  }
+
   @Override
   public void close() throws Exception {
     mExecutorService.shutdown();
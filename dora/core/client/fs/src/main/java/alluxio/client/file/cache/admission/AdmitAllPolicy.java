@@ -0,0 +1,35 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.PageId;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Admission policy which admits every page into the cache.
+ */
+@ThreadSafe
+public class AdmitAllPolicy implements CacheAdmissionPolicy {
+  /**
+   * Constructor.
+   * @param options
+   */
+  public AdmitAllPolicy(CacheAdmissionPolicyOptions options) {}
+
+  @Override
+  public boolean admit(PageId pageId, int size, CacheContext cacheContext) {
+    return true;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.PageId;
+import alluxio.util.CommonUtils;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Interface for client-side cache admission policy, which decides whether a page missing from
+ * the cache is worth caching. The implementation of this policy must be thread-safe.
+ */
+@ThreadSafe
+public interface CacheAdmissionPolicy {
+
+  /**
+   * @param options cache admission policy options
+   * @return a CacheAdmissionPolicy instance
+   */
+  static CacheAdmissionPolicy create(CacheAdmissionPolicyOptions options) {
+    return CommonUtils.createNewClassInstance(
+        options.getPolicyClass(),
+        new Class[] {CacheAdmissionPolicyOptions.class}, new Object[] {options});
+  }
+
+  /**
+   * Decides whether a page is put into the cache.
+   *
+   * @param pageId page identifier
+   * @param size the size of the page
+   * @param cacheContext the context of the page
+   * @return true if the page is admitted into the cache
+   */
+  boolean admit(PageId pageId, int size, CacheContext cacheContext);
+}
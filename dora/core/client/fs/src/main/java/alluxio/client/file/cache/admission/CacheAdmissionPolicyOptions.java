@@ -0,0 +1,55 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+/**
+ * Options for initiating cache admission policy.
+ */
+public class CacheAdmissionPolicyOptions {
+
+  private Class<? extends CacheAdmissionPolicy> mPolicyClass = AdmitAllPolicy.class;
+  private long mWindowSize = 1 << 20;
+
+  /**
+   * @return the policy that decides whether a page is admitted into the cache
+   */
+  public Class<? extends CacheAdmissionPolicy> getPolicyClass() {
+    return mPolicyClass;
+  }
+
+  /**
+   * @return the number of page reads the pages read once are remembered for
+   */
+  public long getWindowSize() {
+    return mWindowSize;
+  }
+
+  /**
+   * @param policyClass
+   * @return CacheAdmissionPolicyOptions
+   */
+  public CacheAdmissionPolicyOptions setPolicyClass(
+      Class<? extends CacheAdmissionPolicy> policyClass) {
+    mPolicyClass = policyClass;
+    return this;
+  }
+
+  /**
+   * @param windowSize
+   * @return CacheAdmissionPolicyOptions
+   */
+  public CacheAdmissionPolicyOptions setWindowSize(long windowSize) {
+    mWindowSize = windowSize;
+    return this;
+  }
+}
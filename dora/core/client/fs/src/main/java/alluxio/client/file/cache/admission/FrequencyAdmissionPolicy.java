@@ -0,0 +1,115 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManagerWithShadowCache;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.cuckoofilter.ConcurrentClockCuckooFilter;
+import alluxio.client.file.cache.cuckoofilter.SlidingWindowType;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Admission policy which only admits a page into the cache when it is read again within a window
+ * of page reads, so that the pages read once by scans do not evict the pages read repeatedly.
+ * The pages read once are remembered in a clock cuckoo filter, which forgets them once they are
+ * not read for the window, and takes a couple of bytes per page.
+ */
+@ThreadSafe
+public class FrequencyAdmissionPolicy implements CacheAdmissionPolicy {
+  /** The filter is aged 2^BITS_PER_CLOCK times per window. */
+  private static final int BITS_PER_CLOCK = 2;
+  private static final int BITS_PER_SIZE = 1;
+  private static final int BITS_PER_SCOPE = 1;
+  private static final int MIN_WINDOW_SIZE = 1 << 10;
+
+  private final ConcurrentClockCuckooFilter<PageId> mHistory;
+  private final long mAgingPeriod;
+  private final AtomicLong mReads = new AtomicLong();
+  private final AtomicLong mAdmittedBytes = new AtomicLong();
+
+  /**
+   * Constructor.
+   * @param options
+   */
+  public FrequencyAdmissionPolicy(CacheAdmissionPolicyOptions options) {
+    Preconditions.checkArgument(options.getWindowSize() > 0,
+        "Invalid admission window size %s", options.getWindowSize());
+    // the filter holds at most the pages read in a window, and its size must be a power of 2
+    long windowSize = Math.max(MIN_WINDOW_SIZE, options.getWindowSize());
+    long expectedInsertions = Long.highestOneBit(windowSize - 1) << 1;
+    mHistory = ConcurrentClockCuckooFilter.create(CacheManagerWithShadowCache.PageIdFunnel.FUNNEL,
+        expectedInsertions, BITS_PER_CLOCK, BITS_PER_SIZE, BITS_PER_SCOPE,
+        SlidingWindowType.COUNT_BASED, windowSize);
+    mAgingPeriod = windowSize >> BITS_PER_CLOCK;
+    Metrics.registerGauges();
+  }
+
+  @Override
+  public boolean admit(PageId pageId, int size, CacheContext cacheContext) {
+    mHistory.increaseOperationCount(1);
+    if (mReads.incrementAndGet() % mAgingPeriod == 0) {
+      mHistory.aging();
+    }
+    if (mHistory.mightContainAndResetClock(pageId)) {
+      MetricsSystem.meter(MetricKey.CLIENT_CACHE_ADMISSION_PAGES_ADMITTED.getName()).mark();
+      mAdmittedBytes.addAndGet(size);
+      Metrics.ADMITTED_BYTES.addAndGet(size);
+      return true;
+    }
+    if (!mHistory.put(pageId, 1, cacheContext.getCacheScope())) {
+      // the page cannot be remembered, admit it rather than never admitting it
+      return true;
+    }
+    MetricsSystem.meter(MetricKey.CLIENT_CACHE_ADMISSION_PAGES_REJECTED.getName()).mark();
+    return false;
+  }
+
+  /**
+   * @return the number of bytes of the pages admitted on their repeated read
+   */
+  @VisibleForTesting
+  public long getAdmittedBytes() {
+    return mAdmittedBytes.get();
+  }
+
+  private static final class Metrics {
+    /**
+     * The bytes admitted on their repeated read by all the policies of the process, so that the
+     * gauge covers the policies created after the one registering it.
+     */
+    private static final AtomicLong ADMITTED_BYTES = new AtomicLong();
+
+    private static void registerGauges() {
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_ADMISSION_HIT_RATE_LOSS.getName()),
+          () -> {
+            long requested = MetricsSystem.meter(
+                MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getName()).getCount()
+                + MetricsSystem.meter(
+                MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getName()).getCount();
+            if (requested > 0) {
+              return Math.min(1.0, ADMITTED_BYTES.get() / (1.0 * requested));
+            }
+            return 0.0;
+          });
+    }
+  }
+}
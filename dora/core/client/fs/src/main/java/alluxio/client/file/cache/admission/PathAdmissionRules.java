@@ -0,0 +1,105 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Rules deciding how the pages of the files under path prefixes are admitted into the cache,
+ * configured by {@link PropertyKey#USER_CLIENT_CACHE_ADMISSION_PATH_RULES}. The rule of the
+ * longest prefix matching a path applies.
+ */
+@ThreadSafe
+public final class PathAdmissionRules {
+  /**
+   * How the pages of a file are admitted into the cache.
+   */
+  public enum Action {
+    /** Admits every page of the file. */
+    ALWAYS,
+    /** Leaves the pages of the file to the admission policy. */
+    POLICY,
+    /** Does not cache the file. */
+    NEVER,
+  }
+
+  /** The rules, from the longest prefix to the shortest. */
+  private final List<Rule> mRules;
+
+  /**
+   * @param conf the Alluxio configuration
+   * @return the rules configured
+   */
+  public static PathAdmissionRules create(AlluxioConfiguration conf) {
+    if (!conf.isSet(PropertyKey.USER_CLIENT_CACHE_ADMISSION_PATH_RULES)) {
+      return new PathAdmissionRules(Collections.emptyList());
+    }
+    return new PathAdmissionRules(
+        conf.getList(PropertyKey.USER_CLIENT_CACHE_ADMISSION_PATH_RULES));
+  }
+
+  /**
+   * @param rules the rules, each in the form of prefix=action
+   */
+  public PathAdmissionRules(List<String> rules) {
+    List<Rule> parsed = new ArrayList<>(rules.size());
+    for (String rule : rules) {
+      String[] parts = rule.trim().split("=", 2);
+      Preconditions.checkArgument(parts.length == 2 && !parts[0].isEmpty(),
+          "Cache admission path rule should be set as \"prefix=action\", got %s", rule);
+      parsed.add(new Rule(parts[0],
+          Action.valueOf(parts[1].trim().toUpperCase(Locale.ROOT))));
+    }
+    parsed.sort(Comparator.comparingInt((Rule r) -> r.mPrefix.length()).reversed());
+    mRules = parsed;
+  }
+
+  /**
+   * @param path the path of a file
+   * @return how the pages of the file are admitted into the cache
+   */
+  public Action match(String path) {
+    for (Rule rule : mRules) {
+      if (rule.matches(path)) {
+        return rule.mAction;
+      }
+    }
+    return Action.POLICY;
+  }
+
+  private static final class Rule {
+    private final String mPrefix;
+    private final Action mAction;
+
+    private Rule(String prefix, Action action) {
+      mPrefix = prefix;
+      mAction = action;
+    }
+
+    private boolean matches(String path) {
+      // a prefix only matches whole path components, e.g. /etl does not match /etl2
+      return path.startsWith(mPrefix) && (path.length() == mPrefix.length()
+          || mPrefix.endsWith("/") || path.charAt(mPrefix.length()) == '/');
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A count-min sketch of the access frequencies of pages, with 4-bit counters which are halved
+ * periodically so that the frequencies reflect recent accesses.
+ *
+ * Each page is mapped to four counters, one in each of four 64-bit words of the table chosen by
+ * independent hashes, and its frequency is the minimum of them. Within a word, the hash of the
+ * page also selects which group of four counters is used. When the number of increments reaches
+ * ten times the size of the table, all counters are halved.
+ */
+@NotThreadSafe
+public final class FrequencySketch {
+  private static final long[] SEEDS = new long[] {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MIN_TABLE_SIZE = 64;
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+  private static final int SAMPLE_SIZE_MULTIPLIER = 10;
+  /** The maximum frequency which can be counted. */
+  static final int MAX_FREQUENCY = 15;
+
+  private long[] mTable;
+  private int mTableMask;
+  private long mSampleSize;
+  private long mSize;
+
+  /**
+   * Creates a sketch of the minimum size.
+   */
+  public FrequencySketch() {
+    resize(MIN_TABLE_SIZE);
+  }
+
+  /**
+   * Grows the sketch to count the frequencies of the given number of pages accurately. The
+   * frequencies counted so far are kept when the sketch grows.
+   *
+   * @param numPages the number of pages
+   */
+  public void ensureCapacity(long numPages) {
+    if (numPages > mTable.length && mTable.length < MAX_TABLE_SIZE) {
+      grow((int) Math.min(MAX_TABLE_SIZE, Long.highestOneBit(numPages - 1) << 1));
+    }
+  }
+
+  /**
+   * Grows the table, copying it into each part of the larger table. The word of a counter in the
+   * larger table is the same modulo the size of the smaller table, so all counters keep their
+   * values.
+   */
+  private void grow(int tableSize) {
+    long[] table = new long[tableSize];
+    for (int i = 0; i < tableSize; i += mTable.length) {
+      System.arraycopy(mTable, 0, table, i, mTable.length);
+    }
+    mTable = table;
+    mTableMask = tableSize - 1;
+    mSampleSize = (long) SAMPLE_SIZE_MULTIPLIER * tableSize;
+  }
+
+  private void resize(int tableSize) {
+    mTable = new long[tableSize];
+    mTableMask = tableSize - 1;
+    mSampleSize = (long) SAMPLE_SIZE_MULTIPLIER * tableSize;
+    mSize = 0;
+  }
+
+  /**
+   * @param pageId the page
+   * @return the estimated number of recent accesses of the page, up to {@link #MAX_FREQUENCY}
+   */
+  public int frequency(PageId pageId) {
+    int hash = spread(pageId.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((mTable[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an access of the page.
+   *
+   * @param pageId the page
+   */
+  public void increment(PageId pageId) {
+    int hash = spread(pageId.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++mSize >= mSampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Forgets all accesses.
+   */
+  public void clear() {
+    resize(mTable.length);
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((mTable[index] & mask) != mask) {
+      mTable[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halves all counters. */
+  private void reset() {
+    long odd = 0;
+    for (int i = 0; i < mTable.length; i++) {
+      odd += Long.bitCount(mTable[i] & ONE_MASK);
+      mTable[i] = (mTable[i] >>> 1) & RESET_MASK;
+    }
+    mSize = (mSize - (odd >>> 2)) >>> 1;
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & mTableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
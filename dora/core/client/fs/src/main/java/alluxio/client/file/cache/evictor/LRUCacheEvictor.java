@@ -16,12 +16,19 @@ import alluxio.client.file.cache.PageId;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * LRU client-side cache eviction policy.
+ * <p>
+ * Pages read are recorded in per-thread-stripe {@link ReadBuffer}s and applied to the LRU order
+ * in batches, so that concurrent readers do not lock the LRU order on every access. The buffers
+ * are drained before any other update, so the order of updates made by a single thread is
+ * preserved.
  */
 @ThreadSafe
 public class LRUCacheEvictor implements CacheEvictor {
@@ -34,33 +41,48 @@ public class LRUCacheEvictor implements CacheEvictor {
   protected final Map<PageId, Boolean> mLRUCache =
       Collections.synchronizedMap(new LinkedHashMap<>(LINKED_HASH_MAP_INIT_CAPACITY,
           LINKED_HASH_MAP_INIT_LOAD_FACTOR, LINKED_HASH_MAP_ACCESS_ORDERED));
+  private final ReadBuffer[] mReadBuffers;
+  private final Consumer<PageId> mApplyRead = pageId -> mLRUCache.put(pageId, UNUSED_MAP_VALUE);
 
   /**
    * Constructor.
    * @param options
    */
   public LRUCacheEvictor(CacheEvictorOptions options) {
+    mReadBuffers = ReadBuffer.createStripes();
   }
 
   @Override
   public void updateOnGet(PageId pageId) {
-    mLRUCache.put(pageId, UNUSED_MAP_VALUE);
+    if (!ReadBuffer.ofCurrentThread(mReadBuffers).offer(pageId)) {
+      synchronized (mLRUCache) {
+        drainReadBuffers();
+        mLRUCache.put(pageId, UNUSED_MAP_VALUE);
+      }
+    }
   }
 
   @Override
   public void updateOnPut(PageId pageId) {
-    mLRUCache.put(pageId, UNUSED_MAP_VALUE);
+    synchronized (mLRUCache) {
+      drainReadBuffers();
+      mLRUCache.put(pageId, UNUSED_MAP_VALUE);
+    }
   }
 
   @Override
   public void updateOnDelete(PageId pageId) {
-    mLRUCache.remove(pageId, UNUSED_MAP_VALUE);
+    synchronized (mLRUCache) {
+      drainReadBuffers();
+      mLRUCache.remove(pageId, UNUSED_MAP_VALUE);
+    }
   }
 
   @Nullable
   @Override
   public PageId evict() {
     synchronized (mLRUCache) {
+      drainReadBuffers();
       return mLRUCache.isEmpty() ? null : mLRUCache.keySet().iterator().next();
     }
   }
@@ -69,6 +91,7 @@ public class LRUCacheEvictor implements CacheEvictor {
   @Override
   public PageId evictMatching(Predicate<PageId> criterion) {
     synchronized (mLRUCache) {
+      drainReadBuffers();
       for (PageId candidate : mLRUCache.keySet()) {
         if (criterion.test(candidate)) {
           return candidate;
@@ -80,6 +103,19 @@ public class LRUCacheEvictor implements CacheEvictor {
 
   @Override
   public void reset() {
-    mLRUCache.clear();
+    synchronized (mLRUCache) {
+      drainReadBuffers();
+      mLRUCache.clear();
+    }
+  }
+
+  /**
+   * Applies the buffered reads to the LRU order.
+   */
+  @GuardedBy("mLRUCache")
+  protected void drainReadBuffers() {
+    for (ReadBuffer buffer : mReadBuffers) {
+      buffer.drain(mApplyRead);
+    }
   }
 }
@@ -47,6 +47,7 @@ public class NondeterministicLRUCacheEvictor extends LRUCacheEvictor {
   @Override
   public PageId evict() {
     synchronized (mLRUCache) {
+      drainReadBuffers();
       if (mLRUCache.isEmpty()) {
         return null;
       }
@@ -64,6 +65,7 @@ public class NondeterministicLRUCacheEvictor extends LRUCacheEvictor {
   @Override
   public PageId evictMatching(Predicate<PageId> criterion) {
     synchronized (mLRUCache) {
+      drainReadBuffers();
       if (mLRUCache.isEmpty()) {
         return null;
       }
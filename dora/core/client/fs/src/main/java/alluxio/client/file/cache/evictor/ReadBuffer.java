@@ -0,0 +1,93 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded buffer of pages read, which accepts pages from any thread without locking and is
+ * drained by the holder of the lock of an evictor. Evictors keep one buffer per stripe of
+ * threads, so that concurrent readers do not lock the evictor on every access.
+ */
+@ThreadSafe
+final class ReadBuffer {
+  private static final int SIZE = 16;
+  private static final int MASK = SIZE - 1;
+  private static final int MAX_STRIPES = 64;
+
+  private final AtomicReferenceArray<PageId> mPages = new AtomicReferenceArray<>(SIZE);
+  private final AtomicLong mWriteCount = new AtomicLong();
+  /** Only updated when holding the lock of the evictor. */
+  private volatile long mReadCount;
+
+  /**
+   * @return the buffers of the stripes of threads, as many as the processors up to a limit
+   */
+  static ReadBuffer[] createStripes() {
+    int numBuffers = Integer.highestOneBit(
+        Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    ReadBuffer[] buffers = new ReadBuffer[numBuffers];
+    for (int i = 0; i < numBuffers; i++) {
+      buffers[i] = new ReadBuffer();
+    }
+    return buffers;
+  }
+
+  /**
+   * @param stripes the buffers created by {@link #createStripes()}
+   * @return the buffer of the current thread
+   */
+  static ReadBuffer ofCurrentThread(ReadBuffer[] stripes) {
+    return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+  }
+
+  /**
+   * @param pageId the page read
+   * @return false if the buffer is full or contended, in which case the page is not buffered
+   */
+  boolean offer(PageId pageId) {
+    long writeCount = mWriteCount.get();
+    if (writeCount - mReadCount >= SIZE
+        || !mWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+      return false;
+    }
+    mPages.set((int) writeCount & MASK, pageId);
+    return true;
+  }
+
+  /**
+   * Applies the buffered pages in the order they were read. Must be called with the lock of
+   * the evictor held.
+   *
+   * @param consumer the consumer of the pages
+   */
+  void drain(Consumer<PageId> consumer) {
+    long writeCount = mWriteCount.get();
+    long readCount = mReadCount;
+    for (; readCount < writeCount; readCount++) {
+      int index = (int) readCount & MASK;
+      PageId pageId = mPages.get(index);
+      if (pageId == null) {
+        // the slot is claimed by a writer which has not stored the page yet
+        break;
+      }
+      mPages.lazySet(index, null);
+      consumer.accept(pageId);
+    }
+    mReadCount = readCount;
+  }
+}
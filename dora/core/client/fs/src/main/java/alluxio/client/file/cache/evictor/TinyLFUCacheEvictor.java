@@ -0,0 +1,248 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Scan-resistant cache eviction policy based on W-TinyLFU.
+ * <p>
+ * New pages enter a small LRU admission window. The rest of the pages are in a segmented LRU,
+ * split into a probation segment and a protected segment for pages read again while on
+ * probation. When a page has to be evicted and the window is over its share of the pages, the
+ * least recently used page of the window competes with the least recently used page on
+ * probation: the one read less often recently, as estimated by a {@link FrequencySketch}, is
+ * evicted, and the other one stays on probation. Pages read once, e.g. by a scan, thus leave
+ * the cache through the window without evicting the pages read repeatedly.
+ * <p>
+ * Like {@link LRUCacheEvictor}, pages read are recorded in {@link ReadBuffer}s and applied in
+ * batches, so that concurrent readers do not lock the evictor on every access.
+ */
+@ThreadSafe
+public class TinyLFUCacheEvictor implements CacheEvictor {
+  /** The share of the pages in the admission window. */
+  private static final double WINDOW_RATIO = 0.01;
+  /** The share of the pages not in the admission window which are protected. */
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private final Object mLock = new Object();
+  @GuardedBy("mLock")
+  private final Map<PageId, Segment> mSegments = new HashMap<>();
+  @GuardedBy("mLock")
+  private final LinkedHashSet<PageId> mWindow = new LinkedHashSet<>();
+  @GuardedBy("mLock")
+  private final LinkedHashSet<PageId> mProbation = new LinkedHashSet<>();
+  @GuardedBy("mLock")
+  private final LinkedHashSet<PageId> mProtected = new LinkedHashSet<>();
+  @GuardedBy("mLock")
+  private final FrequencySketch mSketch = new FrequencySketch();
+  private final ReadBuffer[] mReadBuffers = ReadBuffer.createStripes();
+  private final Consumer<PageId> mApplyRead = this::onRead;
+
+  private enum Segment {
+    WINDOW,
+    PROBATION,
+    PROTECTED,
+  }
+
+  /**
+   * Constructor.
+   * @param options
+   */
+  public TinyLFUCacheEvictor(CacheEvictorOptions options) {
+  }
+
+  @Override
+  public void updateOnGet(PageId pageId) {
+    if (!ReadBuffer.ofCurrentThread(mReadBuffers).offer(pageId)) {
+      synchronized (mLock) {
+        drainReadBuffers();
+        onRead(pageId);
+      }
+    }
+  }
+
+  @Override
+  public void updateOnPut(PageId pageId) {
+    synchronized (mLock) {
+      drainReadBuffers();
+      if (mSegments.containsKey(pageId)) {
+        onRead(pageId);
+        return;
+      }
+      mSketch.increment(pageId);
+      mSegments.put(pageId, Segment.WINDOW);
+      mWindow.add(pageId);
+      mSketch.ensureCapacity(mSegments.size());
+    }
+  }
+
+  @Override
+  public void updateOnDelete(PageId pageId) {
+    synchronized (mLock) {
+      drainReadBuffers();
+      Segment segment = mSegments.remove(pageId);
+      if (segment != null) {
+        segment(segment).remove(pageId);
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  public PageId evict() {
+    synchronized (mLock) {
+      drainReadBuffers();
+      int windowSize = windowSize();
+      // the rest of the cache is under its share of the pages by as many pages as the window
+      // is over its share, so all but one of them are admitted without competing
+      while (mWindow.size() > windowSize + 1) {
+        move(first(mWindow), Segment.PROBATION);
+      }
+      PageId victim = mProbation.isEmpty() ? first(mProtected) : first(mProbation);
+      if (mWindow.size() <= windowSize) {
+        return victim != null ? victim : first(mWindow);
+      }
+      PageId candidate = first(mWindow);
+      if (victim != null && mSketch.frequency(candidate) > mSketch.frequency(victim)) {
+        // the candidate is admitted, the page on probation is evicted instead
+        move(candidate, Segment.PROBATION);
+        return victim;
+      }
+      return candidate;
+    }
+  }
+
+  @Nullable
+  @Override
+  public PageId evictMatching(Predicate<PageId> criterion) {
+    synchronized (mLock) {
+      drainReadBuffers();
+      for (Segment segment : new Segment[] {Segment.WINDOW, Segment.PROBATION,
+          Segment.PROTECTED}) {
+        for (PageId candidate : segment(segment)) {
+          if (criterion.test(candidate)) {
+            return candidate;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public void reset() {
+    synchronized (mLock) {
+      drainReadBuffers();
+      mSegments.clear();
+      mWindow.clear();
+      mProbation.clear();
+      mProtected.clear();
+      mSketch.clear();
+    }
+  }
+
+  /**
+   * @param pageId a page
+   * @return the estimated number of recent accesses of the page
+   */
+  @VisibleForTesting
+  public int frequency(PageId pageId) {
+    synchronized (mLock) {
+      drainReadBuffers();
+      return mSketch.frequency(pageId);
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void onRead(PageId pageId) {
+    mSketch.increment(pageId);
+    Segment segment = mSegments.get(pageId);
+    if (segment == null) {
+      // the page is not cached, or has been evicted since it was read
+      return;
+    }
+    switch (segment) {
+      case WINDOW:
+        mWindow.remove(pageId);
+        mWindow.add(pageId);
+        break;
+      case PROBATION:
+        move(pageId, Segment.PROTECTED);
+        int maxProtected = (int) ((mSegments.size() - mWindow.size()) * PROTECTED_RATIO);
+        while (mProtected.size() > Math.max(1, maxProtected)) {
+          move(first(mProtected), Segment.PROBATION);
+        }
+        break;
+      case PROTECTED:
+        mProtected.remove(pageId);
+        mProtected.add(pageId);
+        break;
+      default:
+        throw new IllegalStateException("Unknown segment " + segment);
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void move(PageId pageId, Segment to) {
+    Segment from = mSegments.put(pageId, to);
+    segment(from).remove(pageId);
+    segment(to).add(pageId);
+  }
+
+  @GuardedBy("mLock")
+  private LinkedHashSet<PageId> segment(Segment segment) {
+    switch (segment) {
+      case WINDOW:
+        return mWindow;
+      case PROBATION:
+        return mProbation;
+      case PROTECTED:
+        return mProtected;
+      default:
+        throw new IllegalStateException("Unknown segment " + segment);
+    }
+  }
+
+  @GuardedBy("mLock")
+  private int windowSize() {
+    return Math.max(1, (int) (mSegments.size() * WINDOW_RATIO));
+  }
+
+  @Nullable
+  private static PageId first(LinkedHashSet<PageId> pages) {
+    Iterator<PageId> iterator = pages.iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  /**
+   * Applies the buffered reads.
+   */
+  @GuardedBy("mLock")
+  private void drainReadBuffers() {
+    for (ReadBuffer buffer : mReadBuffers) {
+      buffer.drain(mApplyRead);
+    }
+  }
+}
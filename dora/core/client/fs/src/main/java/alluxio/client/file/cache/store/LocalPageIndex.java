@@ -0,0 +1,544 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.quota.CacheScope;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A persistent index of the pages stored in a {@link LocalPageStoreDir}, used to restore the
+ * cache without walking every page file on startup.
+ * <p>
+ * The index consists of a checkpoint file holding a full list of pages, and a journal of page
+ * additions and deletions made after the checkpoint was taken. A new checkpoint is produced by
+ * merging the journal into the previous checkpoint, so taking a checkpoint does not need to
+ * access the page meta store. Both files are validated by checksums on restore, and callers
+ * are expected to fall back to a full scan of the directory if the index cannot be used.
+ * <p>
+ * Journal records are written to the OS on every update, so the index survives a process crash.
+ * Updates lost on a machine crash can only leave stale entries, which are removed on first
+ * access, or page files which are not indexed, which are removed on the next full scan.
+ */
+@ThreadSafe
+public class LocalPageIndex implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(LocalPageIndex.class);
+
+  /** Name of the directory under the page store root holding the index files. */
+  public static final String INDEX_DIR = "index";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final String JOURNAL_FILE = "journal";
+  private static final String COMPACTING_JOURNAL_FILE = "journal.compacting";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private static final int MAGIC = 0x414c5049;
+  private static final int VERSION = 1;
+  private static final byte ENTRY = 1;
+  private static final byte END = 0;
+  private static final byte OP_ADD = 1;
+  private static final byte OP_DELETE = 2;
+  /** Upper bound of a journal record, whose file id is limited to 64KB by modified UTF-8. */
+  private static final int MAX_RECORD_LENGTH = 1 << 17;
+
+  private final PageStoreDir mDir;
+  private final long mPageSize;
+  private final Path mIndexDir;
+  private final Path mCheckpointPath;
+  private final Path mJournalPath;
+  private final Path mCompactingJournalPath;
+  /** Serializes checkpoints against each other. */
+  private final Object mCheckpointLock = new Object();
+
+  @GuardedBy("this")
+  @Nullable
+  private FileOutputStream mJournal;
+  @GuardedBy("this")
+  private long mJournalRecords;
+
+  /**
+   * @param dir the page store directory this index describes
+   * @param pageSize the page size of the page store directory
+   */
+  public LocalPageIndex(PageStoreDir dir, long pageSize) {
+    mDir = dir;
+    mPageSize = pageSize;
+    mIndexDir = getIndexDir(dir.getRootPath());
+    mCheckpointPath = mIndexDir.resolve(CHECKPOINT_FILE);
+    mJournalPath = mIndexDir.resolve(JOURNAL_FILE);
+    mCompactingJournalPath = mIndexDir.resolve(COMPACTING_JOURNAL_FILE);
+  }
+
+  /**
+   * @param rootDir root directory of a page store
+   * @return the directory holding the page index of the page store
+   */
+  public static Path getIndexDir(Path rootDir) {
+    return rootDir.resolve(INDEX_DIR);
+  }
+
+  /**
+   * Restores the pages recorded in the index. The checkpoint and journals are validated before
+   * any page is passed to the consumer, so a return value of false means no page was consumed.
+   *
+   * @param pageConsumer consumer of the restored pages
+   * @return true if the pages were restored from the index, false if the index is missing or
+   *         invalid and the directory needs to be scanned instead
+   * @throws IOException if the index fails to be read after being validated
+   */
+  public boolean restore(Consumer<PageInfo> pageConsumer) throws IOException {
+    synchronized (mCheckpointLock) {
+      if (!Files.exists(mCheckpointPath)) {
+        LOG.info("No page index checkpoint found in {}", mIndexDir);
+        return false;
+      }
+      Map<PageId, Optional<PageInfo>> delta = new HashMap<>();
+      try {
+        readJournal(mCompactingJournalPath, delta);
+        readJournal(mJournalPath, delta);
+        validateCheckpoint();
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Invalid page index in {}: {}", mIndexDir, e.toString());
+        return false;
+      }
+      readCheckpoint(page -> {
+        if (!delta.containsKey(page.getPageId())) {
+          pageConsumer.accept(page);
+        }
+      });
+      delta.values().forEach(page -> page.ifPresent(pageConsumer));
+      return true;
+    }
+  }
+
+  /**
+   * Opens a new journal to start recording page updates. Journals left by a previous run are
+   * merged into the checkpoint first, which must exist.
+   *
+   * @throws IOException if the journal fails to be opened
+   */
+  public void open() throws IOException {
+    synchronized (mCheckpointLock) {
+      Preconditions.checkState(Files.exists(mCheckpointPath),
+          "page index checkpoint %s does not exist", mCheckpointPath);
+      if (Files.exists(mCompactingJournalPath)) {
+        compact();
+      }
+      if (Files.exists(mJournalPath)) {
+        Files.move(mJournalPath, mCompactingJournalPath, StandardCopyOption.ATOMIC_MOVE);
+        compact();
+      }
+      synchronized (this) {
+        Preconditions.checkState(mJournal == null, "page index is already open");
+        mJournal = new FileOutputStream(mJournalPath.toFile(), false);
+        mJournalRecords = 0;
+      }
+    }
+  }
+
+  /**
+   * Records that a page has been added to the directory. This is a no-op if the index is not
+   * open.
+   *
+   * @param pageInfo info of the added page
+   */
+  public void recordAdd(PageInfo pageInfo) {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(payload)) {
+      out.writeByte(OP_ADD);
+      writePage(out, pageInfo);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    appendRecord(payload.toByteArray());
+  }
+
+  /**
+   * Records that a page has been removed from the directory. This is a no-op if the index is
+   * not open.
+   *
+   * @param pageId id of the removed page
+   */
+  public void recordDelete(PageId pageId) {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(payload)) {
+      out.writeByte(OP_DELETE);
+      out.writeUTF(pageId.getFileId());
+      out.writeLong(pageId.getPageIndex());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    appendRecord(payload.toByteArray());
+  }
+
+  private synchronized void appendRecord(byte[] payload) {
+    if (mJournal == null) {
+      return;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(payload, 0, payload.length);
+    ByteArrayOutputStream record = new ByteArrayOutputStream(payload.length + 12);
+    try (DataOutputStream out = new DataOutputStream(record)) {
+      out.writeInt(payload.length);
+      out.write(payload);
+      out.writeLong(crc.getValue());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    try {
+      // a single write per record so that a crash can only tear the last record
+      mJournal.write(record.toByteArray());
+      mJournalRecords++;
+    } catch (IOException e) {
+      LOG.error("Failed to write page index journal {}, invalidating the index", mJournalPath, e);
+      invalidate();
+    }
+  }
+
+  /**
+   * Creates a checkpoint by merging the journal into the previous checkpoint. Page updates
+   * recorded while the checkpoint is being written go to a new journal.
+   *
+   * @throws IOException if the checkpoint fails to be written
+   */
+  public void checkpoint() throws IOException {
+    synchronized (mCheckpointLock) {
+      if (Files.exists(mCompactingJournalPath)) {
+        // a previous checkpoint failed before finishing
+        compact();
+      }
+      synchronized (this) {
+        if (mJournal == null || mJournalRecords == 0) {
+          return;
+        }
+        mJournal.close();
+        Files.move(mJournalPath, mCompactingJournalPath, StandardCopyOption.ATOMIC_MOVE);
+        mJournal = new FileOutputStream(mJournalPath.toFile(), true);
+        mJournalRecords = 0;
+      }
+      compact();
+    }
+  }
+
+  /**
+   * Starts a new checkpoint which replaces the whole index, e.g. after a full scan of the
+   * directory. The index must not be open.
+   *
+   * @return a writer for the new checkpoint
+   * @throws IOException if the checkpoint fails to be created
+   */
+  public CheckpointWriter newCheckpoint() throws IOException {
+    synchronized (mCheckpointLock) {
+      synchronized (this) {
+        Preconditions.checkState(mJournal == null, "page index is already open");
+      }
+      // the previous index no longer describes the directory once it is being rebuilt
+      Files.deleteIfExists(mCheckpointPath);
+      Files.deleteIfExists(mCompactingJournalPath);
+      Files.deleteIfExists(mJournalPath);
+      Files.createDirectories(mIndexDir);
+      return new CheckpointWriter(mIndexDir.resolve(CHECKPOINT_FILE + TEMP_SUFFIX));
+    }
+  }
+
+  /**
+   * Closes the journal and deletes all index files.
+   *
+   * @throws IOException if the index files fail to be deleted
+   */
+  public void reset() throws IOException {
+    synchronized (mCheckpointLock) {
+      synchronized (this) {
+        if (mJournal != null) {
+          mJournal.close();
+          mJournal = null;
+        }
+        mJournalRecords = 0;
+      }
+      Files.deleteIfExists(mCheckpointPath);
+      Files.deleteIfExists(mCompactingJournalPath);
+      Files.deleteIfExists(mJournalPath);
+    }
+  }
+
+  /**
+   * Takes a final checkpoint and closes the journal.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (mCheckpointLock) {
+      try {
+        checkpoint();
+      } finally {
+        synchronized (this) {
+          if (mJournal != null) {
+            mJournal.close();
+            mJournal = null;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the checkpoint so the next restore falls back to a full scan, and stops recording.
+   */
+  private synchronized void invalidate() {
+    try {
+      Files.deleteIfExists(mCheckpointPath);
+      if (mJournal != null) {
+        mJournal.close();
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to invalidate page index {}", mIndexDir, e);
+    }
+    mJournal = null;
+  }
+
+  /**
+   * Merges the compacting journal into the checkpoint. The index is invalidated if the
+   * checkpoint cannot be read, as the journal alone does not describe the directory.
+   */
+  @GuardedBy("mCheckpointLock")
+  private void compact() throws IOException {
+    Map<PageId, Optional<PageInfo>> delta = new HashMap<>();
+    readJournal(mCompactingJournalPath, delta);
+    try (CheckpointWriter writer =
+             new CheckpointWriter(mIndexDir.resolve(CHECKPOINT_FILE + TEMP_SUFFIX))) {
+      try {
+        readCheckpoint(page -> {
+          if (!delta.containsKey(page.getPageId())) {
+            writer.add(page);
+          }
+        });
+      } catch (IOException e) {
+        invalidate();
+        throw e;
+      }
+      for (Optional<PageInfo> page : delta.values()) {
+        if (page.isPresent()) {
+          writer.add(page.get());
+        }
+      }
+      writer.commit();
+    }
+    Files.deleteIfExists(mCompactingJournalPath);
+  }
+
+  /**
+   * Reads a journal into the given delta, where an empty value means the page is deleted.
+   * Reading stops at the first incomplete or corrupted record, which is expected at the end of
+   * the journal after a crash. Losing the records after it can only leave stale entries or
+   * unindexed page files behind, see the class documentation.
+   */
+  private void readJournal(Path path, Map<PageId, Optional<PageInfo>> delta) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(path)))) {
+      while (true) {
+        byte[] payload;
+        long checksum;
+        try {
+          int length = in.readInt();
+          if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            LOG.warn("Invalid record length {} in page index journal {}, ignoring the rest",
+                length, path);
+            return;
+          }
+          payload = new byte[length];
+          in.readFully(payload);
+          checksum = in.readLong();
+        } catch (EOFException e) {
+          return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        if (crc.getValue() != checksum) {
+          LOG.warn("Corrupted record in page index journal {}, ignoring the rest", path);
+          return;
+        }
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = record.readByte();
+        if (op == OP_ADD) {
+          PageInfo page = readPage(record);
+          delta.put(page.getPageId(), Optional.of(page));
+        } else if (op == OP_DELETE) {
+          delta.put(new PageId(record.readUTF(), record.readLong()), Optional.empty());
+        } else {
+          throw new IOException(String.format("Unknown operation %d in page index journal %s",
+              op, path));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads through the checkpoint to verify its header, entry count and checksum.
+   */
+  private void validateCheckpoint() throws IOException {
+    readCheckpoint(page -> { });
+  }
+
+  private void readCheckpoint(Consumer<PageInfo> pageConsumer) throws IOException {
+    try (InputStream file = new BufferedInputStream(Files.newInputStream(mCheckpointPath))) {
+      CheckedInputStream checked = new CheckedInputStream(file, new CRC32());
+      DataInputStream in = new DataInputStream(checked);
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Invalid magic number in " + mCheckpointPath);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException(String.format("Unsupported page index version %d in %s", version,
+            mCheckpointPath));
+      }
+      long pageSize = in.readLong();
+      if (pageSize != mPageSize) {
+        throw new IOException(String.format("Page size %d in %s does not match %d", pageSize,
+            mCheckpointPath, mPageSize));
+      }
+      long count = 0;
+      while (in.readByte() == ENTRY) {
+        pageConsumer.accept(readPage(in));
+        count++;
+      }
+      long expectedCount = in.readLong();
+      long computedChecksum = checked.getChecksum().getValue();
+      long expectedChecksum = new DataInputStream(file).readLong();
+      if (count != expectedCount || computedChecksum != expectedChecksum) {
+        throw new IOException("Checksum mismatch in " + mCheckpointPath);
+      }
+    }
+  }
+
+  private static void writePage(DataOutputStream out, PageInfo pageInfo) throws IOException {
+    out.writeUTF(pageInfo.getPageId().getFileId());
+    out.writeLong(pageInfo.getPageId().getPageIndex());
+    out.writeLong(pageInfo.getPageSize());
+    out.writeLong(pageInfo.getCreatedTimestamp());
+  }
+
+  private PageInfo readPage(DataInputStream in) throws IOException {
+    PageId pageId = new PageId(in.readUTF(), in.readLong());
+    long pageSize = in.readLong();
+    long createdTime = in.readLong();
+    if (pageSize < 0 || pageSize > mPageSize) {
+      throw new IOException(String.format("Invalid size %d of page %s", pageSize, pageId));
+    }
+    return new PageInfo(pageId, pageSize, CacheScope.GLOBAL, mDir, createdTime);
+  }
+
+  @VisibleForTesting
+  Path getCheckpointPath() {
+    return mCheckpointPath;
+  }
+
+  @VisibleForTesting
+  Path getJournalPath() {
+    return mJournalPath;
+  }
+
+  /**
+   * Writes a checkpoint to a temporary file, which atomically replaces the current checkpoint
+   * on commit. Closing the writer without committing discards the temporary file.
+   */
+  public final class CheckpointWriter implements Closeable {
+    private final Path mTempPath;
+    private final FileOutputStream mFile;
+    private final BufferedOutputStream mBuffered;
+    private final CheckedOutputStream mChecked;
+    private final DataOutputStream mOut;
+    private long mCount;
+    private boolean mCommitted;
+
+    private CheckpointWriter(Path tempPath) throws IOException {
+      mTempPath = tempPath;
+      mFile = new FileOutputStream(tempPath.toFile(), false);
+      mBuffered = new BufferedOutputStream(mFile);
+      mChecked = new CheckedOutputStream(mBuffered, new CRC32());
+      mOut = new DataOutputStream(mChecked);
+      mOut.writeInt(MAGIC);
+      mOut.writeInt(VERSION);
+      mOut.writeLong(mPageSize);
+    }
+
+    /**
+     * @param pageInfo info of a page to add to the checkpoint
+     */
+    public void add(PageInfo pageInfo) {
+      try {
+        mOut.writeByte(ENTRY);
+        writePage(mOut, pageInfo);
+        mCount++;
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to write page index checkpoint " + mTempPath, e);
+      }
+    }
+
+    /**
+     * Makes the checkpoint durable and replaces the current checkpoint with it. Journals
+     * recorded before the new checkpoint are discarded.
+     *
+     * @throws IOException if the checkpoint fails to be written
+     */
+    public void commit() throws IOException {
+      mOut.writeByte(END);
+      mOut.writeLong(mCount);
+      mOut.flush();
+      new DataOutputStream(mBuffered).writeLong(mChecked.getChecksum().getValue());
+      mBuffered.flush();
+      mFile.getFD().sync();
+      mFile.close();
+      Files.move(mTempPath, mCheckpointPath, StandardCopyOption.ATOMIC_MOVE);
+      mCommitted = true;
+      LOG.debug("Page index checkpoint {} written with {} pages", mCheckpointPath, mCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+      mFile.close();
+      if (!mCommitted) {
+        Files.deleteIfExists(mTempPath);
+      }
+    }
+  }
+}
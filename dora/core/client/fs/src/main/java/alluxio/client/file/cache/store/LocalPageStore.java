@@ -16,26 +16,27 @@ import static alluxio.client.file.cache.store.PageStoreDir.getFileBucket;
 import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageStore;
 import alluxio.exception.PageNotFoundException;
+import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.Unpooled;
 import org.apache.commons.io.FileUtils;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -46,10 +47,18 @@ import javax.annotation.concurrent.NotThreadSafe;
 public class LocalPageStore implements PageStore {
   private static final String ERROR_NO_SPACE_LEFT = "No space left on device";
   public static final String TEMP_DIR = "TEMP";
+  /** Suffix of the file a page is written to before it replaces the page file. */
+  private static final String WRITE_SUFFIX = ".write";
   private final Path mRoot;
   private final long mPageSize;
   private final long mCapacity;
   private final int mFileBuckets;
+  /** Open channels of the committed page files, null if pooling is disabled. */
+  @Nullable
+  private final PageFileChannelPool mChannelPool;
+  /** Memory-mapped hot pages, null if memory-mapped reads are disabled. */
+  @Nullable
+  private final PageMappingCache mMappingCache;
 
   /**
    * Creates a new instance of {@link LocalPageStore}.
@@ -61,6 +70,10 @@ public class LocalPageStore implements PageStore {
     mPageSize = options.getPageSize();
     mCapacity = (long) (options.getCacheSize() / (1 + options.getOverheadRatio()));
     mFileBuckets = options.getFileBuckets();
+    mChannelPool = options.getFileChannelPoolSize() > 0
+        ? new PageFileChannelPool(options.getFileChannelPoolSize()) : null;
+    mMappingCache = options.getMmapSize() > 0
+        ? new PageMappingCache(options.getMmapSize()) : null;
   }
 
   @Override
@@ -68,20 +81,25 @@ public class LocalPageStore implements PageStore {
       ByteBuffer page,
       boolean isTemporary) throws ResourceExhaustedException, IOException {
     Path pagePath = getPagePath(pageId, isTemporary);
+    Path writePath = pagePath.resolveSibling(pagePath.getFileName() + WRITE_SUFFIX);
+    invalidateOpenPage(pagePath, isTemporary);
     try {
       LOG.debug("Put page: " + pageId + ", page's position: " + page.position()
           + ", page's limit: " + page.limit() + ", page's capacity: " + page.capacity());
-      if (!Files.exists(pagePath)) {
-        Path parent = Preconditions.checkNotNull(pagePath.getParent(),
-            "parent of cache file should not be null");
-        Files.createDirectories(parent);
-        Files.createFile(pagePath);
-      }
-      // extra try to ensure output stream is closed
-      try (FileOutputStream fos = new FileOutputStream(pagePath.toFile(), false)) {
-        fos.getChannel().write(page);
+      Path parent = Preconditions.checkNotNull(pagePath.getParent(),
+          "parent of cache file should not be null");
+      Files.createDirectories(parent);
+      try (FileChannel channel = FileChannel.open(writePath, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (page.hasRemaining()) {
+          channel.write(page);
+        }
       }
+      // the page file is replaced rather than truncated and rewritten, so a reader which still
+      // has the old page file open or mapped never reads past its end
+      Files.move(writePath, pagePath, StandardCopyOption.ATOMIC_MOVE);
     } catch (Exception e) {
+      Files.deleteIfExists(writePath);
       Files.deleteIfExists(pagePath);
       if (e.getMessage() != null && e.getMessage().contains(ERROR_NO_SPACE_LEFT)) {
         throw new ResourceExhaustedException(
@@ -91,37 +109,123 @@ public class LocalPageStore implements PageStore {
     }
   }
 
+  /**
+   * Appends the data to the page file with a positional write, without reading or rewriting the
+   * bytes already in the page. The page file only grows, so the mappings of the page made before
+   * the append stay valid. A page which has more bytes than the append offset is rewritten into
+   * a new file instead.
+   */
+  @Override
+  public void append(PageId pageId,
+      int appendAt,
+      ByteBuffer page,
+      boolean isTemporary) throws ResourceExhaustedException, IOException, PageNotFoundException {
+    Preconditions.checkArgument(appendAt >= 0, "append offset should be non-negative");
+    Path pagePath = getPagePath(pageId, isTemporary);
+    long pageSize;
+    try {
+      pageSize = Files.size(pagePath);
+    } catch (NoSuchFileException e) {
+      throw new PageNotFoundException(pagePath.toString());
+    }
+    if (pageSize < appendAt) {
+      throw new IOException(String.format("Failed to append to page %s at %d, the page has %d"
+          + " bytes", pageId, appendAt, pageSize));
+    }
+    if (pageSize > appendAt) {
+      PageStore.super.append(pageId, appendAt, page, isTemporary);
+      return;
+    }
+    invalidateOpenPage(pagePath, isTemporary);
+    try (FileChannel channel = FileChannel.open(pagePath, StandardOpenOption.WRITE)) {
+      long position = appendAt;
+      try {
+        while (page.hasRemaining()) {
+          position += channel.write(page, position);
+        }
+      } catch (IOException e) {
+        // keep the page as it was before the append
+        channel.truncate(appendAt);
+        if (e.getMessage() != null && e.getMessage().contains(ERROR_NO_SPACE_LEFT)) {
+          throw new ResourceExhaustedException(
+              String.format("%s is full, configured with %d bytes", mRoot, mCapacity), e);
+        }
+        throw new IOException("Failed to append to file " + pagePath + " for page " + pageId, e);
+      }
+    }
+  }
+
   @Override
   public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
       boolean isTemporary) throws IOException, PageNotFoundException {
     Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
     Path pagePath = getPagePath(pageId, isTemporary);
-    try (RandomAccessFile localFile = new RandomAccessFile(pagePath.toString(), "r")) {
-      int bytesSkipped = localFile.skipBytes(pageOffset);
-      if (pageOffset != bytesSkipped) {
-        long pageLength = pagePath.toFile().length();
-        Preconditions.checkArgument(pageOffset <= pageLength,
-            "page offset %s exceeded page size %s", pageOffset, pageLength);
-        throw new IOException(
-            String.format("Failed to read page %s (%s) from offset %s: %s bytes skipped",
-                pageId, pagePath, pageOffset, bytesSkipped));
-      }
-      int bytesRead = 0;
-      int bytesLeft = Math.min((int) target.remaining(), bytesToRead);
-      while (bytesLeft > 0) {
-        int bytes = target.readFromFile(localFile, bytesLeft);
-        if (bytes <= 0) {
-          break;
+    if (mMappingCache != null && !isTemporary) {
+      try (PageMappingCache.MappedPage page = mMappingCache.acquire(pagePath)) {
+        if (page != null) {
+          return readPage(page.getBuffer(), pageOffset, bytesToRead, target);
         }
-        bytesRead += bytes;
-        bytesLeft -= bytes;
       }
-      return bytesRead;
-    } catch (FileNotFoundException e) {
+    }
+    if (mChannelPool == null || isTemporary) {
+      // temporary pages are moved on commit, so their channels are not pooled
+      try (FileChannel channel = FileChannel.open(pagePath, StandardOpenOption.READ)) {
+        return readPage(pagePath, channel, pageOffset, bytesToRead, target, isTemporary);
+      } catch (NoSuchFileException e) {
+        throw new PageNotFoundException(pagePath.toString());
+      }
+    }
+    try (PageFileChannelPool.PooledChannel channel = mChannelPool.acquire(pagePath)) {
+      return readPage(pagePath, channel.getChannel(), pageOffset, bytesToRead, target, false);
+    } catch (NoSuchFileException e) {
       throw new PageNotFoundException(pagePath.toString());
     }
   }
 
+  private int readPage(Path pagePath, FileChannel channel, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target, boolean isTemporary) throws IOException {
+    int bytesRead = readPage(channel, pageOffset, bytesToRead, target);
+    if (mMappingCache != null && !isTemporary) {
+      mMappingCache.recordRead(pagePath, channel);
+    }
+    return bytesRead;
+  }
+
+  private static int readPage(ByteBuffer page, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target) {
+    Preconditions.checkArgument(pageOffset <= page.capacity(),
+        "page offset %s exceeded page size %s", pageOffset, page.capacity());
+    int bytesRead = (int) Math.min(Math.min(bytesToRead, target.remaining()),
+        page.capacity() - pageOffset);
+    ByteBuffer slice = page.duplicate();
+    slice.position(pageOffset);
+    slice.limit(pageOffset + bytesRead);
+    target.writeBytes(Unpooled.wrappedBuffer(slice));
+    return bytesRead;
+  }
+
+  private static int readPage(FileChannel channel, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target) throws IOException {
+    int bytesRead = 0;
+    int bytesLeft = Math.min((int) target.remaining(), bytesToRead);
+    while (bytesLeft > 0) {
+      // positional reads leave the position of the channel untouched, so that a pooled channel
+      // can be read by concurrent readers
+      int bytes = target.readFromFile(channel, pageOffset + bytesRead, bytesLeft);
+      if (bytes <= 0) {
+        break;
+      }
+      bytesRead += bytes;
+      bytesLeft -= bytes;
+    }
+    if (bytesRead == 0 && pageOffset > 0) {
+      long pageLength = channel.size();
+      Preconditions.checkArgument(pageOffset <= pageLength,
+          "page offset %s exceeded page size %s", pageOffset, pageLength);
+    }
+    return bytesRead;
+  }
+
   /**
    *
    * @param pageId page identifier
@@ -134,6 +238,7 @@ public class LocalPageStore implements PageStore {
     if (!Files.exists(pagePath)) {
       throw new PageNotFoundException(pagePath.toString());
     }
+    invalidateOpenPage(pagePath, isTemporary);
     Files.delete(pagePath);
     // Cleaning up parent directory may lead to a race condition if one thread is removing a page as
     // well as its parent dir corresponding to the fileId, while another thread is adding
@@ -167,16 +272,54 @@ public class LocalPageStore implements PageStore {
     if (!Files.exists(bucketPath)) {
       Files.createDirectories(bucketPath);
     }
+    // drop any channel or mapping left from earlier pages of the committed file
+    if (mChannelPool != null) {
+      mChannelPool.invalidateAll(filePath);
+    }
+    if (mMappingCache != null) {
+      mMappingCache.invalidateAll(filePath);
+    }
     Files.move(
         getTempFilePath(fileId),
         filePath, StandardCopyOption.ATOMIC_MOVE);
   }
 
+  @Override
+  public void sync(String fileId) throws IOException {
+    Path filePath = getFilePath(fileId);
+    try (DirectoryStream<Path> pages = Files.newDirectoryStream(filePath)) {
+      for (Path page : pages) {
+        force(page);
+      }
+    }
+    force(filePath);
+    force(Preconditions.checkNotNull(filePath.getParent(),
+        "%s does not have a parent path", filePath));
+  }
+
+  private static void force(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
   @Override
   public void abort(String fileId) throws IOException {
     FileUtils.deleteDirectory(getTempFilePath(fileId).toFile());
   }
 
+  private void invalidateOpenPage(Path pagePath, boolean isTemporary) {
+    if (isTemporary) {
+      return;
+    }
+    if (mChannelPool != null) {
+      mChannelPool.invalidate(pagePath);
+    }
+    if (mMappingCache != null) {
+      mMappingCache.invalidate(pagePath);
+    }
+  }
+
   private Path getTempFilePath(String fileId) {
     return Paths.get(mRoot.toString(), Long.toString(mPageSize), TEMP_DIR, fileId);
   }
@@ -206,16 +349,43 @@ public class LocalPageStore implements PageStore {
     Preconditions.checkArgument(pageOffset >= 0,
         "page offset should be non-negative");
     Path pagePath = getPagePath(pageId, isTemporary);
-    File pageFile = pagePath.toFile();
-    if (!pageFile.exists()) {
+    if (mChannelPool != null && !isTemporary) {
+      try {
+        PageFileChannelPool.PooledChannel channel = mChannelPool.acquire(pagePath);
+        // the pooled channel is released once the data is sent or the buffer is released
+        return new DataFileChannel(channel.getChannel(), pageOffset, bytesToRead, channel);
+      } catch (NoSuchFileException e) {
+        throw new PageNotFoundException(pagePath.toString());
+      } catch (IOException e) {
+        LOG.debug("Failed to open page file {}, falling back to an unpooled channel",
+            pagePath, e);
+      }
+    }
+    // the page file is opened now, while the caller holds the page lock, rather than when the
+    // data is sent, so that the page can be evicted in the meantime without failing the read
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(pagePath, StandardOpenOption.READ);
+    } catch (NoSuchFileException e) {
       throw new PageNotFoundException(pagePath.toString());
+    } catch (IOException e) {
+      throw AlluxioRuntimeException.from(e);
     }
-    DataFileChannel dataFileChannel = new DataFileChannel(pageFile, pageOffset, bytesToRead);
-    return dataFileChannel;
+    return new DataFileChannel(channel, pageOffset, bytesToRead, channel);
+  }
+
+  @Override
+  public boolean isZeroCopySupported() {
+    return true;
   }
 
   @Override
   public void close() {
-    // no-op
+    if (mMappingCache != null) {
+      mMappingCache.close();
+    }
+    if (mChannelPool != null) {
+      mChannelPool.close();
+    }
   }
 }
@@ -95,7 +95,9 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
    */
   @Override
   public void scanPages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException {
-    Files.walk(getRootPath()).filter(Files::isRegularFile).map(this::getPageInfo)
+    Path indexDir = LocalPageIndex.getIndexDir(getRootPath());
+    Files.walk(getRootPath()).filter(path -> !path.startsWith(indexDir))
+        .filter(Files::isRegularFile).map(this::getPageInfo)
         .forEach(pageInfoConsumer);
   }
 
@@ -15,14 +15,19 @@ import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageStore;
 import alluxio.exception.PageNotFoundException;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.network.protocol.databuffer.NettyDataBuffer;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledHeapByteBuf;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -51,12 +56,35 @@ public class MemoryPageStore implements PageStore {
     try {
       MemPage pageCopy = mPagePool.acquire(page.remaining());
       page.get(pageCopy.getPage(), 0, pageCopy.getPageLength());
-      mPageStoreMap.put(pageKey, pageCopy);
+      MemPage replaced = mPageStoreMap.put(pageKey, pageCopy);
+      if (replaced != null) {
+        releasePage(replaced);
+      }
     } catch (Exception e) {
       throw new IOException("Failed to put cached data in memory for page " + pageId);
     }
   }
 
+  /**
+   * Copies the data after the existing bytes of the page, which has the capacity of a full page.
+   */
+  @Override
+  public void append(PageId pageId, int appendAt, ByteBuffer page, boolean isTemporary)
+      throws IOException, PageNotFoundException {
+    MemPage memPage = mPageStoreMap.get(getKeyFromPageId(pageId));
+    if (memPage == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    int length = page.remaining();
+    if (appendAt > memPage.getPageLength() || appendAt + length > memPage.getPage().length) {
+      throw new IOException(String.format(
+          "Failed to append %d bytes at %d to page %s of %d bytes in memory", length, appendAt,
+          pageId, memPage.getPageLength()));
+    }
+    page.get(memPage.getPage(), appendAt, length);
+    memPage.setPageLength(appendAt + length);
+  }
+
   @Override
   public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
       boolean isTemporary) throws IOException, PageNotFoundException {
@@ -75,14 +103,47 @@ public class MemoryPageStore implements PageStore {
     return bytesLeft;
   }
 
+  /**
+   * Returns a reference-counted slice of the page, which keeps the page from being reused by
+   * other pages until the buffer is released, even if the page is deleted in the meantime.
+   */
+  @Override
+  public DataBuffer getDataBuffer(PageId pageId, int pageOffset, int bytesToRead,
+      boolean isTemporary) throws PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    MemPage page = mPageStoreMap.get(getKeyFromPageId(pageId));
+    if (page == null || !page.retain()) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    if (pageOffset > page.getPageLength()) {
+      releasePage(page);
+      throw new IllegalArgumentException(String.format(
+          "page offset %s exceeded page size %s", pageOffset, page.getPageLength()));
+    }
+    int length = Math.min(page.getPageLength() - pageOffset, bytesToRead);
+    return new NettyDataBuffer(
+        new PageByteBuf(page).setIndex(pageOffset, pageOffset + length));
+  }
+
+  @Override
+  public boolean isZeroCopySupported() {
+    return true;
+  }
+
   @Override
   public void delete(PageId pageId) throws IOException, PageNotFoundException {
     PageId pageKey = getKeyFromPageId(pageId);
-    if (!mPageStoreMap.containsKey(pageKey)) {
+    MemPage page = mPageStoreMap.remove(pageKey);
+    if (page == null) {
       throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
     }
-    mPagePool.release(mPageStoreMap.get(pageKey));
-    mPageStoreMap.remove(pageKey);
+    releasePage(page);
+  }
+
+  private void releasePage(MemPage page) {
+    if (page.release()) {
+      mPagePool.release(page);
+    }
   }
 
   /**
@@ -112,6 +173,11 @@ public class MemoryPageStore implements PageStore {
   private static class MemPage {
     private final byte[] mPage;
     private int mPageLength;
+    /**
+     * References held by the page store and by the buffers reading the page. The page is returned
+     * to the pool when all references are released.
+     */
+    private final AtomicInteger mRefCount = new AtomicInteger();
 
     public MemPage(byte[] page, int pageLength) {
       mPage = page;
@@ -129,6 +195,51 @@ public class MemoryPageStore implements PageStore {
     public void setPageLength(int pageLength) {
       mPageLength = pageLength;
     }
+
+    /**
+     * Takes the reference of the page store when the page is stored.
+     */
+    public void init() {
+      mRefCount.set(1);
+    }
+
+    /**
+     * @return false if the page has been released by all references
+     */
+    public boolean retain() {
+      int refCount;
+      do {
+        refCount = mRefCount.get();
+        if (refCount == 0) {
+          return false;
+        }
+      } while (!mRefCount.compareAndSet(refCount, refCount + 1));
+      return true;
+    }
+
+    /**
+     * @return true if this is the last reference
+     */
+    public boolean release() {
+      return mRefCount.decrementAndGet() == 0;
+    }
+  }
+
+  /**
+   * A buffer over the page array, which releases its reference to the page when deallocated.
+   */
+  private final class PageByteBuf extends UnpooledHeapByteBuf {
+    private final MemPage mMemPage;
+
+    PageByteBuf(MemPage page) {
+      super(UnpooledByteBufAllocator.DEFAULT, page.getPage(), page.getPage().length);
+      mMemPage = page;
+    }
+
+    @Override
+    protected void freeArray(byte[] array) {
+      releasePage(mMemPage);
+    }
   }
 
   private static class PagePool {
@@ -144,10 +255,13 @@ public class MemoryPageStore implements PageStore {
         if (!mPool.isEmpty()) {
           MemPage page = mPool.pop();
           page.setPageLength(pageLength);
+          page.init();
           return page;
         }
       }
-      return new MemPage(new byte[mPageSize], pageLength);
+      MemPage page = new MemPage(new byte[mPageSize], pageLength);
+      page.init();
+      return page;
     }
 
     public void release(MemPage page) {
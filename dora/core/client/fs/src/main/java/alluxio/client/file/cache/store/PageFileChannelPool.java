@@ -0,0 +1,199 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded pool of read-only {@link FileChannel}s of page files, keyed by the page path. Page
+ * reads acquire a channel from the pool and read it with positional reads, so that reading a page
+ * does not open and close the page file.
+ * <p>
+ * Each channel is reference counted: the pool holds one reference while the channel is pooled, and
+ * each reader holds one until it closes the {@link PooledChannel}. A channel evicted from the pool,
+ * or invalidated because its page is deleted or replaced, is closed once the last reader is done.
+ */
+@ThreadSafe
+public final class PageFileChannelPool implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(PageFileChannelPool.class);
+
+  private final Cache<Path, PooledChannel> mChannels;
+
+  /**
+   * @param maxSize the maximum number of channels to keep open
+   */
+  public PageFileChannelPool(int maxSize) {
+    Preconditions.checkArgument(maxSize > 0, "maxSize should be positive");
+    mChannels = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .removalListener((RemovalNotification<Path, PooledChannel> notification) ->
+            notification.getValue().release())
+        .build();
+  }
+
+  /**
+   * Acquires the channel of a page file, opening the file if it is not in the pool. The caller
+   * must close the returned channel after reading it.
+   *
+   * @param pagePath the path of the page file
+   * @return the channel
+   * @throws java.nio.file.NoSuchFileException if the page file does not exist
+   */
+  public PooledChannel acquire(Path pagePath) throws IOException {
+    while (true) {
+      PooledChannel channel = mChannels.getIfPresent(pagePath);
+      if (channel != null) {
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_HITS.getName()).inc();
+      } else {
+        try {
+          channel = mChannels.get(pagePath, () -> open(pagePath));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+          if (e.getCause() instanceof IOException) {
+            throw (IOException) e.getCause();
+          }
+          throw new IOException("Failed to open page file " + pagePath, e.getCause());
+        }
+      }
+      if (channel.retain()) {
+        return channel;
+      }
+      // the channel is being evicted and closed, retry with a newly opened one
+    }
+  }
+
+  /**
+   * Removes the channel of a page file from the pool, e.g. when the page is deleted.
+   *
+   * @param pagePath the path of the page file
+   */
+  public void invalidate(Path pagePath) {
+    mChannels.invalidate(pagePath);
+  }
+
+  /**
+   * Removes the channels of all page files under a directory from the pool, e.g. when the pages
+   * of a file are committed.
+   *
+   * @param dir the directory
+   */
+  public void invalidateAll(Path dir) {
+    mChannels.asMap().keySet().removeIf(path -> path.startsWith(dir));
+  }
+
+  /**
+   * @return the number of channels in the pool
+   */
+  @VisibleForTesting
+  long size() {
+    mChannels.cleanUp();
+    return mChannels.size();
+  }
+
+  @Override
+  public void close() {
+    mChannels.invalidateAll();
+  }
+
+  private static PooledChannel open(Path pagePath) throws IOException {
+    MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_MISSES.getName()).inc();
+    PooledChannel channel = new PooledChannel(FileChannel.open(pagePath, StandardOpenOption.READ));
+    MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_OPEN_FILES.getName()).inc();
+    return channel;
+  }
+
+  /**
+   * A reference counted channel of a page file.
+   */
+  public static final class PooledChannel implements Closeable {
+    private final FileChannel mChannel;
+    /** One reference held by the pool, plus one per reader. */
+    private final AtomicInteger mRefCount = new AtomicInteger(1);
+
+    private PooledChannel(FileChannel channel) {
+      mChannel = channel;
+    }
+
+    /**
+     * @return the file channel, which must only be read with positional reads
+     */
+    public FileChannel getChannel() {
+      return mChannel;
+    }
+
+    private boolean retain() {
+      int refCount;
+      do {
+        refCount = mRefCount.get();
+        if (refCount == 0) {
+          return false;
+        }
+      } while (!mRefCount.compareAndSet(refCount, refCount + 1));
+      return true;
+    }
+
+    private void release() {
+      if (mRefCount.decrementAndGet() == 0) {
+        try {
+          mChannel.close();
+        } catch (IOException e) {
+          LOG.warn("Failed to close page file channel", e);
+        }
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_OPEN_FILES.getName())
+            .dec();
+      }
+    }
+
+    /**
+     * Releases the reference of the reader.
+     */
+    @Override
+    public void close() {
+      release();
+    }
+  }
+
+  static {
+    // File channel pool hit rate = pool hits / (pool hits + pool misses).
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_HIT_RATE.getName()),
+        () -> {
+          long hits = MetricsSystem.counter(
+              MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_HITS.getName()).getCount();
+          long misses = MetricsSystem.counter(
+              MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_MISSES.getName()).getCount();
+          long total = hits + misses;
+          if (total > 0) {
+            return hits / (1.0 * total);
+          }
+          return 0;
+        });
+  }
+}
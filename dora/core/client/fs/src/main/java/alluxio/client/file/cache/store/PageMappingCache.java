@@ -0,0 +1,202 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A cache of memory-mapped page files, so that repeated reads of hot pages are served from the
+ * mapping without a system call. A page is mapped on its second read among the recently read
+ * pages, and the total size of the mappings is bounded by a budget in bytes.
+ * <p>
+ * Each mapping is reference counted like the channels of {@link PageFileChannelPool}: it is
+ * unmapped as soon as it is evicted or invalidated and no reader holds it, instead of waiting for
+ * the garbage collector.
+ */
+@ThreadSafe
+public final class PageMappingCache implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(PageMappingCache.class);
+  /** The maximum number of pages read once which are tracked for admission. */
+  private static final int MAX_CANDIDATES = 1 << 16;
+
+  private final Cache<Path, MappedPage> mMappings;
+  /** Pages read once recently, which are mapped when read again. */
+  private final Cache<Path, Boolean> mCandidates;
+
+  /**
+   * @param maxMappedBytes the maximum number of bytes mapped
+   */
+  public PageMappingCache(long maxMappedBytes) {
+    Preconditions.checkArgument(maxMappedBytes > 0, "maxMappedBytes should be positive");
+    mMappings = CacheBuilder.newBuilder()
+        // a single segment keeps the budget for the whole cache rather than per segment, the
+        // cache is only written when a page is mapped
+        .concurrencyLevel(1)
+        .maximumWeight(maxMappedBytes)
+        .weigher((Path path, MappedPage page) -> page.getBuffer().capacity())
+        .removalListener((RemovalNotification<Path, MappedPage> notification) ->
+            notification.getValue().release())
+        .build();
+    mCandidates = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CANDIDATES)
+        .build();
+  }
+
+  /**
+   * Acquires the mapping of a page file if it is mapped. The caller must close the returned page
+   * after reading it.
+   *
+   * @param pagePath the path of the page file
+   * @return the mapped page, or null if the page is not mapped
+   */
+  @Nullable
+  public MappedPage acquire(Path pagePath) {
+    MappedPage page = mMappings.getIfPresent(pagePath);
+    if (page == null || !page.retain()) {
+      return null;
+    }
+    MetricsSystem.counter(MetricKey.CLIENT_CACHE_MMAP_HITS.getName()).inc();
+    return page;
+  }
+
+  /**
+   * Records a read of a page file which is not mapped, and maps the page if it was read recently.
+   *
+   * @param pagePath the path of the page file
+   * @param channel an open channel of the page file
+   */
+  public void recordRead(Path pagePath, FileChannel channel) {
+    if (mCandidates.asMap().remove(pagePath) == null) {
+      mCandidates.put(pagePath, Boolean.TRUE);
+      return;
+    }
+    MappedPage page;
+    try {
+      long size = channel.size();
+      if (size == 0 || size > Integer.MAX_VALUE) {
+        return;
+      }
+      page = new MappedPage(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    } catch (IOException e) {
+      LOG.debug("Failed to map page file {}", pagePath, e);
+      return;
+    }
+    if (mMappings.asMap().putIfAbsent(pagePath, page) != null) {
+      // mapped by a concurrent reader
+      page.release();
+    }
+  }
+
+  /**
+   * Removes the mapping of a page file, e.g. when the page is deleted.
+   *
+   * @param pagePath the path of the page file
+   */
+  public void invalidate(Path pagePath) {
+    mMappings.invalidate(pagePath);
+    mCandidates.invalidate(pagePath);
+  }
+
+  /**
+   * Removes the mappings of all page files under a directory, e.g. when the pages of a file are
+   * committed.
+   *
+   * @param dir the directory
+   */
+  public void invalidateAll(Path dir) {
+    mMappings.asMap().keySet().removeIf(path -> path.startsWith(dir));
+    mCandidates.asMap().keySet().removeIf(path -> path.startsWith(dir));
+  }
+
+  /**
+   * @return the number of mapped pages
+   */
+  @VisibleForTesting
+  long size() {
+    mMappings.cleanUp();
+    return mMappings.size();
+  }
+
+  @Override
+  public void close() {
+    mMappings.invalidateAll();
+    mCandidates.invalidateAll();
+  }
+
+  /**
+   * A reference counted mapping of a page file.
+   */
+  public static final class MappedPage implements Closeable {
+    private final MappedByteBuffer mBuffer;
+    /** One reference held by the cache, plus one per reader. */
+    private final AtomicInteger mRefCount = new AtomicInteger(1);
+
+    private MappedPage(MappedByteBuffer buffer) {
+      mBuffer = buffer;
+      MetricsSystem.counter(MetricKey.CLIENT_CACHE_MMAP_BYTES.getName()).inc(buffer.capacity());
+    }
+
+    /**
+     * @return the mapped page, which must not be modified; read from a duplicate of it instead
+     */
+    public ByteBuffer getBuffer() {
+      return mBuffer;
+    }
+
+    private boolean retain() {
+      int refCount;
+      do {
+        refCount = mRefCount.get();
+        if (refCount == 0) {
+          return false;
+        }
+      } while (!mRefCount.compareAndSet(refCount, refCount + 1));
+      return true;
+    }
+
+    private void release() {
+      if (mRefCount.decrementAndGet() == 0) {
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_MMAP_BYTES.getName())
+            .dec(mBuffer.capacity());
+        BufferUtils.cleanDirectBuffer(mBuffer);
+      }
+    }
+
+    /**
+     * Releases the reference of the reader.
+     */
+    @Override
+    public void close() {
+      release();
+    }
+  }
+}
@@ -39,6 +39,9 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS))
+          .setFileChannelPoolSize(
+              conf.getInt(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE))
+          .setMmapSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_MMAP_SIZE))
           .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_DURATION))
@@ -62,6 +65,9 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS))
+          .setFileChannelPoolSize(
+              conf.getInt(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE))
+          .setMmapSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_MMAP_SIZE))
           .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_DURATION))
@@ -95,6 +101,8 @@ public class PageStoreOptions {
 
   private PageStoreType mStoreType = PageStoreType.LOCAL;
   private int mFileBuckets = 1000;
+  private int mFileChannelPoolSize = 1024;
+  private long mMmapSize = 0;
   /**
    * Root directory where the data is stored.
    */
@@ -288,6 +296,38 @@ public class PageStoreOptions {
     return mFileBuckets;
   }
 
+  /**
+   * @param fileChannelPoolSize the maximum number of page files kept open
+   * @return the updated options
+   */
+  public PageStoreOptions setFileChannelPoolSize(int fileChannelPoolSize) {
+    mFileChannelPoolSize = fileChannelPoolSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of page files kept open
+   */
+  public int getFileChannelPoolSize() {
+    return mFileChannelPoolSize;
+  }
+
+  /**
+   * @param mmapSize the maximum number of bytes of pages memory-mapped, 0 to disable
+   * @return the updated options
+   */
+  public PageStoreOptions setMmapSize(long mmapSize) {
+    mMmapSize = mmapSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of bytes of pages memory-mapped, 0 if disabled
+   */
+  public long getMmapSize() {
+    return mMmapSize;
+  }
+
   /**
    * @param storeType
    * @return the updated options
@@ -0,0 +1,148 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.trace;
+
+import alluxio.client.file.cache.PageId;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Reads the page accesses recorded by a {@link CacheTraceWriter}.
+ */
+@NotThreadSafe
+public class CacheTraceReader implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private final DataInputStream mIn;
+  private final long mPageSize;
+  private final List<String> mFiles = new ArrayList<>();
+
+  /**
+   * @param path the path of the trace file
+   * @return the reader of the trace
+   */
+  public static CacheTraceReader open(String path) throws IOException {
+    return new CacheTraceReader(new FileInputStream(path));
+  }
+
+  /**
+   * @param in the stream to read the trace from
+   */
+  public CacheTraceReader(InputStream in) throws IOException {
+    mIn = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+    try {
+      int magic = mIn.readInt();
+      if (magic != CacheTraceWriter.MAGIC) {
+        throw new IOException(String.format("Not a cache trace: magic number %x", magic));
+      }
+      int version = mIn.readInt();
+      if (version != CacheTraceWriter.VERSION) {
+        throw new IOException("Unsupported cache trace version " + version);
+      }
+      mPageSize = mIn.readLong();
+    } catch (IOException e) {
+      mIn.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the page size of the cache the trace is recorded from
+   */
+  public long getPageSize() {
+    return mPageSize;
+  }
+
+  /**
+   * @return the next access, or null at the end of the trace
+   */
+  @Nullable
+  public CacheTraceRecord next() throws IOException {
+    int op = mIn.read();
+    if (op == CacheTraceWriter.OP_CLEAR_FILES) {
+      mFiles.clear();
+      op = mIn.read();
+    }
+    if (op < 0) {
+      return null;
+    }
+    CacheTraceRecord.Type type;
+    switch (op) {
+      case CacheTraceWriter.OP_GET_HIT:
+        type = CacheTraceRecord.Type.GET_HIT;
+        break;
+      case CacheTraceWriter.OP_GET_MISS:
+        type = CacheTraceRecord.Type.GET_MISS;
+        break;
+      case CacheTraceWriter.OP_PUT:
+        type = CacheTraceRecord.Type.PUT;
+        break;
+      case CacheTraceWriter.OP_DELETE:
+        type = CacheTraceRecord.Type.DELETE;
+        break;
+      default:
+        throw new IOException("Unknown cache trace record type " + op);
+    }
+    try {
+      int file = (int) readVarLong();
+      String fileId;
+      if (file == mFiles.size()) {
+        fileId = mIn.readUTF();
+        mFiles.add(fileId);
+      } else if (file < mFiles.size()) {
+        fileId = mFiles.get(file);
+      } else {
+        throw new IOException("Unknown file in cache trace record: " + file);
+      }
+      long pageIndex = readVarLong();
+      int offset = 0;
+      int length = 0;
+      if (type == CacheTraceRecord.Type.GET_HIT || type == CacheTraceRecord.Type.GET_MISS) {
+        offset = (int) readVarLong();
+      }
+      if (type != CacheTraceRecord.Type.DELETE) {
+        length = (int) readVarLong();
+      }
+      return new CacheTraceRecord(type, new PageId(fileId, pageIndex), offset, length);
+    } catch (EOFException e) {
+      // the trace is truncated if the recording process did not close it
+      return null;
+    }
+  }
+
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = mIn.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer in cache trace");
+  }
+
+  @Override
+  public void close() throws IOException {
+    mIn.close();
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.trace;
+
+import alluxio.client.file.cache.PageId;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+/**
+ * An access of a page of the cache recorded in a trace.
+ */
+public final class CacheTraceRecord {
+  /**
+   * The types of page accesses.
+   */
+  public enum Type {
+    /** A read of a page which is cached. */
+    GET_HIT,
+    /** A read of a page which is not cached. */
+    GET_MISS,
+    /** An addition of a page to the cache. */
+    PUT,
+    /** A removal of a page from the cache. */
+    DELETE,
+  }
+
+  private final Type mType;
+  private final PageId mPageId;
+  private final int mOffset;
+  private final int mLength;
+
+  /**
+   * @param type the type of the access
+   * @param pageId the page accessed
+   * @param offset the offset in the page of a read, 0 otherwise
+   * @param length the number of bytes read or put, 0 if unknown
+   */
+  public CacheTraceRecord(Type type, PageId pageId, int offset, int length) {
+    mType = type;
+    mPageId = pageId;
+    mOffset = offset;
+    mLength = length;
+  }
+
+  /**
+   * @return the type of the access
+   */
+  public Type getType() {
+    return mType;
+  }
+
+  /**
+   * @return the page accessed
+   */
+  public PageId getPageId() {
+    return mPageId;
+  }
+
+  /**
+   * @return the offset in the page of a read, 0 otherwise
+   */
+  public int getOffset() {
+    return mOffset;
+  }
+
+  /**
+   * @return the number of bytes read or put, 0 if unknown
+   */
+  public int getLength() {
+    return mLength;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CacheTraceRecord)) {
+      return false;
+    }
+    CacheTraceRecord that = (CacheTraceRecord) o;
+    return mType == that.mType && mPageId.equals(that.mPageId) && mOffset == that.mOffset
+        && mLength == that.mLength;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mType, mPageId, mOffset, mLength);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("type", mType)
+        .add("pageId", mPageId)
+        .add("offset", mOffset)
+        .add("length", mLength)
+        .toString();
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.trace;
+
+import alluxio.client.file.cache.PageId;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Records the page accesses of a cache to a trace, which can be replayed by
+ * {@link CacheTraceReader} against other cache configurations.
+ * <p>
+ * The trace starts with a header holding the page size of the cache, followed by one record
+ * per access. A record is a type byte, the file id, and the page index, offset and length as
+ * variable-length integers. File ids are written once and referred to by their index
+ * afterwards, so a record usually takes a few bytes.
+ * <p>
+ * Accesses are added to a lock-free queue and written by a single writer thread in large
+ * chunks, so the threads accessing the cache never wait for each other or for the trace. If the
+ * writer falls too far behind, accesses are dropped rather than buffered without bound. If the
+ * trace fails to be written, the accesses are no longer recorded.
+ */
+@ThreadSafe
+public class CacheTraceWriter implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheTraceWriter.class);
+
+  static final int MAGIC = 0x41435452;
+  static final int VERSION = 1;
+  static final byte OP_GET_HIT = 1;
+  static final byte OP_GET_MISS = 2;
+  static final byte OP_PUT = 3;
+  static final byte OP_DELETE = 4;
+  /** Forgets the file ids written so far. */
+  static final byte OP_CLEAR_FILES = 5;
+  /** The maximum number of file ids remembered, which bounds the memory of writer and reader. */
+  static final int MAX_FILES = 1 << 20;
+  private static final int BUFFER_SIZE = 1 << 20;
+  /** The maximum number of accesses waiting to be written. */
+  static final int MAX_PENDING_RECORDS = 1 << 16;
+  /** How long the writer waits for accesses when there are none to write. */
+  private static final long IDLE_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final String mPath;
+  /** The accesses waiting to be written, in the order they are recorded. */
+  private final Queue<Record> mPending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger mPendingCount = new AtomicInteger();
+  private final AtomicLong mDropped = new AtomicLong();
+  private final AtomicBoolean mClosed = new AtomicBoolean();
+  private final Thread mWriter;
+  /** Only accessed by the writer thread, once the header is written. */
+  private final DataOutputStream mOut;
+  /** The indexes of the file ids written, only accessed by the writer thread. */
+  private final Map<String, Integer> mFiles = new HashMap<>();
+  /** Whether the trace failed to be written. */
+  private volatile boolean mFailed;
+  @Nullable
+  private volatile IOException mCloseError;
+
+  /**
+   * Creates a trace file, replacing an existing one.
+   *
+   * @param path the path of the trace file
+   * @param pageSize the page size of the cache
+   * @return the writer of the trace
+   */
+  public static CacheTraceWriter create(String path, long pageSize) throws IOException {
+    return new CacheTraceWriter(path, new FileOutputStream(path), pageSize);
+  }
+
+  /**
+   * @param path the description of the trace in the log
+   * @param out the stream to write the trace to
+   * @param pageSize the page size of the cache
+   */
+  CacheTraceWriter(String path, OutputStream out, long pageSize) throws IOException {
+    mPath = path;
+    mOut = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    try {
+      mOut.writeInt(MAGIC);
+      mOut.writeInt(VERSION);
+      mOut.writeLong(pageSize);
+    } catch (IOException e) {
+      mOut.close();
+      throw e;
+    }
+    mWriter = new Thread(this::writeRecords, "cache-trace-writer");
+    mWriter.setDaemon(true);
+    mWriter.start();
+  }
+
+  /**
+   * Records a read of a page.
+   *
+   * @param pageId the page
+   * @param offset the offset in the page
+   * @param length the number of bytes read, 0 if unknown
+   * @param hit whether the page is cached
+   */
+  public void recordGet(PageId pageId, int offset, int length, boolean hit) {
+    record(hit ? OP_GET_HIT : OP_GET_MISS, pageId, offset, length);
+  }
+
+  /**
+   * Records an addition of a page.
+   *
+   * @param pageId the page
+   * @param length the size of the page
+   */
+  public void recordPut(PageId pageId, int length) {
+    record(OP_PUT, pageId, 0, length);
+  }
+
+  /**
+   * Records a removal of a page.
+   *
+   * @param pageId the page
+   */
+  public void recordDelete(PageId pageId) {
+    record(OP_DELETE, pageId, 0, 0);
+  }
+
+  private void record(byte op, PageId pageId, int offset, int length) {
+    if (mClosed.get() || mFailed) {
+      return;
+    }
+    if (mPendingCount.incrementAndGet() > MAX_PENDING_RECORDS) {
+      mPendingCount.decrementAndGet();
+      if (mDropped.getAndIncrement() == 0) {
+        LOG.warn("Cache trace {} is written slower than the pages are accessed, "
+            + "page accesses are dropped", mPath);
+      }
+      return;
+    }
+    mPending.add(new Record(op, pageId, offset, length));
+  }
+
+  /**
+   * Writes the accesses until the trace is closed, and then closes the stream.
+   */
+  private void writeRecords() {
+    try {
+      while (true) {
+        Record record = mPending.poll();
+        if (record == null) {
+          if (!mClosed.get()) {
+            LockSupport.parkNanos(this, IDLE_WAIT_NS);
+            continue;
+          }
+          // polls again, as accesses may be recorded right before the close
+          record = mPending.poll();
+          if (record == null) {
+            break;
+          }
+        }
+        mPendingCount.decrementAndGet();
+        write(record);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to write cache trace {}, page accesses are no longer recorded: {}",
+          mPath, e.toString());
+      mFailed = true;
+      mPending.clear();
+    } finally {
+      mFiles.clear();
+      try {
+        mOut.close();
+      } catch (IOException e) {
+        mCloseError = e;
+      }
+    }
+  }
+
+  private void write(Record record) throws IOException {
+    PageId pageId = record.mPageId;
+    Integer file = mFiles.get(pageId.getFileId());
+    if (file == null && mFiles.size() >= MAX_FILES) {
+      mOut.writeByte(OP_CLEAR_FILES);
+      mFiles.clear();
+    }
+    mOut.writeByte(record.mOp);
+    if (file != null) {
+      writeVarLong(mOut, file);
+    } else {
+      // the next index refers to a new file, whose id follows
+      writeVarLong(mOut, mFiles.size());
+      mOut.writeUTF(pageId.getFileId());
+      mFiles.put(pageId.getFileId(), mFiles.size());
+    }
+    writeVarLong(mOut, pageId.getPageIndex());
+    if (record.mOp == OP_GET_HIT || record.mOp == OP_GET_MISS) {
+      writeVarLong(mOut, record.mOffset);
+    }
+    if (record.mOp != OP_DELETE) {
+      writeVarLong(mOut, record.mLength);
+    }
+  }
+
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * Writes the accesses recorded so far and closes the trace. The accesses recorded afterwards
+   * are ignored.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!mClosed.compareAndSet(false, true)) {
+      return;
+    }
+    LockSupport.unpark(mWriter);
+    try {
+      mWriter.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while closing cache trace " + mPath, e);
+    }
+    if (mDropped.get() > 0) {
+      LOG.warn("{} page accesses were dropped from cache trace {}", mDropped.get(), mPath);
+    }
+    if (mCloseError != null) {
+      throw mCloseError;
+    }
+  }
+
+  /**
+   * A page access waiting to be written.
+   */
+  private static final class Record {
+    private final byte mOp;
+    private final PageId mPageId;
+    private final int mOffset;
+    private final int mLength;
+
+    private Record(byte op, PageId pageId, int offset, int length) {
+      mOp = op;
+      mPageId = pageId;
+      mOffset = offset;
+      mLength = length;
+    }
+  }
+}
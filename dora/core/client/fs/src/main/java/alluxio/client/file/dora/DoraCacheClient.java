@@ -33,6 +33,8 @@ import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.exception.InvalidPathException;
 import alluxio.exception.status.PermissionDeniedException;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
 import alluxio.grpc.CompleteFilePOptions;
 import alluxio.grpc.CompleteFilePRequest;
 import alluxio.grpc.CreateDirectoryPOptions;
@@ -48,9 +50,11 @@ import alluxio.grpc.ExistsPResponse;
 import alluxio.grpc.FileInfo;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GetStatusPRequest;
+import alluxio.grpc.GetStatusResult;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.ListStatusPRequest;
+import alluxio.grpc.ListStatusPResponse;
 import alluxio.grpc.ReadRequest;
 import alluxio.grpc.RenamePOptions;
 import alluxio.grpc.RenamePRequest;
@@ -59,12 +63,25 @@ import alluxio.grpc.SetAttributePOptions;
 import alluxio.grpc.SetAttributePRequest;
 import alluxio.proto.dataserver.Protocol;
 import alluxio.resource.CloseableResource;
+import alluxio.retry.RetryPolicy;
+import alluxio.retry.RetryUtils;
 import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.collect.Lists;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 /**
  * Dora cache client.
@@ -75,6 +92,10 @@ public class DoraCacheClient {
   private final FileSystemContext mContext;
   private final long mChunkSize;
   private final WorkerLocationPolicy mWorkerLocationPolicy;
+  private final int mBatchGetStatusSize;
+  /** The QoS class of the reads of this client, or null if unknown. */
+  @Nullable
+  private final String mReadQosTag;
 
   private final boolean mNettyTransEnabled;
 
@@ -91,6 +112,21 @@ public class DoraCacheClient {
         PropertyKey.USER_STREAMING_READER_CHUNK_SIZE_BYTES);
     mNettyTransEnabled =
         context.getClusterConf().getBoolean(PropertyKey.USER_NETTY_DATA_TRANSMISSION_ENABLED);
+    mBatchGetStatusSize =
+        context.getClusterConf().getInt(PropertyKey.DORA_CLIENT_BATCH_GET_STATUS_SIZE);
+    mReadQosTag = getReadQosTag(context);
+  }
+
+  @Nullable
+  private static String getReadQosTag(FileSystemContext context) {
+    if (context.getClusterConf().isSet(PropertyKey.USER_NETWORK_NETTY_READ_QOS_TAG)) {
+      return context.getClusterConf().getString(PropertyKey.USER_NETWORK_NETTY_READ_QOS_TAG);
+    }
+    try {
+      return context.getClientContext().getUserState().getUser().getName();
+    } catch (IOException e) {
+      return null;
+    }
   }
 
   /**
@@ -169,6 +205,9 @@ public class DoraCacheClient {
         .setBlockId(DUMMY_BLOCK_ID)
         .setOpenUfsBlockOptions(ufsOptions)
         .setChunkSize(mChunkSize);
+    if (mReadQosTag != null) {
+      builder.setQosTag(mReadQosTag);
+    }
     return new NettyDataReader(mContext, workerNetAddress, builder);
   }
 
@@ -181,18 +220,49 @@ public class DoraCacheClient {
    */
   public List<URIStatus> listStatus(String path, ListStatusPOptions options)
       throws PermissionDeniedException {
-    try (CloseableResource<BlockWorkerClient> client =
-             mContext.acquireBlockWorkerClient(getWorkerNetAddress(path))) {
-      List<URIStatus> result = new ArrayList<>();
-      client.get().listStatus(ListStatusPRequest.newBuilder().setPath(path)
-              .setOptions(options).build())
-          .forEachRemaining(
-              (pListStatusResponse) -> result.addAll(pListStatusResponse.getFileInfosList().stream()
-                  .map((pFileInfo) -> new URIStatus(GrpcUtils.fromProto(pFileInfo)))
-                  .collect(Collectors.toList())));
-      return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+    List<URIStatus> result = new ArrayList<>();
+    iterateStatus(path, options, result::add);
+    return result;
+  }
+
+  /**
+   * Iterates the statuses listed by the worker as they arrive. If the listing is interrupted
+   * because the worker is unavailable, it is resumed after the last status received.
+   *
+   * @param path the path to list
+   * @param options the list status options
+   * @param action the action applied to each status
+   * @throws RuntimeException
+   */
+  public void iterateStatus(String path, ListStatusPOptions options,
+      Consumer<? super URIStatus> action) throws PermissionDeniedException {
+    String continuationToken = null;
+    RetryPolicy retry = RetryUtils.defaultClientRetry();
+    while (true) {
+      ListStatusPOptions resumedOptions = continuationToken == null ? options
+          : options.toBuilder().setStartAfter(continuationToken).build();
+      try (CloseableResource<BlockWorkerClient> client =
+               mContext.acquireBlockWorkerClient(getWorkerNetAddress(path))) {
+        Iterator<ListStatusPResponse> responses = client.get().listStatus(
+            ListStatusPRequest.newBuilder().setPath(path).setOptions(resumedOptions).build());
+        while (responses.hasNext()) {
+          ListStatusPResponse response = responses.next();
+          for (FileInfo fileInfo : response.getFileInfosList()) {
+            action.accept(new URIStatus(GrpcUtils.fromProto(fileInfo)));
+          }
+          if (response.hasContinuationToken()) {
+            continuationToken = response.getContinuationToken();
+          }
+        }
+        return;
+      } catch (StatusRuntimeException e) {
+        if (continuationToken == null || e.getStatus().getCode() != Status.Code.UNAVAILABLE
+            || !retry.attempt()) {
+          throw e;
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
     }
   }
 
@@ -223,6 +293,69 @@ public class DoraCacheClient {
     }
   }
 
+  /**
+   * Get the statuses of multiple files. The paths are grouped by the worker which each path is
+   * assigned to, and the groups are sent to the workers in parallel as batched requests.
+   *
+   * @param paths the paths
+   * @param options the options applied to all paths
+   * @return the statuses of the existing paths, keyed by path
+   */
+  public Map<String, URIStatus> getStatuses(List<String> paths, GetStatusPOptions options)
+      throws PermissionDeniedException {
+    List<BlockWorkerInfo> workers = getCachedWorkers();
+    Map<WorkerNetAddress, List<String>> pathsByWorker = new HashMap<>();
+    for (String path : paths) {
+      pathsByWorker.computeIfAbsent(getWorkerNetAddress(workers, path), k -> new ArrayList<>())
+          .add(path);
+    }
+    try (Closer closer = Closer.create()) {
+      List<ListenableFuture<BatchGetStatusPResponse>> futures = new ArrayList<>();
+      for (Map.Entry<WorkerNetAddress, List<String>> entry : pathsByWorker.entrySet()) {
+        BlockWorkerClient client =
+            closer.register(mContext.acquireBlockWorkerClient(entry.getKey())).get();
+        for (List<String> batch : Lists.partition(entry.getValue(), mBatchGetStatusSize)) {
+          futures.add(client.batchGetStatus(BatchGetStatusPRequest.newBuilder()
+              .addAllPaths(batch)
+              .setOptions(options)
+              .build()));
+        }
+      }
+      Map<String, URIStatus> statuses = new HashMap<>(paths.size());
+      for (ListenableFuture<BatchGetStatusPResponse> future : futures) {
+        for (GetStatusResult result : getResponse(future).getResultsList()) {
+          Status status = Status.fromCodeValue(result.getCode());
+          if (status.isOk()) {
+            statuses.put(result.getPath(),
+                new URIStatus(GrpcUtils.fromProto(result.getFileInfo())));
+          } else if (status.getCode() == Status.Code.PERMISSION_DENIED) {
+            throw new PermissionDeniedException(result.getMessage());
+          } else if (status.getCode() != Status.Code.NOT_FOUND) {
+            throw status.withDescription(result.getMessage()).asRuntimeException();
+          }
+        }
+      }
+      return statuses;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static BatchGetStatusPResponse getResponse(
+      ListenableFuture<BatchGetStatusPResponse> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
   /**
    * Create File.
    * @param path the file path
@@ -384,12 +517,18 @@ public class DoraCacheClient {
    * @return the related worker net address where file locates
    */
   public WorkerNetAddress getWorkerNetAddress(String path) {
-    List<BlockWorkerInfo> workers = null;
+    return getWorkerNetAddress(getCachedWorkers(), path);
+  }
+
+  private List<BlockWorkerInfo> getCachedWorkers() {
     try {
-      workers = mContext.getCachedWorkers();
+      return mContext.getCachedWorkers();
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+  }
+
+  private WorkerNetAddress getWorkerNetAddress(List<BlockWorkerInfo> workers, String path) {
     List<BlockWorkerInfo> preferredWorkers =
         mWorkerLocationPolicy.getPreferredWorkers(workers,
             path, PREFERRED_WORKER_COUNT);
@@ -19,9 +19,11 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import alluxio.client.block.BlockWorkerInfo;
 import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.hash.HashFunction;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +31,6 @@ import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 /**
  * An impl of WorkerLocationPolicy.
@@ -64,11 +65,24 @@ public class WorkerLocationPolicy {
     return HASH_PROVIDER.getMultiple(fileId, count);
   }
 
+  /**
+   * Hashes the key followed by the decimal digits of the index, the same as hashing
+   * {@code format("%s%d", key, index)} with murmur3_32 but without building the string.
+   *
+   * @param key the key
+   * @param index the non-negative index
+   * @return the hash
+   */
+  @VisibleForTesting
+  static int hash(String key, int index) {
+    return Murmur3.hash(key, index);
+  }
+
   private static class ConsistentHashProvider {
     private static final HashFunction HASH_FUNCTION = murmur3_32_fixed();
     private static final int MAX_ATTEMPTS = 100;
-    private List<BlockWorkerInfo> mLastWorkerInfos = ImmutableList.of();
-    private NavigableMap<Integer, BlockWorkerInfo> mActiveNodesByConsistentHashing;
+    /** The ring of the current workers, replaced as a whole when the workers change. */
+    private volatile Ring mRing = Ring.EMPTY;
 
     private volatile long mLastUpdatedTimestamp = 0L;
 
@@ -77,6 +91,10 @@ public class WorkerLocationPolicy {
     private static final long WORKER_INFO_UPDATE_INTERVAL_MS = 1000L;
 
     public void refresh(List<BlockWorkerInfo> workerInfos, int numVirtualNodes) {
+      if (mRing == Ring.EMPTY) {
+        // concurrent first callers can't wait for the one building the ring to publish it
+        mRing = build(workerInfos, numVirtualNodes);
+      }
       // check if we need to update worker info
       if (mLastUpdatedTimestamp <= 0L
           || System.currentTimeMillis() - mLastUpdatedTimestamp > WORKER_INFO_UPDATE_INTERVAL_MS) {
@@ -84,47 +102,32 @@ public class WorkerLocationPolicy {
       }
       // update worker info if needed
       if (mNeedUpdate.compareAndSet(true, false)) {
-        if (isWorkerInfoUpdated(workerInfos, mLastWorkerInfos)) {
-          build(workerInfos, numVirtualNodes);
+        if (!mRing.hasSameWorkers(workerInfos)) {
+          mRing = build(workerInfos, numVirtualNodes);
         }
         mLastUpdatedTimestamp = System.currentTimeMillis();
       }
     }
 
-    private boolean isWorkerInfoUpdated(List<BlockWorkerInfo> workerInfoList,
-                                        List<BlockWorkerInfo> anotherWorkerInfoList) {
-      if (workerInfoList == anotherWorkerInfoList) {
-        return false;
-      }
-      Set<WorkerNetAddress> workerAddressSet = workerInfoList.stream()
-          .map(info -> info.getNetAddress()).collect(Collectors.toSet());
-      Set<WorkerNetAddress> anotherWorkerAddressSet = anotherWorkerInfoList.stream()
-          .map(info -> info.getNetAddress()).collect(Collectors.toSet());
-      return !workerAddressSet.equals(anotherWorkerAddressSet);
-    }
-
     public List<BlockWorkerInfo> getMultiple(String key, int count) {
-      Set<BlockWorkerInfo> workers = new HashSet<>();
+      Ring ring = mRing;
+      if (count == 1) {
+        return ImmutableList.of(ring.get(Murmur3.hash(key, 1)));
+      }
+      List<BlockWorkerInfo> workers = new ArrayList<>(count);
       int attempts = 0;
       while (workers.size() < count && attempts < MAX_ATTEMPTS) {
         attempts++;
-        workers.add(get(key, attempts));
+        BlockWorkerInfo worker = ring.get(Murmur3.hash(key, attempts));
+        if (!workers.contains(worker)) {
+          workers.add(worker);
+        }
       }
       return ImmutableList.copyOf(workers);
     }
 
-    public BlockWorkerInfo get(String key, int index) {
-      int hashKey = HASH_FUNCTION.hashString(format("%s%d", key, index), UTF_8).asInt();
-      Map.Entry<Integer, BlockWorkerInfo> entry =
-          mActiveNodesByConsistentHashing.ceilingEntry(hashKey);
-      if (entry != null) {
-        return mActiveNodesByConsistentHashing.ceilingEntry(hashKey).getValue();
-      } else {
-        return mActiveNodesByConsistentHashing.firstEntry().getValue();
-      }
-    }
-
-    private void build(List<BlockWorkerInfo> workerInfos, int numVirtualNodes) {
+    private static Ring build(List<BlockWorkerInfo> workerInfos, int numVirtualNodes) {
+      // a tree map keeps the last worker of colliding hashes, as the ring always did
       NavigableMap<Integer, BlockWorkerInfo> activeNodesByConsistentHashing = new TreeMap<>();
       int weight = (int) ceil(1.0 * numVirtualNodes / workerInfos.size());
       for (BlockWorkerInfo workerInfo : workerInfos) {
@@ -135,8 +138,187 @@ public class WorkerLocationPolicy {
               workerInfo);
         }
       }
-      mLastWorkerInfos = workerInfos;
-      mActiveNodesByConsistentHashing = activeNodesByConsistentHashing;
+      return new Ring(workerInfos, activeNodesByConsistentHashing);
+    }
+  }
+
+  /**
+   * An immutable consistent hash ring, stored as the sorted hashes of the virtual nodes and the
+   * workers of the virtual nodes, so that a lookup is a binary search over primitives.
+   */
+  private static final class Ring {
+    static final Ring EMPTY = new Ring(ImmutableList.of(), new TreeMap<>());
+
+    private final List<BlockWorkerInfo> mWorkerInfos;
+    private final Set<WorkerNetAddress> mAddresses = new HashSet<>();
+    private final int[] mHashes;
+    private final BlockWorkerInfo[] mWorkers;
+
+    Ring(List<BlockWorkerInfo> workerInfos, NavigableMap<Integer, BlockWorkerInfo> nodes) {
+      mWorkerInfos = workerInfos;
+      for (BlockWorkerInfo workerInfo : workerInfos) {
+        mAddresses.add(workerInfo.getNetAddress());
+      }
+      mHashes = new int[nodes.size()];
+      mWorkers = new BlockWorkerInfo[nodes.size()];
+      int i = 0;
+      for (Map.Entry<Integer, BlockWorkerInfo> entry : nodes.entrySet()) {
+        mHashes[i] = entry.getKey();
+        mWorkers[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    /**
+     * @param workerInfos the workers
+     * @return whether the ring is built from workers of the same addresses
+     */
+    boolean hasSameWorkers(List<BlockWorkerInfo> workerInfos) {
+      if (workerInfos == mWorkerInfos) {
+        return true;
+      }
+      if (workerInfos.size() != mWorkerInfos.size()) {
+        return false;
+      }
+      // the lists have no duplicate addresses, so the same size and containment means the same
+      // set of addresses
+      for (int i = 0; i < workerInfos.size(); i++) {
+        if (!mAddresses.contains(workerInfos.get(i).getNetAddress())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @param hash the hash of the key
+     * @return the worker of the first virtual node at or after the hash, wrapping around
+     */
+    BlockWorkerInfo get(int hash) {
+      int low = 0;
+      int high = mHashes.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (mHashes[mid] < hash) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return mWorkers[low == mHashes.length ? 0 : low];
+    }
+  }
+
+  /**
+   * The murmur3_32 hash of the UTF-8 encoding of a string followed by the decimal digits of a
+   * number, computed over a per-thread buffer.
+   */
+  private static final class Murmur3 {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+    /** The maximum number of bytes of the decimal digits of an int. */
+    private static final int MAX_DIGITS = 10;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    static int hash(String key, int index) {
+      byte[] buffer = BUFFER.get();
+      // each char takes at most 3 bytes in UTF-8, surrogate pairs take 4 bytes for 2 chars
+      int maxLength = key.length() * 3 + MAX_DIGITS;
+      if (buffer.length < maxLength) {
+        buffer = new byte[Math.max(maxLength, buffer.length * 2)];
+        BUFFER.set(buffer);
+      }
+      int length = encode(key, buffer);
+      length = appendDigits(index, buffer, length);
+      return hashBytes(buffer, length);
+    }
+
+    /**
+     * Encodes the string in UTF-8 the same way as {@link String#getBytes} does, replacing
+     * malformed surrogates with '?'.
+     */
+    private static int encode(String key, byte[] buffer) {
+      int pos = 0;
+      int length = key.length();
+      for (int i = 0; i < length; i++) {
+        char c = key.charAt(i);
+        if (c < 0x80) {
+          buffer[pos++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[pos++] = (byte) (0xc0 | (c >>> 6));
+          buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          if (Character.isHighSurrogate(c) && i + 1 < length
+              && Character.isLowSurrogate(key.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, key.charAt(++i));
+            buffer[pos++] = (byte) (0xf0 | (codePoint >>> 18));
+            buffer[pos++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3f));
+            buffer[pos++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3f));
+            buffer[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+          } else {
+            buffer[pos++] = (byte) '?';
+          }
+        } else {
+          buffer[pos++] = (byte) (0xe0 | (c >>> 12));
+          buffer[pos++] = (byte) (0x80 | ((c >>> 6) & 0x3f));
+          buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+        }
+      }
+      return pos;
+    }
+
+    private static int appendDigits(int value, byte[] buffer, int pos) {
+      int numDigits = 1;
+      for (int v = value; v >= 10; v /= 10) {
+        numDigits++;
+      }
+      int end = pos + numDigits;
+      int v = value;
+      for (int i = end - 1; i >= pos; i--) {
+        buffer[i] = (byte) ('0' + v % 10);
+        v /= 10;
+      }
+      return end;
+    }
+
+    private static int hashBytes(byte[] input, int length) {
+      int h1 = 0;
+      int i = 0;
+      for (; i + 4 <= length; i += 4) {
+        int k1 = (input[i] & 0xff) | (input[i + 1] & 0xff) << 8
+            | (input[i + 2] & 0xff) << 16 | (input[i + 3] & 0xff) << 24;
+        h1 = mixH1(h1, mixK1(k1));
+      }
+      int k1 = 0;
+      for (int shift = 0; i < length; i++, shift += 8) {
+        k1 ^= (input[i] & 0xff) << shift;
+      }
+      h1 ^= mixK1(k1);
+      return fmix(h1, length);
+    }
+
+    private static int mixK1(int k1) {
+      k1 *= C1;
+      k1 = Integer.rotateLeft(k1, 15);
+      k1 *= C2;
+      return k1;
+    }
+
+    private static int mixH1(int h1, int k1) {
+      h1 ^= k1;
+      h1 = Integer.rotateLeft(h1, 13);
+      h1 = h1 * 5 + 0xe6546b64;
+      return h1;
+    }
+
+    private static int fmix(int h1, int length) {
+      h1 ^= length;
+      h1 ^= h1 >>> 16;
+      h1 *= 0x85ebca6b;
+      h1 ^= h1 >>> 13;
+      h1 *= 0xc2b2ae35;
+      h1 ^= h1 >>> 16;
+      return h1;
     }
   }
 }
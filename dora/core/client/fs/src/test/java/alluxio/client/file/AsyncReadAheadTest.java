@@ -0,0 +1,213 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.Constants;
+import alluxio.PositionReader;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AsyncReadAheadTest {
+  private static final int FILE_LENGTH = 64 * Constants.KB;
+  private static final int REQUEST_SIZE = Constants.KB;
+  private static final int MAX_REQUESTS = 4;
+
+  private PositionReader mReader;
+  private AsyncReadAhead.MemoryBudget mBudget;
+
+  @Before
+  public void before() {
+    mReader = Mockito.spy(
+        new ByteArrayPositionReader(BufferUtils.getIncreasingByteArray(FILE_LENGTH)));
+    mBudget = new AsyncReadAhead.MemoryBudget(Constants.MB);
+  }
+
+  @After
+  public void after() {
+    assertEquals(Constants.MB, mBudget.getAvailable());
+  }
+
+  @Test
+  public void sequentialRead() throws Exception {
+    int readSize = 256;
+    try (AsyncReadAhead readAhead = newReadAhead()) {
+      for (int pos = 0; pos < FILE_LENGTH; pos += readSize) {
+        readAndCheck(readAhead, pos, readSize);
+        if (pos > readSize * 3) {
+          assertEquals(MAX_REQUESTS, readAhead.getWindow());
+        }
+      }
+    }
+    // all reads after the first two are served by read-ahead requests, which are aligned to the
+    // request size after the first one
+    verify(mReader, times(2)).readInternal(anyLong(), any(ReadTargetBuffer.class), eq(readSize));
+    verify(mReader, times(1)).readInternal(eq((long) readSize * 2),
+        any(ReadTargetBuffer.class), eq(REQUEST_SIZE - readSize * 2));
+    verify(mReader, times(FILE_LENGTH / REQUEST_SIZE - 1))
+        .readInternal(anyLong(), any(ReadTargetBuffer.class), eq(REQUEST_SIZE));
+  }
+
+  @Test
+  public void stridedRead() throws Exception {
+    int readSize = 100;
+    int stride = 1000;
+    try (AsyncReadAhead readAhead = newReadAhead()) {
+      for (int pos = 0; pos + readSize <= FILE_LENGTH; pos += stride) {
+        readAndCheck(readAhead, pos, readSize);
+      }
+      assertEquals(MAX_REQUESTS, readAhead.getWindow());
+    }
+    // no data is read between the strides
+    verify(mReader, never())
+        .readInternal(anyLong(), any(ReadTargetBuffer.class), eq(REQUEST_SIZE));
+  }
+
+  @Test
+  public void randomReadCollapsesWindow() throws Exception {
+    try (AsyncReadAhead readAhead = newReadAhead()) {
+      readAndCheck(readAhead, 0, 256);
+      readAndCheck(readAhead, 256, 256);
+      readAndCheck(readAhead, 512, 256);
+      assertTrue(readAhead.getNumRequests() > 0);
+      readAndCheck(readAhead, 10000, 256);
+      assertEquals(0, readAhead.getWindow());
+      assertEquals(0, readAhead.getNumRequests());
+      assertEquals(Constants.MB, mBudget.getAvailable());
+    }
+  }
+
+  @Test
+  public void memoryBudget() throws Exception {
+    mBudget = new AsyncReadAhead.MemoryBudget(REQUEST_SIZE * 2);
+    try (AsyncReadAhead readAhead = newReadAhead()) {
+      for (int pos = 0; pos < REQUEST_SIZE * 8; pos += 256) {
+        readAndCheck(readAhead, pos, 256);
+        assertTrue(readAhead.getNumRequests() <= 2);
+      }
+    }
+    mBudget = new AsyncReadAhead.MemoryBudget(Constants.MB);
+  }
+
+  @Test
+  public void readEndOfFile() throws Exception {
+    try (AsyncReadAhead readAhead = newReadAhead()) {
+      for (int pos = 0; pos < FILE_LENGTH; pos += 512) {
+        readAndCheck(readAhead, pos, 512);
+      }
+      assertEquals(0, readAhead.getNumRequests());
+      assertEquals(-1, readAhead.read(FILE_LENGTH, ByteBuffer.allocate(512)));
+    }
+  }
+
+  @Test
+  public void concurrentReadAhead() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try (AsyncReadAhead readAhead = new AsyncReadAhead(mReader, FILE_LENGTH, REQUEST_SIZE,
+        MAX_REQUESTS, executor, mBudget)) {
+      for (int pos = 0; pos < FILE_LENGTH; pos += 300) {
+        readAndCheck(readAhead, pos, Math.min(300, FILE_LENGTH - pos));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void streamWithReadAhead() throws Exception {
+    byte[] buffer = new byte[500];
+    try (PositionReadFileInStream stream = new PositionReadFileInStream(mReader, FILE_LENGTH,
+        newReadAhead(), newReadAhead())) {
+      int totalBytesRead = 0;
+      while (totalBytesRead < FILE_LENGTH) {
+        int bytesRead = stream.read(buffer, 0, Math.min(buffer.length,
+            FILE_LENGTH - totalBytesRead));
+        assertTrue(BufferUtils.equalIncreasingByteBuffer(
+            totalBytesRead, bytesRead, ByteBuffer.wrap(buffer, 0, bytesRead)));
+        totalBytesRead += bytesRead;
+        assertEquals(totalBytesRead, stream.getPos());
+      }
+    }
+    verify(mReader, Mockito.atMost(FILE_LENGTH / REQUEST_SIZE + 2))
+        .readInternal(anyLong(), any(ReadTargetBuffer.class), anyInt());
+  }
+
+  @Test
+  public void positionedReadsSeparateFromStreamReads() throws Exception {
+    AsyncReadAhead readAhead = newReadAhead();
+    AsyncReadAhead positionedReadAhead = newReadAhead();
+    byte[] buffer = new byte[256];
+    int[] positions = {40000, 1000, 30000, 5000, 60000, 20000, 10000, 50000};
+    try (PositionReadFileInStream stream = new PositionReadFileInStream(mReader, FILE_LENGTH,
+        readAhead, positionedReadAhead)) {
+      for (int position : positions) {
+        assertEquals(buffer.length, stream.read(buffer, 0, buffer.length));
+        // a random positioned read in between does not break the sequential stream reads
+        assertEquals(buffer.length, stream.positionedRead(position, buffer, 0, buffer.length));
+        assertTrue(BufferUtils.equalIncreasingByteBuffer(
+            position, buffer.length, ByteBuffer.wrap(buffer)));
+      }
+      assertEquals(MAX_REQUESTS, readAhead.getWindow());
+      assertEquals(0, positionedReadAhead.getWindow());
+    }
+  }
+
+  @Test
+  public void shortReadFollowedFromItsEnd() throws Exception {
+    int fileLength = REQUEST_SIZE * 2 + 100;
+    PositionReader reader =
+        new ByteArrayPositionReader(BufferUtils.getIncreasingByteArray(fileLength));
+    try (AsyncReadAhead readAhead = new AsyncReadAhead(reader, fileLength, REQUEST_SIZE,
+        MAX_REQUESTS, MoreExecutors.directExecutor(), mBudget)) {
+      readAndCheck(readAhead, 0, REQUEST_SIZE);
+      // the read is cut short by the end of the file
+      ByteBuffer buffer = ByteBuffer.allocate(REQUEST_SIZE * 2);
+      assertEquals(REQUEST_SIZE + 100, readAhead.read(REQUEST_SIZE, buffer));
+      // the next read starts where the short read ended, so it is still sequential
+      assertEquals(-1, readAhead.read(fileLength, ByteBuffer.allocate(REQUEST_SIZE)));
+      assertEquals(2, readAhead.getWindow());
+    }
+  }
+
+  private AsyncReadAhead newReadAhead() {
+    return new AsyncReadAhead(mReader, FILE_LENGTH, REQUEST_SIZE, MAX_REQUESTS,
+        MoreExecutors.directExecutor(), mBudget);
+  }
+
+  private static void readAndCheck(AsyncReadAhead readAhead, int pos, int length)
+      throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    assertEquals(length, readAhead.read(pos, buffer));
+    buffer.flip();
+    assertTrue(BufferUtils.equalIncreasingByteBuffer(pos, length, buffer));
+  }
+}
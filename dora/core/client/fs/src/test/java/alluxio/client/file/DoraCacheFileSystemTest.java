@@ -0,0 +1,228 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.dora.DoraCacheClient;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.FileDoesNotExistException;
+import alluxio.grpc.GetStatusPOptions;
+import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.LoadMetadataPType;
+import alluxio.util.FileSystemOptionsUtils;
+import alluxio.wire.FileInfo;
+
+import com.google.common.collect.ImmutableMap;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public final class DoraCacheFileSystemTest {
+  private static final AlluxioURI FILE1 = new AlluxioURI("/file1");
+  private static final AlluxioURI FILE2 = new AlluxioURI("/file2");
+  private static final AlluxioURI MISSING = new AlluxioURI("/missing");
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private FileSystem mUfs;
+  private DoraCacheClient mDoraClient;
+
+  @Before
+  public void before() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_METADATA_CACHE_ENABLED, true);
+    mConf.set(PropertyKey.DORA_CLIENT_UFS_FALLBACK_ENABLED, true);
+    mUfs = mock(FileSystem.class);
+    for (AlluxioURI path : new AlluxioURI[] {FILE1, FILE2}) {
+      when(mUfs.getStatus(eq(path), any(GetStatusPOptions.class))).thenReturn(status(path));
+    }
+    when(mUfs.getStatus(eq(MISSING), any(GetStatusPOptions.class)))
+        .thenThrow(new FileDoesNotExistException(MISSING));
+    mDoraClient = mock(DoraCacheClient.class);
+  }
+
+  @Test
+  public void getStatuses() throws Exception {
+    when(mDoraClient.getStatuses(anyList(), any(GetStatusPOptions.class))).thenReturn(
+        ImmutableMap.of(FILE2.getPath(), status(FILE2), FILE1.getPath(), status(FILE1)));
+    Map<AlluxioURI, URIStatus> statuses = createFileSystem().getStatuses(
+        Arrays.asList(FILE1, MISSING, FILE2), GetStatusPOptions.getDefaultInstance());
+    // in the order of the given paths, without the missing path
+    assertEquals(Arrays.asList(FILE1, FILE2), new ArrayList<>(statuses.keySet()));
+    verify(mUfs, never()).getStatus(any(AlluxioURI.class), any(GetStatusPOptions.class));
+  }
+
+  @Test
+  public void getStatusesWithPathConf() throws Exception {
+    InstancedConfiguration file2Conf = new InstancedConfiguration(mConf.copyProperties());
+    file2Conf.set(PropertyKey.USER_FILE_METADATA_LOAD_TYPE, LoadMetadataPType.ALWAYS);
+    FileSystemContext context = createContext();
+    when(context.getPathConf(FILE2)).thenReturn(file2Conf);
+    Map<List<String>, GetStatusPOptions> batches = new LinkedHashMap<>();
+    when(mDoraClient.getStatuses(anyList(), any(GetStatusPOptions.class))).thenAnswer(
+        invocation -> {
+          List<String> ufsPaths = invocation.getArgument(0);
+          batches.put(new ArrayList<>(ufsPaths), invocation.getArgument(1));
+          Map<String, URIStatus> statuses = new HashMap<>();
+          for (String ufsPath : ufsPaths) {
+            if (!ufsPath.equals(MISSING.getPath())) {
+              statuses.put(ufsPath, status(new AlluxioURI(ufsPath)));
+            }
+          }
+          return statuses;
+        });
+    Map<AlluxioURI, URIStatus> statuses = new DoraCacheFileSystem(mUfs, context, mDoraClient)
+        .getStatuses(Arrays.asList(FILE1, MISSING, FILE2), GetStatusPOptions.getDefaultInstance());
+    assertEquals(Arrays.asList(FILE1, FILE2), new ArrayList<>(statuses.keySet()));
+    // the paths are looked up with the defaults of their own path configuration, like getStatus
+    assertEquals(Arrays.asList(Arrays.asList(FILE1.getPath(), MISSING.getPath()),
+        Arrays.asList(FILE2.getPath())), new ArrayList<>(batches.keySet()));
+    assertEquals(FileSystemOptionsUtils.getStatusDefaults(mConf),
+        batches.get(Arrays.asList(FILE1.getPath(), MISSING.getPath())));
+    assertEquals(FileSystemOptionsUtils.getStatusDefaults(file2Conf),
+        batches.get(Arrays.asList(FILE2.getPath())));
+  }
+
+  @Test
+  public void getStatusesFallBackToUfs() throws Exception {
+    when(mDoraClient.getStatuses(anyList(), any(GetStatusPOptions.class)))
+        .thenThrow(new StatusRuntimeException(Status.UNAVAILABLE));
+    Map<AlluxioURI, URIStatus> statuses = createFileSystem().getStatuses(
+        Arrays.asList(FILE2, MISSING, FILE1), GetStatusPOptions.getDefaultInstance());
+    // the statuses are read from the UFS one path at a time
+    assertEquals(Arrays.asList(FILE2, FILE1), new ArrayList<>(statuses.keySet()));
+    assertEquals(FILE1.getPath(), statuses.get(FILE1).getPath());
+    verify(mUfs).getStatus(eq(MISSING), any(GetStatusPOptions.class));
+  }
+
+  @Test
+  public void getStatusesWithoutFallback() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_UFS_FALLBACK_ENABLED, false);
+    when(mDoraClient.getStatuses(anyList(), any(GetStatusPOptions.class)))
+        .thenThrow(new StatusRuntimeException(Status.UNAVAILABLE));
+    List<AlluxioURI> paths = Arrays.asList(FILE1, FILE2);
+    assertThrows(StatusRuntimeException.class, () -> createFileSystem().getStatuses(paths,
+        GetStatusPOptions.getDefaultInstance()));
+    verify(mUfs, never()).getStatus(any(AlluxioURI.class), any(GetStatusPOptions.class));
+  }
+
+  @Test
+  public void getStatusesWithoutMetadataCache() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_METADATA_CACHE_ENABLED, false);
+    Map<AlluxioURI, URIStatus> statuses = createFileSystem().getStatuses(
+        Arrays.asList(FILE1, FILE2), GetStatusPOptions.getDefaultInstance());
+    assertEquals(Arrays.asList(FILE1, FILE2), new ArrayList<>(statuses.keySet()));
+    verify(mDoraClient, never()).getStatuses(anyList(), any(GetStatusPOptions.class));
+  }
+
+  @Test
+  public void listStatusFallBackAfterPartialListing() throws Exception {
+    failListingAfter(FILE1);
+    when(mUfs.listStatus(any(AlluxioURI.class), any(ListStatusPOptions.class)))
+        .thenReturn(Arrays.asList(status(FILE1), status(FILE2)));
+    List<URIStatus> statuses =
+        createFileSystem().listStatus(new AlluxioURI("/"), ListStatusPOptions.getDefaultInstance());
+    // the statuses received from the worker are replaced by the UFS listing
+    assertEquals(Arrays.asList(FILE1.getPath(), FILE2.getPath()), paths(statuses));
+  }
+
+  @Test
+  public void iterateStatusFailsAfterPartialListing() throws Exception {
+    failListingAfter(FILE1);
+    List<URIStatus> statuses = new ArrayList<>();
+    assertThrows(StatusRuntimeException.class, () -> createFileSystem().iterateStatus(
+        new AlluxioURI("/"), ListStatusPOptions.getDefaultInstance(), statuses::add));
+    // the statuses already passed to the action cannot be taken back, so there is no fallback
+    assertEquals(Arrays.asList(FILE1.getPath()), paths(statuses));
+    verify(mUfs, never()).iterateStatus(any(AlluxioURI.class), any(ListStatusPOptions.class),
+        any());
+  }
+
+  @Test
+  public void iterateStatusFallBackToUfs() throws Exception {
+    failListingAfter();
+    List<URIStatus> statuses = new ArrayList<>();
+    createFileSystem().iterateStatus(
+        new AlluxioURI("/"), ListStatusPOptions.getDefaultInstance(), statuses::add);
+    verify(mUfs).iterateStatus(any(AlluxioURI.class), any(ListStatusPOptions.class), any());
+  }
+
+  @Test
+  public void listStatusNotFound() throws Exception {
+    doAnswer(invocation -> {
+      throw new StatusRuntimeException(Status.NOT_FOUND);
+    }).when(mDoraClient).iterateStatus(anyString(), any(ListStatusPOptions.class), any());
+    DoraCacheFileSystem fs = createFileSystem();
+    assertTrue(fs.listStatus(MISSING, ListStatusPOptions.getDefaultInstance()).isEmpty());
+    List<URIStatus> statuses = new ArrayList<>();
+    fs.iterateStatus(MISSING, ListStatusPOptions.getDefaultInstance(), statuses::add);
+    assertTrue(statuses.isEmpty());
+    verify(mUfs, never()).listStatus(any(AlluxioURI.class), any(ListStatusPOptions.class));
+  }
+
+  /**
+   * Makes the worker list the statuses of the given paths and then become unavailable.
+   */
+  private void failListingAfter(AlluxioURI... paths) throws Exception {
+    doAnswer(invocation -> {
+      Consumer<URIStatus> action = invocation.getArgument(2);
+      for (AlluxioURI path : paths) {
+        action.accept(status(path));
+      }
+      throw new StatusRuntimeException(Status.UNAVAILABLE);
+    }).when(mDoraClient).iterateStatus(anyString(), any(ListStatusPOptions.class), any());
+  }
+
+  private static List<String> paths(List<URIStatus> statuses) {
+    List<String> paths = new ArrayList<>();
+    statuses.forEach(status -> paths.add(status.getPath()));
+    return paths;
+  }
+
+  private DoraCacheFileSystem createFileSystem() {
+    return new DoraCacheFileSystem(mUfs, createContext(), mDoraClient);
+  }
+
+  private FileSystemContext createContext() {
+    FileSystemContext context = mock(FileSystemContext.class);
+    when(context.getClusterConf()).thenReturn(mConf);
+    when(context.getPathConf(any(AlluxioURI.class))).thenReturn(mConf);
+    return context;
+  }
+
+  private static URIStatus status(AlluxioURI path) {
+    return new URIStatus(new FileInfo().setPath(path.getPath()));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.AlluxioURI;
+import alluxio.client.AlluxioStorageType;
+import alluxio.client.UnderStorageType;
+import alluxio.client.file.dora.DoraCacheClient;
+import alluxio.client.file.dora.netty.NettyDataWriter;
+import alluxio.client.file.options.OutStreamOptions;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class DoraFileOutStreamTest {
+  private static final int PACKET_SIZE = 64;
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private final ByteArrayOutputStream mWorkerData = new ByteArrayOutputStream();
+  private final List<Integer> mChunkSizes = new ArrayList<>();
+  private FileSystemContext mContext;
+  private NettyDataWriter mWriter;
+  private DoraCacheClient mClient;
+  private MockFileOutStream mUfsStream;
+
+  @Before
+  public void before() throws Exception {
+    mContext = mock(FileSystemContext.class);
+    when(mContext.getClusterConf()).thenReturn(mConf);
+    mWriter = mock(NettyDataWriter.class);
+    when(mWriter.chunkSize()).thenReturn(PACKET_SIZE);
+    doAnswer(invocation -> {
+      ByteBuf buf = invocation.getArgument(0);
+      mChunkSizes.add(buf.readableBytes());
+      buf.readBytes(mWorkerData, buf.readableBytes());
+      buf.release();
+      return null;
+    }).when(mWriter).writeChunk(any(ByteBuf.class));
+    doAnswer(invocation -> {
+      mWorkerData.write((byte[]) invocation.getArgument(0), invocation.getArgument(1),
+          invocation.getArgument(2));
+      return null;
+    }).when(mWriter).writeChunk(any(byte[].class), anyInt(), anyInt());
+    mUfsStream = new MockFileOutStream(mContext);
+    mClient = mock(DoraCacheClient.class);
+  }
+
+  @Test
+  public void coalesceSmallWrites() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_WRITE_BUFFER_SIZE, "16B");
+    byte[] data = BufferUtils.getIncreasingByteArray(100);
+    try (DoraFileOutStream stream = createStream()) {
+      for (int i = 0; i < 40; i++) {
+        stream.write(data[i]);
+      }
+      stream.write(data, 40, 10);
+      stream.write(data, 50, 10);
+      stream.flush();
+      stream.write(data, 60, 40);
+      assertEquals(100, stream.getBytesWritten());
+    }
+    assertArrayEquals(data, mWorkerData.toByteArray());
+    assertArrayEquals(data, mUfsStream.toByteArray());
+    // 40 single bytes and two writes of 10 bytes fill three buffers and flush 12 bytes, the last
+    // write is larger than the buffer and is sent directly
+    assertEquals(Arrays.asList(16, 16, 16, 12), mChunkSizes);
+    verify(mWriter).writeChunk(any(byte[].class), eq(60), eq(40));
+  }
+
+  @Test
+  public void bufferAtMostPacket() throws Exception {
+    byte[] data = BufferUtils.getIncreasingByteArray(PACKET_SIZE * 3);
+    try (DoraFileOutStream stream = createStream()) {
+      for (byte b : data) {
+        stream.write(b);
+      }
+    }
+    assertArrayEquals(data, mWorkerData.toByteArray());
+    assertEquals(3, mChunkSizes.size());
+    for (int size : mChunkSizes) {
+      assertEquals(PACKET_SIZE, size);
+    }
+  }
+
+  @Test
+  public void unbuffered() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_WRITE_BUFFER_SIZE, "0B");
+    try (DoraFileOutStream stream = createStream()) {
+      stream.write(1);
+      stream.write(new byte[] {2, 3});
+    }
+    verify(mWriter, never()).writeChunk(any(ByteBuf.class));
+    assertArrayEquals(new byte[] {1, 2, 3}, mWorkerData.toByteArray());
+    assertArrayEquals(new byte[] {1, 2, 3}, mUfsStream.toByteArray());
+  }
+
+  @Test
+  public void cancelWhenLastChunkFails() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_WRITE_BUFFER_SIZE, "16B");
+    List<ByteBuf> sent = new ArrayList<>();
+    doAnswer(invocation -> {
+      ByteBuf buf = invocation.getArgument(0);
+      sent.add(buf);
+      buf.release();
+      throw new IOException("failed to send");
+    }).when(mWriter).writeChunk(any(ByteBuf.class));
+    DoraFileOutStream stream = createStream();
+    stream.write(new byte[] {1, 2, 3});
+    IOException e = assertThrows(IOException.class, stream::close);
+    assertEquals("failed to send", e.getMessage());
+    // the file is not completed with the buffered bytes missing
+    verify(mWriter).cancel();
+    verify(mWriter, never()).flush();
+    verify(mClient, never()).completeFile(any(), any(), any());
+    assertEquals(1, sent.size());
+    assertEquals(0, sent.get(0).refCnt());
+    // closing again has no effect
+    stream.close();
+  }
+
+  private DoraFileOutStream createStream() throws Exception {
+    OutStreamOptions options = mock(OutStreamOptions.class);
+    when(options.getAlluxioStorageType()).thenReturn(AlluxioStorageType.STORE);
+    when(options.getUnderStorageType()).thenReturn(UnderStorageType.SYNC_PERSIST);
+    return new DoraFileOutStream(mClient, mWriter, new AlluxioURI("/file"),
+        options, mContext, mUfsStream, "uuid");
+  }
+}
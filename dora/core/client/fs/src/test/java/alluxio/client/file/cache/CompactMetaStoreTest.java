@@ -0,0 +1,48 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Tests for the {@link DefaultPageMetaStore} class backed by a {@link CompactPageTable}.
+ */
+public class CompactMetaStoreTest extends DefaultMetaStoreTest {
+
+  @Before
+  public void before() {
+    MetricsSystem.clearAllMetrics();
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(
+            new CacheEvictorOptions().setEvictorClass(FIFOCacheEvictor.class),
+            new PageStoreOptions().setRootDir(
+                Paths.get(mTempFolder.getRoot().getAbsolutePath())));
+    mPageInfo = new PageInfo(mPage, 1024,
+        mPageStoreDir);
+    List<PageStoreDir> dirs = ImmutableList.of(mPageStoreDir);
+    mMetaStore = new DefaultPageMetaStore(dirs, new HashAllocator(dirs), new CompactPageTable());
+    mCachedPageGauge =
+        MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricKey.CLIENT_CACHE_PAGES.getName());
+  }
+}
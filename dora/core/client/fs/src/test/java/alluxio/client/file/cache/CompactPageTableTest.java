@@ -0,0 +1,144 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.quota.CacheScope;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the {@link CompactPageTable} class.
+ */
+public class CompactPageTableTest {
+  private final CompactPageTable mTable = new CompactPageTable();
+  private PageStoreDir mPageStoreDir;
+
+  @Rule
+  public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+  @Before
+  public void before() {
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(
+            new CacheEvictorOptions().setEvictorClass(FIFOCacheEvictor.class),
+            new PageStoreOptions().setRootDir(
+                Paths.get(mTempFolder.getRoot().getAbsolutePath())));
+  }
+
+  @Test
+  public void addGetRemove() {
+    CacheScope scope = CacheScope.create("schema.table");
+    PageInfo pageInfo = new PageInfo(new PageId("file", 3), 1024, scope, mPageStoreDir, 12345);
+    assertTrue(mTable.add(pageInfo));
+    assertFalse(mTable.add(pageInfo));
+    assertTrue(mTable.contains(new PageId("file", 3)));
+    assertFalse(mTable.contains(new PageId("file", 4)));
+    assertFalse(mTable.contains(new PageId("other", 3)));
+
+    PageInfo restored = mTable.get(new PageId("file", 3));
+    assertEquals(pageInfo, restored);
+    assertEquals(12345, restored.getCreatedTimestamp());
+    assertSame(mPageStoreDir, restored.getLocalCacheDir());
+    assertEquals(scope, restored.getScope());
+    assertEquals(pageInfo, mTable.getFirstByFileId("file"));
+
+    assertEquals(pageInfo, mTable.remove(new PageId("file", 3)));
+    assertNull(mTable.remove(new PageId("file", 3)));
+    assertNull(mTable.get(new PageId("file", 3)));
+    assertNull(mTable.getFirstByFileId("file"));
+    assertTrue(mTable.getByFileId("file").isEmpty());
+    assertEquals(0, mTable.size());
+  }
+
+  @Test
+  public void randomOperations() {
+    Random random = new Random(42);
+    Map<PageId, PageInfo> expected = new HashMap<>();
+    for (int i = 0; i < 200000; i++) {
+      PageId pageId = new PageId(Integer.toString(random.nextInt(50)), random.nextInt(500));
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(pageId), mTable.remove(pageId));
+      } else {
+        PageInfo pageInfo = new PageInfo(pageId, random.nextInt(1024), mPageStoreDir);
+        assertEquals(expected.putIfAbsent(pageId, pageInfo) == null, mTable.add(pageInfo));
+      }
+    }
+    assertEquals(expected.size(), mTable.size());
+    for (PageInfo pageInfo : expected.values()) {
+      assertEquals(pageInfo, mTable.get(pageInfo.getPageId()));
+    }
+    for (int i = 0; i < 50; i++) {
+      String fileId = Integer.toString(i);
+      Set<PageInfo> pages = new HashSet<>();
+      for (PageInfo pageInfo : expected.values()) {
+        if (pageInfo.getPageId().getFileId().equals(fileId)) {
+          pages.add(pageInfo);
+        }
+      }
+      assertEquals(pages, mTable.getByFileId(fileId));
+    }
+    mTable.clear();
+    assertEquals(0, mTable.size());
+    assertTrue(mTable.getByFileId("0").isEmpty());
+  }
+
+  @Test
+  public void shrinkAfterRemoval() {
+    Map<PageId, PageInfo> expected = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      PageInfo pageInfo =
+          new PageInfo(new PageId(Integer.toString(i % 10), i), i % 1024, mPageStoreDir);
+      assertTrue(mTable.add(pageInfo));
+      if (i % 100 == 0) {
+        expected.put(pageInfo.getPageId(), pageInfo);
+      }
+    }
+    int capacity = mTable.capacity();
+    for (int i = 0; i < 100000; i++) {
+      PageId pageId = new PageId(Integer.toString(i % 10), i);
+      if (!expected.containsKey(pageId)) {
+        assertEquals(pageId, mTable.remove(pageId).getPageId());
+      }
+    }
+    assertTrue(mTable.capacity() < capacity / 8);
+    assertEquals(expected.size(), mTable.size());
+    for (PageInfo pageInfo : expected.values()) {
+      assertEquals(pageInfo, mTable.get(pageInfo.getPageId()));
+      assertEquals(pageInfo.getPageSize(), mTable.get(pageInfo.getPageId()).getPageSize());
+    }
+    assertEquals(new HashSet<>(expected.values()), mTable.getByFileId("0"));
+    // the table keeps working after the pages are moved
+    PageInfo pageInfo = new PageInfo(new PageId("0", 100001), 1, mPageStoreDir);
+    assertTrue(mTable.add(pageInfo));
+    assertEquals(pageInfo, mTable.get(pageInfo.getPageId()));
+  }
+}
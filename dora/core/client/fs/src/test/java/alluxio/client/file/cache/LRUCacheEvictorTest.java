@@ -18,6 +18,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * Tests for the {@link LRUCacheEvictor} class.
  */
@@ -105,4 +113,47 @@ public final class LRUCacheEvictorTest {
     mEvictor.updateOnDelete(mThird);
     Assert.assertNull(mEvictor.evict());
   }
+
+  @Test
+  public void evictAfterManyGets() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    // more gets than fit in the read buffers
+    for (int i = 0; i < 1000; i++) {
+      mEvictor.updateOnGet(mFirst);
+    }
+    Assert.assertEquals(mSecond, mEvictor.evict());
+  }
+
+  @Test
+  public void concurrentGets() throws Exception {
+    int numThreads = 8;
+    int numPages = 1000;
+    for (int i = 0; i < numPages; i++) {
+      mEvictor.updateOnPut(new PageId("file", i));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < numPages; i++) {
+            mEvictor.updateOnGet(new PageId("file", i));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Set<PageId> evicted = new HashSet<>();
+    PageId pageId;
+    while ((pageId = mEvictor.evict()) != null) {
+      Assert.assertTrue(evicted.add(pageId));
+      mEvictor.updateOnDelete(pageId);
+    }
+    Assert.assertEquals(numPages, evicted.size());
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.FileSystem;
+import alluxio.client.file.URIStatus;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.wire.FileInfo;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the {@link LocalCacheFileSystem} class.
+ */
+public final class LocalCacheFileSystemTest {
+  private LocalCacheFileSystem mFileSystem;
+
+  @Before
+  public void before() {
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.USER_CLIENT_CACHE_ADMISSION_PATH_RULES, "/always=ALWAYS,/never=NEVER");
+    mFileSystem =
+        new LocalCacheFileSystem(mock(CacheManager.class), mock(FileSystem.class), conf);
+  }
+
+  @Test
+  public void admissionRules() {
+    URIStatus status = status("/policy/file", CacheContext.defaults());
+    assertSame(status, mFileSystem.applyAdmissionRules(status));
+    assertNull(mFileSystem.applyAdmissionRules(status("/never/file", CacheContext.defaults())));
+    URIStatus always = mFileSystem.applyAdmissionRules(status("/always/file", null));
+    assertTrue(always.getCacheContext().isAdmissionBypassed());
+  }
+
+  @Test
+  public void admissionBypassedOnCopy() {
+    List<String> counters = new ArrayList<>();
+    CacheContext context = new CacheContext() {
+      @Override
+      public void incrementCounter(String name, long value) {
+        counters.add(name);
+      }
+    };
+    context.setCacheIdentifier("id").setCacheScope(CacheScope.create("schema.table"));
+    URIStatus status = status("/always/file", context);
+    URIStatus always = mFileSystem.applyAdmissionRules(status);
+    // the context of the caller is left as it is
+    assertFalse(context.isAdmissionBypassed());
+    assertSame(context, status.getCacheContext());
+    CacheContext copy = always.getCacheContext();
+    assertNotSame(context, copy);
+    assertTrue(copy.isAdmissionBypassed());
+    assertEquals("id", copy.getCacheIdentifier());
+    assertEquals(CacheScope.create("schema.table"), copy.getCacheScope());
+    // the counters are still tracked by the context of the caller
+    copy.incrementCounter("counter", 1);
+    assertEquals(ImmutableList.of("counter"), counters);
+  }
+
+  private static URIStatus status(String path, CacheContext context) {
+    return new URIStatus(new FileInfo().setPath(path), context);
+  }
+}
@@ -15,21 +15,26 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import alluxio.Constants;
 import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.admission.FrequencyAdmissionPolicy;
 import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
 import alluxio.client.file.cache.evictor.LRUCacheEvictor;
 import alluxio.client.file.cache.evictor.UnevictableCacheEvictor;
+import alluxio.client.file.cache.store.LocalPageIndex;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.LocalPageStoreDir;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.file.cache.store.PageStoreOptions;
 import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.client.file.cache.trace.CacheTraceReader;
+import alluxio.client.file.cache.trace.CacheTraceRecord;
 import alluxio.client.quota.CacheQuota;
 import alluxio.client.quota.CacheScope;
 import alluxio.conf.AlluxioConfiguration;
@@ -38,7 +43,10 @@ import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.NettyBufTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.util.CommonUtils;
 import alluxio.util.WaitForOptions;
@@ -46,6 +54,7 @@ import alluxio.util.io.BufferUtils;
 import alluxio.util.io.FileUtils;
 import alluxio.util.io.PathUtils;
 
+import com.codahale.metrics.Counter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.netty.buffer.ByteBuf;
@@ -61,15 +70,23 @@ import org.junit.rules.TemporaryFolder;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -622,6 +639,119 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE2, mBuf);
   }
 
+  @Test
+  public void syncRestoreFromPageIndex() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED, false);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_PAGE_INDEX_ENABLED, true);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.delete(PAGE_ID2));
+    mCacheManager.close();
+    // pages not recorded in the index are not restored when the index is valid
+    PageStoreDir dir = PageStoreDir.createPageStoreDirs(mCacheManagerOptions).get(0);
+    PageId pageUuid = new PageId(UUID.randomUUID().toString(), 0);
+    dir.getPageStore().put(pageUuid, PAGE2);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(dir));
+    mCacheManager = createLocalCacheManager(mConf, mPageMetaStore);
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    assertEquals(0, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertEquals(0, mCacheManager.get(pageUuid, PAGE2.length, mBuf, 0));
+  }
+
+  @Test
+  public void syncRestoreCorruptedPageIndex() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED, false);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_PAGE_INDEX_ENABLED, true);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    mCacheManager.close();
+    Files.write(LocalPageIndex.getIndexDir(mPageStoreOptions.getRootDir()).resolve("checkpoint"),
+        new byte[] {1, 2, 3});
+    PageStoreDir dir = PageStoreDir.createPageStoreDirs(mCacheManagerOptions).get(0);
+    PageId pageUuid = new PageId(UUID.randomUUID().toString(), 0);
+    dir.getPageStore().put(pageUuid, PAGE2);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(dir));
+    mCacheManager = createLocalCacheManager(mConf, mPageMetaStore);
+    // falls back to scanning page files
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    assertEquals(PAGE2.length, mCacheManager.get(pageUuid, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+  }
+
+  @Test
+  public void recordTrace() throws Exception {
+    String traceFile = mTemp.newFile("trace").getAbsolutePath();
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE, traceFile);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertEquals(10, mCacheManager.get(PAGE_ID1, 2, 10, new ByteArrayTargetBuffer(mBuf, 0),
+        CacheContext.defaults()));
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    mCacheManager.close();
+    try (CacheTraceReader reader = CacheTraceReader.open(traceFile)) {
+      assertEquals(PAGE_SIZE_BYTES, reader.getPageSize());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.GET_MISS, PAGE_ID1, 0,
+          PAGE1.length), reader.next());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.PUT, PAGE_ID1, 0, PAGE1.length),
+          reader.next());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.GET_HIT, PAGE_ID1, 2, 10),
+          reader.next());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.DELETE, PAGE_ID1, 0, 0),
+          reader.next());
+      assertNull(reader.next());
+    }
+  }
+
+  @Test
+  public void recordTraceAppend() throws Exception {
+    String traceFile = mTemp.newFile("trace").getAbsolutePath();
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE, traceFile);
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    int half = PAGE1.length / 2;
+    assertTrue(mCacheManager.append(PAGE_ID1, 0, Arrays.copyOf(PAGE1, half),
+        CacheContext.defaults()));
+    assertTrue(mCacheManager.append(PAGE_ID1, half,
+        Arrays.copyOfRange(PAGE1, half, PAGE1.length), CacheContext.defaults()));
+    mCacheManager.close();
+    try (CacheTraceReader reader = CacheTraceReader.open(traceFile)) {
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.PUT, PAGE_ID1, 0, half),
+          reader.next());
+      // the page is read back, replaced and put again with the appended data
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.GET_HIT, PAGE_ID1, 0, half),
+          reader.next());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.DELETE, PAGE_ID1, 0, 0),
+          reader.next());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.PUT, PAGE_ID1, 0, PAGE1.length),
+          reader.next());
+      assertNull(reader.next());
+    }
+  }
+
+  @Test
+  public void frequencyAdmission() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS,
+        FrequencyAdmissionPolicy.class.getName());
+    mCacheManager.close();
+    mCacheManager = createLocalCacheManager();
+    // a page is admitted on its second read
+    assertFalse(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertFalse(mCacheManager.hasPage(PAGE_ID1));
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.hasPage(PAGE_ID1));
+    // a page bypassing the admission is admitted on its first read
+    assertTrue(mCacheManager.put(PAGE_ID2, ByteBuffer.wrap(PAGE2),
+        CacheContext.defaults().setAdmissionBypassed(true)));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+  }
+
   @Test
   public void asyncRestore() throws Exception {
     mCacheManager.close();
@@ -893,6 +1023,49 @@ public final class LocalCacheManagerTest {
     pageStore.setPutHanging(false);
   }
 
+  @Test
+  public void getAndLoadCoalescesConcurrentMisses() throws Exception {
+    final int threads = 8;
+    Counter coalesced =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_LOADS_COALESCED.getName());
+    long coalescedBefore = coalesced.getCount();
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loadReleased = new CountDownLatch(1);
+    Supplier<byte[]> supplier = () -> {
+      loads.incrementAndGet();
+      try {
+        loadReleased.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return PAGE1;
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<byte[]>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          byte[] buf = new byte[PAGE_SIZE_BYTES];
+          assertEquals(PAGE_SIZE_BYTES, mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+              new ByteArrayTargetBuffer(buf, 0), CacheContext.defaults(), supplier));
+          return buf;
+        }));
+      }
+      CommonUtils.waitFor("concurrent misses to wait on the in-flight load",
+          () -> coalesced.getCount() - coalescedBefore == threads - 1,
+          WaitForOptions.defaults().setTimeoutMs(10000));
+      loadReleased.countDown();
+      for (Future<byte[]> result : results) {
+        assertArrayEquals(PAGE1, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, loads.get());
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
   @Test
   public void recoverCacheFromFailedPut() throws Exception {
     PageStoreOptions pageStoreOptions = PageStoreOptions.create(mConf).get(0);
@@ -1016,6 +1189,44 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(expectedNewPageResult, newPageResult);
   }
 
+  @Test
+  public void appendToTempPageInChunks() throws Exception {
+    CacheContext context = CacheContext.defaults().setTemporary(true);
+    int chunkSize = 100;
+    byte[] expected = BufferUtils.getIncreasingByteArray(PAGE_SIZE_BYTES);
+    for (int offset = 0; offset < PAGE_SIZE_BYTES; offset += chunkSize) {
+      int length = Math.min(chunkSize, PAGE_SIZE_BYTES - offset);
+      assertTrue(mCacheManager.append(PAGE_ID1, offset,
+          Arrays.copyOfRange(expected, offset, offset + length), context));
+      assertEquals(offset + length, mPageMetaStore.bytes());
+    }
+    byte[] buf = new byte[PAGE_SIZE_BYTES];
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+        new ByteArrayTargetBuffer(buf, 0), context));
+    assertArrayEquals(expected, buf);
+    mCacheManager.commitFile(PAGE_ID1.getFileId());
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, buf, 0));
+    assertArrayEquals(expected, buf);
+  }
+
+  @Test
+  public void appendDirectBufferSlices() throws Exception {
+    CacheContext context = CacheContext.defaults().setTemporary(true);
+    ByteBuffer data = ByteBuffer.allocateDirect(PAGE_SIZE_BYTES);
+    data.put(PAGE1).flip();
+    int half = PAGE_SIZE_BYTES / 2;
+    data.limit(half);
+    assertTrue(mCacheManager.append(PAGE_ID1, 0, data, context));
+    assertEquals(half, data.position());
+    data.limit(PAGE_SIZE_BYTES);
+    assertTrue(mCacheManager.append(PAGE_ID1, half, data, context));
+    assertFalse(data.hasRemaining());
+    byte[] buf = new byte[PAGE_SIZE_BYTES];
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+        new ByteArrayTargetBuffer(buf, 0), context));
+    assertArrayEquals(PAGE1, buf);
+  }
+
   @Test
   public void appendToPageHead() throws Exception {
     int appendLength = 200;
@@ -1060,6 +1271,38 @@ public final class LocalCacheManagerTest {
     assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
   }
 
+  @Test
+  public void retryPutAfterPartialWrite() throws Exception {
+    AtomicInteger failures = new AtomicInteger(0);
+    LocalPageStore pageStore = new LocalPageStore(
+        PageStoreOptions.create(mConf).get(0)) {
+      @Override
+      public void put(PageId pageId, ByteBuffer page, boolean isTempory) throws IOException {
+        if (failures.getAndDecrement() > 0) {
+          // the write consumes the page before running out of space
+          page.position(page.limit());
+          throw new ResourceExhaustedException("No space left on device");
+        }
+        super.put(pageId, page, isTempory);
+      }
+    };
+    PageStoreDir dir =
+        new LocalPageStoreDir(PageStoreOptions.create(mConf).get(0),
+            pageStore, mEvictor);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(dir));
+    mCacheManager = createLocalCacheManager(mConf, mPageMetaStore);
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    failures.set(1);
+    // the first write fails, and the page is written again after evicting PAGE2
+    ByteBuffer page = ByteBuffer.wrap(PAGE1);
+    assertTrue(mCacheManager.append(PAGE_ID1, 0, page, CacheContext.defaults()));
+    assertTrue(failures.get() < 0);
+    assertFalse(page.hasRemaining());
+    assertEquals(0, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
   @Test
   public void highStorageOverheadPut() throws Exception {
     // a store that is so inefficient to store any data
@@ -1125,6 +1368,56 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE1, bytes);
   }
 
+  @Test
+  public void getDataFileChannelAfterDelete() throws Exception {
+    mCacheManager = createLocalCacheManager();
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    Optional<DataFileChannel> dataFileChannel = mCacheManager.getDataFileChannel(PAGE_ID1,
+        0, PAGE1.length, CacheContext.defaults());
+    assertTrue(dataFileChannel.isPresent());
+    // the page is evicted before the data is sent
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    ByteBuf buf = Unpooled.buffer(PAGE1.length);
+    DefaultFileRegion region = (DefaultFileRegion) dataFileChannel.get().getNettyOutput();
+    assertEquals(PAGE1.length,
+        region.transferTo(new NettyBufTargetBuffer(buf).byteChannel(), 0));
+    region.release();
+    byte[] bytes = new byte[PAGE1.length];
+    buf.readBytes(bytes);
+    assertArrayEquals(PAGE1, bytes);
+  }
+
+  @Test
+  public void getDataBufferWithoutZeroCopy() throws Exception {
+    String traceFile = mTemp.newFile("trace").getAbsolutePath();
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE, traceFile);
+    mCacheManager.close();
+    LocalPageStore pageStore = new LocalPageStore(
+        PageStoreOptions.create(mConf).get(0)) {
+      @Override
+      public boolean isZeroCopySupported() {
+        return false;
+      }
+    };
+    PageStoreDir dir =
+        new LocalPageStoreDir(PageStoreOptions.create(mConf).get(0),
+            pageStore, mEvictor);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(dir));
+    mCacheManager = createLocalCacheManager(mConf, mPageMetaStore);
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertFalse(mCacheManager.getDataBuffer(PAGE_ID1, 0, PAGE1.length, CacheContext.defaults())
+        .isPresent());
+    // the caller falls back to copying the page, which is the only get recorded
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    mCacheManager.close();
+    try (CacheTraceReader reader = CacheTraceReader.open(traceFile)) {
+      assertEquals(CacheTraceRecord.Type.PUT, reader.next().getType());
+      assertEquals(new CacheTraceRecord(CacheTraceRecord.Type.GET_HIT, PAGE_ID1, 0,
+          PAGE1.length), reader.next());
+      assertNull(reader.next());
+    }
+  }
+
   /**
    * A PageStore where put can throw IOException on put or delete.
    */
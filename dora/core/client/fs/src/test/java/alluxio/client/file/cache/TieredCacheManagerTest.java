@@ -0,0 +1,208 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.CacheUsage.PartitionDescriptor;
+import alluxio.client.file.cache.CacheUsage.TierPartition.Tier;
+import alluxio.client.file.cache.admission.CacheAdmissionPolicyOptions;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link TieredCacheManager} class.
+ */
+public final class TieredCacheManagerTest {
+  private static final int PAGE_SIZE_BYTES = Constants.KB;
+  private static final PageId PAGE_ID1 = new PageId("0L", 0L);
+  private static final PageId PAGE_ID2 = new PageId("0L", 1L);
+  private static final PageId PAGE_ID3 = new PageId("0L", 2L);
+  private static final byte[] PAGE1 = BufferUtils.getIncreasingByteArray(PAGE_SIZE_BYTES);
+  private static final byte[] PAGE2 = BufferUtils.getIncreasingByteArray(1, PAGE_SIZE_BYTES);
+  private static final byte[] PAGE3 = BufferUtils.getIncreasingByteArray(2, PAGE_SIZE_BYTES);
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private final byte[] mBuf = new byte[PAGE_SIZE_BYTES];
+  private TieredCacheManager mCacheManager;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  @Before
+  public void before() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE, PAGE_SIZE_BYTES);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_SIZE, String.valueOf(512 * PAGE_SIZE_BYTES));
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_DIRS, mTemp.getRoot().getAbsolutePath());
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_STORE_TYPE, PageStoreType.LOCAL);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD, 0);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED, false);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED, false);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_MEMORY_TIER_SIZE, String.valueOf(2 * PAGE_SIZE_BYTES));
+    CacheManagerOptions options = CacheManagerOptions.create(mConf);
+    mCacheManager = TieredCacheManager.create(mConf, options, PageMetaStore.create(options));
+    CommonUtils.waitFor("cache ready",
+        () -> mCacheManager.state() == CacheManager.State.READ_WRITE,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+  }
+
+  @After
+  public void after() throws Exception {
+    mCacheManager.close();
+  }
+
+  private long used(Tier tier) {
+    return mCacheManager.getUsage()
+        .flatMap(usage -> usage.partitionedBy(PartitionDescriptor.tier(tier)))
+        .map(CacheUsage::used)
+        .orElse(-1L);
+  }
+
+  @Test
+  public void putIntoMemoryTier() {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertEquals(PAGE_SIZE_BYTES, used(Tier.MEMORY));
+    assertEquals(0, used(Tier.DISK));
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
+  @Test
+  public void demoteOnEviction() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.put(PAGE_ID3, PAGE3));
+    // the least recently used page is readable while it is moved to the disk tier
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    mCacheManager.waitForPendingMoves();
+    // the page is moved to the disk tier instead of being dropped
+    assertEquals(2 * PAGE_SIZE_BYTES, used(Tier.MEMORY));
+    assertEquals(PAGE_SIZE_BYTES, used(Tier.DISK));
+    assertEquals(3 * PAGE_SIZE_BYTES, mCacheManager.getUsage().get().used());
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
+  @Test
+  public void demoteOnEvictionWhenDeleted() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.put(PAGE_ID3, PAGE3));
+    // the page is deleted before or while it is moved to the disk tier
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    mCacheManager.waitForPendingMoves();
+    assertFalse(mCacheManager.hasPage(PAGE_ID1));
+    assertEquals(0, used(Tier.DISK));
+  }
+
+  @Test
+  public void demoteOnEvictionWhenFileDeleted() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.put(PAGE_ID3, PAGE3));
+    // the file is deleted before or while its evicted page is moved to the disk tier
+    mCacheManager.deleteFile(PAGE_ID1.getFileId());
+    mCacheManager.waitForPendingMoves();
+    assertFalse(mCacheManager.hasPage(PAGE_ID1));
+    assertEquals(0, used(Tier.MEMORY));
+    assertEquals(0, used(Tier.DISK));
+  }
+
+  @Test
+  public void promoteOnRepeatedHits() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.put(PAGE_ID3, PAGE3));
+    mCacheManager.waitForPendingMoves();
+    // the first read from the disk tier leaves the page there
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    mCacheManager.waitForPendingMoves();
+    assertEquals(PAGE_SIZE_BYTES, used(Tier.DISK));
+    // the second read is served from the disk tier and promotes the page in the background,
+    // which demotes the least recently used page of the memory tier
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    mCacheManager.waitForPendingMoves();
+    assertEquals(2 * PAGE_SIZE_BYTES, used(Tier.MEMORY));
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID1, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(PAGE_ID2, PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+    assertEquals(2 * PAGE_SIZE_BYTES, used(Tier.MEMORY));
+    assertEquals(PAGE_SIZE_BYTES, used(Tier.DISK));
+    assertEquals(3 * PAGE_SIZE_BYTES, mCacheManager.getUsage().get().used());
+  }
+
+  @Test
+  public void createWithoutChangingOptions() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_DIRS, mTemp.newFolder().getAbsolutePath());
+    CacheManagerOptions options = CacheManagerOptions.create(mConf).setTraceFile("trace");
+    CacheAdmissionPolicyOptions admissionOptions = options.getCacheAdmissionPolicyOptions();
+    try (TieredCacheManager cacheManager =
+        TieredCacheManager.create(mConf, options, PageMetaStore.create(options))) {
+      assertSame(admissionOptions, options.getCacheAdmissionPolicyOptions());
+      assertEquals("trace", options.getTraceFile());
+    }
+  }
+
+  @Test
+  public void tieredOnlyOnClient() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_DIRS, mTemp.newFolder().getAbsolutePath());
+    try (CacheManager cacheManager = CacheManager.Factory.create(mConf)) {
+      assertTrue(cacheManager.getUsage()
+          .flatMap(usage -> usage.partitionedBy(PartitionDescriptor.tier(Tier.MEMORY)))
+          .isPresent());
+    }
+    // the worker passes its own options, which have no memory tier
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_DIRS, mTemp.newFolder().getAbsolutePath());
+    CacheManagerOptions options = CacheManagerOptions.create(mConf);
+    try (CacheManager cacheManager =
+        CacheManager.Factory.create(mConf, options, PageMetaStore.create(options))) {
+      assertFalse(cacheManager.getUsage()
+          .flatMap(usage -> usage.partitionedBy(PartitionDescriptor.tier(Tier.MEMORY)))
+          .isPresent());
+    }
+  }
+
+  @Test
+  public void deleteFromBothTiers() throws Exception {
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.put(PAGE_ID3, PAGE3));
+    mCacheManager.waitForPendingMoves();
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    assertTrue(mCacheManager.delete(PAGE_ID3));
+    assertFalse(mCacheManager.hasPage(PAGE_ID1));
+    assertFalse(mCacheManager.hasPage(PAGE_ID3));
+    assertTrue(mCacheManager.hasPage(PAGE_ID2));
+    assertFalse(mCacheManager.delete(PAGE_ID1));
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.getUsage().get().used());
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.evictor.TinyLFUCacheEvictor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for the {@link TinyLFUCacheEvictor} class.
+ */
+public final class TinyLFUCacheEvictorTest {
+  private TinyLFUCacheEvictor mEvictor;
+  private final PageId mFirst = new PageId("1L", 2L);
+  private final PageId mSecond = new PageId("3L", 4L);
+  private final PageId mThird = new PageId("5L", 6L);
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    mEvictor = new TinyLFUCacheEvictor(new CacheEvictorOptions());
+  }
+
+  @Test
+  public void evictEmpty() {
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictPutOrder() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    mEvictor.updateOnDelete(mFirst);
+    Assert.assertEquals(mSecond, mEvictor.evict());
+  }
+
+  @Test
+  public void evictAfterDelete() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    mEvictor.updateOnDelete(mFirst);
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertEquals(mThird, mEvictor.evict());
+    mEvictor.updateOnDelete(mThird);
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictMatching() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    Assert.assertEquals(mSecond,
+        mEvictor.evictMatching(pageId -> pageId.getFileId().equals("3L")));
+    Assert.assertNull(mEvictor.evictMatching(pageId -> pageId.getFileId().equals("7L")));
+  }
+
+  @Test
+  public void frequencyKeptWhileCacheGrows() {
+    mEvictor.updateOnPut(mFirst);
+    for (int i = 0; i < 3; i++) {
+      mEvictor.updateOnGet(mFirst);
+    }
+    Assert.assertTrue(mEvictor.frequency(mFirst) >= 4);
+    // the sketch grows several times with the number of pages
+    for (int i = 0; i < 5000; i++) {
+      mEvictor.updateOnPut(new PageId("7L", i));
+    }
+    Assert.assertTrue(mEvictor.frequency(mFirst) >= 4);
+  }
+
+  @Test
+  public void frequentPageAdmitted() {
+    mEvictor.updateOnPut(mFirst);
+    for (int i = 0; i < 3; i++) {
+      mEvictor.updateOnGet(mFirst);
+    }
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    Assert.assertEquals(4, mEvictor.frequency(mFirst));
+    Assert.assertEquals(1, mEvictor.frequency(mSecond));
+    // the page read once is evicted rather than the least recently used page read often
+    Assert.assertEquals(mSecond, mEvictor.evict());
+    mEvictor.updateOnDelete(mSecond);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+  }
+
+  @Test
+  public void reset() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnGet(mFirst);
+    mEvictor.reset();
+    Assert.assertNull(mEvictor.evict());
+    Assert.assertEquals(0, mEvictor.frequency(mFirst));
+  }
+
+  @Test
+  public void scanResistant() {
+    // a hot set read between scans which are larger than the cache
+    int capacity = 100;
+    int hotPages = 50;
+    int scanPages = 200;
+    int rounds = 20;
+    Assert.assertEquals(0, hitsOfHotPages(new LRUCacheEvictor(new CacheEvictorOptions()),
+        capacity, hotPages, scanPages, rounds));
+    Assert.assertTrue(hitsOfHotPages(mEvictor, capacity, hotPages, scanPages, rounds)
+        >= hotPages * (rounds - 5));
+  }
+
+  private static int hitsOfHotPages(CacheEvictor evictor, int capacity, int hotPages,
+      int scanPages, int rounds) {
+    Set<PageId> cached = new HashSet<>();
+    int hits = 0;
+    int nextScanPage = 0;
+    for (int round = 0; round < rounds; round++) {
+      for (int i = 0; i < hotPages; i++) {
+        if (cached.contains(new PageId("hot", i))) {
+          hits++;
+        }
+        access(evictor, cached, capacity, new PageId("hot", i));
+      }
+      for (int i = 0; i < scanPages; i++) {
+        access(evictor, cached, capacity, new PageId("scan", nextScanPage++));
+      }
+    }
+    return hits;
+  }
+
+  private static void access(CacheEvictor evictor, Set<PageId> cached, int capacity,
+      PageId pageId) {
+    if (cached.contains(pageId)) {
+      evictor.updateOnGet(pageId);
+      return;
+    }
+    if (cached.size() >= capacity) {
+      PageId victim = evictor.evict();
+      Assert.assertTrue(cached.remove(victim));
+      evictor.updateOnDelete(victim);
+    }
+    cached.add(pageId);
+    evictor.updateOnPut(pageId);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.PageId;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link FrequencyAdmissionPolicy} class.
+ */
+public final class FrequencyAdmissionPolicyTest {
+  private static final int WINDOW_SIZE = 1024;
+
+  private FrequencyAdmissionPolicy mPolicy;
+  private final PageId mPage = new PageId("1L", 2L);
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    mPolicy = new FrequencyAdmissionPolicy(
+        new CacheAdmissionPolicyOptions().setWindowSize(WINDOW_SIZE));
+  }
+
+  @Test
+  public void admitOnSecondRead() {
+    Assert.assertFalse(mPolicy.admit(mPage, 10, CacheContext.defaults()));
+    Assert.assertTrue(mPolicy.admit(mPage, 10, CacheContext.defaults()));
+    Assert.assertTrue(mPolicy.admit(mPage, 10, CacheContext.defaults()));
+    Assert.assertEquals(20, mPolicy.getAdmittedBytes());
+  }
+
+  @Test
+  public void rejectOneHitWonders() {
+    for (int i = 0; i < 100; i++) {
+      Assert.assertFalse(mPolicy.admit(new PageId("file", i), 10, CacheContext.defaults()));
+    }
+    Assert.assertEquals(0, mPolicy.getAdmittedBytes());
+  }
+
+  @Test
+  public void forgetAfterWindow() {
+    Assert.assertFalse(mPolicy.admit(mPage, 10, CacheContext.defaults()));
+    for (int i = 0; i < 2 * WINDOW_SIZE; i++) {
+      mPolicy.admit(new PageId("file", i), 10, CacheContext.defaults());
+    }
+    Assert.assertFalse(mPolicy.admit(mPage, 10, CacheContext.defaults()));
+  }
+
+  @Test
+  public void hitRateLossCoversLaterPolicies() {
+    MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getName())
+        .mark(1L << 40);
+    double loss = hitRateLoss();
+    // the gauge is registered by the first policy of the process, not by this one
+    FrequencyAdmissionPolicy policy = new FrequencyAdmissionPolicy(
+        new CacheAdmissionPolicyOptions().setWindowSize(WINDOW_SIZE));
+    policy.admit(mPage, 1 << 20, CacheContext.defaults());
+    Assert.assertTrue(policy.admit(mPage, 1 << 20, CacheContext.defaults()));
+    Assert.assertTrue(hitRateLoss() > loss);
+  }
+
+  @Test
+  public void createFromOptions() {
+    Assert.assertTrue(CacheAdmissionPolicy.create(new CacheAdmissionPolicyOptions())
+        instanceof AdmitAllPolicy);
+    Assert.assertTrue(CacheAdmissionPolicy.create(new CacheAdmissionPolicyOptions()
+        .setPolicyClass(FrequencyAdmissionPolicy.class)) instanceof FrequencyAdmissionPolicy);
+  }
+
+  private static double hitRateLoss() {
+    return (double) MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricsSystem.getMetricName(
+        MetricKey.CLIENT_CACHE_ADMISSION_HIT_RATE_LOSS.getName())).getValue();
+  }
+}
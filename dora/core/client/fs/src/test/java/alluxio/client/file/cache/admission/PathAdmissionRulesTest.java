@@ -0,0 +1,59 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.cache.admission;
+
+import alluxio.client.file.cache.admission.PathAdmissionRules.Action;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ * Tests for the {@link PathAdmissionRules} class.
+ */
+public final class PathAdmissionRulesTest {
+  @Test
+  public void noRules() {
+    PathAdmissionRules rules = new PathAdmissionRules(Collections.emptyList());
+    Assert.assertEquals(Action.POLICY, rules.match("/a/b"));
+  }
+
+  @Test
+  public void longestPrefixWins() {
+    PathAdmissionRules rules = new PathAdmissionRules(
+        ImmutableList.of("/etl=never", "/etl/dim=ALWAYS", "/=policy"));
+    Assert.assertEquals(Action.NEVER, rules.match("/etl/fact/part-0"));
+    Assert.assertEquals(Action.ALWAYS, rules.match("/etl/dim/part-0"));
+    Assert.assertEquals(Action.ALWAYS, rules.match("/etl/dim"));
+    Assert.assertEquals(Action.POLICY, rules.match("/tmp/a"));
+  }
+
+  @Test
+  public void matchWholeComponents() {
+    PathAdmissionRules rules = new PathAdmissionRules(ImmutableList.of("/etl=NEVER"));
+    Assert.assertEquals(Action.NEVER, rules.match("/etl/a"));
+    Assert.assertEquals(Action.POLICY, rules.match("/etl2/a"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidRule() {
+    new PathAdmissionRules(ImmutableList.of("/etl"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidAction() {
+    new PathAdmissionRules(ImmutableList.of("/etl=SOMETIMES"));
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ProjectConstants;
+import alluxio.client.file.cache.CacheManagerOptions;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.Configuration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+public class LocalPageIndexTest {
+  private static final long PAGE_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private PageStoreDir mPageStoreDir;
+
+  @Before
+  public void before() throws Exception {
+    CacheManagerOptions cacheManagerOptions = CacheManagerOptions.create(Configuration.global());
+    PageStoreOptions options = cacheManagerOptions.getPageStoreOptions().get(0);
+    options.setStoreType(PageStoreType.LOCAL);
+    options.setPageSize(PAGE_SIZE);
+    options.setCacheSize(65536);
+    options.setAlluxioVersion(ProjectConstants.VERSION);
+    options.setRootDir(Paths.get(mTemp.getRoot().getAbsolutePath()));
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(cacheManagerOptions.getCacheEvictorOptions(), options);
+  }
+
+  @Test
+  public void restoreMissingIndex() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    assertFalse(index.restore(pageInfo -> { }));
+  }
+
+  @Test
+  public void restoreCheckpointAndJournal() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.add(page("a", 0));
+      checkpoint.add(page("a", 1));
+      checkpoint.commit();
+    }
+    index.open();
+    index.recordAdd(page("b", 0));
+    index.recordDelete(new PageId("a", 0));
+    index.checkpoint();
+    index.recordAdd(page("c", 2));
+    // no close, as if the process crashed with records left in the journal
+
+    assertEquals(pageIds(new PageId("a", 1), new PageId("b", 0), new PageId("c", 2)),
+        restore(new LocalPageIndex(mPageStoreDir, PAGE_SIZE)));
+  }
+
+  @Test
+  public void restoreAfterClose() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.add(page("a", 0));
+      checkpoint.commit();
+    }
+    index.open();
+    index.recordAdd(page("b", 0));
+    index.close();
+    assertFalse(Files.exists(index.getJournalPath()));
+
+    LocalPageIndex restored = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    assertEquals(pageIds(new PageId("a", 0), new PageId("b", 0)), restore(restored));
+    restored.open();
+    restored.recordDelete(new PageId("a", 0));
+    restored.close();
+    assertEquals(pageIds(new PageId("b", 0)),
+        restore(new LocalPageIndex(mPageStoreDir, PAGE_SIZE)));
+  }
+
+  @Test
+  public void restoreCorruptedCheckpoint() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.add(page("a", 0));
+      checkpoint.add(page("a", 1));
+      checkpoint.commit();
+    }
+    try (RandomAccessFile file = new RandomAccessFile(index.getCheckpointPath().toFile(), "rw")) {
+      file.seek(file.length() / 2);
+      int b = file.read();
+      file.seek(file.length() / 2);
+      file.write(b ^ 0xff);
+    }
+    Set<PageId> restored = new HashSet<>();
+    assertFalse(new LocalPageIndex(mPageStoreDir, PAGE_SIZE)
+        .restore(pageInfo -> restored.add(pageInfo.getPageId())));
+    assertTrue(restored.isEmpty());
+  }
+
+  @Test
+  public void restoreMismatchedPageSize() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.add(page("a", 0));
+      checkpoint.commit();
+    }
+    assertFalse(new LocalPageIndex(mPageStoreDir, PAGE_SIZE * 2).restore(pageInfo -> { }));
+  }
+
+  @Test
+  public void restoreTornJournal() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.commit();
+    }
+    index.open();
+    index.recordAdd(page("a", 0));
+    index.recordAdd(page("a", 1));
+    // a partially written record at the end of the journal
+    Files.write(index.getJournalPath(), new byte[] {0, 0, 0, 42, 1, 2},
+        StandardOpenOption.APPEND);
+
+    assertEquals(pageIds(new PageId("a", 0), new PageId("a", 1)),
+        restore(new LocalPageIndex(mPageStoreDir, PAGE_SIZE)));
+  }
+
+  @Test
+  public void reset() throws Exception {
+    LocalPageIndex index = new LocalPageIndex(mPageStoreDir, PAGE_SIZE);
+    try (LocalPageIndex.CheckpointWriter checkpoint = index.newCheckpoint()) {
+      checkpoint.add(page("a", 0));
+      checkpoint.commit();
+    }
+    index.open();
+    index.reset();
+    assertFalse(Files.exists(index.getCheckpointPath()));
+    assertFalse(Files.exists(index.getJournalPath()));
+    assertFalse(new LocalPageIndex(mPageStoreDir, PAGE_SIZE).restore(pageInfo -> { }));
+  }
+
+  private PageInfo page(String fileId, long pageIndex) {
+    return new PageInfo(new PageId(fileId, pageIndex), PAGE_SIZE, CacheScope.GLOBAL,
+        mPageStoreDir);
+  }
+
+  private static Set<PageId> pageIds(PageId... pageIds) {
+    Set<PageId> set = new HashSet<>();
+    for (PageId pageId : pageIds) {
+      set.add(pageId);
+    }
+    return set;
+  }
+
+  private static Set<PageId> restore(LocalPageIndex index) throws Exception {
+    Set<PageId> restored = new HashSet<>();
+    assertTrue(index.restore(pageInfo -> assertTrue(restored.add(pageInfo.getPageId()))));
+    return restored;
+  }
+}
@@ -15,21 +15,32 @@ import static alluxio.client.file.cache.store.LocalPageStore.TEMP_DIR;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageStore;
+import alluxio.exception.PageNotFoundException;
 import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.NettyBufTargetBuffer;
+import alluxio.network.protocol.databuffer.DataFileChannel;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultFileRegion;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 public class LocalPageStoreTest {
 
@@ -133,6 +144,20 @@ public class LocalPageStoreTest {
             PageStoreDir.getFileBucket(numBuckets, tmpFileId), tmpFileId, "6")));
   }
 
+  @Test
+  public void syncCommittedFile() throws Exception {
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    String tmpFileId = "tmp_file";
+    pageStore.putTemporary(new PageId(tmpFileId, 0), "test0".getBytes());
+    // only committed files can be synced
+    assertThrows(NoSuchFileException.class, () -> pageStore.sync(tmpFileId));
+    pageStore.commit(tmpFileId);
+    pageStore.sync(tmpFileId);
+    byte[] buf = new byte[5];
+    assertEquals(5, pageStore.get(new PageId(tmpFileId, 0), new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals("test0".getBytes(), buf);
+  }
+
   @Test
   public void testAbortTempFile() throws Exception {
     LocalPageStore pageStore = new LocalPageStore(mOptions);
@@ -171,6 +196,123 @@ public class LocalPageStoreTest {
     assertFalse(Files.exists(p.getParent()));
   }
 
+  @Test
+  public void readPooledPageWithOffset() throws Exception {
+    mOptions.setFileChannelPoolSize(1);
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("0", 0);
+    PageId other = new PageId("0", 1);
+    pageStore.put(id, "0123456789".getBytes());
+    pageStore.put(other, "other".getBytes());
+    byte[] buf = new byte[4];
+    for (int i = 0; i < 2; i++) {
+      assertEquals(4, pageStore.get(id, 3, 4, new ByteArrayTargetBuffer(buf, 0)));
+      assertArrayEquals("3456".getBytes(), buf);
+      // evicts the channel of the first page from the pool
+      assertEquals(4, pageStore.get(other, 0, 4, new ByteArrayTargetBuffer(buf, 0)));
+    }
+    assertEquals(2, pageStore.get(id, 8, 4, new ByteArrayTargetBuffer(buf, 0)));
+    assertEquals(0, pageStore.get(id, 10, 4, new ByteArrayTargetBuffer(buf, 0)));
+    pageStore.close();
+  }
+
+  @Test
+  public void readPooledPageAfterReplace() throws Exception {
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "old".getBytes());
+    byte[] buf = new byte[3];
+    assertEquals(3, pageStore.get(id, new ByteArrayTargetBuffer(buf, 0)));
+    pageStore.delete(id);
+    pageStore.put(id, "new".getBytes());
+    assertEquals(3, pageStore.get(id, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals("new".getBytes(), buf);
+    pageStore.close();
+  }
+
+  @Test
+  public void readMappedPage() throws Exception {
+    mOptions.setMmapSize(1024);
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "0123456789".getBytes());
+    byte[] buf = new byte[4];
+    // the page is mapped on the second read and served from the mapping afterwards
+    for (int i = 0; i < 3; i++) {
+      assertEquals(4, pageStore.get(id, 3, 4, new ByteArrayTargetBuffer(buf, 0)));
+      assertArrayEquals("3456".getBytes(), buf);
+    }
+    assertEquals(2, pageStore.get(id, 8, 4, new ByteArrayTargetBuffer(buf, 0)));
+    assertEquals(0, pageStore.get(id, 10, 4, new ByteArrayTargetBuffer(buf, 0)));
+    pageStore.delete(id);
+    pageStore.put(id, "abcdefghij".getBytes());
+    assertEquals(4, pageStore.get(id, 3, 4, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals("defg".getBytes(), buf);
+    pageStore.close();
+  }
+
+  @Test
+  public void appendTempPage() throws Exception {
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("tmp_file", 0);
+    pageStore.putTemporary(id, "0123".getBytes());
+    pageStore.append(id, 4, ByteBuffer.wrap("4567".getBytes()), true);
+    pageStore.append(id, 8, ByteBuffer.wrap("89".getBytes()), true);
+    byte[] buf = new byte[16];
+    assertEquals(10, pageStore.get(id, 0, 16, new ByteArrayTargetBuffer(buf, 0), true));
+    assertArrayEquals("0123456789".getBytes(), Arrays.copyOf(buf, 10));
+    pageStore.close();
+  }
+
+  @Test
+  public void replacePageWhileOpen() throws Exception {
+    mOptions.setMmapSize(1024);
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "0123456789".getBytes());
+    DataFileChannel channel = pageStore.getDataFileChannel(id, 0, 10, false);
+    // the page is replaced by a shorter one rather than truncated under the open channel
+    pageStore.put(id, "abc".getBytes());
+    ByteBuf buf = Unpooled.buffer(10);
+    DefaultFileRegion region = (DefaultFileRegion) channel.getNettyOutput();
+    assertEquals(10, region.transferTo(new NettyBufTargetBuffer(buf).byteChannel(), 0));
+    region.release();
+    assertEquals("0123456789", buf.toString(StandardCharsets.UTF_8));
+    byte[] bytes = new byte[10];
+    assertEquals(3, pageStore.get(id, new ByteArrayTargetBuffer(bytes, 0)));
+    assertArrayEquals("abc".getBytes(), Arrays.copyOf(bytes, 3));
+    try (Stream<Path> files = Files.list(pageStore.getPagePath(id, false).getParent())) {
+      assertEquals(1, files.count());
+    }
+    pageStore.close();
+  }
+
+  @Test
+  public void appendBeforeEndOfMappedPage() throws Exception {
+    mOptions.setMmapSize(1024);
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "0123456789".getBytes());
+    byte[] buf = new byte[16];
+    // maps the page
+    for (int i = 0; i < 2; i++) {
+      assertEquals(10, pageStore.get(id, 0, 16, new ByteArrayTargetBuffer(buf, 0)));
+    }
+    pageStore.append(id, 4, ByteBuffer.wrap("ab".getBytes()), false);
+    assertEquals(6, pageStore.get(id, 0, 16, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals("0123ab".getBytes(), Arrays.copyOf(buf, 6));
+    pageStore.append(id, 6, ByteBuffer.wrap("cd".getBytes()), false);
+    assertEquals(8, pageStore.get(id, 0, 16, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals("0123abcd".getBytes(), Arrays.copyOf(buf, 8));
+    pageStore.close();
+  }
+
+  @Test(expected = PageNotFoundException.class)
+  public void appendNonExistingPage() throws Exception {
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    pageStore.append(new PageId("tmp_file", 0), 4, ByteBuffer.wrap("4567".getBytes()), true);
+  }
+
   private void helloWorldTest(PageStore store) throws Exception {
     String msg = "Hello, World!";
     PageId id = new PageId("0", 0);
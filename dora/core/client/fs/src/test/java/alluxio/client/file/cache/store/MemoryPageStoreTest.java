@@ -17,10 +17,12 @@ import static org.junit.Assert.assertEquals;
 import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageStore;
 import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class MemoryPageStoreTest {
@@ -38,6 +40,45 @@ public class MemoryPageStoreTest {
     helloWorldTest(pageStore);
   }
 
+  @Test
+  public void getDataBuffer() throws Exception {
+    MemoryPageStore pageStore = new MemoryPageStore(PAGE_SIZE);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "Hello, World!".getBytes());
+    DataBuffer buffer = pageStore.getDataBuffer(id, 7, PAGE_SIZE, false);
+    assertEquals(6, buffer.getLength());
+    byte[] buf = new byte[6];
+    buffer.readBytes(buf, 0, buf.length);
+    assertArrayEquals("World!".getBytes(), buf);
+    buffer.release();
+  }
+
+  @Test
+  public void deletePageBeingRead() throws Exception {
+    MemoryPageStore pageStore = new MemoryPageStore(PAGE_SIZE);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "first".getBytes());
+    DataBuffer buffer = pageStore.getDataBuffer(id, 0, PAGE_SIZE, false);
+    pageStore.delete(id);
+    // the deleted page is not reused while the buffer still reads it
+    pageStore.put(new PageId("0", 1), "other".getBytes());
+    byte[] buf = new byte[5];
+    buffer.readBytes(buf, 0, buf.length);
+    assertArrayEquals("first".getBytes(), buf);
+    buffer.release();
+  }
+
+  @Test
+  public void appendPage() throws Exception {
+    MemoryPageStore pageStore = new MemoryPageStore(PAGE_SIZE);
+    PageId id = new PageId("0", 0);
+    pageStore.put(id, "Hello".getBytes(), true);
+    pageStore.append(id, 5, ByteBuffer.wrap(", World!".getBytes()), true);
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(13, pageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0), true));
+    assertArrayEquals("Hello, World!".getBytes(), Arrays.copyOf(buf, 13));
+  }
+
   private void helloWorldTest(PageStore store) throws Exception {
     String msg = "Hello, World!";
     PageId id = new PageId("0", 0);
@@ -0,0 +1,135 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+public final class PageFileChannelPoolTest {
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private Path mDir;
+
+  @Before
+  public void before() throws Exception {
+    mDir = mTemp.newFolder("file").toPath();
+    for (int i = 0; i < 4; i++) {
+      Files.write(mDir.resolve(Integer.toString(i)), ("page" + i).getBytes());
+    }
+  }
+
+  @Test
+  public void reuseChannel() throws Exception {
+    long hits = hits();
+    try (PageFileChannelPool pool = new PageFileChannelPool(2)) {
+      FileChannel channel;
+      try (PageFileChannelPool.PooledChannel pooled = pool.acquire(mDir.resolve("0"))) {
+        channel = pooled.getChannel();
+        assertEquals("page0", read(channel));
+      }
+      assertTrue(channel.isOpen());
+      try (PageFileChannelPool.PooledChannel pooled = pool.acquire(mDir.resolve("0"))) {
+        assertSame(channel, pooled.getChannel());
+        assertEquals("page0", read(pooled.getChannel()));
+      }
+      assertEquals(hits + 1, hits());
+    }
+  }
+
+  @Test
+  public void evictClosesChannel() throws Exception {
+    long openFiles = openFiles();
+    PageFileChannelPool pool = new PageFileChannelPool(2);
+    FileChannel channel;
+    try (PageFileChannelPool.PooledChannel pooled = pool.acquire(mDir.resolve("0"))) {
+      channel = pooled.getChannel();
+    }
+    for (int i = 1; i < 4; i++) {
+      pool.acquire(mDir.resolve(Integer.toString(i))).close();
+    }
+    assertEquals(2, pool.size());
+    assertFalse(channel.isOpen());
+    assertEquals(openFiles + 2, openFiles());
+    pool.close();
+    assertEquals(openFiles, openFiles());
+  }
+
+  @Test
+  public void invalidateWhileReading() throws Exception {
+    try (PageFileChannelPool pool = new PageFileChannelPool(2)) {
+      PageFileChannelPool.PooledChannel pooled = pool.acquire(mDir.resolve("0"));
+      pool.invalidate(mDir.resolve("0"));
+      // the channel stays open until the reader releases it
+      assertTrue(pooled.getChannel().isOpen());
+      assertEquals("page0", read(pooled.getChannel()));
+      pooled.close();
+      assertFalse(pooled.getChannel().isOpen());
+      try (PageFileChannelPool.PooledChannel reopened = pool.acquire(mDir.resolve("0"))) {
+        assertNotSame(pooled.getChannel(), reopened.getChannel());
+      }
+    }
+  }
+
+  @Test
+  public void invalidateDirectory() throws Exception {
+    try (PageFileChannelPool pool = new PageFileChannelPool(8)) {
+      Path other = mTemp.newFolder("other").toPath().resolve("0");
+      Files.write(other, "other".getBytes());
+      pool.acquire(mDir.resolve("0")).close();
+      pool.acquire(mDir.resolve("1")).close();
+      pool.acquire(other).close();
+      pool.invalidateAll(mDir);
+      assertEquals(1, pool.size());
+    }
+  }
+
+  @Test(expected = NoSuchFileException.class)
+  public void acquireNonExistingFile() throws Exception {
+    try (PageFileChannelPool pool = new PageFileChannelPool(2)) {
+      pool.acquire(mDir.resolve("10"));
+    }
+  }
+
+  private static String read(FileChannel channel) throws Exception {
+    ByteBuffer buf = ByteBuffer.allocate((int) channel.size());
+    channel.read(buf, 0);
+    return new String(buf.array());
+  }
+
+  private static long hits() {
+    return MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_HITS.getName())
+        .getCount();
+  }
+
+  private static long openFiles() {
+    return MetricsSystem.counter(MetricKey.CLIENT_CACHE_FILE_CHANNEL_POOL_OPEN_FILES.getName())
+        .getCount();
+  }
+}
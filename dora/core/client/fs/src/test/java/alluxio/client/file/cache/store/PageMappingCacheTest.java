@@ -0,0 +1,123 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class PageMappingCacheTest {
+  private static final int PAGE_SIZE = 100;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private Path mDir;
+
+  @Before
+  public void before() throws Exception {
+    mDir = mTemp.newFolder("file").toPath();
+    for (int i = 0; i < 4; i++) {
+      byte[] page = new byte[PAGE_SIZE];
+      page[0] = (byte) i;
+      Files.write(mDir.resolve(Integer.toString(i)), page);
+    }
+  }
+
+  @Test
+  public void mapOnSecondRead() throws Exception {
+    try (PageMappingCache cache = new PageMappingCache(PAGE_SIZE * 2)) {
+      Path page = mDir.resolve("1");
+      assertNull(cache.acquire(page));
+      recordRead(cache, page);
+      assertNull(cache.acquire(page));
+      recordRead(cache, page);
+      try (PageMappingCache.MappedPage mapped = cache.acquire(page)) {
+        assertNotNull(mapped);
+        ByteBuffer buf = mapped.getBuffer();
+        assertEquals(PAGE_SIZE, buf.capacity());
+        assertEquals(1, buf.get(0));
+      }
+    }
+  }
+
+  @Test
+  public void mappedBytesBudget() throws Exception {
+    long mappedBytes = mappedBytes();
+    PageMappingCache cache = new PageMappingCache(PAGE_SIZE * 2);
+    for (int i = 0; i < 4; i++) {
+      Path page = mDir.resolve(Integer.toString(i));
+      recordRead(cache, page);
+      recordRead(cache, page);
+    }
+    assertEquals(2, cache.size());
+    assertEquals(mappedBytes + PAGE_SIZE * 2, mappedBytes());
+    cache.close();
+    assertEquals(mappedBytes, mappedBytes());
+  }
+
+  @Test
+  public void invalidateWhileReading() throws Exception {
+    long mappedBytes = mappedBytes();
+    try (PageMappingCache cache = new PageMappingCache(PAGE_SIZE * 2)) {
+      Path page = mDir.resolve("2");
+      recordRead(cache, page);
+      recordRead(cache, page);
+      PageMappingCache.MappedPage mapped = cache.acquire(page);
+      cache.invalidate(page);
+      assertNull(cache.acquire(page));
+      // the mapping stays valid until the reader releases it
+      assertEquals(2, mapped.getBuffer().get(0));
+      assertEquals(mappedBytes + PAGE_SIZE, mappedBytes());
+      mapped.close();
+      assertEquals(mappedBytes, mappedBytes());
+    }
+  }
+
+  @Test
+  public void invalidateDirectory() throws Exception {
+    try (PageMappingCache cache = new PageMappingCache(PAGE_SIZE * 4)) {
+      for (int i = 0; i < 2; i++) {
+        Path page = mDir.resolve(Integer.toString(i));
+        recordRead(cache, page);
+        recordRead(cache, page);
+      }
+      assertEquals(2, cache.size());
+      cache.invalidateAll(mDir);
+      assertEquals(0, cache.size());
+    }
+  }
+
+  private static void recordRead(PageMappingCache cache, Path page) throws Exception {
+    try (FileChannel channel = FileChannel.open(page, StandardOpenOption.READ)) {
+      cache.recordRead(page, channel);
+    }
+  }
+
+  private static long mappedBytes() {
+    return MetricsSystem.counter(MetricKey.CLIENT_CACHE_MMAP_BYTES.getName()).getCount();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.PageId;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CacheTraceWriterTest {
+  private static final long PAGE_SIZE = Constants.MB;
+
+  @Test
+  public void roundTrip() throws Exception {
+    List<CacheTraceRecord> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      PageId pageId = new PageId("/table/file-" + (i % 7), i * 1000L);
+      records.add(new CacheTraceRecord(CacheTraceRecord.Type.GET_MISS, pageId, i, 4096));
+      records.add(new CacheTraceRecord(CacheTraceRecord.Type.PUT, pageId, 0, (int) PAGE_SIZE));
+      records.add(new CacheTraceRecord(CacheTraceRecord.Type.GET_HIT, pageId, 0, 0));
+      records.add(new CacheTraceRecord(CacheTraceRecord.Type.DELETE, pageId, 0, 0));
+    }
+    byte[] trace = write(records);
+    // file ids are written once
+    assertTrue(trace.length < records.size() * 10);
+    assertEquals(records, read(trace));
+  }
+
+  @Test
+  public void truncated() throws Exception {
+    List<CacheTraceRecord> records = Arrays.asList(
+        new CacheTraceRecord(CacheTraceRecord.Type.PUT, new PageId("a", 1), 0, 10),
+        new CacheTraceRecord(CacheTraceRecord.Type.PUT, new PageId("b", 2), 0, 10));
+    byte[] trace = write(records);
+    // the last record is only partially written
+    assertEquals(records.subList(0, 1), read(Arrays.copyOf(trace, trace.length - 2)));
+  }
+
+  @Test
+  public void notATrace() {
+    assertThrows(IOException.class,
+        () -> new CacheTraceReader(new ByteArrayInputStream(new byte[16])));
+  }
+
+  @Test
+  public void recordAfterClose() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CacheTraceWriter writer = new CacheTraceWriter("test", out, PAGE_SIZE);
+    writer.recordPut(new PageId("a", 1), 10);
+    writer.close();
+    writer.recordPut(new PageId("a", 2), 10);
+    writer.close();
+    assertEquals(1, read(out.toByteArray()).size());
+  }
+
+  @Test
+  public void concurrentRecords() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int numThreads = 8;
+    int numRecords = 1000;
+    try (CacheTraceWriter writer = new CacheTraceWriter("test", out, PAGE_SIZE)) {
+      List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < numThreads; i++) {
+        String fileId = "file-" + i;
+        threads.add(new Thread(() -> {
+          for (int j = 0; j < numRecords; j++) {
+            writer.recordPut(new PageId(fileId, j), 10);
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+    List<CacheTraceRecord> records = read(out.toByteArray());
+    assertEquals(numThreads * numRecords, records.size());
+    // the records of each thread are in the order they are recorded
+    Map<String, Long> next = new HashMap<>();
+    for (CacheTraceRecord record : records) {
+      PageId pageId = record.getPageId();
+      assertEquals((long) next.getOrDefault(pageId.getFileId(), 0L), pageId.getPageIndex());
+      next.put(pageId.getFileId(), pageId.getPageIndex() + 1);
+    }
+  }
+
+  private static byte[] write(List<CacheTraceRecord> records) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (CacheTraceWriter writer = new CacheTraceWriter("test", out, PAGE_SIZE)) {
+      for (CacheTraceRecord record : records) {
+        switch (record.getType()) {
+          case GET_HIT:
+          case GET_MISS:
+            writer.recordGet(record.getPageId(), record.getOffset(), record.getLength(),
+                record.getType() == CacheTraceRecord.Type.GET_HIT);
+            break;
+          case PUT:
+            writer.recordPut(record.getPageId(), record.getLength());
+            break;
+          default:
+            writer.recordDelete(record.getPageId());
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static List<CacheTraceRecord> read(byte[] trace) throws IOException {
+    List<CacheTraceRecord> records = new ArrayList<>();
+    try (CacheTraceReader reader = new CacheTraceReader(new ByteArrayInputStream(trace))) {
+      assertEquals(PAGE_SIZE, reader.getPageSize());
+      CacheTraceRecord record;
+      while ((record = reader.next()) != null) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.client.block.stream.BlockWorkerClient;
+import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.URIStatus;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.PermissionDeniedException;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
+import alluxio.grpc.GetStatusPOptions;
+import alluxio.grpc.GetStatusResult;
+import alluxio.grpc.GrpcUtils;
+import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPRequest;
+import alluxio.grpc.ListStatusPResponse;
+import alluxio.resource.CloseableResource;
+import alluxio.wire.FileInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+public final class DoraCacheClientTest {
+  private static final WorkerNetAddress WORKER1 = new WorkerNetAddress().setHost("worker1");
+  private static final WorkerNetAddress WORKER2 = new WorkerNetAddress().setHost("worker2");
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private final List<List<String>> mWorker1Batches = new CopyOnWriteArrayList<>();
+  private final List<List<String>> mWorker2Batches = new CopyOnWriteArrayList<>();
+  private final List<ListStatusPRequest> mListRequests = new CopyOnWriteArrayList<>();
+  /** The number of responses sent by each listing before the worker becomes unavailable. */
+  private final Deque<Integer> mListFailures = new ArrayDeque<>();
+  private DoraCacheClient mClient;
+
+  @Before
+  public void before() throws Exception {
+    mConf.set(PropertyKey.DORA_CLIENT_BATCH_GET_STATUS_SIZE, 2);
+    mConf.set(PropertyKey.USER_NETWORK_NETTY_READ_QOS_TAG, "test");
+    List<BlockWorkerInfo> workers = ImmutableList.of(
+        new BlockWorkerInfo(WORKER1, 0, 0), new BlockWorkerInfo(WORKER2, 0, 0));
+    FileSystemContext context = mock(FileSystemContext.class);
+    when(context.getClusterConf()).thenReturn(mConf);
+    when(context.getCachedWorkers()).thenReturn(workers);
+    when(context.acquireBlockWorkerClient(eq(WORKER1)))
+        .thenAnswer(invocation -> createClient(mWorker1Batches));
+    when(context.acquireBlockWorkerClient(eq(WORKER2)))
+        .thenAnswer(invocation -> createClient(mWorker2Batches));
+    // paths under /1 are assigned to the first worker, others to the second worker
+    WorkerLocationPolicy policy = mock(WorkerLocationPolicy.class);
+    when(policy.getPreferredWorkers(any(), anyString(), anyInt())).thenAnswer(invocation ->
+        Collections.singletonList(workers.get(
+            ((String) invocation.getArgument(1)).startsWith("/1/") ? 0 : 1)));
+    mClient = new DoraCacheClient(context, policy);
+  }
+
+  @Test
+  public void getStatusesByWorker() throws Exception {
+    Map<String, URIStatus> statuses = mClient.getStatuses(
+        Arrays.asList("/1/a", "/2/a", "/1/b", "/1/c", "/2/b", "/1/d", "/1/e"),
+        GetStatusPOptions.getDefaultInstance());
+    assertEquals(7, statuses.size());
+    statuses.forEach((path, status) -> assertEquals(path, status.getPath()));
+    // the paths of each worker are sent in batches of at most two paths, in the given order
+    assertEquals(Arrays.asList(Arrays.asList("/1/a", "/1/b"), Arrays.asList("/1/c", "/1/d"),
+        Collections.singletonList("/1/e")), mWorker1Batches);
+    assertEquals(Collections.singletonList(Arrays.asList("/2/a", "/2/b")), mWorker2Batches);
+  }
+
+  @Test
+  public void getStatusesMissingPaths() throws Exception {
+    Map<String, URIStatus> statuses = mClient.getStatuses(
+        Arrays.asList("/1/a", "/1/missing", "/2/missing"),
+        GetStatusPOptions.getDefaultInstance());
+    // the missing paths are left out
+    assertEquals(Collections.singleton("/1/a"), statuses.keySet());
+  }
+
+  @Test
+  public void getStatusesPermissionDenied() throws Exception {
+    assertThrows(PermissionDeniedException.class, () -> mClient.getStatuses(
+        Arrays.asList("/1/a", "/2/denied"), GetStatusPOptions.getDefaultInstance()));
+  }
+
+  @Test
+  public void getStatusesFailure() throws Exception {
+    StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+        () -> mClient.getStatuses(Arrays.asList("/1/a", "/1/unavailable"),
+            GetStatusPOptions.getDefaultInstance()));
+    assertEquals(Status.Code.UNAVAILABLE, e.getStatus().getCode());
+  }
+
+  @Test
+  public void iterateStatusResumesAfterUnavailable() throws Exception {
+    mListFailures.add(1);
+    List<String> paths = new ArrayList<>();
+    mClient.iterateStatus("/1/dir", ListStatusPOptions.newBuilder().setRecursive(true).build(),
+        status -> paths.add(status.getPath()));
+    // the listing resumes after the continuation token of the last response received
+    assertEquals(Arrays.asList("/1/dir/a", "/1/dir/b", "/1/dir/c", "/1/dir/d"), paths);
+    assertEquals(2, mListRequests.size());
+    assertFalse(mListRequests.get(0).getOptions().hasStartAfter());
+    assertEquals("b", mListRequests.get(1).getOptions().getStartAfter());
+    assertTrue(mListRequests.get(1).getOptions().getRecursive());
+  }
+
+  @Test
+  public void iterateStatusResumesTwice() throws Exception {
+    mListFailures.add(1);
+    mListFailures.add(0);
+    mListFailures.add(1);
+    List<String> paths = mClient.listStatus("/1/dir", ListStatusPOptions.getDefaultInstance())
+        .stream().map(URIStatus::getPath).collect(Collectors.toList());
+    assertEquals(Arrays.asList("/1/dir/a", "/1/dir/b", "/1/dir/c", "/1/dir/d"), paths);
+    assertEquals(4, mListRequests.size());
+    assertEquals("b", mListRequests.get(2).getOptions().getStartAfter());
+    assertEquals("d", mListRequests.get(3).getOptions().getStartAfter());
+  }
+
+  @Test
+  public void iterateStatusFailsBeforeAnyStatus() throws Exception {
+    mListFailures.add(0);
+    List<String> paths = new ArrayList<>();
+    StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+        () -> mClient.iterateStatus("/1/dir", ListStatusPOptions.getDefaultInstance(),
+            status -> paths.add(status.getPath())));
+    // without a continuation token, the failure is left to the caller
+    assertEquals(Status.Code.UNAVAILABLE, e.getStatus().getCode());
+    assertTrue(paths.isEmpty());
+    assertEquals(1, mListRequests.size());
+  }
+
+  private CloseableResource<BlockWorkerClient> createClient(List<List<String>> batches) {
+    BlockWorkerClient client = mock(BlockWorkerClient.class);
+    when(client.batchGetStatus(any(BatchGetStatusPRequest.class))).thenAnswer(invocation -> {
+      BatchGetStatusPRequest request = invocation.getArgument(0);
+      batches.add(request.getPathsList());
+      BatchGetStatusPResponse.Builder response = BatchGetStatusPResponse.newBuilder();
+      for (String path : request.getPathsList()) {
+        response.addResults(getResult(path));
+      }
+      return Futures.immediateFuture(response.build());
+    });
+    when(client.listStatus(any(ListStatusPRequest.class))).thenAnswer(invocation -> {
+      ListStatusPRequest request = invocation.getArgument(0);
+      mListRequests.add(request);
+      Integer failAfter = mListFailures.poll();
+      return listResponses(request, failAfter == null ? -1 : failAfter);
+    });
+    return new CloseableResource<BlockWorkerClient>(client) {
+      @Override
+      public void closeResource() {}
+    };
+  }
+
+  /**
+   * Lists the files a, b, c and d of a directory two at a time, starting after the continuation
+   * token, and fails with UNAVAILABLE after the given number of responses unless it is negative.
+   */
+  private static Iterator<ListStatusPResponse> listResponses(
+      ListStatusPRequest request, int failAfter) {
+    String startAfter = request.getOptions().getStartAfter();
+    List<ListStatusPResponse> responses = new ArrayList<>();
+    ListStatusPResponse.Builder response = ListStatusPResponse.newBuilder();
+    for (String name : new String[] {"a", "b", "c", "d"}) {
+      if (name.compareTo(startAfter) <= 0) {
+        continue;
+      }
+      response.addFileInfos(
+          GrpcUtils.toProto(new FileInfo().setPath(request.getPath() + "/" + name)))
+          .setContinuationToken(name);
+      if (response.getFileInfosCount() == 2) {
+        responses.add(response.build());
+        response = ListStatusPResponse.newBuilder();
+      }
+    }
+    if (response.getFileInfosCount() > 0) {
+      responses.add(response.build());
+    }
+    Iterator<ListStatusPResponse> iterator = responses.iterator();
+    return new Iterator<ListStatusPResponse>() {
+      private int mSent = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (mSent == failAfter) {
+          throw new StatusRuntimeException(Status.UNAVAILABLE);
+        }
+        return iterator.hasNext();
+      }
+
+      @Override
+      public ListStatusPResponse next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        mSent++;
+        return iterator.next();
+      }
+    };
+  }
+
+  private static GetStatusResult getResult(String path) {
+    GetStatusResult.Builder result = GetStatusResult.newBuilder().setPath(path);
+    if (path.endsWith("/missing")) {
+      return result.setCode(Status.Code.NOT_FOUND.value()).setMessage(path).build();
+    }
+    if (path.endsWith("/denied")) {
+      return result.setCode(Status.Code.PERMISSION_DENIED.value()).setMessage(path).build();
+    }
+    if (path.endsWith("/unavailable")) {
+      return result.setCode(Status.Code.UNAVAILABLE.value()).setMessage(path).build();
+    }
+    return result.setCode(Status.Code.OK.value())
+        .setFileInfo(GrpcUtils.toProto(new FileInfo().setPath(path)))
+        .build();
+  }
+}
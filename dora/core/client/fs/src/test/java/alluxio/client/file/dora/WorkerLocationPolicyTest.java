@@ -0,0 +1,100 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static com.google.common.hash.Hashing.murmur3_32_fixed;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+public final class WorkerLocationPolicyTest {
+  private static final int NUM_VIRTUAL_NODES = 2000;
+  /** The hash provider is shared by all policies, so all tests use the same workers. */
+  private static final List<BlockWorkerInfo> WORKERS = ImmutableList.of(
+      worker("host1"), worker("host2"), worker("host3"), worker("host4"), worker("host5"));
+
+  @Test
+  public void hashSameAsGuava() {
+    String[] keys = {"", "a", "abc", "/path/to/file", "s3://bucket/dir/\u6587\u4ef6",
+        "emoji\uD83D\uDE00", "lone\uD800surrogate", "trailing\uDC00",
+        String.join("", Collections.nCopies(500, "long"))};
+    int[] indexes = {0, 1, 9, 10, 99, 100, 12345, Integer.MAX_VALUE};
+    for (String key : keys) {
+      for (int index : indexes) {
+        assertEquals(key + index, guavaHash(key, index), WorkerLocationPolicy.hash(key, index));
+      }
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder key = new StringBuilder();
+      int length = random.nextInt(64);
+      for (int j = 0; j < length; j++) {
+        key.append((char) random.nextInt(Character.MAX_VALUE + 1));
+      }
+      int index = random.nextInt(Integer.MAX_VALUE);
+      assertEquals(guavaHash(key.toString(), index),
+          WorkerLocationPolicy.hash(key.toString(), index));
+    }
+  }
+
+  @Test
+  public void sameWorkersAsTreeMapRing() {
+    NavigableMap<Integer, BlockWorkerInfo> ring = new TreeMap<>();
+    int weight = (int) Math.ceil(1.0 * NUM_VIRTUAL_NODES / WORKERS.size());
+    for (BlockWorkerInfo worker : WORKERS) {
+      for (int i = 0; i < weight; i++) {
+        ring.put(guavaHash(worker.getNetAddress().dumpMainInfo(), i), worker);
+      }
+    }
+    WorkerLocationPolicy policy = new WorkerLocationPolicy(NUM_VIRTUAL_NODES);
+    for (int i = 0; i < 1000; i++) {
+      String fileId = "/file" + i;
+      Map.Entry<Integer, BlockWorkerInfo> entry = ring.ceilingEntry(guavaHash(fileId, 1));
+      BlockWorkerInfo expected = entry == null ? ring.firstEntry().getValue() : entry.getValue();
+      assertEquals(ImmutableList.of(expected), policy.getPreferredWorkers(WORKERS, fileId, 1));
+    }
+  }
+
+  @Test
+  public void multipleDistinctWorkers() {
+    WorkerLocationPolicy policy = new WorkerLocationPolicy(NUM_VIRTUAL_NODES);
+    for (int i = 0; i < 100; i++) {
+      List<BlockWorkerInfo> workers = policy.getPreferredWorkers(WORKERS, "/file" + i, 3);
+      assertEquals(3, workers.size());
+      assertEquals(3, new HashSet<>(workers).size());
+      assertEquals(workers.get(0), policy.getPreferredWorkers(WORKERS, "/file" + i, 1).get(0));
+    }
+    assertEquals(WORKERS.size(),
+        new HashSet<>(policy.getPreferredWorkers(WORKERS, "/file", 10)).size());
+  }
+
+  private static int guavaHash(String key, int index) {
+    return murmur3_32_fixed().hashString(key + index, UTF_8).asInt();
+  }
+
+  private static BlockWorkerInfo worker(String host) {
+    return new BlockWorkerInfo(new WorkerNetAddress().setHost(host).setRpcPort(29999), 0, 0);
+  }
+}
@@ -52,6 +52,9 @@ public class CacheContext {
 
   private boolean mIsTemporary = false;
 
+  /** Whether the pages are admitted into the cache regardless of the admission policy. */
+  private boolean mAdmissionBypassed = false;
+
   /**
    * @return the default CacheContext
    */
@@ -152,6 +155,23 @@ public class CacheContext {
     return this;
   }
 
+  /**
+   * @return whether the pages are admitted into the cache regardless of the admission policy
+   */
+  public boolean isAdmissionBypassed() {
+    return mAdmissionBypassed;
+  }
+
+  /**
+   * @param admissionBypassed whether the pages are admitted into the cache regardless of the
+   *        admission policy
+   * @return the updated {@code CacheContext}
+   */
+  public CacheContext setAdmissionBypassed(boolean admissionBypassed) {
+    mAdmissionBypassed = admissionBypassed;
+    return this;
+  }
+
   /**
    * Increments the counter {@code name} by {@code value}.
    * <p>
@@ -189,13 +209,15 @@ public class CacheContext {
     return Objects.equals(mCacheIdentifier, that.mCacheIdentifier)
         && Objects.equals(mHiveCacheContext, that.mHiveCacheContext)
         && Objects.equals(mCacheQuota, that.mCacheQuota)
-        && Objects.equals(mCacheScope, that.mCacheScope);
+        && Objects.equals(mCacheScope, that.mCacheScope)
+        && mIsTemporary == that.mIsTemporary
+        && mAdmissionBypassed == that.mAdmissionBypassed;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(mCacheQuota, mCacheScope, mCacheIdentifier, mHiveCacheContext,
-        mIsTemporary);
+        mIsTemporary, mAdmissionBypassed);
   }
 
   @Override
@@ -206,6 +228,7 @@ public class CacheContext {
         .add("cacheScope", mCacheScope)
         .add("hiveCacheContext", mHiveCacheContext)
         .add("isTemporary", mIsTemporary)
+        .add("admissionBypassed", mAdmissionBypassed)
         .toString();
   }
 }
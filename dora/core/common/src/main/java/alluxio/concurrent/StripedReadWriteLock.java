@@ -0,0 +1,196 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.concurrent;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A read/write lock split into stripes of {@link ReentrantReadWriteLock}, for read-mostly data
+ * accessed by many threads. A reader only locks the stripe assigned to its thread, so readers on
+ * different stripes do not contend on the same lock state, while a writer locks all stripes in
+ * order. Reentrancy follows {@link ReentrantReadWriteLock}: the holder of the write lock can
+ * acquire the read lock, but the read lock cannot be upgraded.
+ */
+@ThreadSafe
+public final class StripedReadWriteLock implements ReadWriteLock {
+  private static final int MAX_DEFAULT_STRIPES = 64;
+
+  private final ReentrantReadWriteLock[] mStripes;
+  private final int mMask;
+  private final Lock mReadLock = new ReadLock();
+  private final Lock mWriteLock = new WriteLock();
+
+  /**
+   * Creates a lock with one stripe per available processor, up to 64 stripes.
+   */
+  public StripedReadWriteLock() {
+    this(Math.min(MAX_DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * @param numStripes the number of stripes, rounded up to a power of two
+   */
+  public StripedReadWriteLock(int numStripes) {
+    Preconditions.checkArgument(numStripes > 0 && numStripes <= 1 << 16,
+        "invalid number of stripes: %s", numStripes);
+    int size = Integer.highestOneBit(numStripes);
+    if (size < numStripes) {
+      size <<= 1;
+    }
+    mStripes = new ReentrantReadWriteLock[size];
+    for (int i = 0; i < size; i++) {
+      mStripes[i] = new ReentrantReadWriteLock();
+    }
+    mMask = size - 1;
+  }
+
+  @Override
+  public Lock readLock() {
+    return mReadLock;
+  }
+
+  @Override
+  public Lock writeLock() {
+    return mWriteLock;
+  }
+
+  /**
+   * @return the number of stripes
+   */
+  public int getNumStripes() {
+    return mStripes.length;
+  }
+
+  /**
+   * @return if the write lock is held by the current thread
+   */
+  public boolean isWriteLockedByCurrentThread() {
+    return mStripes[mMask].isWriteLockedByCurrentThread();
+  }
+
+  private Lock currentReadStripe() {
+    // a thread always maps to the same stripe, so unlock() releases the stripe locked by lock()
+    return mStripes[(int) Thread.currentThread().getId() & mMask].readLock();
+  }
+
+  private final class ReadLock implements Lock {
+    @Override
+    public void lock() {
+      currentReadStripe().lock();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      currentReadStripe().lockInterruptibly();
+    }
+
+    @Override
+    public boolean tryLock() {
+      return currentReadStripe().tryLock();
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+      return currentReadStripe().tryLock(time, unit);
+    }
+
+    @Override
+    public void unlock() {
+      currentReadStripe().unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+      throw new UnsupportedOperationException("newCondition() is not supported");
+    }
+  }
+
+  private final class WriteLock implements Lock {
+    @Override
+    public void lock() {
+      for (ReentrantReadWriteLock stripe : mStripes) {
+        stripe.writeLock().lock();
+      }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      for (int i = 0; i < mStripes.length; i++) {
+        try {
+          mStripes[i].writeLock().lockInterruptibly();
+        } catch (InterruptedException e) {
+          unlockStripes(i);
+          throw e;
+        }
+      }
+    }
+
+    @Override
+    public boolean tryLock() {
+      for (int i = 0; i < mStripes.length; i++) {
+        if (!mStripes[i].writeLock().tryLock()) {
+          unlockStripes(i);
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+      long deadline = System.nanoTime() + unit.toNanos(time);
+      for (int i = 0; i < mStripes.length; i++) {
+        boolean locked;
+        try {
+          locked = mStripes[i].writeLock()
+              .tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          unlockStripes(i);
+          throw e;
+        }
+        if (!locked) {
+          unlockStripes(i);
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void unlock() {
+      unlockStripes(mStripes.length);
+    }
+
+    @Override
+    public Condition newCondition() {
+      throw new UnsupportedOperationException("newCondition() is not supported");
+    }
+
+    /**
+     * Unlocks the write locks of the first stripes in reverse order.
+     *
+     * @param numStripes the number of stripes to unlock
+     */
+    private void unlockStripes(int numStripes) {
+      for (int i = numStripes - 1; i >= 0; i--) {
+        mStripes[i].writeLock().unlock();
+      }
+    }
+  }
+}
@@ -759,6 +759,24 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.ALL)
           .build();
+  public static final PropertyKey NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE =
+      dataSizeBuilder(Name.NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE)
+          .setDefaultValue("512MB")
+          .setDescription("The maximum size of the idle direct buffers kept by the direct "
+              + "buffer pool for reuse, including the buffers cached by each thread. Buffers "
+              + "released when the pool is full are freed immediately.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.ALL)
+          .build();
+  public static final PropertyKey NETWORK_DIRECT_BUFFER_POOL_THREAD_CACHE_SIZE =
+      dataSizeBuilder(Name.NETWORK_DIRECT_BUFFER_POOL_THREAD_CACHE_SIZE)
+          .setDefaultValue("4MB")
+          .setDescription("The maximum size of the idle direct buffers cached by each thread, "
+              + "which are reused by the thread without contending with other threads. "
+              + "Set to 0 to disable the thread caches.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.ALL)
+          .build();
   public static final PropertyKey NETWORK_HOST_RESOLUTION_TIMEOUT_MS =
       durationBuilder(Name.NETWORK_HOST_RESOLUTION_TIMEOUT_MS)
           .setAlias("alluxio.network.host.resolution.timeout.ms")
@@ -4508,6 +4526,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_NETWORK_METADATA_THREADS_MAX =
+      intBuilder(Name.WORKER_NETWORK_METADATA_THREADS_MAX)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of threads used to resolve the statuses of the "
+              + "paths of batched get status requests in the data server.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_NETWORK_WRITER_BUFFER_SIZE_MESSAGES =
       intBuilder(Name.WORKER_NETWORK_WRITER_BUFFER_SIZE_MESSAGES)
           .setDefaultValue(8)
@@ -4631,6 +4657,49 @@ public final class PropertyKey implements Comparable<PropertyKey> {
               + "transferred; valid options are `MAPPED` (uses java MappedByteBuffer) and "
               + "`TRANSFER` (uses Java FileChannel.transferTo).")
           .build();
+  public static final PropertyKey WORKER_NETWORK_NETTY_READ_ZERO_COPY_ENABLED =
+      booleanBuilder(Name.WORKER_NETWORK_NETTY_READ_ZERO_COPY_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If true, cached pages are sent to the client without copying them, "
+              + "as file regions for pages on local disks and as slices of the pages for pages "
+              + "in memory. Only the ranges which are read from the UFS are copied. If false, "
+              + "cached pages are sent without copying only when "
+              + "alluxio.worker.network.netty.file.transfer is `TRANSFER`.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_NETWORK_NETTY_READ_QOS_ENABLED =
+      booleanBuilder(Name.WORKER_NETWORK_NETTY_READ_QOS_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If true, the packets of file reads are scheduled by their QoS class, "
+              + "which is the QoS tag sent by the client, or the user if the client sends no "
+              + "tag. When more reads are waiting than "
+              + Name.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY + ", the classes share the "
+              + "reads in proportion to their weights, set with "
+              + "alluxio.worker.network.netty.read.qos.class.<class>.weight (1 by default). "
+              + "The bandwidth of a class can be capped with "
+              + "alluxio.worker.network.netty.read.qos.class.<class>.bandwidth.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY =
+      intBuilder(Name.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY)
+          .setDefaultValue(32)
+          .setDescription("The maximum number of packets read concurrently by the worker when "
+              + "the reads are scheduled by QoS class. Further reads wait in the queues of "
+              + "their classes.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_NETWORK_NETTY_READ_QOS_QUANTUM =
+      dataSizeBuilder(Name.WORKER_NETWORK_NETTY_READ_QOS_QUANTUM)
+          .setDefaultValue("1MB")
+          .setDescription("The number of bytes a QoS class with weight 1 may read in each "
+              + "scheduling round while reads are waiting. A class with weight N may read N "
+              + "times as many bytes.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_NETWORK_NETTY_SHUTDOWN_QUIET_PERIOD =
       durationBuilder(Name.WORKER_NETWORK_NETTY_SHUTDOWN_QUIET_PERIOD)
           .setDefaultValue("2sec")
@@ -4822,6 +4891,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_COMPACT_META_STORE_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_COMPACT_META_STORE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, page metadata is kept in a compact table which "
+              + "interns file IDs and stores page info in primitive arrays, reducing the heap "
+              + "usage of page stores holding a large number of pages. Page info objects are "
+              + "created on access instead of being retained.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_DIRS =
       listBuilder(Name.WORKER_PAGE_STORE_DIRS)
           .setDefaultValue("/tmp/alluxio_cache")
@@ -4842,7 +4921,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that worker uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLFUCacheEvictor`. The TinyLFU evictor "
+              + "keeps pages read repeatedly in cache when other pages are read once by scans.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4871,6 +4952,25 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE =
+      intBuilder(Name.WORKER_PAGE_STORE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE)
+          .setDefaultValue(4096)
+          .setDescription("The maximum number of page files kept open by each directory of the "
+              + "local page store, so that page reads do not open and close the page files. "
+              + "Set to 0 to open the page file on every read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_LOCAL_STORE_MMAP_SIZE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_LOCAL_STORE_MMAP_SIZE)
+          .setDefaultValue("0B")
+          .setDescription("The maximum number of bytes of frequently read pages memory-mapped by "
+              + "each directory of the local page store, so that reads of these pages are "
+              + "served from memory without a system call. A page is mapped on its second "
+              + "recent read. Set to 0 to disable memory-mapped reads.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_OVERHEAD =
       doubleBuilder(Name.WORKER_PAGE_STORE_OVERHEAD)
           .setDefaultValue(0.1)
@@ -4887,6 +4987,32 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_PAGE_INDEX_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_PAGE_INDEX_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, a persistent index of the pages in each `LOCAL` "
+              + "page store directory is maintained, so that the page store can be restored "
+              + "from the index instead of scanning all page files on startup.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_PAGE_INDEX_CHECKPOINT_INTERVAL =
+      durationBuilder(Name.WORKER_PAGE_STORE_PAGE_INDEX_CHECKPOINT_INTERVAL)
+          .setDefaultValue("10min")
+          .setDescription("The interval to merge the journal of page updates into the "
+              + "checkpoint of the page index, when "
+              + Name.WORKER_PAGE_STORE_PAGE_INDEX_ENABLED + " is true.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_TRACE_FILE =
+      stringBuilder(Name.WORKER_PAGE_STORE_TRACE_FILE)
+          .setDescription("If set, the page accesses of the cache are recorded to this file "
+              + "in a compact binary format, which can be replayed offline against other cache "
+              + "configurations with the CacheTraceReplayBench stress bench.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_QUOTA_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -6042,6 +6168,38 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS =
+      classBuilder(Name.USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS)
+          .setDefaultValue("alluxio.client.file.cache.admission.AdmitAllPolicy")
+          .setDescription("The policy deciding whether a page read from the under storage is "
+              + "admitted into the client cache. Currently valid options include "
+              + "`alluxio.client.file.cache.admission.AdmitAllPolicy`, which admits every page, "
+              + "and `alluxio.client.file.cache.admission.FrequencyAdmissionPolicy`, which only "
+              + "admits a page when it is read again within "
+              + Name.USER_CLIENT_CACHE_ADMISSION_WINDOW_SIZE + " page reads, so that pages read "
+              + "once by scans do not pollute the cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_ADMISSION_WINDOW_SIZE =
+      intBuilder(Name.USER_CLIENT_CACHE_ADMISSION_WINDOW_SIZE)
+          .setDefaultValue(0)
+          .setDescription("The number of page reads the frequency admission policy remembers "
+              + "the pages read once for. 0 means twice the number of pages the cache can hold.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_ADMISSION_PATH_RULES =
+      listBuilder(Name.USER_CLIENT_CACHE_ADMISSION_PATH_RULES)
+          .setDescription("A list of path prefixes and how the pages of the files under them are "
+              + "admitted into the client cache, e.g. `/hot=ALWAYS,/etl=NEVER`. ALWAYS admits "
+              + "every page, POLICY leaves it to "
+              + Name.USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS + " and NEVER does not cache the "
+              + "files. The longest matching prefix applies, and files matching no prefix are "
+              + "left to the policy.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED)
           .setDefaultValue(true)
@@ -6090,7 +6248,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that client uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLFUCacheEvictor`. The TinyLFU evictor "
+              + "keeps pages read repeatedly in cache when other pages are read once by scans.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
@@ -6194,6 +6354,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_COMPACT_META_STORE_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_COMPACT_META_STORE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, page metadata is kept in a compact table which "
+              + "interns file IDs and stores page info in primitive arrays, reducing the heap "
+              + "usage of caches holding a large number of pages. Page info objects are "
+              + "created on access instead of being retained.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_DIRS =
       listBuilder(Name.USER_CLIENT_CACHE_DIRS)
           .setDefaultValue("/tmp/alluxio_cache")
@@ -6253,6 +6423,44 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE =
+      intBuilder(Name.USER_CLIENT_CACHE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE)
+          .setDefaultValue(1024)
+          .setDescription("The maximum number of page files kept open by each directory of the "
+              + "local page store of the client-side cache, so that page reads do not open and "
+              + "close the page files. Set to 0 to open the page file on every read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_LOCAL_STORE_MMAP_SIZE =
+      dataSizeBuilder(Name.USER_CLIENT_CACHE_LOCAL_STORE_MMAP_SIZE)
+          .setDefaultValue("0B")
+          .setDescription("The maximum number of bytes of frequently read pages memory-mapped by "
+              + "each directory of the local page store of the client-side cache, so that "
+              + "reads of these pages are served from memory without a system call. A page is "
+              + "mapped on its second recent read. Set to 0 to disable memory-mapped reads.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_MEMORY_TIER_SIZE =
+      dataSizeBuilder(Name.USER_CLIENT_CACHE_MEMORY_TIER_SIZE)
+          .setDefaultValue("0B")
+          .setDescription("The size of the memory tier in front of the client-side cache. "
+              + "When it is set, pages are cached in memory first, demoted to the cache "
+              + "directories when they are evicted from memory, and promoted back to memory "
+              + "when they are read repeatedly. Set to 0 to disable the memory tier.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_MEMORY_TIER_PROMOTION_HITS =
+      intBuilder(Name.USER_CLIENT_CACHE_MEMORY_TIER_PROMOTION_HITS)
+          .setDefaultValue(2)
+          .setDescription("The number of recent reads of a page from the cache directories "
+              + "after which the page is promoted to the memory tier of the client-side cache, "
+              + "if " + Name.USER_CLIENT_CACHE_MEMORY_TIER_SIZE + " is set.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_QUOTA_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -6295,6 +6503,32 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_PAGE_INDEX_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_PAGE_INDEX_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, a persistent index of the pages in each `LOCAL` "
+              + "cache directory is maintained, so that the cache can be restored from the "
+              + "index instead of scanning all page files on startup.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_PAGE_INDEX_CHECKPOINT_INTERVAL =
+      durationBuilder(Name.USER_CLIENT_CACHE_PAGE_INDEX_CHECKPOINT_INTERVAL)
+          .setDefaultValue("10min")
+          .setDescription("The interval to merge the journal of page updates into the "
+              + "checkpoint of the page index, when "
+              + Name.USER_CLIENT_CACHE_PAGE_INDEX_ENABLED + " is true.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_TRACE_FILE =
+      stringBuilder(Name.USER_CLIENT_CACHE_TRACE_FILE)
+          .setDescription("If set, the page accesses of the cache are recorded to this file "
+              + "in a compact binary format, which can be replayed offline against other cache "
+              + "configurations with the CacheTraceReplayBench stress bench.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_IN_STREAM_BUFFER_SIZE =
       dataSizeBuilder(Name.USER_CLIENT_CACHE_IN_STREAM_BUFFER_SIZE)
           .setDefaultValue("0B")
@@ -6469,6 +6703,46 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setIsHidden(true)
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .build();
+  public static final PropertyKey USER_POSITION_READER_READ_AHEAD_ENABLED =
+      booleanBuilder(Name.USER_POSITION_READER_READ_AHEAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If true, position read file in streams detect sequential and strided "
+              + "reads and asynchronously read ahead of the caller, keeping several requests in "
+              + "flight. Otherwise the read buffer of the stream is only filled synchronously.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READ_AHEAD_REQUEST_SIZE =
+      dataSizeBuilder(Name.USER_POSITION_READER_READ_AHEAD_REQUEST_SIZE)
+          .setDefaultValue("1MB")
+          .setDescription("The size of each read-ahead request issued for sequential reads.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READ_AHEAD_MAX_REQUESTS =
+      intBuilder(Name.USER_POSITION_READER_READ_AHEAD_MAX_REQUESTS)
+          .setDefaultValue(8)
+          .setDescription("The maximum number of read-ahead requests in flight for one stream. "
+              + "The read-ahead window starts from one request and doubles on each read which "
+              + "follows the detected access pattern, up to this number.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READ_AHEAD_MEMORY_SIZE =
+      dataSizeBuilder(Name.USER_POSITION_READER_READ_AHEAD_MEMORY_SIZE)
+          .setDefaultValue("256MB")
+          .setDescription("The maximum size of the direct buffers held by read-ahead requests "
+              + "of all streams in the client. Read-ahead stops when the limit is reached.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_POSITION_READER_READ_AHEAD_THREADS =
+      intBuilder(Name.USER_POSITION_READER_READ_AHEAD_THREADS)
+          .setDefaultValue(16)
+          .setDescription("The number of threads in the client issuing read-ahead requests.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_SKIP_AUTHORITY_CHECK =
       booleanBuilder(Name.USER_SKIP_AUTHORITY_CHECK)
           .setScope(Scope.CLIENT)
@@ -7803,6 +8077,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The timeout to close a netty writer client.")
           .build();
 
+  public static final PropertyKey USER_NETWORK_NETTY_READ_QOS_TAG =
+      stringBuilder(Name.USER_NETWORK_NETTY_READ_QOS_TAG)
+          .setDescription("The QoS class of the reads of this client, used by the workers to "
+              + "share their read bandwidth between classes when "
+              + Name.WORKER_NETWORK_NETTY_READ_QOS_ENABLED + " is true. If not set, the "
+              + "class is the user of the client.")
+          .setScope(Scope.CLIENT)
+          .build();
+
   public static final PropertyKey USER_NETWORK_NETTY_TIMEOUT_MS =
       durationBuilder(Name.USER_NETWORK_NETTY_TIMEOUT_MS)
           .setAlias(new String[]{"alluxio.user.network.netty.timeout.ms"})
@@ -7850,6 +8133,24 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.ALL)
           .build();
+  public static final PropertyKey DORA_CLIENT_BATCH_GET_STATUS_SIZE =
+      intBuilder(Name.DORA_CLIENT_BATCH_GET_STATUS_SIZE)
+          .setDefaultValue(1000)
+          .setDescription("The maximum number of paths sent to a worker in one batched get "
+              + "status request, when the client gets the statuses of multiple files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_WRITE_BUFFER_SIZE =
+      dataSizeBuilder(Name.DORA_CLIENT_WRITE_BUFFER_SIZE)
+          .setDefaultValue(format("${%s}", Name.USER_NETWORK_NETTY_WRITER_PACKET_SIZE_BYTES))
+          .setDescription("The size of the buffer of a file output stream, in which writes "
+              + "smaller than the buffer are coalesced before being sent to the worker and the "
+              + "under storage. The buffer is at most a packet. Set to 0 to send each write "
+              + "directly.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
 
   public static final PropertyKey DORA_UFS_FILE_STATUS_CACHE_SIZE =
       intBuilder(Name.DORA_UFS_FILE_STATUS_CACHE_SIZE)
@@ -7883,6 +8184,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey DORA_WORKER_METASTORE_HEAP_CACHE_SIZE =
+      dataSizeBuilder(Name.DORA_WORKER_METASTORE_HEAP_CACHE_SIZE)
+          .setDefaultValue("256MB")
+          .setDescription("The maximum size of the recently used Dora metadata which is kept "
+              + "on heap in front of RocksDB. 0 disables the heap cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey DORA_WORKER_METASTORE_ROCKSDB_BLOOM_FILTER =
       booleanBuilder(Name.DORA_WORKER_METASTORE_ROCKSDB_BLOOM_FILTER)
           .setDescription("Whether or not to use a bloom filter in the Block meta"
@@ -7940,14 +8249,124 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setScope(Scope.WORKER)
           .build();
 
+  @Deprecated(message = "The cache of UFS list status results is bounded by bytes. "
+      + "Use alluxio.dora.ufs.list.status.cache.max.bytes instead.")
   public static final PropertyKey DORA_UFS_LIST_STATUS_CACHE_NR_DIRS =
       intBuilder(Name.DORA_UFS_LIST_STATUS_CACHE_NR_DIRS)
           .setDefaultValue(50)
-          .setDescription("Number of the file/dir cache of UFS list status results")
+          .setDescription("Deprecated - Number of the file/dir cache of UFS list status results")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.WORKER)
           .build();
 
+  public static final PropertyKey DORA_UFS_LIST_STATUS_CACHE_MAX_BYTES =
+      dataSizeBuilder(Name.DORA_UFS_LIST_STATUS_CACHE_MAX_BYTES)
+          .setDefaultValue("64MB")
+          .setDescription("The maximum size of the cache of UFS list status results, in their "
+              + "encoded form. A single directory listing larger than a quarter of it is "
+              + "not cached.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_NEGATIVE_METADATA_CACHE_SIZE =
+      intBuilder(Name.DORA_WORKER_NEGATIVE_METADATA_CACHE_SIZE)
+          .setDefaultValue(100_000)
+          .setDescription("The maximum number of paths the worker remembers as not existing "
+              + "in UFS, so that repeated lookups of them do not query UFS.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_NEGATIVE_METADATA_CACHE_TTL =
+      durationBuilder(Name.DORA_WORKER_NEGATIVE_METADATA_CACHE_TTL)
+          .setDefaultValue("10sec")
+          .setDescription("The time the worker remembers a path as not existing in UFS. "
+              + "Files created in UFS by other clients may not be visible through this worker "
+              + "for up to this long, unless a lookup requires a metadata sync. "
+              + "Set to 0 to disable the cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_UFS_RANGE_READ_CONCURRENCY =
+      intBuilder(Name.DORA_WORKER_UFS_RANGE_READ_CONCURRENCY)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of pages the worker reads from an object store "
+              + "concurrently to fill cache misses, across all files.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_UFS_RANGE_READ_CONCURRENCY_PER_FILE =
+      intBuilder(Name.DORA_WORKER_UFS_RANGE_READ_CONCURRENCY_PER_FILE)
+          .setDefaultValue(4)
+          .setDescription("The maximum number of pages of one file the worker reads from an "
+              + "object store concurrently, when a read misses multiple pages of the file. "
+              + "Each page is read with a separate range request. "
+              + "Set to 1 or less to read the missing pages one by one.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_DIR =
+      stringBuilder(Name.DORA_WORKER_WRITE_BACK_DIR)
+          .setDefaultValue(format("${%s}/writeback", Name.WORK_DIR))
+          .setDescription("The directory of the queue of files written with the ASYNC_THROUGH "
+              + "write type and not uploaded to UFS yet. The queue is resumed when the worker "
+              + "restarts, so it should be on the same persistent storage as the page store.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES =
+      dataSizeBuilder(Name.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES)
+          .setDefaultValue("8GB")
+          .setDescription("The maximum number of bytes of files written with the ASYNC_THROUGH "
+              + "write type and not uploaded to UFS yet. Dirty pages are not evicted, so this "
+              + "should be well below the page store size. Creating a file blocks while the "
+              + "dirty bytes exceed this limit.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT =
+      durationBuilder(Name.DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT)
+          .setDefaultValue("5min")
+          .setDescription(format("The maximum time to wait for the dirty bytes to drop below "
+              + "%s when creating a file, before failing the creation.",
+              Name.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_UPLOAD_THREADS =
+      intBuilder(Name.DORA_WORKER_WRITE_BACK_UPLOAD_THREADS)
+          .setDefaultValue(8)
+          .setDescription("The number of files uploaded to UFS concurrently. Parts of a file "
+              + "are uploaded in parallel when the streaming upload of the object store is "
+              + "enabled, e.g. alluxio.underfs.s3.streaming.upload.enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_RETRY_BASE_SLEEP =
+      durationBuilder(Name.DORA_WORKER_WRITE_BACK_RETRY_BASE_SLEEP)
+          .setDefaultValue("1sec")
+          .setDescription("The initial delay before retrying a failed upload to UFS. The delay "
+              + "doubles after each failure of the same file.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
+  public static final PropertyKey DORA_WORKER_WRITE_BACK_RETRY_MAX_SLEEP =
+      durationBuilder(Name.DORA_WORKER_WRITE_BACK_RETRY_MAX_SLEEP)
+          .setDefaultValue("5min")
+          .setDescription("The maximum delay before retrying a failed upload to UFS.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+
   //
   // Extra class to be loaded
   //
@@ -8014,6 +8433,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.network.connection.shutdown.graceful.timeout";
     public static final String NETWORK_CONNECTION_SHUTDOWN_TIMEOUT =
         "alluxio.network.connection.shutdown.timeout";
+    public static final String NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE =
+        "alluxio.network.direct.buffer.pool.max.size";
+    public static final String NETWORK_DIRECT_BUFFER_POOL_THREAD_CACHE_SIZE =
+        "alluxio.network.direct.buffer.pool.thread.cache.size";
     public static final String NETWORK_HOST_RESOLUTION_TIMEOUT_MS =
         "alluxio.network.host.resolution.timeout";
 
@@ -8830,6 +9253,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.network.async.cache.manager.queue.max";
     public static final String WORKER_NETWORK_BLOCK_READER_THREADS_MAX =
         "alluxio.worker.network.block.reader.threads.max";
+    public static final String WORKER_NETWORK_METADATA_THREADS_MAX =
+        "alluxio.worker.network.metadata.threads.max";
     public static final String WORKER_NETWORK_BLOCK_WRITER_THREADS_MAX =
         "alluxio.worker.network.block.writer.threads.max";
     public static final String WORKER_NETWORK_WRITER_BUFFER_SIZE_MESSAGES =
@@ -8868,8 +9293,18 @@ public final class PropertyKey implements Comparable<PropertyKey> {
 
     public static final String WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE =
         "alluxio.worker.network.netty.file.transfer";
+    public static final String WORKER_NETWORK_NETTY_READ_ZERO_COPY_ENABLED =
+        "alluxio.worker.network.netty.read.zero.copy.enabled";
+    public static final String WORKER_NETWORK_NETTY_READ_QOS_ENABLED =
+        "alluxio.worker.network.netty.read.qos.enabled";
+    public static final String WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY =
+        "alluxio.worker.network.netty.read.qos.concurrency";
+    public static final String WORKER_NETWORK_NETTY_READ_QOS_QUANTUM =
+        "alluxio.worker.network.netty.read.qos.quantum";
     public static final String USER_NETWORK_NETTY_WRITER_CLOSE_TIMEOUT_MS =
         "alluxio.user.network.netty.writer.close.timeout";
+    public static final String USER_NETWORK_NETTY_READ_QOS_TAG =
+        "alluxio.user.network.netty.read.qos.tag";
     public static final String USER_NETWORK_NETTY_TIMEOUT_MS =
         "alluxio.user.network.netty.timeout";
     public static final String USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX =
@@ -8919,6 +9354,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.page.store.async.write.enabled";
     public static final String WORKER_PAGE_STORE_ASYNC_WRITE_THREADS =
         "alluxio.worker.page.store.async.write.threads";
+    public static final String WORKER_PAGE_STORE_COMPACT_META_STORE_ENABLED =
+        "alluxio.worker.page.store.compact.meta.store.enabled";
     public static final String WORKER_PAGE_STORE_DIRS =
         "alluxio.worker.page.store.dirs";
     public static final String WORKER_PAGE_STORE_EVICTION_RETRIES =
@@ -8931,10 +9368,20 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.page.store.evictor.nondeterministic.enabled";
     public static final String WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.worker.page.store.local.store.file.buckets";
+    public static final String WORKER_PAGE_STORE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE =
+        "alluxio.worker.page.store.local.store.file.channel.pool.size";
+    public static final String WORKER_PAGE_STORE_LOCAL_STORE_MMAP_SIZE =
+        "alluxio.worker.page.store.local.store.mmap.size";
     public static final String WORKER_PAGE_STORE_OVERHEAD =
         "alluxio.worker.page.store.overhead";
     public static final String WORKER_PAGE_STORE_PAGE_SIZE =
         "alluxio.worker.page.store.page.size";
+    public static final String WORKER_PAGE_STORE_PAGE_INDEX_ENABLED =
+        "alluxio.worker.page.store.page.index.enabled";
+    public static final String WORKER_PAGE_STORE_PAGE_INDEX_CHECKPOINT_INTERVAL =
+        "alluxio.worker.page.store.page.index.checkpoint.interval";
+    public static final String WORKER_PAGE_STORE_TRACE_FILE =
+        "alluxio.worker.page.store.trace.file";
     public static final String WORKER_PAGE_STORE_QUOTA_ENABLED =
         "alluxio.worker.page.store.quota.enabled";
     public static final String WORKER_PAGE_STORE_SIZES =
@@ -9107,6 +9554,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.block.worker.client.pool.max";
     public static final String USER_BLOCK_WRITE_LOCATION_POLICY =
         "alluxio.user.block.write.location.policy.class";
+    public static final String USER_CLIENT_CACHE_ADMISSION_PATH_RULES =
+        "alluxio.user.client.cache.admission.path.rules";
+    public static final String USER_CLIENT_CACHE_ADMISSION_POLICY_CLASS =
+        "alluxio.user.client.cache.admission.policy.class";
+    public static final String USER_CLIENT_CACHE_ADMISSION_WINDOW_SIZE =
+        "alluxio.user.client.cache.admission.window.size";
     public static final String USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED =
         "alluxio.user.client.cache.async.restore.enabled";
     public static final String USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED =
@@ -9149,14 +9602,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.shadow.cuckoo.size.prefix.bits";
     public static final String USER_CLIENT_CACHE_SHADOW_CUCKOO_SIZE_SUFFIX_BITS =
         "alluxio.user.client.cache.shadow.cuckoo.size.suffix.bits";
+    public static final String USER_CLIENT_CACHE_COMPACT_META_STORE_ENABLED =
+        "alluxio.user.client.cache.compact.meta.store.enabled";
     public static final String USER_CLIENT_CACHE_DIRS =
         "alluxio.user.client.cache.dirs";
     public static final String USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.user.client.cache.local.store.file.buckets";
+    public static final String USER_CLIENT_CACHE_LOCAL_STORE_FILE_CHANNEL_POOL_SIZE =
+        "alluxio.user.client.cache.local.store.file.channel.pool.size";
+    public static final String USER_CLIENT_CACHE_LOCAL_STORE_MMAP_SIZE =
+        "alluxio.user.client.cache.local.store.mmap.size";
     public static final String USER_CLIENT_CACHE_IN_STREAM_BUFFER_SIZE =
         "alluxio.user.client.cache.instream_buffer_size";
+    public static final String USER_CLIENT_CACHE_MEMORY_TIER_PROMOTION_HITS =
+        "alluxio.user.client.cache.memory.tier.promotion.hits";
+    public static final String USER_CLIENT_CACHE_MEMORY_TIER_SIZE =
+        "alluxio.user.client.cache.memory.tier.size";
     public static final String USER_CLIENT_CACHE_PAGE_SIZE =
         "alluxio.user.client.cache.page.size";
+    public static final String USER_CLIENT_CACHE_PAGE_INDEX_ENABLED =
+        "alluxio.user.client.cache.page.index.enabled";
+    public static final String USER_CLIENT_CACHE_PAGE_INDEX_CHECKPOINT_INTERVAL =
+        "alluxio.user.client.cache.page.index.checkpoint.interval";
+    public static final String USER_CLIENT_CACHE_TRACE_FILE =
+        "alluxio.user.client.cache.trace.file";
     public static final String USER_CLIENT_CACHE_QUOTA_ENABLED =
         "alluxio.user.client.cache.quota.enabled";
     public static final String USER_CLIENT_CACHE_TTL_ENABLED =
@@ -9254,6 +9723,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String USER_APP_ID = "alluxio.user.app.id";
     public static final String USER_POSITION_READER_STREAMING_MULTIPLIER =
         "alluxio.user.position.reader.streaming.multiplier";
+    public static final String USER_POSITION_READER_READ_AHEAD_ENABLED =
+        "alluxio.user.position.reader.read.ahead.enabled";
+    public static final String USER_POSITION_READER_READ_AHEAD_REQUEST_SIZE =
+        "alluxio.user.position.reader.read.ahead.request.size";
+    public static final String USER_POSITION_READER_READ_AHEAD_MAX_REQUESTS =
+        "alluxio.user.position.reader.read.ahead.max.requests";
+    public static final String USER_POSITION_READER_READ_AHEAD_MEMORY_SIZE =
+        "alluxio.user.position.reader.read.ahead.memory.size";
+    public static final String USER_POSITION_READER_READ_AHEAD_THREADS =
+        "alluxio.user.position.reader.read.ahead.threads";
     public static final String USER_NETWORK_DATA_TIMEOUT =
         "alluxio.user.network.data.timeout";
     public static final String USER_NETWORK_READER_BUFFER_SIZE_MESSAGES =
@@ -9573,6 +10052,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String DORA_CLIENT_UFS_ROOT = "alluxio.dora.client.ufs.root";
     public static final String DORA_CLIENT_METADATA_CACHE_ENABLED
         = "alluxio.dora.client.metadata.cache.enabled";
+    public static final String DORA_CLIENT_BATCH_GET_STATUS_SIZE =
+        "alluxio.dora.client.batch.get.status.size";
+    public static final String DORA_CLIENT_WRITE_BUFFER_SIZE =
+        "alluxio.dora.client.write.buffer.size";
 
     public static final String DORA_UFS_FILE_STATUS_CACHE_SIZE =
         "alluxio.dora.ufs.file.status.cache.size";
@@ -9585,6 +10068,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
 
     public static final String DORA_WORKER_METASTORE_ROCKSDB_TTL =
         "alluxio.dora.worker.metastore.rocksdb.ttl";
+    public static final String DORA_WORKER_METASTORE_HEAP_CACHE_SIZE =
+        "alluxio.dora.worker.metastore.heap.cache.size";
     public static final String DORA_WORKER_METASTORE_ROCKSDB_BLOOM_FILTER =
         "alluxio.dora.worker.metastore.rocksdb.bloom.filter";
     public static final String DORA_WORKER_METASTORE_ROCKSDB_CACHE_SIZE =
@@ -9602,6 +10087,28 @@ public final class PropertyKey implements Comparable<PropertyKey> {
 
     public static final String DORA_UFS_LIST_STATUS_CACHE_NR_DIRS =
         "alluxio.dora.ufs.list.status.cache.nr.dirs";
+    public static final String DORA_UFS_LIST_STATUS_CACHE_MAX_BYTES =
+        "alluxio.dora.ufs.list.status.cache.max.bytes";
+    public static final String DORA_WORKER_NEGATIVE_METADATA_CACHE_SIZE =
+        "alluxio.dora.worker.negative.metadata.cache.size";
+    public static final String DORA_WORKER_NEGATIVE_METADATA_CACHE_TTL =
+        "alluxio.dora.worker.negative.metadata.cache.ttl";
+    public static final String DORA_WORKER_UFS_RANGE_READ_CONCURRENCY =
+        "alluxio.dora.worker.ufs.range.read.concurrency";
+    public static final String DORA_WORKER_UFS_RANGE_READ_CONCURRENCY_PER_FILE =
+        "alluxio.dora.worker.ufs.range.read.concurrency.per.file";
+    public static final String DORA_WORKER_WRITE_BACK_DIR =
+        "alluxio.dora.worker.write.back.dir";
+    public static final String DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES =
+        "alluxio.dora.worker.write.back.max.dirty.bytes";
+    public static final String DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT =
+        "alluxio.dora.worker.write.back.dirty.wait.timeout";
+    public static final String DORA_WORKER_WRITE_BACK_UPLOAD_THREADS =
+        "alluxio.dora.worker.write.back.upload.threads";
+    public static final String DORA_WORKER_WRITE_BACK_RETRY_BASE_SLEEP =
+        "alluxio.dora.worker.write.back.retry.base.sleep";
+    public static final String DORA_WORKER_WRITE_BACK_RETRY_MAX_SLEEP =
+        "alluxio.dora.worker.write.back.retry.max.sleep";
 
     //
     // Extra class to be loaded
@@ -9723,6 +10230,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.tieredstore.level%d.watermark.low.ratio",
         "alluxio\\.worker\\.tieredstore\\.level(\\d+)\\.watermark\\.low\\.ratio",
         PropertyType.DOUBLE),
+    WORKER_NETWORK_NETTY_READ_QOS_CLASS_WEIGHT(
+        "alluxio.worker.network.netty.read.qos.class.%s.weight",
+        "alluxio\\.worker\\.network\\.netty\\.read\\.qos\\.class\\.([a-zA-Z_0-9-\\.@]+)\\.weight",
+        PropertyType.INTEGER),
+    WORKER_NETWORK_NETTY_READ_QOS_CLASS_BANDWIDTH(
+        "alluxio.worker.network.netty.read.qos.class.%s.bandwidth",
+        "alluxio\\.worker\\.network\\.netty\\.read\\.qos\\.class\\.([a-zA-Z_0-9-\\.@]+)"
+            + "\\.bandwidth",
+        PropertyType.DATASIZE),
     USER_NETWORK_KEEPALIVE_TIME_MS("alluxio.user.network.%s.keepalive.time",
         "alluxio\\.user\\.network\\.(\\w+)\\.keepalive\\.time",
         PropertyType.DURATION),
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -76,6 +77,17 @@ public interface ReadTargetBuffer {
    */
   int readFromFile(RandomAccessFile file, int length) throws IOException;
 
+  /**
+   * Reads from the file channel at the given position, without changing the position of the
+   * channel, so that the channel can be shared by concurrent readers.
+   *
+   * @param channel the file channel
+   * @param position the position in the file to read from
+   * @param length the number of bytes to read at most
+   * @return bytes read from the file, or -1 if the position is at or beyond the end of the file
+   */
+  int readFromFile(FileChannel channel, long position, int length) throws IOException;
+
   /**
    * @param is
    * @param length
@@ -2251,6 +2251,90 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("Total number of the succeed master registration.")
           .setMetricType(MetricType.COUNTER)
           .build();
+  public static final MetricKey WORKER_WRITE_BACK_DIRTY_BYTES =
+      new Builder("Worker.WriteBackDirtyBytes")
+          .setDescription("Bytes of files written with the ASYNC_THROUGH write type "
+              + "which are not uploaded to UFS yet")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_WRITE_BACK_LOST_FILES =
+      new Builder("Worker.WriteBackLostFiles")
+          .setDescription("Number of files written with the ASYNC_THROUGH write type whose "
+              + "pages were lost before they were uploaded to UFS")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_WRITE_BACK_UPLOADED_BYTES =
+      new Builder("Worker.WriteBackUploadedBytes")
+          .setDescription("Total bytes of files written with the ASYNC_THROUGH write type "
+              + "and uploaded to UFS")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_WRITE_BACK_UPLOAD_FAILURES =
+      new Builder("Worker.WriteBackUploadFailures")
+          .setDescription("Total number of failed attempts to upload files written with the "
+              + "ASYNC_THROUGH write type to UFS")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_LIST_STATUS_CACHE_HITS =
+      new Builder("Worker.ListStatusCacheHits")
+          .setDescription("Total number of directory listings served from the list status "
+              + "cache of the worker")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_LIST_STATUS_CACHE_MISSES =
+      new Builder("Worker.ListStatusCacheMisses")
+          .setDescription("Total number of directory listings not found in the list status "
+              + "cache of the worker, or found expired")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_LIST_STATUS_CACHE_BYTES =
+      new Builder("Worker.ListStatusCacheBytes")
+          .setDescription("Bytes of the encoded directory listings in the list status cache "
+              + "of the worker")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_NEGATIVE_METADATA_CACHE_HITS =
+      new Builder("Worker.NegativeMetadataCacheHits")
+          .setDescription("Total number of lookups of paths known not to exist in UFS, "
+              + "answered by the worker without querying UFS")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_METADATA_UFS_MISSES =
+      new Builder("Worker.MetadataUfsMisses")
+          .setDescription("Total number of lookups of paths which queried UFS and found "
+              + "that the path does not exist")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_UFS_RANGE_READ_PAGES =
+      new Builder("Worker.UfsRangeReadPages")
+          .setDescription("Total number of pages read from object stores by concurrent range "
+              + "requests when a read misses multiple pages of a file")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_READ_QOS_QUEUE_DEPTH =
+      new Builder("Worker.ReadQosQueueDepth")
+          .setDescription("The number of packet reads of a QoS class waiting to be scheduled, "
+              + "tagged by the QoS class")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_READ_QOS_BYTES =
+      new Builder("Worker.ReadQosBytes")
+          .setDescription("Total number of bytes of the packets scheduled for a QoS class, "
+              + "tagged by the QoS class")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
 
   // Client metrics
   public static final MetricKey CLIENT_BLOCK_READ_CHUNK_REMOTE =
@@ -2350,6 +2434,20 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_EXTERNAL_LOADS =
+      new Builder("Client.CacheExternalLoads")
+          .setDescription("Total number of page loads issued to external storage "
+              + "when the cache misses.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_EXTERNAL_LOADS_COALESCED =
+      new Builder("Client.CacheExternalLoadsCoalesced")
+          .setDescription("Total number of cache misses served by waiting on an in-flight load "
+              + "of the same page instead of issuing a new read to external storage.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_BYTES_DISCARDED =
       new Builder("Client.CacheBytesDiscarded")
           .setDescription("Total number of bytes discarded when restoring the page store.")
@@ -2374,6 +2472,119 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_PAGES_RESTORED =
+      new Builder("Client.CachePagesRestored")
+          .setDescription("Total number of pages restored when restoring the page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_RESTORE_TIME_MS =
+      new Builder("Client.CacheRestoreTimeMs")
+          .setDescription("Time in milliseconds taken to restore the page store, either from "
+              + "the page index or by scanning the page files.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READ_AHEAD_BYTES_READ =
+      new Builder("Client.ReadAheadBytesRead")
+          .setDescription("Total number of bytes read by asynchronous read-ahead requests of "
+              + "position read file in streams.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READ_AHEAD_BYTES_HIT =
+      new Builder("Client.ReadAheadBytesHit")
+          .setDescription("Total number of bytes served to readers from read-ahead buffers.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READ_AHEAD_BYTES_WASTED =
+      new Builder("Client.ReadAheadBytesWasted")
+          .setDescription("Total number of bytes read ahead but discarded without being read, "
+              + "because the access pattern changed or the stream was closed.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_FILE_CHANNEL_POOL_HITS =
+      new Builder("Client.CacheFileChannelPoolHits")
+          .setDescription("Total number of page reads served by a file channel already open "
+              + "in the file channel pool of the local page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_FILE_CHANNEL_POOL_MISSES =
+      new Builder("Client.CacheFileChannelPoolMisses")
+          .setDescription("Total number of page reads which opened a page file because it was "
+              + "not in the file channel pool of the local page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_FILE_CHANNEL_POOL_HIT_RATE =
+      new Builder("Client.CacheFileChannelPoolHitRate")
+          .setDescription("File channel pool hit rate: (# pool hits) / (# pool hits + "
+              + "# pool misses).")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_FILE_CHANNEL_POOL_OPEN_FILES =
+      new Builder("Client.CacheFileChannelPoolOpenFiles")
+          .setDescription("Number of page files currently held open by the file channel pools "
+              + "of the local page stores.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_MMAP_HITS =
+      new Builder("Client.CacheMmapHits")
+          .setDescription("Total number of page reads served from memory-mapped page files of "
+              + "the local page store.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_MMAP_BYTES =
+      new Builder("Client.CacheMmapBytes")
+          .setDescription("Number of bytes of page files currently memory-mapped by the local "
+              + "page stores.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_ADMISSION_PAGES_ADMITTED =
+      new Builder("Client.CacheAdmissionPagesAdmitted")
+          .setDescription("Total number of pages admitted into the client cache by the "
+              + "frequency admission policy, because they were read again within the window. "
+              + "Each of them missed the cache once more than it would with every page "
+              + "admitted, so this bounds the cache hits lost to the admission policy.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_ADMISSION_PAGES_REJECTED =
+      new Builder("Client.CacheAdmissionPagesRejected")
+          .setDescription("Total number of pages not admitted into the client cache by the "
+              + "frequency admission policy, because they were read for the first time within "
+              + "the window.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_ADMISSION_HIT_RATE_LOSS =
+      new Builder("Client.CacheAdmissionHitRateLoss")
+          .setDescription("Upper bound of the cache hit rate lost to the frequency admission "
+              + "policy: (# bytes of pages admitted on their second read) / (# bytes requested).")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_PAGES_DEMOTED =
+      new Builder("Client.CachePagesDemoted")
+          .setDescription("Total number of pages evicted from the memory tier of the client "
+              + "cache and moved to the cache directories.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_PAGES_PROMOTED =
+      new Builder("Client.CachePagesPromoted")
+          .setDescription("Total number of pages read repeatedly from the cache directories "
+              + "of the client cache and moved to its memory tier.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_PAGES_EVICTED =
       new Builder("Client.CachePagesEvicted")
           .setDescription("Total number of pages evicted from the client cache.")
@@ -2696,6 +2907,29 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("The used direct memory")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey PROCESS_DIRECT_BUFFER_POOL_ALLOCATED_BYTES =
+      new Builder("Process.DirectBufferPoolAllocatedBytes")
+          .setDescription("Total bytes of the direct buffers allocated by the direct buffer "
+              + "pool, both in use and idle")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey PROCESS_DIRECT_BUFFER_POOL_IN_USE_BYTES =
+      new Builder("Process.DirectBufferPoolInUseBytes")
+          .setDescription("Total bytes of the direct buffers acquired from the direct buffer "
+              + "pool and not yet released. Buffers which are never released are no longer "
+              + "counted once they are garbage collected")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey PROCESS_DIRECT_BUFFER_POOL_POOLED_BYTES =
+      new Builder("Process.DirectBufferPoolPooledBytes")
+          .setDescription("Total bytes of the idle direct buffers kept by the direct buffer pool "
+              + "for reuse. This value will be smaller or equal to "
+              + PropertyKey.Name.NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE)
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
 
   public static final MetricKey MASTER_JOB_MOVE_SUCCESS =
           new Builder("Master.JobMoveSuccess")
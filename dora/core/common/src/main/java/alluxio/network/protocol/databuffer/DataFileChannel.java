@@ -13,20 +13,34 @@ package alluxio.network.protocol.databuffer;
 
 import com.google.common.base.Preconditions;
 import io.netty.channel.DefaultFileRegion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 /**
  * A DataBuffer with the underlying data being a {@link FileChannel}.
  */
 public final class DataFileChannel implements DataBuffer {
+  private static final Logger LOG = LoggerFactory.getLogger(DataFileChannel.class);
+
+  @Nullable
   private final File mFile;
+  @Nullable
+  private final FileChannel mChannel;
+  @Nullable
+  private final Closeable mReleaser;
   private final long mOffset;
   private final long mLength;
+  private final AtomicBoolean mReleased = new AtomicBoolean(false);
+  private volatile boolean mOutputCreated;
 
   /**
    *
@@ -36,13 +50,44 @@ public final class DataFileChannel implements DataBuffer {
    */
   public DataFileChannel(File file, long offset, long length) {
     mFile = Preconditions.checkNotNull(file, "file");
+    mChannel = null;
+    mReleaser = null;
+    mOffset = offset;
+    mLength = length;
+  }
+
+  /**
+   * Creates a data buffer over a file channel which is already open, and possibly shared. The
+   * channel is transferred with positional reads and is not closed by this buffer; instead the
+   * releaser is closed once the data is written out, or when the buffer is released without being
+   * written.
+   *
+   * @param channel the open file channel
+   * @param offset the offset into the FileChannel
+   * @param length the length of the data to read
+   * @param releaser closed when the channel is no longer used by this buffer
+   */
+  public DataFileChannel(FileChannel channel, long offset, long length, Closeable releaser) {
+    mFile = null;
+    mChannel = Preconditions.checkNotNull(channel, "channel");
+    mReleaser = Preconditions.checkNotNull(releaser, "releaser");
     mOffset = offset;
     mLength = length;
   }
 
   @Override
   public Object getNettyOutput() {
-    return new DefaultFileRegion(mFile, mOffset, mLength);
+    if (mChannel == null) {
+      return new DefaultFileRegion(mFile, mOffset, mLength);
+    }
+    mOutputCreated = true;
+    return new DefaultFileRegion(mChannel, mOffset, mLength) {
+      @Override
+      protected void deallocate() {
+        // the shared channel must not be closed by the region
+        releaseChannel();
+      }
+    };
   }
 
   @Override
@@ -78,6 +123,19 @@ public final class DataFileChannel implements DataBuffer {
 
   @Override
   public void release() {
-    // Nothing we need to release explicitly, let GC take care of all objects.
+    // Once the netty output is created, the channel is released together with the file region.
+    if (mChannel != null && !mOutputCreated) {
+      releaseChannel();
+    }
+  }
+
+  private void releaseChannel() {
+    if (mReleaser != null && mReleased.compareAndSet(false, true)) {
+      try {
+        mReleaser.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to release file channel", e);
+      }
+    }
   }
 }
@@ -11,27 +11,136 @@
 
 package alluxio.network.protocol.databuffer;
 
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Direct buffer pool.
+ * <p>
+ * Buffers are pooled in power-of-two size classes from 4KB to 4MB, and a request is served by a
+ * buffer of the smallest class fitting it. Larger requests, such as whole blocks, are allocated
+ * with their exact size so that they do not take up to twice the memory they ask for. Each
+ * thread caches up to one idle buffer per class, and the other idle buffers are kept in
+ * lock-free free lists shared by all threads. The total size of the idle buffers is bounded by
+ * {@link PropertyKey#NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE}; buffers released when the pool is
+ * full, and buffers larger than the largest class, are freed immediately instead of waiting for
+ * the garbage collector. The pool keeps track of the buffers it hands out, so that buffers it
+ * did not hand out, or released twice, are ignored, and buffers which are never released are
+ * no longer counted in use once they are garbage collected.
  */
+@ThreadSafe
 public class NioDirectBufferPool {
-  private static final TreeMap<Integer, LinkedList<ByteBuffer>> BUF_POOL = new TreeMap();
+  private static final int MIN_CLASS_SHIFT = 12;
+  private static final int MAX_CLASS_SHIFT = 22;
+  private static final int NUM_CLASSES = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+
+  private static final NioDirectBufferPool INSTANCE = new NioDirectBufferPool(
+      Configuration.getBytes(PropertyKey.NETWORK_DIRECT_BUFFER_POOL_MAX_SIZE),
+      Configuration.getBytes(PropertyKey.NETWORK_DIRECT_BUFFER_POOL_THREAD_CACHE_SIZE));
+
+  static {
+    MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
+        MetricKey.PROCESS_DIRECT_BUFFER_POOL_ALLOCATED_BYTES.getName()),
+        INSTANCE::getAllocatedBytes);
+    MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
+        MetricKey.PROCESS_DIRECT_BUFFER_POOL_IN_USE_BYTES.getName()),
+        INSTANCE::getInUseBytes);
+    MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
+        MetricKey.PROCESS_DIRECT_BUFFER_POOL_POOLED_BYTES.getName()),
+        INSTANCE::getPooledBytes);
+  }
 
+  private final long mMaxPooledBytes;
+  private final long mThreadCacheBytes;
+  /** The idle buffers shared by all threads, by size class. */
+  private final List<Deque<ByteBuffer>> mFreeLists = new ArrayList<>(NUM_CLASSES);
+  /** The caches of all threads, including the threads which have terminated. */
+  private final Queue<ThreadCache> mThreadCaches = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<ThreadCache> mThreadCache = ThreadLocal.withInitial(() -> {
+    // a new thread is a good time to take back the buffers of the terminated ones
+    reclaimThreadCaches();
+    ThreadCache cache = new ThreadCache(Thread.currentThread());
+    mThreadCaches.add(cache);
+    return cache;
+  });
+  /** The total size of the idle buffers, both shared and cached by threads. */
+  private final AtomicLong mPooledBytes = new AtomicLong();
   /**
-   * @param length
+   * The buffers acquired and not yet released. The keys are compared by identity, and are weak
+   * so that the buffers which are never released can still be garbage collected.
+   */
+  private final ConcurrentMap<ByteBuffer, Boolean> mAcquired = new MapMaker().weakKeys().makeMap();
+
+  /**
+   * @param length the length of the buffer
    * @return buffer
    */
-  public static synchronized ByteBuffer acquire(int length) {
-    Map.Entry<Integer, LinkedList<ByteBuffer>> entry = BUF_POOL.ceilingEntry(length);
-    if (entry == null || entry.getValue().size() == 0) {
-      return ByteBuffer.allocateDirect(length);
+  public static ByteBuffer acquire(int length) {
+    return INSTANCE.acquireBuffer(length);
+  }
+
+  /**
+   * Releases a buffer acquired from the pool. The buffer must not be used afterwards, as it may
+   * be handed to another thread or freed. Buffers not acquired from the pool, including slices
+   * and duplicates of pooled buffers, are left to the garbage collector.
+   *
+   * @param buffer the buffer to release
+   */
+  public static void release(ByteBuffer buffer) {
+    INSTANCE.releaseBuffer(buffer);
+  }
+
+  /**
+   * @param maxPooledBytes the maximum size of the idle buffers
+   * @param threadCacheBytes the maximum size of the idle buffers cached by each thread
+   */
+  @VisibleForTesting
+  NioDirectBufferPool(long maxPooledBytes, long threadCacheBytes) {
+    mMaxPooledBytes = maxPooledBytes;
+    mThreadCacheBytes = threadCacheBytes;
+    for (int i = 0; i < NUM_CLASSES; i++) {
+      mFreeLists.add(new ConcurrentLinkedDeque<>());
     }
-    ByteBuffer buffer = entry.getValue().pop();
+  }
+
+  @VisibleForTesting
+  ByteBuffer acquireBuffer(int length) {
+    Preconditions.checkArgument(length >= 0, "Invalid buffer length %s", length);
+    int sizeClass = sizeClassOf(length);
+    ByteBuffer buffer;
+    if (sizeClass < 0) {
+      buffer = allocate(length);
+    } else {
+      buffer = mThreadCache.get().take(sizeClass);
+      if (buffer == null) {
+        buffer = mFreeLists.get(sizeClass).pollFirst();
+      }
+      if (buffer != null) {
+        mPooledBytes.addAndGet(-buffer.capacity());
+      } else {
+        buffer = allocate(1 << (sizeClass + MIN_CLASS_SHIFT));
+      }
+    }
+    mAcquired.put(buffer, Boolean.TRUE);
     buffer.clear();
     // the buffer probably is larger than the amount of capacity being requested
     // need to set the limit explicitly
@@ -39,15 +148,161 @@ public class NioDirectBufferPool {
     return buffer;
   }
 
+  @VisibleForTesting
+  void releaseBuffer(ByteBuffer buffer) {
+    if (mAcquired.remove(buffer) == null) {
+      // not acquired from the pool, or already released
+      return;
+    }
+    int capacity = buffer.capacity();
+    int sizeClass = sizeClassOf(capacity);
+    if (sizeClass < 0) {
+      free(buffer);
+      return;
+    }
+    if (!reserve(capacity)) {
+      reclaimThreadCaches();
+      free(buffer);
+      return;
+    }
+    if (!mThreadCache.get().offer(sizeClass, buffer)) {
+      mFreeLists.get(sizeClass).offerFirst(buffer);
+    }
+  }
+
   /**
-   * @param buffer
+   * @return the total size of the buffers allocated by the pool and not yet freed
    */
-  public static synchronized void release(ByteBuffer buffer) {
-    LinkedList<ByteBuffer> bufList = BUF_POOL.get(buffer.capacity());
-    if (bufList == null) {
-      bufList = new LinkedList<>();
-      BUF_POOL.put(buffer.capacity(), bufList);
+  @VisibleForTesting
+  long getAllocatedBytes() {
+    return getInUseBytes() + mPooledBytes.get();
+  }
+
+  /**
+   * @return the total size of the buffers acquired and not yet released, nor garbage collected
+   */
+  @VisibleForTesting
+  long getInUseBytes() {
+    // the buffers which are never released are left out once they are garbage collected
+    long bytes = 0;
+    for (ByteBuffer buffer : mAcquired.keySet()) {
+      bytes += buffer.capacity();
+    }
+    return bytes;
+  }
+
+  /**
+   * @return the total size of the idle buffers kept for reuse
+   */
+  @VisibleForTesting
+  long getPooledBytes() {
+    return mPooledBytes.get();
+  }
+
+  /**
+   * @param length the length of a buffer
+   * @return the smallest size class fitting the length, or -1 if it is larger than all classes
+   */
+  private static int sizeClassOf(int length) {
+    if (length <= 1 << MIN_CLASS_SHIFT) {
+      return 0;
+    }
+    int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+    return shift > MAX_CLASS_SHIFT ? -1 : shift - MIN_CLASS_SHIFT;
+  }
+
+  private boolean reserve(int capacity) {
+    while (true) {
+      long pooled = mPooledBytes.get();
+      if (pooled + capacity > mMaxPooledBytes) {
+        return false;
+      }
+      if (mPooledBytes.compareAndSet(pooled, pooled + capacity)) {
+        return true;
+      }
+    }
+  }
+
+  private ByteBuffer allocate(int capacity) {
+    ByteBuffer buffer;
+    try {
+      buffer = ByteBuffer.allocateDirect(capacity);
+    } catch (OutOfMemoryError e) {
+      // free the idle buffers and try again
+      trim();
+      buffer = ByteBuffer.allocateDirect(capacity);
+    }
+    return buffer;
+  }
+
+  private void free(ByteBuffer buffer) {
+    BufferUtils.cleanDirectBuffer(buffer);
+  }
+
+  /**
+   * Frees the idle buffers in the shared free lists.
+   */
+  private void trim() {
+    reclaimThreadCaches();
+    for (Deque<ByteBuffer> freeList : mFreeLists) {
+      ByteBuffer buffer;
+      while ((buffer = freeList.pollFirst()) != null) {
+        mPooledBytes.addAndGet(-buffer.capacity());
+        free(buffer);
+      }
+    }
+  }
+
+  /**
+   * Moves the buffers cached by terminated threads to the shared free lists.
+   */
+  private void reclaimThreadCaches() {
+    for (ThreadCache cache : mThreadCaches) {
+      if (!cache.isOwnerAlive() && mThreadCaches.remove(cache)) {
+        for (int i = 0; i < NUM_CLASSES; i++) {
+          ByteBuffer buffer = cache.take(i);
+          if (buffer != null) {
+            mFreeLists.get(i).offerFirst(buffer);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * The idle buffers cached by a thread, one per size class at most. It is only accessed by its
+   * thread, or by the thread reclaiming it after its thread terminates.
+   */
+  private final class ThreadCache {
+    private final WeakReference<Thread> mOwner;
+    private final ByteBuffer[] mBuffers = new ByteBuffer[NUM_CLASSES];
+    private long mBytes;
+
+    private ThreadCache(Thread owner) {
+      mOwner = new WeakReference<>(owner);
+    }
+
+    private boolean isOwnerAlive() {
+      Thread owner = mOwner.get();
+      return owner != null && owner.isAlive();
+    }
+
+    private ByteBuffer take(int sizeClass) {
+      ByteBuffer buffer = mBuffers[sizeClass];
+      if (buffer != null) {
+        mBuffers[sizeClass] = null;
+        mBytes -= buffer.capacity();
+      }
+      return buffer;
+    }
+
+    private boolean offer(int sizeClass, ByteBuffer buffer) {
+      if (mBuffers[sizeClass] != null || mBytes + buffer.capacity() > mThreadCacheBytes) {
+        return false;
+      }
+      mBuffers[sizeClass] = buffer;
+      mBytes += buffer.capacity();
+      return true;
     }
-    bufList.push(buffer);
   }
 }
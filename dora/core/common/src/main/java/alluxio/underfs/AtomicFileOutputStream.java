@@ -29,7 +29,8 @@ import javax.annotation.concurrent.NotThreadSafe;
  * that writing to the stream is atomic, i.e., all writes become readable only after a close.
  */
 @NotThreadSafe
-public class AtomicFileOutputStream extends OutputStream implements ContentHashable {
+public class AtomicFileOutputStream extends OutputStream
+    implements ContentHashable, CancelableOutputStream {
   private static final Logger LOG = LoggerFactory.getLogger(AtomicFileOutputStream.class);
 
   private AtomicFileOutputStreamCallback mUfs;
@@ -106,6 +107,22 @@ public class AtomicFileOutputStream extends OutputStream implements ContentHasha
     mClosed = true;
   }
 
+  @Override
+  public void cancel() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    try {
+      mTemporaryOutputStream.close();
+    } finally {
+      if (!mUfs.deleteFile(mTemporaryPath)) {
+        LOG.warn("Failed to delete temporary file {} of canceled write to {}",
+            mTemporaryPath, mPermanentPath);
+      }
+    }
+  }
+
   @Override
   public Optional<String> getContentHash() throws IOException {
     // get the content hash immediately after the file has completed writing
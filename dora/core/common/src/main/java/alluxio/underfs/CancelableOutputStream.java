@@ -0,0 +1,28 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.underfs;
+
+import java.io.IOException;
+
+/**
+ * Interface for discarding a partially written file. Instances of {@link java.io.OutputStream}
+ * returned by {@link UnderFileSystem#create} may implement this interface if they can drop the
+ * data written so far without making it visible at the destination path. Closing a canceled
+ * stream has no effect.
+ */
+public interface CancelableOutputStream {
+  /**
+   * Cancels the write and discards the data written so far.
+   */
+  void cancel() throws IOException;
+}
@@ -77,7 +77,7 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public abstract class ObjectLowLevelOutputStream extends OutputStream
-    implements ContentHashable {
+    implements ContentHashable, CancelableOutputStream {
   protected static final Logger LOG = LoggerFactory.getLogger(ObjectLowLevelOutputStream.class);
 
   protected final List<String> mTmpDirs;
@@ -270,6 +270,27 @@ public abstract class ObjectLowLevelOutputStream extends OutputStream
     }
   }
 
+  @Override
+  public void cancel() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    try {
+      if (mFile != null) {
+        mLocalOutputStream.close();
+        if (!mFile.delete()) {
+          LOG.error("Failed to delete temporary file @ {}", mFile.getPath());
+        }
+      }
+    } finally {
+      if (mMultiPartUploadInitialized) {
+        Futures.allAsList(mFutures).cancel(true);
+        abortMultiPartUpload();
+      }
+    }
+  }
+
   /**
    * Creates a new temp file to write to.
    */
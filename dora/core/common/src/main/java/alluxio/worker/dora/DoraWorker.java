@@ -37,6 +37,7 @@ import alluxio.worker.block.io.BlockWriter;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import javax.annotation.Nullable;
 
@@ -70,6 +71,20 @@ public interface DoraWorker extends DataWorker, SessionCleanable {
   UfsStatus[] listStatus(String path, ListStatusPOptions options)
       throws IOException, AccessControlException;
 
+  /**
+   * Lists the statuses under a path lazily, in lexicographic order of their names relative to
+   * the path, so that large listings such as recursive ones are not kept in memory at once.
+   * The listing is not cached.
+   *
+   * @param path the path of a dir or file
+   * @param options the option for listStatus(), the listing starts after the name
+   *        {@link ListStatusPOptions#getStartAfter()} if it is set
+   * @return an iterator of the statuses, or {@code null} if the path does not exist
+   */
+  @Nullable
+  Iterator<UfsStatus> listStatusIterator(String path, ListStatusPOptions options)
+      throws IOException, AccessControlException;
+
   /**
    * Creates the file reader to read from Alluxio dora.
    * Owner of this block reader must close it or lock will leak.
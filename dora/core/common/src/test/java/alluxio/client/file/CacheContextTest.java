@@ -12,6 +12,7 @@
 package alluxio.client.file;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 
 import alluxio.client.hive.HiveCacheContext;
@@ -43,4 +44,16 @@ public class CacheContextTest {
     assertEquals("1234", context.getCacheIdentifier());
     assertEquals(new HiveCacheContext("db", "tb", "partition"), context.getHiveCacheContext());
   }
+
+  @Test
+  public void equalsAndHashCode() {
+    CacheContext context = CacheContext.defaults().setCacheIdentifier("1234");
+    CacheContext same = CacheContext.defaults().setCacheIdentifier("1234");
+    assertEquals(context, same);
+    assertEquals(context.hashCode(), same.hashCode());
+    assertNotEquals(context, CacheContext.defaults().setCacheIdentifier("1234")
+        .setTemporary(true));
+    assertNotEquals(context, CacheContext.defaults().setCacheIdentifier("1234")
+        .setAdmissionBypassed(true));
+  }
 }
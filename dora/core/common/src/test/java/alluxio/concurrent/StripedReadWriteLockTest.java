@@ -0,0 +1,109 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link StripedReadWriteLock}.
+ */
+public final class StripedReadWriteLockTest {
+
+  @Test
+  public void numStripes() {
+    assertEquals(1, new StripedReadWriteLock(1).getNumStripes());
+    assertEquals(8, new StripedReadWriteLock(5).getNumStripes());
+    assertEquals(16, new StripedReadWriteLock(16).getNumStripes());
+  }
+
+  @Test
+  public void readersShareLock() throws Exception {
+    StripedReadWriteLock lock = new StripedReadWriteLock(4);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      lock.readLock().lock();
+      for (int i = 0; i < 8; i++) {
+        assertTrue(CompletableFuture.supplyAsync(() -> {
+          boolean locked = lock.readLock().tryLock();
+          if (locked) {
+            lock.readLock().unlock();
+          }
+          return locked;
+        }, executor).get());
+      }
+      lock.readLock().unlock();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void writerExcludesReaders() throws Exception {
+    StripedReadWriteLock lock = new StripedReadWriteLock(4);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      lock.writeLock().lock();
+      assertTrue(lock.isWriteLockedByCurrentThread());
+      // the write lock holder can still read
+      lock.readLock().lock();
+      lock.readLock().unlock();
+      for (int i = 0; i < 8; i++) {
+        assertFalse(CompletableFuture.supplyAsync(() -> lock.readLock().tryLock(), executor)
+            .get());
+      }
+      assertFalse(CompletableFuture.supplyAsync(() -> lock.writeLock().tryLock(), executor)
+          .get());
+      lock.writeLock().unlock();
+      assertFalse(lock.isWriteLockedByCurrentThread());
+      assertTrue(CompletableFuture.supplyAsync(() -> {
+        boolean locked = lock.writeLock().tryLock();
+        if (locked) {
+          lock.writeLock().unlock();
+        }
+        return locked;
+      }, executor).get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void readerExcludesWriter() throws Exception {
+    StripedReadWriteLock lock = new StripedReadWriteLock(4);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      lock.readLock().lock();
+      assertFalse(CompletableFuture.supplyAsync(() -> {
+        try {
+          return lock.writeLock().tryLock(10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }, executor).get());
+      lock.readLock().unlock();
+      // a failed attempt releases the stripes it has locked
+      assertTrue(lock.writeLock().tryLock());
+      lock.writeLock().unlock();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol.databuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.util.CommonUtils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class NioDirectBufferPoolTest {
+  @Test
+  public void sizeClasses() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, Constants.MB);
+    ByteBuffer small = pool.acquireBuffer(100);
+    assertTrue(small.isDirect());
+    assertEquals(4 * Constants.KB, small.capacity());
+    assertEquals(100, small.limit());
+    assertEquals(0, small.position());
+    ByteBuffer page = pool.acquireBuffer(Constants.MB + 1);
+    assertEquals(2 * Constants.MB, page.capacity());
+    assertEquals(Constants.MB + 1, page.remaining());
+    assertEquals(4 * Constants.KB + 2 * Constants.MB, pool.getAllocatedBytes());
+    assertEquals(pool.getAllocatedBytes(), pool.getInUseBytes());
+  }
+
+  @Test
+  public void largeBuffersExactSize() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, Constants.MB);
+    ByteBuffer block = pool.acquireBuffer(4 * Constants.MB + 1);
+    assertEquals(4 * Constants.MB + 1, block.capacity());
+    assertEquals(4 * Constants.MB + 1, pool.getAllocatedBytes());
+    // buffers larger than the largest class are freed rather than pooled
+    pool.releaseBuffer(block);
+    assertEquals(0, pool.getPooledBytes());
+    assertEquals(0, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void unreleasedBufferNotCountedOnceCollected() throws Exception {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, Constants.MB);
+    ByteBuffer buffer = pool.acquireBuffer(Constants.MB);
+    assertEquals(Constants.MB, pool.getInUseBytes());
+    buffer = null;
+    CommonUtils.waitFor("buffer is garbage collected", () -> {
+      System.gc();
+      return pool.getInUseBytes() == 0;
+    });
+    assertEquals(0, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void reuse() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, Constants.MB);
+    ByteBuffer buffer = pool.acquireBuffer(Constants.MB);
+    buffer.position(10);
+    pool.releaseBuffer(buffer);
+    assertEquals(Constants.MB, pool.getPooledBytes());
+    assertEquals(0, pool.getInUseBytes());
+    // any length of the same size class reuses the buffer
+    ByteBuffer reused = pool.acquireBuffer(Constants.MB - 10);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(Constants.MB - 10, reused.limit());
+    assertEquals(0, pool.getPooledBytes());
+    assertEquals(Constants.MB, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void sharedAcrossThreads() throws Exception {
+    // without thread caches, all buffers are in the shared free lists
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, 0);
+    ByteBuffer buffer = pool.acquireBuffer(Constants.MB);
+    Thread releaser = new Thread(() -> pool.releaseBuffer(buffer));
+    releaser.start();
+    releaser.join();
+    assertSame(buffer, pool.acquireBuffer(Constants.MB));
+  }
+
+  @Test
+  public void terminatedThreadCacheReclaimed() throws Exception {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, 4 * Constants.MB);
+    ByteBuffer[] buffers = new ByteBuffer[2];
+    Thread thread = new Thread(() -> {
+      buffers[0] = pool.acquireBuffer(Constants.MB);
+      pool.releaseBuffer(buffers[0]);
+    });
+    thread.start();
+    thread.join();
+    assertEquals(Constants.MB, pool.getPooledBytes());
+    // the buffer is in the cache of the terminated thread and is reclaimed by a new thread
+    Thread other = new Thread(() -> buffers[1] = pool.acquireBuffer(Constants.MB));
+    other.start();
+    other.join();
+    assertSame(buffers[0], buffers[1]);
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void boundedPool() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(2 * Constants.MB, 0);
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      buffers.add(pool.acquireBuffer(Constants.MB));
+    }
+    assertEquals(4 * Constants.MB, pool.getAllocatedBytes());
+    buffers.forEach(pool::releaseBuffer);
+    // the buffers beyond the limit are freed
+    assertEquals(2 * Constants.MB, pool.getPooledBytes());
+    assertEquals(2 * Constants.MB, pool.getAllocatedBytes());
+    assertEquals(0, pool.getInUseBytes());
+    // the buffers are reused in the reverse order of release
+    assertSame(buffers.get(1), pool.acquireBuffer(Constants.MB));
+    assertSame(buffers.get(0), pool.acquireBuffer(Constants.MB));
+    assertEquals(2 * Constants.MB, pool.getInUseBytes());
+  }
+
+  @Test
+  public void releaseForeignBuffer() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, Constants.MB);
+    ByteBuffer buffer = pool.acquireBuffer(Constants.MB);
+    // buffers not acquired from the pool are not adopted, even of the size of a class
+    pool.releaseBuffer(ByteBuffer.allocateDirect(Constants.MB));
+    pool.releaseBuffer(buffer.duplicate());
+    assertEquals(0, pool.getPooledBytes());
+    assertEquals(Constants.MB, pool.getInUseBytes());
+    assertEquals(Constants.MB, pool.getAllocatedBytes());
+    assertNotSame(buffer, pool.acquireBuffer(Constants.MB));
+  }
+
+  @Test
+  public void releaseTwice() {
+    NioDirectBufferPool pool = new NioDirectBufferPool(Constants.GB, 0);
+    ByteBuffer buffer = pool.acquireBuffer(Constants.MB);
+    pool.releaseBuffer(buffer);
+    pool.releaseBuffer(buffer);
+    assertEquals(Constants.MB, pool.getPooledBytes());
+    assertEquals(0, pool.getInUseBytes());
+    // the buffer is handed out once
+    assertSame(buffer, pool.acquireBuffer(Constants.MB));
+    assertNotSame(buffer, pool.acquireBuffer(Constants.MB));
+    assertEquals(2 * Constants.MB, pool.getInUseBytes());
+  }
+
+  @Test
+  public void concurrentAcquireRelease() throws Exception {
+    NioDirectBufferPool pool = new NioDirectBufferPool(16 * Constants.MB, Constants.MB);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 1000; j++) {
+            int length = ThreadLocalRandom.current().nextInt(1, 512 * Constants.KB);
+            ByteBuffer buffer = pool.acquireBuffer(length);
+            assertEquals(length, buffer.remaining());
+            buffer.put(0, (byte) j);
+            pool.releaseBuffer(buffer);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(0, pool.getInUseBytes());
+    assertTrue(pool.getPooledBytes() <= 16 * Constants.MB);
+    assertEquals(pool.getPooledBytes(), pool.getAllocatedBytes());
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsFileStatus;
+import alluxio.underfs.UfsStatus;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A cache of UFS directory listings, bounded by the size of the listings in bytes.
+ * <p>
+ * A listing is kept encoded in a single byte array rather than as {@link UfsStatus} objects:
+ * names and UFS paths share their prefix with the previous entry, owners and groups are stored
+ * once per listing, and numbers are variable-length. Each hit decodes fresh statuses, so callers
+ * may modify them. Expired listings are removed in the background, not only when they are read.
+ */
+@ThreadSafe
+public final class DoraListStatusCache implements Closeable {
+  /** The number of segments of the cache, each of which holds a share of the budget. */
+  private static final int CONCURRENCY_LEVEL = 4;
+  private static final long MAX_CLEANUP_INTERVAL_MS = Constants.MINUTE_MS;
+  /** The approximate heap size of a cache entry besides the encoded listing and its key. */
+  private static final int ENTRY_OVERHEAD = 128;
+
+  private static final int FLAG_DIRECTORY = 1;
+  private static final int FLAG_LAST_MODIFIED = 1 << 1;
+  private static final int FLAG_XATTR = 1 << 2;
+  private static final int FLAG_UFS_FULL_PATH = 1 << 3;
+  private static final int FLAG_CONTENT_HASH = 1 << 4;
+
+  private static final Counter HITS =
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_CACHE_HITS.getName());
+  private static final Counter MISSES =
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_CACHE_MISSES.getName());
+
+  private final Cache<String, Listing> mCache;
+  private final long mMaxListingBytes;
+  private final AtomicLong mBytes = new AtomicLong();
+  private final ScheduledExecutorService mCleaner;
+
+  /**
+   * @param maxBytes the maximum size of the cached listings in bytes
+   * @param ttl the time after which a cached listing expires
+   */
+  public DoraListStatusCache(long maxBytes, Duration ttl) {
+    Preconditions.checkArgument(maxBytes > 0, "maxBytes should be positive");
+    mMaxListingBytes = maxBytes / CONCURRENCY_LEVEL;
+    mCache = CacheBuilder.newBuilder()
+        .concurrencyLevel(CONCURRENCY_LEVEL)
+        .maximumWeight(maxBytes)
+        .weigher((String path, Listing listing) -> listing.getWeight(path))
+        .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+        .removalListener((RemovalNotification<String, Listing> notification) ->
+            mBytes.addAndGet(-notification.getValue().getWeight(notification.getKey())))
+        .build();
+    mCleaner = Executors.newSingleThreadScheduledExecutor(
+        ThreadFactoryUtils.build("dora-list-status-cache-cleaner-%d", true));
+    long cleanupIntervalMs = Math.max(1, Math.min(ttl.toMillis(), MAX_CLEANUP_INTERVAL_MS));
+    mCleaner.scheduleAtFixedRate(mCache::cleanUp, cleanupIntervalMs, cleanupIntervalMs,
+        TimeUnit.MILLISECONDS);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_LIST_STATUS_CACHE_BYTES.getName()),
+        mBytes::get);
+  }
+
+  /**
+   * Gets the cached listing of a directory.
+   *
+   * @param path the path of the directory
+   * @param syncIntervalMs the maximum age of the listing in milliseconds, or a negative value if
+   *                       the listing may be of any age
+   * @return the statuses of the directory, or null if they are not cached or expired
+   */
+  @Nullable
+  public UfsStatus[] get(String path, long syncIntervalMs) {
+    Listing listing = mCache.getIfPresent(path);
+    if (listing != null && syncIntervalMs >= 0
+        && System.nanoTime() - listing.mTimestamp > syncIntervalMs * Constants.MS_NANO) {
+      // Removes the listing only if it was not replaced in the meantime
+      mCache.asMap().remove(path, listing);
+      listing = null;
+    }
+    if (listing == null) {
+      MISSES.inc();
+      return null;
+    }
+    HITS.inc();
+    return decode(listing.mData);
+  }
+
+  /**
+   * Caches the listing of a directory. The listing is not cached if it is too large.
+   *
+   * @param path the path of the directory
+   * @param statuses the statuses of the directory
+   */
+  public void put(String path, UfsStatus[] statuses) {
+    Listing listing = new Listing(System.nanoTime(), encode(statuses));
+    if (listing.getWeight(path) > mMaxListingBytes) {
+      // It would be evicted from its segment right away, along with everything else there
+      mCache.invalidate(path);
+      return;
+    }
+    mBytes.addAndGet(listing.getWeight(path));
+    mCache.put(path, listing);
+  }
+
+  /**
+   * Removes the cached listing of a directory.
+   *
+   * @param path the path of the directory
+   */
+  public void invalidate(String path) {
+    mCache.invalidate(path);
+  }
+
+  /**
+   * Removes the cached listings of a directory and of all directories under it, e.g. when the
+   * directory is deleted or renamed.
+   *
+   * @param path the path of the directory
+   */
+  public void invalidateTree(String path) {
+    String prefix = path.endsWith(AlluxioURI.SEPARATOR) ? path : path + AlluxioURI.SEPARATOR;
+    mCache.invalidate(path);
+    mCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * @return the size of the cached listings in bytes
+   */
+  public long getBytes() {
+    return mBytes.get();
+  }
+
+  /**
+   * @return the number of cached listings
+   */
+  @VisibleForTesting
+  long size() {
+    mCache.cleanUp();
+    return mCache.size();
+  }
+
+  @Override
+  public void close() {
+    mCleaner.shutdownNow();
+    mCache.invalidateAll();
+  }
+
+  @VisibleForTesting
+  static byte[] encode(UfsStatus[] statuses) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+    Map<String, Integer> users = new HashMap<>();
+    try {
+      out.writeUInt32NoTag(statuses.length);
+      String prevName = "";
+      String prevUfsPath = "";
+      for (UfsStatus status : statuses) {
+        String ufsPath = status.getUfsFullPath() == null ? null
+            : status.getUfsFullPath().toString();
+        String contentHash = status.isFile() ? status.asUfsFileStatus().getContentHash() : null;
+        int flags = (status.isDirectory() ? FLAG_DIRECTORY : 0)
+            | (status.getLastModifiedTime() != null ? FLAG_LAST_MODIFIED : 0)
+            | (status.getXAttr() != null ? FLAG_XATTR : 0)
+            | (ufsPath != null ? FLAG_UFS_FULL_PATH : 0)
+            | (contentHash != null ? FLAG_CONTENT_HASH : 0);
+        out.writeUInt32NoTag(flags);
+        writeSharedPrefix(out, prevName, status.getName());
+        prevName = status.getName();
+        if (ufsPath != null) {
+          writeSharedPrefix(out, prevUfsPath, ufsPath);
+          prevUfsPath = ufsPath;
+        }
+        writeUser(out, users, status.getOwner());
+        writeUser(out, users, status.getGroup());
+        out.writeUInt32NoTag(status.getMode() & 0xffff);
+        if (status.getLastModifiedTime() != null) {
+          out.writeSInt64NoTag(status.getLastModifiedTime());
+        }
+        if (status.getXAttr() != null) {
+          out.writeUInt32NoTag(status.getXAttr().size());
+          for (Map.Entry<String, byte[]> entry : status.getXAttr().entrySet()) {
+            out.writeStringNoTag(entry.getKey());
+            out.writeByteArrayNoTag(entry.getValue());
+          }
+        }
+        if (status.isFile()) {
+          UfsFileStatus fileStatus = status.asUfsFileStatus();
+          if (contentHash != null) {
+            out.writeStringNoTag(contentHash);
+          }
+          out.writeSInt64NoTag(fileStatus.getContentLength());
+          out.writeSInt64NoTag(fileStatus.getBlockSize());
+        }
+      }
+      out.flush();
+    } catch (IOException e) {
+      // not expected when writing to memory
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @VisibleForTesting
+  static UfsStatus[] decode(byte[] data) {
+    CodedInputStream in = CodedInputStream.newInstance(data);
+    in.setSizeLimit(Integer.MAX_VALUE);
+    Map<Integer, String> users = new HashMap<>();
+    try {
+      UfsStatus[] statuses = new UfsStatus[in.readUInt32()];
+      String name = "";
+      String ufsPath = "";
+      for (int i = 0; i < statuses.length; i++) {
+        int flags = in.readUInt32();
+        name = readSharedPrefix(in, name);
+        boolean hasUfsPath = (flags & FLAG_UFS_FULL_PATH) != 0;
+        if (hasUfsPath) {
+          ufsPath = readSharedPrefix(in, ufsPath);
+        }
+        String owner = readUser(in, users);
+        String group = readUser(in, users);
+        short mode = (short) in.readUInt32();
+        Long lastModified = (flags & FLAG_LAST_MODIFIED) != 0 ? in.readSInt64() : null;
+        Map<String, byte[]> xAttr = null;
+        if ((flags & FLAG_XATTR) != 0) {
+          int size = in.readUInt32();
+          xAttr = new HashMap<>(size);
+          for (int j = 0; j < size; j++) {
+            xAttr.put(in.readString(), in.readByteArray());
+          }
+        }
+        UfsStatus status;
+        if ((flags & FLAG_DIRECTORY) != 0) {
+          status = new UfsDirectoryStatus(name, owner, group, mode, lastModified, xAttr);
+        } else {
+          String contentHash = (flags & FLAG_CONTENT_HASH) != 0 ? in.readString() : null;
+          long contentLength = in.readSInt64();
+          long blockSize = in.readSInt64();
+          status = new UfsFileStatus(name, contentHash, contentLength, lastModified, owner,
+              group, mode, xAttr, blockSize);
+        }
+        if (hasUfsPath) {
+          status.setUfsFullPath(new AlluxioURI(ufsPath));
+        }
+        statuses[i] = status;
+      }
+      return statuses;
+    } catch (IOException e) {
+      throw new IllegalStateException("Corrupted list status cache entry", e);
+    }
+  }
+
+  private static void writeSharedPrefix(CodedOutputStream out, String prev, String value)
+      throws IOException {
+    int shared = 0;
+    int max = Math.min(prev.length(), value.length());
+    while (shared < max && prev.charAt(shared) == value.charAt(shared)) {
+      shared++;
+    }
+    if (shared > 0 && Character.isHighSurrogate(value.charAt(shared - 1))) {
+      // do not split a surrogate pair
+      shared--;
+    }
+    out.writeUInt32NoTag(shared);
+    out.writeStringNoTag(value.substring(shared));
+  }
+
+  private static String readSharedPrefix(CodedInputStream in, String prev) throws IOException {
+    int shared = in.readUInt32();
+    return prev.substring(0, shared).concat(in.readString());
+  }
+
+  /**
+   * Writes an owner or group as its index in the listing, or as the name on its first occurrence.
+   */
+  private static void writeUser(CodedOutputStream out, Map<String, Integer> users,
+      @Nullable String user) throws IOException {
+    if (user == null) {
+      out.writeUInt32NoTag(0);
+      return;
+    }
+    Integer index = users.get(user);
+    if (index != null) {
+      out.writeUInt32NoTag(index);
+      return;
+    }
+    // index 1 marks a new name, the known names start at 2
+    out.writeUInt32NoTag(1);
+    out.writeStringNoTag(user);
+    users.put(user, users.size() + 2);
+  }
+
+  @Nullable
+  private static String readUser(CodedInputStream in, Map<Integer, String> users)
+      throws IOException {
+    int index = in.readUInt32();
+    if (index == 0) {
+      return null;
+    }
+    if (index == 1) {
+      String user = in.readString();
+      users.put(users.size() + 2, user);
+      return user;
+    }
+    return users.get(index);
+  }
+
+  private static final class Listing {
+    private final long mTimestamp;
+    private final byte[] mData;
+
+    private Listing(long timestamp, byte[] data) {
+      mTimestamp = timestamp;
+      mData = data;
+    }
+
+    private int getWeight(String path) {
+      return mData.length + path.length() * 2 + ENTRY_OVERHEAD;
+    }
+  }
+}
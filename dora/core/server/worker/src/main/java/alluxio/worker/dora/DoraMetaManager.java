@@ -12,22 +12,33 @@
 package alluxio.worker.dora;
 
 import alluxio.AlluxioURI;
+import alluxio.Constants;
 import alluxio.client.file.cache.CacheManager;
 import alluxio.client.file.cache.PageId;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.meta.DoraMeta;
 import alluxio.proto.meta.DoraMeta.FileStatus;
 import alluxio.underfs.Fingerprint;
 import alluxio.underfs.UfsStatus;
 import alluxio.underfs.UnderFileSystem;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
  * The Dora metadata manager that orchestrates the metadata operations.
@@ -36,12 +47,25 @@ import java.util.Optional;
  *  also lacks concurrency control. Address this problem in the future.
  */
 public class DoraMetaManager {
+  private static final Counter NEGATIVE_CACHE_HITS =
+      MetricsSystem.counter(MetricKey.WORKER_NEGATIVE_METADATA_CACHE_HITS.getName());
+  private static final Counter UFS_MISSES =
+      MetricsSystem.counter(MetricKey.WORKER_METADATA_UFS_MISSES.getName());
+
   private final DoraMetaStore mMetastore;
   private final CacheManager mCacheManager;
   private final PagedDoraWorker mDoraWorker;
   private final UnderFileSystem mUfs;
   private boolean mPopulateMetadataFingerprint =
       Configuration.getBoolean(PropertyKey.DORA_WORKER_POPULATE_METADATA_FINGERPRINT);
+  /** Paths not found in UFS and the time they were looked up, null if disabled. */
+  @Nullable
+  private final Cache<String, Long> mMissingPaths;
+  /**
+   * The number of invalidations of missing paths, so that a lookup racing with the creation of
+   * the path does not cache it as missing.
+   */
+  private final AtomicLong mMissingPathInvalidations = new AtomicLong();
 
   /**
    * Creates a dora meta manager.
@@ -57,6 +81,16 @@ public class DoraMetaManager {
     mCacheManager = cacheManger;
     mDoraWorker = doraWorker;
     mUfs = ufs;
+    Duration missingPathTtl =
+        Configuration.getDuration(PropertyKey.DORA_WORKER_NEGATIVE_METADATA_CACHE_TTL);
+    if (missingPathTtl.isZero() || missingPathTtl.isNegative()) {
+      mMissingPaths = null;
+    } else {
+      mMissingPaths = CacheBuilder.newBuilder()
+          .maximumSize(Configuration.getInt(PropertyKey.DORA_WORKER_NEGATIVE_METADATA_CACHE_SIZE))
+          .expireAfterWrite(missingPathTtl.toMillis(), TimeUnit.MILLISECONDS)
+          .build();
+    }
   }
 
   /**
@@ -82,15 +116,81 @@ public class DoraMetaManager {
    * @return the file status, or empty optional if not found
    */
   public Optional<FileStatus> loadFromUfs(String path) throws IOException {
+    long invalidations = mMissingPathInvalidations.get();
     Optional<FileStatus> fileStatus = getFromUfs(path);
     if (fileStatus.isEmpty()) {
+      UFS_MISSES.inc();
       removeFromMetaStore(path);
+      if (mMissingPaths != null) {
+        mMissingPaths.put(path, System.nanoTime());
+        if (mMissingPathInvalidations.get() != invalidations) {
+          // the path might have been created while it was looked up
+          mMissingPaths.invalidate(path);
+        }
+      }
     } else {
+      if (mMissingPaths != null) {
+        mMissingPaths.invalidate(path);
+      }
       put(path, fileStatus.get());
     }
     return fileStatus;
   }
 
+  /**
+   * Checks whether a path was recently found not to exist in UFS.
+   *
+   * @param path the full ufs path
+   * @param syncIntervalMs the maximum age of the lookup in milliseconds, or a negative value if
+   *                       the lookup may be of any age
+   * @return true if the path is known not to exist, false if UFS needs to be queried
+   */
+  public boolean isMissing(String path, long syncIntervalMs) {
+    if (mMissingPaths == null) {
+      return false;
+    }
+    Long lookupTime = mMissingPaths.getIfPresent(path);
+    if (lookupTime == null || (syncIntervalMs >= 0
+        && System.nanoTime() - lookupTime > syncIntervalMs * Constants.MS_NANO)) {
+      return false;
+    }
+    NEGATIVE_CACHE_HITS.inc();
+    return true;
+  }
+
+  /**
+   * Forgets that a path and its ancestors do not exist, e.g. when the path is created.
+   *
+   * @param path the full ufs path
+   */
+  public void invalidateMissing(String path) {
+    if (mMissingPaths == null) {
+      return;
+    }
+    mMissingPathInvalidations.incrementAndGet();
+    AlluxioURI uri = new AlluxioURI(path);
+    mMissingPaths.invalidate(path);
+    while (!uri.isRoot() && uri.getParent() != null) {
+      uri = uri.getParent();
+      mMissingPaths.invalidate(uri.toString());
+    }
+  }
+
+  /**
+   * Forgets that a path, its ancestors and its descendants do not exist, e.g. when a directory is
+   * renamed to the path.
+   *
+   * @param path the full ufs path
+   */
+  public void invalidateMissingTree(String path) {
+    if (mMissingPaths == null) {
+      return;
+    }
+    invalidateMissing(path);
+    String prefix = path.endsWith(AlluxioURI.SEPARATOR) ? path : path + AlluxioURI.SEPARATOR;
+    mMissingPaths.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
   /**
    * Gets file meta from the metastore.
    * @param path the full ufs path
@@ -106,11 +206,27 @@ public class DoraMetaManager {
    * @param meta the file meta
    */
   public void put(String path, FileStatus meta) {
+    invalidateCachedFileIfChanged(path, meta);
+    mMetastore.putDoraMeta(path, meta);
+  }
+
+  /**
+   * Puts meta of multiple files into the metastore in a single write, and invalidates the data
+   * cache of the files which changed.
+   * @param metas the file metas, keyed by the full ufs paths
+   */
+  public void putAll(Map<String, FileStatus> metas) {
+    for (Map.Entry<String, FileStatus> entry : metas.entrySet()) {
+      invalidateCachedFileIfChanged(entry.getKey(), entry.getValue());
+    }
+    mMetastore.putDoraMetas(metas);
+  }
+
+  private void invalidateCachedFileIfChanged(String path, FileStatus meta) {
     Optional<FileStatus> status = mMetastore.getDoraMeta(path);
     if (status.isEmpty()
         || status.get().getFileInfo().getFolder()
         || status.get().getFileInfo().getLength() == 0) {
-      mMetastore.putDoraMeta(path, meta);
       return;
     }
     if (mPopulateMetadataFingerprint) {
@@ -133,7 +249,6 @@ public class DoraMetaManager {
     } else {
       invalidateCachedFile(path, status.get().getFileInfo().getLength());
     }
-    mMetastore.putDoraMeta(path, meta);
   }
 
   /**
@@ -13,6 +13,7 @@ package alluxio.worker.dora;
 
 import alluxio.proto.meta.DoraMeta.FileStatus;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -36,6 +37,15 @@ public interface DoraMetaStore {
    */
   void putDoraMeta(String path, FileStatus meta);
 
+  /**
+   * Adds or updates the dora metadata of multiple files, e.g. for a load job.
+   *
+   * @param metas the metadata of the files, keyed by their full paths
+   */
+  default void putDoraMetas(Map<String, FileStatus> metas) {
+    metas.forEach(this::putDoraMeta);
+  }
+
   /**
    * Removes a dora meta, or does nothing if the dora meta does not exist.
    *
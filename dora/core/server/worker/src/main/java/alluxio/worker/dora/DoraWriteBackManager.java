@@ -0,0 +1,533 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.FailedPreconditionException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.grpc.FileInfo;
+import alluxio.master.file.meta.PersistenceState;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.DoraMeta;
+import alluxio.security.authorization.Mode;
+import alluxio.underfs.CancelableOutputStream;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.CreateOptions;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Uploads files written with the ASYNC_THROUGH write type to UFS in the background. The worker
+ * acknowledges such a file once its pages and its entry in the upload queue are synced to disk:
+ * <ul>
+ *   <li>Write back requires the local page store, whose pages survive a worker restart.</li>
+ *   <li>The queue is kept in a directory with one entry per file, so that uploads are resumed
+ *   when the worker restarts, reading the pages restored by the page store. Each version of a
+ *   file has an entry of its own, so that the upload of an overwritten version does not remove
+ *   the entry of the new one.</li>
+ *   <li>The pages of a file are pinned in the cache from its creation until it is uploaded.</li>
+ *   <li>The total length of the files not uploaded yet is bounded. Creating a file reserves a
+ *   page of the bound, waiting while the bound is exceeded, and the reservation is grown to the
+ *   length of the file once it is complete.</li>
+ *   <li>Failed uploads are retried with exponential backoff. A file whose pages are lost before
+ *   it is uploaded stays in the queue as {@link PersistenceState#LOST} until it is deleted or
+ *   overwritten, and its upload is retried when the worker restarts.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class DoraWriteBackManager implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(DoraWriteBackManager.class);
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final AlluxioConfiguration mConf;
+  private final CacheManager mCacheManager;
+  private final UnderFileSystem mUfs;
+  private final long mPageSize;
+  private final boolean mPersistent;
+  private final Path mQueueDir;
+  private final long mMaxDirtyBytes;
+  /** The dirty bytes reserved by a file being written. */
+  private final long mOpenFileReservation;
+  private final long mDirtyWaitTimeoutMs;
+  private final long mRetryBaseSleepMs;
+  private final long mRetryMaxSleepMs;
+  /** Called with the UFS path of a file once it is uploaded. */
+  private final Consumer<String> mUploadListener;
+  private final ScheduledExecutorService mUploadExecutor;
+
+  /** The files being written, by UFS path. */
+  private final Map<String, String> mOpenFiles = new ConcurrentHashMap<>();
+  /** The files written and not uploaded yet, by UFS path. */
+  private final Map<String, DirtyFile> mDirtyFiles = new ConcurrentHashMap<>();
+  @GuardedBy("this")
+  private long mDirtyBytes = 0;
+
+  /**
+   * Creates a write-back manager, and resumes the uploads queued before the worker restarted.
+   *
+   * @param conf the configuration
+   * @param cacheManager the cache manager of the pages of the files
+   * @param ufs the UFS to upload the files to
+   * @param pageSize the page size
+   * @param uploadListener called with the UFS path of a file once it is uploaded
+   */
+  public DoraWriteBackManager(AlluxioConfiguration conf, CacheManager cacheManager,
+      UnderFileSystem ufs, long pageSize, Consumer<String> uploadListener) throws IOException {
+    mConf = conf;
+    mCacheManager = cacheManager;
+    mUfs = ufs;
+    mPageSize = pageSize;
+    mPersistent = conf.getEnum(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.class)
+        == PageStoreType.LOCAL;
+    mQueueDir = Paths.get(conf.getString(PropertyKey.DORA_WORKER_WRITE_BACK_DIR));
+    mMaxDirtyBytes = conf.getBytes(PropertyKey.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES);
+    mOpenFileReservation = Math.min(pageSize, mMaxDirtyBytes);
+    mDirtyWaitTimeoutMs = conf.getMs(PropertyKey.DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT);
+    mRetryBaseSleepMs = conf.getMs(PropertyKey.DORA_WORKER_WRITE_BACK_RETRY_BASE_SLEEP);
+    mRetryMaxSleepMs = conf.getMs(PropertyKey.DORA_WORKER_WRITE_BACK_RETRY_MAX_SLEEP);
+    mUploadListener = uploadListener;
+    mUploadExecutor = Executors.newScheduledThreadPool(
+        conf.getInt(PropertyKey.DORA_WORKER_WRITE_BACK_UPLOAD_THREADS),
+        ThreadFactoryUtils.build("dora-write-back-%d", true));
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_WRITE_BACK_DIRTY_BYTES.getName()),
+        this::getDirtyBytes);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_WRITE_BACK_LOST_FILES.getName()),
+        this::getNumLostFiles);
+    Files.createDirectories(mQueueDir);
+    recover();
+  }
+
+  private void recover() throws IOException {
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(mQueueDir)) {
+      for (Path entry : entries) {
+        if (entry.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+          // the file was not acknowledged
+          Files.delete(entry);
+          continue;
+        }
+        DoraMeta.FileStatus status;
+        try (InputStream in = Files.newInputStream(entry)) {
+          status = DoraMeta.FileStatus.parseFrom(in);
+        }
+        FileInfo info = status.getFileInfo();
+        DirtyFile file = new DirtyFile(info, new AlluxioURI(info.getUfsPath()).hash(),
+            entry.getFileName().toString(), status.getRefreshTimeMs());
+        DirtyFile other = mDirtyFiles.get(info.getUfsPath());
+        if (other != null) {
+          // the worker stopped before the entry of an overwritten version was removed
+          DirtyFile stale = other.mCommitTimeMs > file.mCommitTimeMs ? file : other;
+          Files.delete(mQueueDir.resolve(stale.mEntryName));
+          if (stale == other) {
+            mDirtyFiles.put(info.getUfsPath(), file);
+            addDirtyBytes(info.getLength() - other.mInfo.getLength());
+          }
+          continue;
+        }
+        mDirtyFiles.put(info.getUfsPath(), file);
+        addDirtyBytes(info.getLength());
+      }
+    }
+    for (DirtyFile file : mDirtyFiles.values()) {
+      mCacheManager.pinFile(file.mFileId);
+      mUploadExecutor.execute(() -> upload(file));
+    }
+    if (!mDirtyFiles.isEmpty()) {
+      LOG.info("Resumed uploading {} files written back to UFS", mDirtyFiles.size());
+    }
+  }
+
+  /**
+   * Prepares a file to be written back to UFS, reserving dirty bytes for it and waiting while
+   * the files not uploaded yet exceed the maximum dirty bytes. The pages of the file are pinned
+   * until it is uploaded or aborted.
+   *
+   * @param ufsPath the UFS path of the file
+   * @throws FailedPreconditionException if the page store of the worker is not persistent
+   * @throws ResourceExhaustedException if the dirty bytes exceed the limit until the timeout
+   */
+  public void open(String ufsPath) throws IOException {
+    if (!mPersistent) {
+      throw new FailedPreconditionException(String.format(
+          "The ASYNC_THROUGH write type requires the %s page store, %s is %s",
+          PageStoreType.LOCAL, PropertyKey.WORKER_PAGE_STORE_TYPE.getName(),
+          mConf.getEnum(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.class)));
+    }
+    // the file is being overwritten
+    cancel(ufsPath);
+    reserveDirtyBytes(mOpenFileReservation);
+    String fileId = new AlluxioURI(ufsPath).hash();
+    mCacheManager.pinFile(fileId);
+    if (mOpenFiles.put(ufsPath, fileId) != null) {
+      // the file was opened concurrently, which holds a reservation and a pin for it
+      mCacheManager.unpinFile(fileId);
+      addDirtyBytes(-mOpenFileReservation);
+    }
+  }
+
+  private synchronized void reserveDirtyBytes(long bytes) throws ResourceExhaustedException {
+    long deadline = System.currentTimeMillis() + mDirtyWaitTimeoutMs;
+    while (mDirtyBytes + bytes > mMaxDirtyBytes) {
+      long waitMs = deadline - System.currentTimeMillis();
+      if (waitMs <= 0) {
+        throw new ResourceExhaustedException(String.format(
+            "%d bytes written are not uploaded to UFS yet, which exceeds the limit of %d bytes "
+                + "(%s)", mDirtyBytes, mMaxDirtyBytes,
+            PropertyKey.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES.getName()));
+      }
+      try {
+        wait(waitMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ResourceExhaustedException("Interrupted waiting for uploads to UFS", e);
+      }
+    }
+    mDirtyBytes += bytes;
+  }
+
+  /**
+   * @param ufsPath the UFS path of a file
+   * @return whether the file is being written to be written back to UFS
+   */
+  public boolean isOpen(String ufsPath) {
+    return mOpenFiles.containsKey(ufsPath);
+  }
+
+  /**
+   * Queues a file written to be uploaded to UFS. The pages of the file and its entry in the
+   * queue are synced to disk, so the file is durable in the worker once this method returns.
+   *
+   * @param info the info of the file, with the final length
+   */
+  public void commit(FileInfo info) throws IOException {
+    String ufsPath = info.getUfsPath();
+    String fileId = mOpenFiles.get(ufsPath);
+    if (fileId == null) {
+      throw new IllegalStateException("File " + ufsPath + " is not open for write back");
+    }
+    FileInfo dirtyInfo = info.toBuilder()
+        .setPersisted(false)
+        .setPersistenceState(PersistenceState.TO_BE_PERSISTED.name())
+        .build();
+    if (dirtyInfo.getLength() > 0) {
+      // an empty file has no pages to sync
+      mCacheManager.syncFile(fileId);
+    }
+    String entryName = fileId + "-" + UUID.randomUUID();
+    long commitTimeMs = System.currentTimeMillis();
+    Path entry = mQueueDir.resolve(entryName);
+    Path tempEntry = mQueueDir.resolve(entryName + TEMP_SUFFIX);
+    try (FileChannel channel = FileChannel.open(tempEntry, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(dirtyInfo)
+          .setRefreshTimeMs(commitTimeMs)
+          .build()
+          .writeTo(Channels.newOutputStream(channel));
+      channel.force(true);
+    }
+    Files.move(tempEntry, entry, StandardCopyOption.ATOMIC_MOVE);
+    try (FileChannel dir = FileChannel.open(mQueueDir, StandardOpenOption.READ)) {
+      dir.force(true);
+    }
+    if (!mOpenFiles.remove(ufsPath, fileId)) {
+      // the file was canceled while committing, which released its reservation
+      Files.deleteIfExists(entry);
+      return;
+    }
+    DirtyFile file = new DirtyFile(dirtyInfo, fileId, entryName, commitTimeMs);
+    mDirtyFiles.put(ufsPath, file);
+    addDirtyBytes(dirtyInfo.getLength() - mOpenFileReservation);
+    mUploadExecutor.execute(() -> upload(file));
+  }
+
+  /**
+   * Aborts a file being written, or cancels the upload of a file written, e.g. when the file is
+   * deleted or overwritten.
+   *
+   * @param ufsPath the UFS path of the file
+   * @return whether the file was being written or not uploaded yet
+   */
+  public boolean cancel(String ufsPath) {
+    String fileId = mOpenFiles.remove(ufsPath);
+    if (fileId != null) {
+      mCacheManager.unpinFile(fileId);
+      addDirtyBytes(-mOpenFileReservation);
+      return true;
+    }
+    DirtyFile file = mDirtyFiles.get(ufsPath);
+    if (file == null) {
+      return false;
+    }
+    file.mCanceled = true;
+    // an ongoing upload removes the file once it stops
+    file.tryRemove(this);
+    return true;
+  }
+
+  /**
+   * @param ufsPath the UFS path of a file
+   * @return the info of the file if it is not uploaded to UFS yet
+   */
+  public Optional<FileInfo> getDirtyFileInfo(String ufsPath) {
+    DirtyFile file = mDirtyFiles.get(ufsPath);
+    return file == null ? Optional.empty() : Optional.of(file.mInfo);
+  }
+
+  /**
+   * @return the number of files whose pages are lost before they are uploaded to UFS
+   */
+  public int getNumLostFiles() {
+    return (int) mDirtyFiles.values().stream().filter(file -> file.mLost).count();
+  }
+
+  /**
+   * @return the number of bytes written and not uploaded to UFS yet
+   */
+  public synchronized long getDirtyBytes() {
+    return mDirtyBytes;
+  }
+
+  private synchronized void addDirtyBytes(long bytes) {
+    mDirtyBytes += bytes;
+    if (bytes < 0) {
+      notifyAll();
+    }
+  }
+
+  private void upload(DirtyFile file) {
+    if (!file.startUpload()) {
+      file.tryRemove(this);
+      return;
+    }
+    String ufsPath = file.mInfo.getUfsPath();
+    try {
+      if (uploadPages(file)) {
+        LOG.debug("Uploaded {} to UFS", ufsPath);
+        MetricsSystem.counter(MetricKey.WORKER_WRITE_BACK_UPLOADED_BYTES.getName())
+            .inc(file.mInfo.getLength());
+        file.mUploaded = true;
+      }
+    } catch (IOException | RuntimeException e) {
+      MetricsSystem.counter(MetricKey.WORKER_WRITE_BACK_UPLOAD_FAILURES.getName()).inc();
+      if (file.mLost) {
+        LOG.error("Failed to upload {} to UFS, the pages of the file are lost. The file is kept "
+            + "in the write-back queue until it is deleted or overwritten", ufsPath, e);
+        markLost(file);
+      } else if (!file.mCanceled) {
+        long sleepMs = Math.min(mRetryMaxSleepMs,
+            mRetryBaseSleepMs << Math.min(file.mFailures++, 30));
+        LOG.warn("Failed to upload {} to UFS, retrying in {}ms", ufsPath, sleepMs, e);
+        file.endUpload();
+        try {
+          mUploadExecutor.schedule(() -> upload(file), sleepMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException rejected) {
+          // the manager is closed, the file is uploaded when the worker restarts
+        }
+        return;
+      }
+    }
+    file.endUpload();
+    file.tryRemove(this);
+  }
+
+  /**
+   * Reports a file whose pages are lost as {@link PersistenceState#LOST}, and releases its pages
+   * and dirty bytes. The entry of the file is kept in the queue.
+   */
+  private void markLost(DirtyFile file) {
+    file.mInfo = file.mInfo.toBuilder()
+        .setPersistenceState(PersistenceState.LOST.name())
+        .build();
+    mCacheManager.unpinFile(file.mFileId);
+    addDirtyBytes(-file.mInfo.getLength());
+  }
+
+  /**
+   * Writes the pages of a file to UFS. The UFS file is only completed if all the pages are
+   * written, otherwise the stream is canceled so that no partial file is left in UFS.
+   *
+   * @return false if the file is canceled while uploading
+   */
+  private boolean uploadPages(DirtyFile file) throws IOException {
+    FileInfo info = file.mInfo;
+    CreateOptions options = CreateOptions.defaults(mConf)
+        .setCreateParent(true)
+        .setEnsureAtomic(true)
+        .setMode(new Mode((short) info.getMode()));
+    if (!info.getOwner().isEmpty()) {
+      options.setOwner(info.getOwner());
+    }
+    if (!info.getGroup().isEmpty()) {
+      options.setGroup(info.getGroup());
+    }
+    byte[] page = new byte[(int) Math.min(mPageSize, Math.max(info.getLength(), 1))];
+    OutputStream out = mUfs.create(info.getUfsPath(), options);
+    boolean written = false;
+    try {
+      for (long pos = 0; pos < info.getLength(); pos += mPageSize) {
+        if (file.mCanceled) {
+          return false;
+        }
+        int pageLength = (int) Math.min(mPageSize, info.getLength() - pos);
+        PageId pageId = new PageId(file.mFileId, pos / mPageSize);
+        int bytesRead = mCacheManager.get(pageId, pageLength, page, 0);
+        if (bytesRead != pageLength) {
+          // the pages are restored in the background when the worker restarts
+          file.mLost = mCacheManager.state() == CacheManager.State.READ_WRITE;
+          throw new IOException(String.format("Failed to read page %s of %s, %d of %d bytes read",
+              pageId, info.getUfsPath(), bytesRead, pageLength));
+        }
+        out.write(page, 0, pageLength);
+      }
+      written = !file.mCanceled;
+    } finally {
+      if (!written) {
+        cancelUpload(out, info.getUfsPath());
+      }
+    }
+    if (!written) {
+      return false;
+    }
+    out.close();
+    return true;
+  }
+
+  private static void cancelUpload(OutputStream out, String ufsPath) {
+    if (!(out instanceof CancelableOutputStream)) {
+      // closing the stream would complete a partial file, so it is left to the garbage collector
+      LOG.warn("Unable to cancel the upload of {} to UFS, the stream is abandoned", ufsPath);
+      return;
+    }
+    try {
+      ((CancelableOutputStream) out).cancel();
+    } catch (IOException e) {
+      LOG.warn("Failed to cancel the upload of {} to UFS", ufsPath, e);
+    }
+  }
+
+  private void remove(DirtyFile file) {
+    String ufsPath = file.mInfo.getUfsPath();
+    try {
+      Files.deleteIfExists(mQueueDir.resolve(file.mEntryName));
+    } catch (IOException e) {
+      LOG.warn("Failed to remove {} from the write-back queue", ufsPath, e);
+    }
+    mDirtyFiles.remove(ufsPath, file);
+    if (!file.mLost) {
+      // the pages and the dirty bytes of a lost file are released once it is lost
+      mCacheManager.unpinFile(file.mFileId);
+      addDirtyBytes(-file.mInfo.getLength());
+    }
+    if (file.mUploaded) {
+      mUploadListener.accept(ufsPath);
+    }
+  }
+
+  /**
+   * @return the number of files not uploaded to UFS yet
+   */
+  @VisibleForTesting
+  int getNumDirtyFiles() {
+    return mDirtyFiles.size();
+  }
+
+  @Override
+  public void close() {
+    mUploadExecutor.shutdownNow();
+  }
+
+  /**
+   * A file written and not uploaded to UFS yet.
+   */
+  private static final class DirtyFile {
+    private volatile FileInfo mInfo;
+    private final String mFileId;
+    /** The name of the entry of this version of the file in the queue. */
+    private final String mEntryName;
+    private final long mCommitTimeMs;
+    private volatile boolean mCanceled = false;
+    private volatile boolean mUploaded = false;
+    private volatile boolean mLost = false;
+    private int mFailures = 0;
+    @GuardedBy("this")
+    private boolean mUploading = false;
+    @GuardedBy("this")
+    private boolean mRemoved = false;
+
+    private DirtyFile(FileInfo info, String fileId, String entryName, long commitTimeMs) {
+      mInfo = info;
+      mFileId = fileId;
+      mEntryName = entryName;
+      mCommitTimeMs = commitTimeMs;
+    }
+
+    private synchronized boolean startUpload() {
+      if (mRemoved || mCanceled) {
+        return false;
+      }
+      mUploading = true;
+      return true;
+    }
+
+    private synchronized void endUpload() {
+      mUploading = false;
+    }
+
+    /**
+     * Removes the file from the manager unless it is being uploaded, or needs uploading. A lost
+     * file is only removed once it is canceled.
+     */
+    private void tryRemove(DoraWriteBackManager manager) {
+      synchronized (this) {
+        if (mRemoved || mUploading || !(mCanceled || mUploaded)) {
+          return;
+        }
+        mRemoved = true;
+      }
+      manager.remove(this);
+    }
+  }
+}
@@ -52,6 +52,7 @@ import alluxio.grpc.ServiceType;
 import alluxio.grpc.SetAttributePOptions;
 import alluxio.grpc.UfsReadOptions;
 import alluxio.grpc.WriteOptions;
+import alluxio.grpc.WritePType;
 import alluxio.heartbeat.FixedIntervalSupplier;
 import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatExecutor;
@@ -77,6 +78,7 @@ import alluxio.underfs.options.ListOptions;
 import alluxio.util.CommonUtils;
 import alluxio.util.ModeUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
+import alluxio.util.io.PathUtils;
 import alluxio.wire.FileInfo;
 import alluxio.wire.WorkerNetAddress;
 import alluxio.worker.AbstractWorker;
@@ -90,10 +92,9 @@ import alluxio.worker.task.DeleteHandler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -106,12 +107,17 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 import javax.inject.Named;
 
 /**
@@ -136,25 +142,21 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   private boolean mPopulateMetadataFingerprint =
       Configuration.getBoolean(PropertyKey.DORA_WORKER_POPULATE_METADATA_FINGERPRINT);
 
-  private static class ListStatusResult {
-    public long mTimeStamp;
-    public UfsStatus[] mUfsStatuses;
-
-    ListStatusResult(long timeStamp, UfsStatus[] ufsStatuses) {
-      mTimeStamp = timeStamp;
-      mUfsStatuses = ufsStatuses;
-    }
-  }
-
-  private final Cache<String, ListStatusResult> mListStatusCache;
+  private final DoraListStatusCache mListStatusCache;
   private WorkerNetAddress mAddress;
 
   private DoraMetaStore mMetaStore;
 
   private final UnderFileSystem mUfs;
 
+  /** Loads the pages missed by a read concurrently, only for object stores. */
+  @Nullable
+  private final ParallelPageLoader mPageLoader;
+
   private final DoraOpenFileHandleContainer mOpenFileHandleContainer;
 
+  private final DoraWriteBackManager mWriteBackManager;
+
   /**
    * Constructor.
    *
@@ -177,21 +179,39 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     mUfs = UnderFileSystem.Factory.create(
         mRootUFS,
         UnderFileSystemConfiguration.defaults(Configuration.global()));
-    mListStatusCache = CacheBuilder.newBuilder()
-        .maximumSize(Configuration.getInt(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_NR_DIRS))
-        .expireAfterWrite(Configuration.getDuration(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_TTL))
-        .build();
+    mListStatusCache = mResourceCloser.register(new DoraListStatusCache(
+        Configuration.getBytes(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_MAX_BYTES),
+        Configuration.getDuration(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_TTL)));
 
     mPageSize = Configuration.global().getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE);
+    int rangeReadConcurrencyPerFile =
+        Configuration.getInt(PropertyKey.DORA_WORKER_UFS_RANGE_READ_CONCURRENCY_PER_FILE);
+    if (mUfs.isObjectStorage() && rangeReadConcurrencyPerFile > 1) {
+      mPageLoader = mResourceCloser.register(new ParallelPageLoader(cacheManager, mPageSize,
+          Configuration.getInt(PropertyKey.DORA_WORKER_UFS_RANGE_READ_CONCURRENCY),
+          rangeReadConcurrencyPerFile));
+    } else {
+      mPageLoader = null;
+    }
     mBlockMasterClientPool = new BlockMasterClientPool();
 
     String dbDir = Configuration.getString(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR);
     Duration duration = Configuration.getDuration(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_TTL);
     long ttl = (duration.isNegative() || duration.isZero()) ? -1 : duration.getSeconds();
     mMetaStore = new RocksDBDoraMetaStore(dbDir, ttl);
+    long heapCacheSize = Configuration.getBytes(PropertyKey.DORA_WORKER_METASTORE_HEAP_CACHE_SIZE);
+    if (heapCacheSize > 0) {
+      mMetaStore = new TieredDoraMetaStore(mMetaStore, heapCacheSize, ttl);
+    }
     mCacheManager = cacheManager;
     mMetaManager = new DoraMetaManager(this, mMetaStore, mCacheManager, mUfs);
     mOpenFileHandleContainer = new DoraOpenFileHandleContainer();
+    try {
+      mWriteBackManager = new DoraWriteBackManager(mConf, mCacheManager, mUfs, mPageSize,
+          this::invalidateFileMeta);
+    } catch (IOException e) {
+      throw AlluxioRuntimeException.from(e);
+    }
   }
 
   @Override
@@ -263,6 +283,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
 
   @Override
   public void close() throws IOException {
+    mWriteBackManager.close();
     if (mMetaStore != null) {
       mMetaStore.close();
     }
@@ -291,25 +312,9 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
         -1;
 
     final boolean skipCache = options.hasRecursive() && options.getRecursive();
-    final UfsStatus[] cachedStatuses;
-    final ListStatusResult resultFromCache = mListStatusCache.getIfPresent(path);
-    if (resultFromCache == null) {
-      cachedStatuses = null;
-    } else if (skipCache) {
-      // Only use the cached result when its not recursive listing
-      cachedStatuses = null;
-    } else {
-      // Metadata is cached. Check if it is expired.
-      if (syncIntervalMs >= 0
-          && System.nanoTime() - resultFromCache.mTimeStamp > syncIntervalMs * Constants.MS_NANO) {
-        // The metadata is expired. Remove it from in-memory cache.
-        mListStatusCache.invalidate(path);
-        cachedStatuses = null;
-      } else {
-        // Cache is still valid. Use cached statuses.
-        cachedStatuses = resultFromCache.mUfsStatuses;
-      }
-    }
+    // Only use the cached result when its not recursive listing. Expired results are removed.
+    final UfsStatus[] cachedStatuses = skipCache ? null
+        : mListStatusCache.get(path, syncIntervalMs);
     if (cachedStatuses != null) {
       return cachedStatuses;
     }
@@ -335,12 +340,71 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
 
     // Add this into cache. Return value of listStatus() might be null if not found.
     if (freshStatusesFromUfs != null && !skipCache) {
-      ListStatusResult newResult = new ListStatusResult(System.nanoTime(), freshStatusesFromUfs);
-      mListStatusCache.put(path, newResult);
+      mListStatusCache.put(path, freshStatusesFromUfs);
     }
     return freshStatusesFromUfs;
   }
 
+  @Override
+  @Nullable
+  public Iterator<UfsStatus> listStatusIterator(String path, ListStatusPOptions options)
+      throws IOException, AccessControlException {
+    return listStatusIterator(mUfs, path, options);
+  }
+
+  /**
+   * Lists a path of the given UFS in the order of the names, starting after the name given by
+   * the options.
+   *
+   * @param ufs the UFS to list
+   * @param path the UFS path to list
+   * @param options the list status options
+   * @return the statuses, or null if the path does not exist
+   */
+  @VisibleForTesting
+  @Nullable
+  static Iterator<UfsStatus> listStatusIterator(UnderFileSystem ufs, String path,
+      ListStatusPOptions options) throws IOException {
+    ListOptions ufsListOptions = ListOptions.defaults().setRecursive(
+        options.hasRecursive() ? options.getRecursive() : false);
+    final String startAfter = options.hasStartAfter() ? options.getStartAfter() : null;
+    Iterator<UfsStatus> statuses;
+    if (ufs.isObjectStorage()) {
+      // Object stores list the keys in lexicographic order chunk by chunk, starting after a key.
+      String startAfterKey = null;
+      if (startAfter != null) {
+        String dirKey = CommonUtils.stripPrefixIfPresent(
+            new AlluxioURI(path).getPath(), AlluxioURI.SEPARATOR);
+        startAfterKey = dirKey.isEmpty() ? startAfter
+            : PathUtils.normalizePath(dirKey, AlluxioURI.SEPARATOR) + startAfter;
+      }
+      statuses = ufs.listStatusIterable(path, ufsListOptions, startAfterKey, 0);
+    } else {
+      // Other UFSes list a directory at once, in no particular order.
+      UfsStatus[] statusArray = ufs.listStatus(path, ufsListOptions);
+      if (statusArray == null) {
+        statuses = null;
+      } else {
+        Arrays.sort(statusArray, Comparator.comparing(UfsStatus::getName));
+        statuses = Iterators.forArray(statusArray);
+      }
+    }
+    if (statuses == null) {
+      // The path might be a regular file/object.
+      try {
+        UfsStatus status = ufs.getStatus(path);
+        status.setName(""); // listStatus() expects relative name to the @path.
+        statuses = Iterators.singletonIterator(status);
+      } catch (FileNotFoundException e) {
+        return null;
+      }
+    }
+    if (startAfter != null) {
+      statuses = Iterators.filter(statuses, status -> status.getName().compareTo(startAfter) > 0);
+    }
+    return statuses;
+  }
+
   /**
    * Invalidate the given cached File by deleting it from local cache.
    *
@@ -368,14 +432,22 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
 
   protected alluxio.grpc.FileInfo getGrpcFileInfo(String ufsFullPath, long syncIntervalMs)
       throws IOException {
+    Optional<alluxio.grpc.FileInfo> dirtyInfo = mWriteBackManager.getDirtyFileInfo(ufsFullPath);
+    if (dirtyInfo.isPresent()) {
+      // the file is not uploaded to UFS yet
+      return dirtyInfo.get();
+    }
     Optional<DoraMeta.FileStatus> status = mMetaManager.getFromMetaStore(ufsFullPath);
     boolean shouldLoad = status.isEmpty();
     if (syncIntervalMs >= 0 && status.isPresent()) {
       // Check if the metadata is still valid.
-      if (System.nanoTime() - status.get().getTs() > syncIntervalMs * Constants.MS_NANO) {
+      if (System.currentTimeMillis() - status.get().getRefreshTimeMs() > syncIntervalMs) {
         shouldLoad = true;
       }
     }
+    if (status.isEmpty() && mMetaManager.isMissing(ufsFullPath, syncIntervalMs)) {
+      throw new FileNotFoundException("File " + ufsFullPath + " not found.");
+    }
     if (shouldLoad) {
       status = mMetaManager.loadFromUfs(ufsFullPath);
     }
@@ -465,7 +537,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   public DoraMeta.FileStatus buildFileStatusFromUfsStatus(UfsStatus status, String ufsFullPath) {
     return DoraMeta.FileStatus.newBuilder()
         .setFileInfo(buildFileInfoFromUfsStatus(status, ufsFullPath))
-        .setTs(System.nanoTime())
+        .setRefreshTimeMs(System.currentTimeMillis())
         .build();
   }
 
@@ -486,7 +558,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       }
     }
     return PagedFileReader.create(mConf, mCacheManager, ufsClient, fileId,
-        options.getUfsPath(), options.getBlockSize(), offset);
+        options.getUfsPath(), options.getBlockSize(), offset, mPageLoader);
   }
 
   @Override
@@ -501,10 +573,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       throws AccessControlException, IOException {
     List<ListenableFuture<Void>> futures = new ArrayList<>();
     List<LoadFileFailure> errors = Collections.synchronizedList(new ArrayList<>());
+    Map<String, DoraMeta.FileStatus> metas = new LinkedHashMap<>();
     for (UfsStatus status : ufsStatuses) {
       String ufsFullPath = status.getUfsFullPath().toString();
-      DoraMeta.FileStatus fs = buildFileStatusFromUfsStatus(status, ufsFullPath);
-      mMetaManager.put(ufsFullPath, fs);
+      metas.put(ufsFullPath, buildFileStatusFromUfsStatus(status, ufsFullPath));
+    }
+    // the metadata of the whole batch is written at once
+    mMetaManager.putAll(metas);
+    for (UfsStatus status : ufsStatuses) {
       // We use the ufs status sent from master to construct the file metadata,
       // and that ufs status might be stale.
       // This is a known consistency issue and will remain as long as the get metadata and
@@ -690,14 +766,19 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     try {
       // Check if the target file already exists. If yes, return by throwing error.
       boolean overWrite = options.hasOverwrite() ? options.getOverwrite() : false;
-      boolean exists = mUfs.exists(path);
+      boolean exists = mUfs.exists(path)
+          || mWriteBackManager.getDirtyFileInfo(path).isPresent();
       if (!overWrite && exists) {
         throw new RuntimeException(
             new FileAlreadyExistsException("File already exists but no overwrite flag"));
       } else if (overWrite) {
         // client is going to overwrite this file. We need to invalidate the cached meta and data.
+        mWriteBackManager.cancel(path);
         invalidateFileMeta(path);
         invalidateCachedFile(path);
+      } else {
+        invalidateParentListing(path);
+        mMetaManager.invalidateMissing(path);
       }
 
       // Open UFS OutputStream and use it in write operation.
@@ -720,6 +801,11 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       throw new RuntimeException(e);
     }
 
+    if (options.hasWriteType() && options.getWriteType() == WritePType.ASYNC_THROUGH) {
+      // the client writes to the worker only, which uploads the file to UFS once it is complete
+      mWriteBackManager.open(path);
+    }
+
     OpenFileHandle handle = new OpenFileHandle(path, info, null);
     //add to map.
     mOpenFileHandleContainer.add(path, handle);
@@ -730,6 +816,12 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   private void invalidateFileMeta(String path) {
     // The simplest way of updating metadata is invalidating cache in worker.
     // Next time, worker will get fresh metadata from ufs.
+    invalidateParentListing(path);          // invalidate dir cache
+    mMetaStore.removeDoraMeta(path);        // invalidate in-Rocks cache
+    mMetaManager.invalidateMissing(path);   // invalidate negative cache
+  }
+
+  private void invalidateParentListing(String path) {
     AlluxioURI fullPathUri = new AlluxioURI(path);
     AlluxioURI parentDir;
     if (fullPathUri.isRoot()) {
@@ -737,8 +829,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     } else {
       parentDir = fullPathUri.getParent();
     }
-    mListStatusCache.invalidate(parentDir.toString()); // invalidate dir cache
-    mMetaStore.removeDoraMeta(path);                   // invalidate in-Rocks cache
+    mListStatusCache.invalidate(parentDir.toString());
   }
 
   @Override
@@ -748,6 +839,17 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     if (handle != null) {
       mOpenFileHandleContainer.remove(path);
       handle.close();
+      if (mWriteBackManager.isOpen(path)) {
+        mWriteBackManager.commit(handle.getInfo().toBuilder()
+            .setLength(options.getUfsLength())
+            .setLastModificationTimeMs(System.currentTimeMillis())
+            .build());
+        invalidateFileMeta(path);
+        return;
+      }
+      // the file is in UFS from now on
+      invalidateParentListing(path);
+      mMetaManager.invalidateMissing(path);
       Optional<DoraMeta.FileStatus> status = mMetaManager.loadFromUfs(path);
       if (status.isEmpty()) {
         throw new FileNotFoundException("Cannot retrieve file metadata of "
@@ -762,9 +864,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     try {
       invalidateFileMeta(path);
       invalidateCachedFile(path);
+      mListStatusCache.invalidateTree(path);
 
       // TODO(hua) Close the open file handle?
 
+      if (mWriteBackManager.cancel(path) && !mUfs.exists(path)) {
+        // the file is not uploaded to UFS yet
+        return;
+      }
       UfsStatus status = mUfs.getStatus(path);
       if (status.isFile()) {
         mUfs.deleteFile(path);
@@ -784,6 +891,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       invalidateCachedFile(src);
       invalidateFileMeta(dst);
       invalidateCachedFile(dst);
+      mListStatusCache.invalidateTree(src);
+      mListStatusCache.invalidateTree(dst);
 
       UfsStatus status = mUfs.getStatus(src);
       if (status.isFile()) {
@@ -791,6 +900,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       } else {
         mUfs.renameDirectory(src, dst);
       }
+      // after the rename, so that concurrent lookups cannot find dst missing again
+      mMetaManager.invalidateMissingTree(dst);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -804,6 +915,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       invalidateCachedFile(path);
 
       boolean success = mUfs.mkdirs(path);
+      mMetaManager.invalidateMissing(path);
       if (!success) {
         throw new RuntimeException(
             new FileAlreadyExistsException(String.format("%s already exists", path)));
@@ -42,6 +42,7 @@ import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * Paged file reader.
@@ -51,6 +52,12 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   private final long mFileSize;
   private final LocalCachePositionReader mPositionReader;
   private final CloseableResource<UnderFileSystem> mUfs;
+  @Nullable
+  private final ParallelPageLoader mPageLoader;
+  @Nullable
+  private final FileId mFileId;
+  @Nullable
+  private final CloseableSupplier<PositionReader> mUfsReader;
   private long mPos;
   private volatile boolean mClosed = false;
 
@@ -64,18 +71,23 @@ public class PagedFileReader extends BlockReader implements PositionReader {
    * @param ufsPath
    * @param fileSize
    * @param startPosition
+   * @param pageLoader the loader of multiple missing pages, or null to load them one by one
    * @return a new {@link PagedFileReader}
    */
   public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
                                        UfsManager.UfsClient ufsClient, String fileId,
-                                       String ufsPath, long fileSize, long startPosition) {
+                                       String ufsPath, long fileSize, long startPosition,
+                                       @Nullable ParallelPageLoader pageLoader) {
     FileId fileIdField = FileId.of(fileId);
     CloseableResource<UnderFileSystem> ufs = ufsClient.acquireUfsResource();
     try {
+      // the reader is shared by the position reader and the page loader
+      CloseableSupplier<PositionReader> ufsReader =
+          new CloseableSupplier<>(() -> ufs.get().openPositionRead(ufsPath, fileSize));
       return new PagedFileReader(ufs, LocalCachePositionReader.create(cacheManager,
-          new CloseableSupplier<>(() -> ufs.get().openPositionRead(ufsPath, fileSize)),
-          fileIdField, fileSize, conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
-          CacheContext.defaults()), fileSize, startPosition);
+          ufsReader, fileIdField, fileSize,
+          conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE), CacheContext.defaults()),
+          fileSize, startPosition, pageLoader, fileIdField, ufsReader);
     } catch (Throwable t) {
       try {
         ufs.close();
@@ -97,14 +109,51 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   public PagedFileReader(CloseableResource<UnderFileSystem> ufs,
                          LocalCachePositionReader localCachePositionReader,
                          long fileSize, long startPosition) {
+    this(ufs, localCachePositionReader, fileSize, startPosition, null, null, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ufs
+   * @param localCachePositionReader
+   * @param fileSize
+   * @param startPosition
+   * @param pageLoader the loader of multiple missing pages, or null to load them one by one
+   * @param fileId the file id, required if pageLoader is not null
+   * @param ufsReader the reader of the file in UFS, required if pageLoader is not null
+   */
+  public PagedFileReader(CloseableResource<UnderFileSystem> ufs,
+                         LocalCachePositionReader localCachePositionReader,
+                         long fileSize, long startPosition,
+                         @Nullable ParallelPageLoader pageLoader, @Nullable FileId fileId,
+                         @Nullable CloseableSupplier<PositionReader> ufsReader) {
+    Preconditions.checkArgument(pageLoader == null || (fileId != null && ufsReader != null),
+        "fileId and ufsReader are required to load pages concurrently");
     mUfs = Preconditions.checkNotNull(ufs);
     mPositionReader = Preconditions.checkNotNull(localCachePositionReader);
     mFileSize = fileSize;
     mPos = startPosition;
+    mPageLoader = pageLoader;
+    mFileId = fileId;
+    mUfsReader = ufsReader;
+  }
+
+  /**
+   * Loads the missing pages of the range concurrently before the range is read page by page,
+   * if a page loader is given.
+   */
+  private void prefetch(long position, long length) {
+    if (mPageLoader != null && length > mPositionReader.getPageSize()) {
+      mPageLoader.load(mFileId, mFileSize, mUfsReader, position, length,
+          CacheContext.defaults());
+    }
   }
 
   /**
-   * Get a {@link CompositeDataBuffer} which has a list of {@link DataFileChannel}.
+   * Get a {@link CompositeDataBuffer} which reads the cached pages without copying them, as
+   * {@link DataFileChannel}s for page files or reference-counted slices of pages in memory.
+   * Only the ranges which are not cached are copied, after being read from the UFS.
    *
    * @param channel the Channel object which is used for allocating ByteBuf
    * @param length the bytes to read
@@ -119,27 +168,35 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     List<DataBuffer> dataBufferList = new ArrayList<>();
     long bytesToTransfer = Math.min(length, mFileSize - mPos);
     long bytesToTransferLeft = bytesToTransfer;
-    while (bytesToTransferLeft > 0) {
-      long lengthPerOp = Math.min(bytesToTransferLeft, mPositionReader.getPageSize());
-      DataBuffer dataBuffer;
-      Optional<DataFileChannel> dataFileChannel =
-          mPositionReader.getDataFileChannel(mPos, (int) lengthPerOp);
-      if (dataFileChannel.isEmpty()) {
-        dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
-      } else {
-        // update mPos
-        // TODO(JiamingMai): need to lock page files since the openFile op is called in netty latter
-        dataBuffer = dataFileChannel.get();
-        if (dataBuffer.getLength() > 0) {
+    prefetch(mPos, bytesToTransfer);
+    try {
+      while (bytesToTransferLeft > 0) {
+        long lengthPerOp = Math.min(bytesToTransferLeft, mPositionReader.getPageSize());
+        DataBuffer dataBuffer;
+        Optional<DataBuffer> zeroCopyBuffer =
+            mPositionReader.getDataBuffer(mPos, (int) lengthPerOp);
+        if (zeroCopyBuffer.isPresent() && zeroCopyBuffer.get().getLength() > 0) {
+          // page files are opened while the page is locked, so the data is still sent if the
+          // page is evicted before netty transfers it
+          dataBuffer = zeroCopyBuffer.get();
           mPos += dataBuffer.getLength();
+        } else {
+          zeroCopyBuffer.ifPresent(DataBuffer::release);
+          dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
+          if (dataBuffer.getLength() == 0) {
+            dataBuffer.release();
+            break;
+          }
         }
+        // update bytesToTransferLeft
+        bytesToTransferLeft -= dataBuffer.getLength();
+        dataBufferList.add(dataBuffer);
       }
-      // update bytesToTransferLeft
-      bytesToTransferLeft -= dataBuffer.getLength();
-      dataBufferList.add(dataBuffer);
+    } catch (Throwable t) {
+      dataBufferList.forEach(DataBuffer::release);
+      throw t;
     }
-    CompositeDataBuffer compositeDataBuffer = new CompositeDataBuffer(dataBufferList);
-    return compositeDataBuffer;
+    return new CompositeDataBuffer(dataBufferList);
   }
 
   private DataBuffer getDataBufferByCopying(Channel channel, int len) throws IOException {
@@ -172,6 +229,7 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     // bytes is 0, needs explicit clear
     buf.clear();
     ReadTargetBuffer targetBuffer = new NettyBufTargetBuffer(buf);
+    prefetch(offset, length);
     int bytesRead = mPositionReader.read(offset, targetBuffer, (int) length);
     if (bytesRead < 0) {
       return EMPTY_BYTE_BUFFER;
@@ -211,6 +269,7 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     int bytesToTransfer =
         (int) Math.min(buf.writableBytes(), mFileSize - mPos);
     ReadTargetBuffer targetBuffer = new NettyBufTargetBuffer(buf);
+    prefetch(mPos, bytesToTransfer);
     int bytesRead = mPositionReader.read(mPos, targetBuffer, bytesToTransfer);
     if (bytesRead > 0) {
       mPos += bytesRead;
@@ -221,6 +280,7 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   @Override
   public int readInternal(long position, ReadTargetBuffer buffer, int length)
       throws IOException {
+    prefetch(position, length);
     return mPositionReader.read(position, buffer, length);
   }
 
@@ -18,7 +18,6 @@ import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.worker.block.io.BlockWriter;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,28 +52,52 @@ public class PagedFileWriter extends BlockWriter {
   @Override
   public long append(ByteBuffer inputBuf) {
     try {
-      return append(Unpooled.wrappedBuffer(inputBuf));
+      return appendPages(inputBuf);
     } catch (IOException e) {
       LOG.error("Failed to append ByteBuffer. ", e);
       return -1;
     }
   }
 
+  /**
+   * Appends the readable bytes of a buffer, passing the pages of the file to the cache manager
+   * as views of the buffer rather than copies of it.
+   */
   @Override
   public long append(ByteBuf buf) throws IOException {
+    int length = buf.readableBytes();
+    if (buf.nioBufferCount() == 1) {
+      appendPages(buf.nioBuffer(buf.readerIndex(), length));
+    } else {
+      for (ByteBuffer nioBuffer : buf.nioBuffers(buf.readerIndex(), length)) {
+        appendPages(nioBuffer);
+      }
+    }
+    buf.skipBytes(length);
+    return length;
+  }
+
+  private long appendPages(ByteBuffer buf) throws IOException {
     long bytesWritten = 0;
-    while (buf.readableBytes() > 0) {
-      PageId pageId = getPageId(bytesWritten);
-      int currentPageOffset = getCurrentPageOffset(bytesWritten);
-      int bytesLeftInPage = getBytesLeftInPage(currentPageOffset, buf.readableBytes());
-      byte[] page = new byte[bytesLeftInPage];
-      buf.readBytes(page);
-      if (!mCacheManager.append(pageId, currentPageOffset, page, mTempCacheContext)) {
-        throw new IOException("Append failed for file " + mFileId);
+    int limit = buf.limit();
+    try {
+      while (buf.hasRemaining()) {
+        PageId pageId = getPageId();
+        int currentPageOffset = getCurrentPageOffset();
+        int bytesLeftInPage = getBytesLeftInPage(currentPageOffset, buf.remaining());
+        // limits the buffer to the page instead of slicing it
+        int pageEnd = buf.position() + bytesLeftInPage;
+        buf.limit(pageEnd);
+        if (!mCacheManager.append(pageId, currentPageOffset, buf, mTempCacheContext)) {
+          throw new IOException("Append failed for file " + mFileId);
+        }
+        buf.limit(limit).position(pageEnd);
+        mPosition += bytesLeftInPage;
+        bytesWritten += bytesLeftInPage;
       }
-      bytesWritten += bytesLeftInPage;
+    } finally {
+      buf.limit(limit);
     }
-    mPosition += bytesWritten;
     return bytesWritten;
   }
 
@@ -102,13 +125,13 @@ public class PagedFileWriter extends BlockWriter {
     throw new UnsupportedOperationException();
   }
 
-  private PageId getPageId(long bytesWritten) {
-    long pageIndex = (mPosition + bytesWritten) / mPageSize;
+  private PageId getPageId() {
+    long pageIndex = mPosition / mPageSize;
     return new PageId(mFileId, pageIndex);
   }
 
-  private int getCurrentPageOffset(long bytesWritten) {
-    return (int) ((mPosition + bytesWritten) % mPageSize);
+  private int getCurrentPageOffset() {
+    return (int) (mPosition % mPageSize);
   }
 
   private int getBytesLeftInPage(int currentPageOffset, int remaining) {
@@ -0,0 +1,193 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.PositionReader;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.file.FileId;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Loads the pages of a read range which are not cached with concurrent page-aligned range reads,
+ * so that a large cache miss on an object store is not fetched by one request at a time.
+ * Each page is put into the cache as soon as it is read.
+ *
+ * The number of concurrent reads is bounded per file and per worker. When all the reads of the
+ * worker are in use, the reading thread loads the pages of its file by itself.
+ */
+@ThreadSafe
+public class ParallelPageLoader implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelPageLoader.class);
+  private static final int FILE_PERMIT_STRIPES = 1024;
+
+  private final CacheManager mCacheManager;
+  private final long mPageSize;
+  private final ExecutorService mExecutor;
+  private final Semaphore mWorkerPermits;
+  private final Striped<Semaphore> mFilePermits;
+
+  /**
+   * @param cacheManager the cache manager to put the loaded pages into
+   * @param pageSize the page size
+   * @param concurrency the maximum number of pages loaded concurrently by the worker
+   * @param concurrencyPerFile the maximum number of pages of one file loaded concurrently
+   */
+  public ParallelPageLoader(CacheManager cacheManager, long pageSize, int concurrency,
+      int concurrencyPerFile) {
+    Preconditions.checkArgument(pageSize > 0, "pageSize should be positive");
+    Preconditions.checkArgument(concurrency > 0, "concurrency should be positive");
+    Preconditions.checkArgument(concurrencyPerFile > 1,
+        "concurrencyPerFile should be larger than 1");
+    mCacheManager = cacheManager;
+    mPageSize = pageSize;
+    mWorkerPermits = new Semaphore(concurrency);
+    mFilePermits = Striped.lazyWeakSemaphore(FILE_PERMIT_STRIPES, concurrencyPerFile);
+    // there are as many threads as worker permits, so a submitted load never waits in the queue
+    mExecutor = Executors.newFixedThreadPool(concurrency,
+        ThreadFactoryUtils.build("dora-ufs-range-reader-%d", true));
+  }
+
+  /**
+   * Loads the pages in the given range of a file which are not cached. Returns after all the
+   * loads have finished. Pages failing to load are skipped, so that the caller reads them again.
+   *
+   * @param fileId the file id
+   * @param fileSize the file size
+   * @param reader the supplier of the reader of the file in UFS, which must be thread safe
+   * @param position the start of the range
+   * @param length the length of the range
+   * @param cacheContext the cache context
+   */
+  public void load(FileId fileId, long fileSize, Supplier<PositionReader> reader,
+      long position, long length, CacheContext cacheContext) {
+    long end = Math.min(fileSize, position + length);
+    if (position < 0 || position >= end) {
+      return;
+    }
+    List<PageId> missingPages = new ArrayList<>();
+    for (long pageIndex = position / mPageSize; pageIndex * mPageSize < end; pageIndex++) {
+      PageId pageId = pageId(fileId, pageIndex, cacheContext);
+      if (!mCacheManager.hasPage(pageId)) {
+        missingPages.add(pageId);
+      }
+    }
+    if (missingPages.size() < 2) {
+      // reading a single page concurrently is no faster than reading it by the caller
+      return;
+    }
+    PositionReader ufsReader = reader.get();
+    Semaphore filePermits = mFilePermits.get(fileId.toString());
+    List<Future<?>> loads = new ArrayList<>(missingPages.size());
+    try {
+      for (PageId pageId : missingPages) {
+        filePermits.acquire();
+        if (mWorkerPermits.tryAcquire()) {
+          try {
+            loads.add(mExecutor.submit(() -> {
+              try {
+                loadPage(ufsReader, pageId, fileSize, cacheContext);
+              } finally {
+                mWorkerPermits.release();
+                filePermits.release();
+              }
+            }));
+          } catch (RuntimeException e) {
+            mWorkerPermits.release();
+            filePermits.release();
+            throw e;
+          }
+        } else {
+          try {
+            loadPage(ufsReader, pageId, fileSize, cacheContext);
+          } finally {
+            filePermits.release();
+          }
+        }
+      }
+      for (Future<?> load : loads) {
+        load.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | RuntimeException e) {
+      LOG.debug("Failed to load pages of file {} concurrently", fileId, e);
+    }
+  }
+
+  private void loadPage(PositionReader reader, PageId pageId, long fileSize,
+      CacheContext cacheContext) {
+    if (mCacheManager.hasPage(pageId)) {
+      // loaded by another reader of the file in the meantime
+      return;
+    }
+    long pageStart = pageId.getPageIndex() * mPageSize;
+    int pageLength = (int) Math.min(mPageSize, fileSize - pageStart);
+    byte[] page = new byte[pageLength];
+    int totalBytesRead = 0;
+    try {
+      while (totalBytesRead < pageLength) {
+        int bytesRead = reader.read(pageStart + totalBytesRead, page, totalBytesRead,
+            pageLength - totalBytesRead);
+        if (bytesRead <= 0) {
+          break;
+        }
+        totalBytesRead += bytesRead;
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to read page {} from UFS", pageId, e);
+      return;
+    }
+    MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_EXTERNAL.getName())
+        .mark(totalBytesRead);
+    if (totalBytesRead != pageLength) {
+      LOG.debug("Failed to read complete page {} from UFS. Bytes read: {} Page size: {}",
+          pageId, totalBytesRead, pageLength);
+      return;
+    }
+    if (mCacheManager.put(pageId, page, cacheContext)) {
+      MetricsSystem.counter(MetricKey.WORKER_UFS_RANGE_READ_PAGES.getName()).inc();
+    }
+  }
+
+  private static PageId pageId(FileId fileId, long pageIndex, CacheContext cacheContext) {
+    if (cacheContext.getCacheIdentifier() != null) {
+      return new PageId(cacheContext.getCacheIdentifier(), pageIndex);
+    }
+    return new PageId(fileId.toString(), pageIndex);
+  }
+
+  @Override
+  public void close() {
+    mExecutor.shutdownNow();
+  }
+}
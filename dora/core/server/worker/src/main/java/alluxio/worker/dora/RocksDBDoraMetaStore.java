@@ -31,6 +31,7 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksObject;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -132,12 +134,10 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
     try {
       DoraMeta.FileStatus fs = DoraMeta.FileStatus.parseFrom(status);
-      if (mMetaTTL != -1) {
-        if (System.nanoTime() - fs.getTs() > mMetaTTL * Constants.SECOND_NANO) {
-          // The Metadata is out of date.
-          removeDoraMeta(path);
-          return Optional.empty();
-        }
+      if (isExpired(fs, mMetaTTL)) {
+        // The Metadata is out of date.
+        removeDoraMeta(path);
+        return Optional.empty();
       }
       return Optional.of(fs);
     } catch (Exception e) {
@@ -163,6 +163,25 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  /**
+   * Stores the metadata of multiple files in a single write.
+   *
+   * @param metas the metadata of the files, keyed by their full paths
+   */
+  @Override
+  public void putDoraMetas(Map<String, DoraMeta.FileStatus> metas) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      for (Map.Entry<String, DoraMeta.FileStatus> entry : metas.entrySet()) {
+        batch.put(mFileStatusColumn.get(), entry.getKey().getBytes(),
+            entry.getValue().toByteArray());
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot put the metadata of {} files : {}", metas.size(), e);
+    }
+  }
+
   /**
    * Removes the metadata from the RocksDB. It is not an error if the record specified by the key
    * is not found.
@@ -218,6 +237,17 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  /**
+   * @param fs the metadata of a file
+   * @param metaTTL the TTL of metadata in seconds, or -1 if metadata never expires
+   * @return whether the metadata is out of date. Metadata without a refresh time, as stored
+   *         by older versions, is out of date if it expires
+   */
+  static boolean isExpired(DoraMeta.FileStatus fs, long metaTTL) {
+    return metaTTL != -1 && (!fs.hasRefreshTimeMs()
+        || System.currentTimeMillis() - fs.getRefreshTimeMs() > metaTTL * Constants.SECOND_MS);
+  }
+
   private RocksDB db() {
     return mRocksStore.getDb();
   }
@@ -0,0 +1,122 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.proto.meta.DoraMeta.FileStatus;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A Dora meta store which keeps the recently used metadata on heap in front of another store,
+ * so that hot lookups do not read and parse the metadata from the other store. Writes go
+ * through to the other store.
+ */
+@ThreadSafe
+public class TieredDoraMetaStore implements DoraMetaStore {
+  /** The approximate heap size of a cached entry besides the metadata and its path. */
+  private static final int ENTRY_OVERHEAD = 128;
+
+  private final DoraMetaStore mStore;
+  private final Cache<String, FileStatus> mHeapCache;
+  // The TTL (in seconds) for metadata, or -1 if metadata never expires.
+  private final long mMetaTTL;
+  /**
+   * The number of writes, so that a lookup racing with a write does not cache the metadata it
+   * read before the write. A removal is counted after the metadata is removed from the other
+   * store and before it is invalidated on heap, so that a lookup which read the metadata before
+   * it was removed either sees the count change or caches it before the invalidation.
+   */
+  private final AtomicLong mWrites = new AtomicLong();
+
+  /**
+   * @param store the store of all metadata
+   * @param maxHeapBytes the maximum size of the metadata kept on heap
+   * @param metaTTL the TTL of metadata in seconds, or -1 if metadata never expires
+   */
+  public TieredDoraMetaStore(DoraMetaStore store, long maxHeapBytes, long metaTTL) {
+    Preconditions.checkArgument(maxHeapBytes > 0, "maxHeapBytes should be positive");
+    Preconditions.checkArgument(metaTTL > 0 || metaTTL == -1);
+    mStore = store;
+    mMetaTTL = metaTTL;
+    mHeapCache = CacheBuilder.newBuilder()
+        .maximumWeight(maxHeapBytes)
+        .weigher((String path, FileStatus meta) ->
+            meta.getSerializedSize() + path.length() * 2 + ENTRY_OVERHEAD)
+        .build();
+  }
+
+  @Override
+  public Optional<FileStatus> getDoraMeta(String path) {
+    FileStatus meta = mHeapCache.getIfPresent(path);
+    if (meta != null) {
+      if (!RocksDBDoraMetaStore.isExpired(meta, mMetaTTL)) {
+        return Optional.of(meta);
+      }
+      mHeapCache.asMap().remove(path, meta);
+    }
+    long writes = mWrites.get();
+    Optional<FileStatus> stored = mStore.getDoraMeta(path);
+    if (stored.isPresent() && mWrites.get() == writes
+        && mHeapCache.asMap().putIfAbsent(path, stored.get()) == null
+        && mWrites.get() != writes) {
+      // a write raced with caching the metadata, and may have invalidated it before it was cached
+      mHeapCache.asMap().remove(path, stored.get());
+    }
+    return stored;
+  }
+
+  @Override
+  public void putDoraMeta(String path, FileStatus meta) {
+    mWrites.incrementAndGet();
+    mStore.putDoraMeta(path, meta);
+    mHeapCache.put(path, meta);
+  }
+
+  @Override
+  public void putDoraMetas(Map<String, FileStatus> metas) {
+    mWrites.incrementAndGet();
+    mStore.putDoraMetas(metas);
+    mHeapCache.putAll(metas);
+  }
+
+  @Override
+  public void removeDoraMeta(String path) {
+    mStore.removeDoraMeta(path);
+    mWrites.incrementAndGet();
+    mHeapCache.invalidate(path);
+  }
+
+  @Override
+  public void clear() {
+    mStore.clear();
+    mWrites.incrementAndGet();
+    mHeapCache.invalidateAll();
+  }
+
+  @Override
+  public void close() {
+    mHeapCache.invalidateAll();
+    mStore.close();
+  }
+
+  @Override
+  public Optional<Long> size() {
+    return mStore.size();
+  }
+}
@@ -20,6 +20,8 @@ import alluxio.conf.PropertyKey;
 import alluxio.exception.AccessControlException;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.runtime.NotFoundRuntimeException;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
 import alluxio.grpc.BlockWorkerGrpc;
 import alluxio.grpc.CompleteFilePRequest;
 import alluxio.grpc.CompleteFilePResponse;
@@ -33,9 +35,12 @@ import alluxio.grpc.DeletePRequest;
 import alluxio.grpc.DeletePResponse;
 import alluxio.grpc.ExistsPRequest;
 import alluxio.grpc.ExistsPResponse;
+import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GetStatusPResponse;
+import alluxio.grpc.GetStatusResult;
 import alluxio.grpc.GrpcUtils;
+import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.ListStatusPRequest;
 import alluxio.grpc.ListStatusPResponse;
 import alluxio.grpc.LoadFileFailure;
@@ -59,17 +64,23 @@ import alluxio.worker.dora.OpenFileHandle;
 import alluxio.worker.dora.PagedDoraWorker;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 import io.grpc.MethodDescriptor;
+import io.grpc.Status;
 import io.grpc.stub.CallStreamObserver;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -212,11 +223,60 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
     }
   }
 
+  @Override
+  public void batchGetStatus(BatchGetStatusPRequest request,
+      StreamObserver<BatchGetStatusPResponse> responseObserver) {
+    LOG.debug("batchGetStatus is called for {} paths", request.getPathsCount());
+    List<ListenableFuture<GetStatusResult>> futures = new ArrayList<>(request.getPathsCount());
+    for (String path : request.getPathsList()) {
+      futures.add(Futures.submit(() -> getStatusResult(path, request.getOptions()),
+          GrpcExecutors.METADATA_EXECUTOR));
+    }
+    // the response is sent by the thread completing the last path, without blocking the caller
+    Futures.addCallback(Futures.allAsList(futures), new FutureCallback<List<GetStatusResult>>() {
+      @Override
+      public void onSuccess(List<GetStatusResult> results) {
+        responseObserver.onNext(
+            BatchGetStatusPResponse.newBuilder().addAllResults(results).build());
+        responseObserver.onCompleted();
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        LOG.debug("Failed to get status of {} paths", request.getPathsCount(), t);
+        responseObserver.onError(AlluxioRuntimeException.from(t).toGrpcStatusRuntimeException());
+      }
+    }, MoreExecutors.directExecutor());
+  }
+
+  private GetStatusResult getStatusResult(String path, GetStatusPOptions options) {
+    GetStatusResult.Builder result = GetStatusResult.newBuilder().setPath(path);
+    try {
+      alluxio.wire.FileInfo fileInfo = mWorker.getFileInfo(path, options);
+      result.setFileInfo(GrpcUtils.toProto(fileInfo))
+          .setCode(Status.Code.OK.value());
+    } catch (Exception e) {
+      LOG.debug(String.format("Failed to get status of %s: ", path), e);
+      AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
+      result.setCode(t.getStatus().getCode().value());
+      if (t.getMessage() != null) {
+        result.setMessage(t.getMessage());
+      }
+    }
+    return result.build();
+  }
+
   @Override
   public void listStatus(ListStatusPRequest request,
                          StreamObserver<ListStatusPResponse> responseObserver) {
     LOG.debug("listStatus is called for {}", request.getPath());
 
+    ListStatusPOptions options = request.getOptions();
+    if ((options.hasRecursive() && options.getRecursive()) || options.hasStartAfter()) {
+      listStatusIterator(request,
+          (ServerCallStreamObserver<ListStatusPResponse>) responseObserver);
+      return;
+    }
     try {
       UfsStatus[] statuses = mWorker.listStatus(request.getPath(), request.getOptions());
       if (statuses == null) {
@@ -254,6 +314,30 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
     }
   }
 
+  /**
+   * Lists a path lazily, sending the statuses in batches as the client is ready to receive them.
+   */
+  private void listStatusIterator(ListStatusPRequest request,
+      ServerCallStreamObserver<ListStatusPResponse> responseObserver) {
+    try {
+      Iterator<UfsStatus> statuses =
+          mWorker.listStatusIterator(request.getPath(), request.getOptions());
+      if (statuses == null) {
+        responseObserver.onError(
+            new NotFoundRuntimeException(String.format("%s Not Found", request.getPath()))
+                .toGrpcStatusRuntimeException());
+        return;
+      }
+      ListStatusSender sender =
+          new ListStatusSender(request.getPath(), statuses, responseObserver);
+      responseObserver.setOnReadyHandler(sender);
+      sender.run();
+    } catch (Exception e) {
+      LOG.error(String.format("Failed to list status of %s: ", request.getPath()), e);
+      responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+    }
+  }
+
   @Override
   public void createFile(CreateFilePRequest request,
                          StreamObserver<CreateFilePResponse> responseObserver) {
@@ -376,4 +460,56 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
       responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
     }
   }
+
+  /**
+   * Sends the statuses of a listing in batches while the client is ready to receive them, and
+   * resumes when the client is ready again, so that only a batch of the listing is kept in
+   * memory. Each batch carries the name of its last file as the continuation token.
+   */
+  private final class ListStatusSender implements Runnable {
+    private final String mPath;
+    private final Iterator<UfsStatus> mStatuses;
+    private final ServerCallStreamObserver<ListStatusPResponse> mResponseObserver;
+    private boolean mDone = false;
+
+    private ListStatusSender(String path, Iterator<UfsStatus> statuses,
+        ServerCallStreamObserver<ListStatusPResponse> responseObserver) {
+      mPath = path;
+      mStatuses = statuses;
+      mResponseObserver = responseObserver;
+    }
+
+    @Override
+    public synchronized void run() {
+      try {
+        while (!mDone && mResponseObserver.isReady()) {
+          if (mResponseObserver.isCancelled()) {
+            mDone = true;
+            return;
+          }
+          ListStatusPResponse.Builder builder = ListStatusPResponse.newBuilder();
+          String lastName = null;
+          while (builder.getFileInfosCount() < LIST_STATUS_BATCH_SIZE && mStatuses.hasNext()) {
+            UfsStatus status = mStatuses.next();
+            String ufsFullPath = PathUtils.concatPath(mPath, status.getName());
+            builder.addFileInfos(
+                ((PagedDoraWorker) mWorker).buildFileInfoFromUfsStatus(status, ufsFullPath));
+            lastName = status.getName();
+          }
+          if (lastName != null) {
+            mResponseObserver.onNext(builder.setContinuationToken(lastName).build());
+          }
+          if (!mStatuses.hasNext()) {
+            mDone = true;
+            mResponseObserver.onCompleted();
+          }
+        }
+      } catch (Exception e) {
+        mDone = true;
+        LOG.error(String.format("Failed to list status of %s: ", mPath), e);
+        mResponseObserver.onError(
+            AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+      }
+    }
+  }
 }
@@ -87,7 +87,19 @@ public final class GrpcExecutors {
   public static final ExecutorService BLOCK_WRITER_EXECUTOR =
           new ImpersonateThreadPoolExecutor(BLOCK_WRITE_THREAD_POOL_EXECUTOR, true);
 
+  // Used for resolving the statuses of batched get status requests. The queue is unbounded, as
+  // one request may resolve many paths.
+  private static final ThreadPoolExecutor METADATA_THREAD_POOL_EXECUTOR =
+      new ThreadPoolExecutor(
+          Configuration.getInt(PropertyKey.WORKER_NETWORK_METADATA_THREADS_MAX),
+          Configuration.getInt(PropertyKey.WORKER_NETWORK_METADATA_THREADS_MAX),
+          THREAD_STOP_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+          ThreadFactoryUtils.build("MetadataExecutor-%d", true));
+  public static final ExecutorService METADATA_EXECUTOR =
+      new ImpersonateThreadPoolExecutor(METADATA_THREAD_POOL_EXECUTOR, false);
+
   static {
+    METADATA_THREAD_POOL_EXECUTOR.allowCoreThreadTimeOut(true);
     MetricsSystem.registerCachedGaugeIfAbsent(MetricsSystem.getMetricName(
         MetricKey.WORKER_CACHE_MANAGER_THREAD_ACTIVE_COUNT.getName()),
         CACHE_MANAGER_THREAD_POOL_EXECUTOR::getActiveCount, 5, TimeUnit.SECONDS);
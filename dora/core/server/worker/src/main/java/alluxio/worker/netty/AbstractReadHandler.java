@@ -171,5 +171,13 @@ public abstract class AbstractReadHandler<T extends ReadRequestContext<?>>
      */
     protected abstract DataBuffer getDataBuffer(T context, Channel channel, long offset, int len)
         throws Exception;
+
+    /**
+     * Called once a packet returned by {@link #getDataBuffer} is written to the channel, or
+     * fails to be written.
+     *
+     * @param packet the packet
+     */
+    protected void onPacketSent(DataBuffer packet) {}
   }
 }
@@ -22,6 +22,7 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class BlockReadRequest extends ReadRequest {
   private final Protocol.OpenUfsBlockOptions mOpenUfsBlockOptions;
   private final boolean mPromote;
+  private final String mQosClass;
 
   /**
    * Creates an instance of {@link BlockReadRequest}.
@@ -38,6 +39,13 @@ public final class BlockReadRequest extends ReadRequest {
       mOpenUfsBlockOptions = null;
     }
     mPromote = request.getPromote();
+    if (request.hasQosTag()) {
+      mQosClass = request.getQosTag();
+    } else if (mOpenUfsBlockOptions != null && mOpenUfsBlockOptions.hasUser()) {
+      mQosClass = mOpenUfsBlockOptions.getUser();
+    } else {
+      mQosClass = ReadQosScheduler.DEFAULT_CLASS;
+    }
     // Note that we do not need to seek to offset since the block worker is created at the offset.
   }
 
@@ -55,6 +63,13 @@ public final class BlockReadRequest extends ReadRequest {
     return mOpenUfsBlockOptions;
   }
 
+  /**
+   * @return the QoS class of the read
+   */
+  public String getQosClass() {
+    return mQosClass;
+  }
+
   /**
    * @return true if the block is persisted in UFS
    */
@@ -38,7 +38,10 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -49,6 +52,8 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
 
   private static final long UFS_BLOCK_OPEN_TIMEOUT_MS =
       Configuration.getMs(PropertyKey.WORKER_UFS_BLOCK_OPEN_TIMEOUT_MS);
+  private static final boolean ZERO_COPY_ENABLED =
+      Configuration.getBoolean(PropertyKey.WORKER_NETWORK_NETTY_READ_ZERO_COPY_ENABLED);
 
   private final DoraWorker mWorker;
 
@@ -57,6 +62,12 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
    */
   private final FileTransferType mTransferType;
 
+  /**
+   * The scheduler of the packet reads, or null if the packets are read as they are requested.
+   */
+  @Nullable
+  private final ReadQosScheduler mReadScheduler;
+
   /**
    * Creates an instance of {@link FileReadHandler}.
    *
@@ -66,9 +77,24 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
    */
   public FileReadHandler(ExecutorService executorService,
                          DoraWorker worker, FileTransferType fileTransferType) {
+    this(executorService, worker, fileTransferType, null);
+  }
+
+  /**
+   * Creates an instance of {@link FileReadHandler}.
+   *
+   * @param executorService  the executor service to run data readers
+   * @param worker           block worker
+   * @param fileTransferType the file transfer type
+   * @param readScheduler    the scheduler of the packet reads shared by all channels, or null
+   */
+  public FileReadHandler(ExecutorService executorService,
+                         DoraWorker worker, FileTransferType fileTransferType,
+                         @Nullable ReadQosScheduler readScheduler) {
     super(executorService);
     mWorker = worker;
     mTransferType = fileTransferType;
+    mReadScheduler = readScheduler;
   }
 
   @Override
@@ -98,6 +124,14 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
      * The Dora Worker.
      */
     private final DoraWorker mWorker;
+    /**
+     * The permits of the packets read but not sent yet. A packet sent without copying is still
+     * read while it is sent, so its read is only done once it is written to the channel. A
+     * request holds at most one such permit, so that a client which is slow to receive its
+     * packets does not hold the reads of other clients. Copied packets release their permits
+     * once they are read.
+     */
+    private final Map<DataBuffer, ReadQosScheduler.Permit> mPermits = new ConcurrentHashMap<>();
 
     /**
      * Creates an instance of {@link BlockPacketReader}.
@@ -110,6 +144,8 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
 
     @Override
     public void completeRequest(BlockReadRequestContext context) throws Exception {
+      // the packets of a failed request may never be sent
+      mPermits.keySet().forEach(this::onPacketSent);
       BlockReader reader = context.getBlockReader();
       if (reader != null) {
         try {
@@ -124,19 +160,54 @@ public class FileReadHandler extends AbstractReadHandler<BlockReadRequestContext
     @Override
     public DataBuffer getDataBuffer(BlockReadRequestContext context, Channel channel,
                                     long offset, int len) throws Exception {
+      if (mReadScheduler == null) {
+        return readDataBuffer(context, channel, offset, len);
+      }
+      ReadQosScheduler.Permit permit =
+          mReadScheduler.acquire(context.getRequest().getQosClass(), len);
+      DataBuffer packet;
+      try {
+        packet = readDataBuffer(context, channel, offset, len);
+      } catch (Throwable t) {
+        permit.close();
+        throw t;
+      }
+      if (packet == null || !isSentWithoutCopying(packet) || !mPermits.isEmpty()) {
+        permit.close();
+        return packet;
+      }
+      mPermits.put(packet, permit);
+      return packet;
+    }
+
+    private boolean isSentWithoutCopying(DataBuffer packet) {
+      return packet instanceof CompositeDataBuffer || packet instanceof DataFileChannel;
+    }
+
+    @Override
+    protected void onPacketSent(DataBuffer packet) {
+      ReadQosScheduler.Permit permit = mPermits.remove(packet);
+      if (permit != null) {
+        permit.close();
+      }
+    }
+
+    private DataBuffer readDataBuffer(BlockReadRequestContext context, Channel channel,
+                                      long offset, int len) throws Exception {
       openBlock(context, channel);
       BlockReader blockReader = context.getBlockReader();
       Preconditions.checkState(blockReader != null);
-      if (mTransferType == FileTransferType.TRANSFER) {
-        if (blockReader instanceof LocalFileBlockReader) {
-          return new DataFileChannel(new File(((LocalFileBlockReader) blockReader).getFilePath()),
-              offset, len);
-        } else if (blockReader instanceof PagedFileReader) {
-          PagedFileReader pagedFileReader = (PagedFileReader) blockReader;
-          CompositeDataBuffer compositeDataBuffer =
-              pagedFileReader.getMultipleDataFileChannel(channel, len);
-          return compositeDataBuffer;
-        }
+      if (blockReader instanceof PagedFileReader
+          && (ZERO_COPY_ENABLED || mTransferType == FileTransferType.TRANSFER)) {
+        PagedFileReader pagedFileReader = (PagedFileReader) blockReader;
+        CompositeDataBuffer compositeDataBuffer =
+            pagedFileReader.getMultipleDataFileChannel(channel, len);
+        return compositeDataBuffer;
+      }
+      if (mTransferType == FileTransferType.TRANSFER
+          && blockReader instanceof LocalFileBlockReader) {
+        return new DataFileChannel(new File(((LocalFileBlockReader) blockReader).getFilePath()),
+            offset, len);
       }
       return getDataBufferByCopying(context, channel, len, blockReader);
     }
@@ -485,6 +485,7 @@ public class PacketReadTaskStateMachine<T extends ReadRequestContext<?>> {
 
     @Override
     public void operationComplete(ChannelFuture future) throws InterruptedException {
+      mPacketReader.onPacketSent(mDataBuffer);
       if (!future.isSuccess()) {
         LOG.error("Failed to send packet.", future.cause());
         mFlowControlQueue.take();
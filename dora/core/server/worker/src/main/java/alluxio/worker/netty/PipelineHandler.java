@@ -26,6 +26,7 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.handler.timeout.IdleStateHandler;
 
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -36,6 +37,8 @@ final class PipelineHandler extends ChannelInitializer<Channel> {
   private final FileTransferType mFileTransferType;
   private final UfsManager mUfsManager;
   private final DoraWorker mDoraWorker;
+  @Nullable
+  private final ReadQosScheduler mReadScheduler;
 
   /**
    *
@@ -50,6 +53,8 @@ final class PipelineHandler extends ChannelInitializer<Channel> {
 
     mFileTransferType = Configuration
         .getEnum(PropertyKey.WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE, FileTransferType.class);
+    mReadScheduler = Configuration.getBoolean(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_ENABLED)
+        ? new ReadQosScheduler(Configuration.global()) : null;
   }
 
   @Override
@@ -81,7 +86,8 @@ final class PipelineHandler extends ChannelInitializer<Channel> {
 
   private void addBlockHandlerForDora(ChannelPipeline pipeline) {
     pipeline.addLast("fileReadHandler",
-        new FileReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR, mDoraWorker, mFileTransferType));
+        new FileReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR, mDoraWorker, mFileTransferType,
+            mReadScheduler));
     //TODO(JiamingMai): WriteHandle also needs to be replaced, but it has not been implemented yet
     pipeline.addLast("fileWriteHandler",
         new FileWriteHandler(NettyExecutors.BLOCK_WRITER_EXECUTOR, mDoraWorker));
@@ -0,0 +1,282 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Schedules the packet reads of the worker by QoS class with deficit round robin.
+ *
+ * Up to a configured number of packets are read concurrently. Further reads wait in the queue
+ * of their class, and the classes with waiting reads are visited in turn. On each visit a class
+ * earns its weight times the quantum in bytes, and the waiting reads of the class are started
+ * while their sizes fit in what the class has earned. A class reading large packets thus
+ * does not get a larger share of the bandwidth than a class reading small packets, and a
+ * class with a waiting read is never starved by others.
+ *
+ * The bandwidth of a class can also be capped, in which case its reads wait until the cap
+ * allows them before they are scheduled.
+ */
+@ThreadSafe
+public final class ReadQosScheduler {
+  /** The class of the reads which do not tell their class or tell a class not configured. */
+  public static final String DEFAULT_CLASS = "default";
+
+  private final AlluxioConfiguration mConf;
+  private final int mMaxConcurrentReads;
+  private final long mQuantum;
+
+  private final ReentrantLock mLock = new ReentrantLock();
+  @GuardedBy("mLock")
+  private final Map<String, QosClass> mClasses = new HashMap<>();
+  /** The classes with waiting reads, in the order they are visited. */
+  @GuardedBy("mLock")
+  private final ArrayDeque<QosClass> mActiveClasses = new ArrayDeque<>();
+  @GuardedBy("mLock")
+  private int mRunningReads = 0;
+
+  /**
+   * @param conf the configuration of the scheduler and its classes
+   */
+  public ReadQosScheduler(AlluxioConfiguration conf) {
+    mConf = conf;
+    mMaxConcurrentReads = conf.getInt(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY);
+    mQuantum = conf.getBytes(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_QUANTUM);
+    Preconditions.checkArgument(mMaxConcurrentReads > 0,
+        "%s should be positive", PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY);
+    Preconditions.checkArgument(mQuantum > 0,
+        "%s should be positive", PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_QUANTUM);
+  }
+
+  /**
+   * Waits until a read of the given class is scheduled.
+   *
+   * @param qosClass the QoS class of the read
+   * @param bytes the number of bytes to read
+   * @return the permit of the read, which must be closed after the read
+   */
+  public Permit acquire(String qosClass, int bytes) throws InterruptedException {
+    QosClass cls = getClass(qosClass);
+    if (cls.mRateLimiter != null && bytes > 0) {
+      cls.mRateLimiter.acquire(bytes);
+    }
+    mLock.lockInterruptibly();
+    try {
+      if (mRunningReads < mMaxConcurrentReads && mActiveClasses.isEmpty()) {
+        mRunningReads++;
+      } else {
+        Waiter waiter = new Waiter(bytes, mLock.newCondition());
+        if (cls.mWaiters.isEmpty()) {
+          mActiveClasses.addLast(cls);
+        }
+        cls.mWaiters.addLast(waiter);
+        try {
+          while (!waiter.mScheduled) {
+            waiter.mCondition.await();
+          }
+        } catch (InterruptedException e) {
+          if (waiter.mScheduled) {
+            // scheduled while being interrupted, give the read to another waiter
+            release();
+          } else {
+            cls.mWaiters.remove(waiter);
+            if (cls.mWaiters.isEmpty()) {
+              mActiveClasses.remove(cls);
+              cls.mDeficit = 0;
+              cls.mCredited = false;
+            }
+          }
+          throw e;
+        }
+      }
+    } finally {
+      mLock.unlock();
+    }
+    cls.mBytes.inc(bytes);
+    return new Permit();
+  }
+
+  private void release() {
+    mLock.lock();
+    try {
+      mRunningReads--;
+      schedule();
+    } finally {
+      mLock.unlock();
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void schedule() {
+    while (mRunningReads < mMaxConcurrentReads && !mActiveClasses.isEmpty()) {
+      QosClass cls = mActiveClasses.peekFirst();
+      if (!cls.mCredited) {
+        cls.mDeficit += cls.mWeight * mQuantum;
+        cls.mCredited = true;
+      }
+      Waiter waiter = cls.mWaiters.peekFirst();
+      if (waiter.mBytes > cls.mDeficit) {
+        // the class has used up its share of this round
+        cls.mCredited = false;
+        mActiveClasses.addLast(mActiveClasses.pollFirst());
+        continue;
+      }
+      cls.mDeficit -= waiter.mBytes;
+      cls.mWaiters.pollFirst();
+      waiter.mScheduled = true;
+      waiter.mCondition.signal();
+      mRunningReads++;
+      if (cls.mWaiters.isEmpty()) {
+        // an idle class does not keep what it has earned
+        mActiveClasses.pollFirst();
+        cls.mDeficit = 0;
+        cls.mCredited = false;
+      }
+    }
+  }
+
+  private QosClass getClass(String qosClass) {
+    mLock.lock();
+    try {
+      QosClass cls = mClasses.get(qosClass);
+      if (cls != null) {
+        return cls;
+      }
+      if (!isConfigured(qosClass)) {
+        // the classes are named by the clients, so only the configured classes get their own
+        // queue and metrics, and the reads of any other class share the default class
+        qosClass = DEFAULT_CLASS;
+      }
+      return mClasses.computeIfAbsent(qosClass, this::createClass);
+    } finally {
+      mLock.unlock();
+    }
+  }
+
+  private boolean isConfigured(String qosClass) {
+    return mConf.isSet(
+        PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_WEIGHT.format(qosClass))
+        || mConf.isSet(
+        PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_BANDWIDTH.format(qosClass));
+  }
+
+  private QosClass createClass(String qosClass) {
+    PropertyKey weightKey =
+        PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_WEIGHT.format(qosClass);
+    PropertyKey bandwidthKey =
+        PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_BANDWIDTH.format(qosClass);
+    int weight = mConf.isSet(weightKey) ? mConf.getInt(weightKey) : 1;
+    Preconditions.checkArgument(weight > 0, "%s should be positive", weightKey);
+    long bandwidth = mConf.isSet(bandwidthKey) ? mConf.getBytes(bandwidthKey) : 0;
+    QosClass cls = new QosClass(weight,
+        bandwidth > 0 ? RateLimiter.create(bandwidth) : null,
+        MetricsSystem.counterWithTags(MetricKey.WORKER_READ_QOS_BYTES.getName(), false,
+            MetricInfo.TAG_QOS_CLASS, qosClass));
+    MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
+        Metric.getMetricNameWithTags(MetricKey.WORKER_READ_QOS_QUEUE_DEPTH.getName(),
+            MetricInfo.TAG_QOS_CLASS, qosClass)), () -> getQueueDepth(qosClass));
+    return cls;
+  }
+
+  /**
+   * @param qosClass the QoS class
+   * @return the number of reads of the class waiting to be scheduled
+   */
+  @VisibleForTesting
+  int getQueueDepth(String qosClass) {
+    mLock.lock();
+    try {
+      QosClass cls = mClasses.get(qosClass);
+      return cls == null ? 0 : cls.mWaiters.size();
+    } finally {
+      mLock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of reads scheduled and not done yet
+   */
+  @VisibleForTesting
+  int getRunningReads() {
+    mLock.lock();
+    try {
+      return mRunningReads;
+    } finally {
+      mLock.unlock();
+    }
+  }
+
+  /**
+   * The permit of a scheduled read. Closing it lets another read be scheduled.
+   */
+  public final class Permit implements AutoCloseable {
+    private boolean mClosed = false;
+
+    private Permit() {}
+
+    @Override
+    public void close() {
+      if (!mClosed) {
+        mClosed = true;
+        release();
+      }
+    }
+  }
+
+  private static final class QosClass {
+    private final int mWeight;
+    @Nullable
+    private final RateLimiter mRateLimiter;
+    private final Counter mBytes;
+    private final ArrayDeque<Waiter> mWaiters = new ArrayDeque<>();
+    /** The number of bytes the class may still read in this round. */
+    private long mDeficit = 0;
+    /** Whether the class has earned its quantum in this round. */
+    private boolean mCredited = false;
+
+    private QosClass(int weight, @Nullable RateLimiter rateLimiter, Counter bytes) {
+      mWeight = weight;
+      mRateLimiter = rateLimiter;
+      mBytes = bytes;
+    }
+  }
+
+  private static final class Waiter {
+    private final int mBytes;
+    private final Condition mCondition;
+    private boolean mScheduled = false;
+
+    private Waiter(int bytes, Condition condition) {
+      mBytes = bytes;
+      mCondition = condition;
+    }
+  }
+}
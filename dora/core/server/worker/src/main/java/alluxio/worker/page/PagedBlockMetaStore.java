@@ -382,6 +382,16 @@ public class PagedBlockMetaStore implements PageMetaStore {
     return mDelegate.evict(cacheScope, pageStoreDir);
   }
 
+  @Override
+  public void pinFile(String fileId) {
+    mDelegate.pinFile(fileId);
+  }
+
+  @Override
+  public void unpinFile(String fileId) {
+    mDelegate.unpinFile(fileId);
+  }
+
   /**
    * @param blockMeta
    */
@@ -0,0 +1,154 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.AlluxioURI;
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsFileStatus;
+import alluxio.underfs.UfsStatus;
+import alluxio.util.CommonUtils;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public final class DoraListStatusCacheTest {
+  private DoraListStatusCache mCache;
+
+  @After
+  public void after() {
+    if (mCache != null) {
+      mCache.close();
+    }
+  }
+
+  @Test
+  public void encodeDecode() {
+    UfsStatus[] statuses = new UfsStatus[] {
+        new UfsDirectoryStatus("dir", "user", "group", (short) 0755, 1000L),
+        new UfsFileStatus("file-0001", "hash", 100L, 2000L, "user", "group", (short) 0644,
+            ImmutableMap.of("key", new byte[] {1, 2, 3}), 64L),
+        new UfsFileStatus("file-0002", null, 0L, null, "user", "other", (short) 0644,
+            null, UfsFileStatus.UNKNOWN_BLOCK_SIZE),
+        new UfsFileStatus("\uD83D\uDE00a", "", 1L, 3000L, null, null, (short) 0600, 1L),
+        new UfsFileStatus("\uD83D\uDE01b", "", 1L, 3000L, "", "", (short) 0600, 1L),
+    };
+    statuses[1].setUfsFullPath(new AlluxioURI("s3://bucket/dir/file-0001"));
+    statuses[2].setUfsFullPath(new AlluxioURI("s3://bucket/dir/file-0002"));
+    UfsStatus[] decoded = DoraListStatusCache.decode(DoraListStatusCache.encode(statuses));
+    assertEquals(statuses.length, decoded.length);
+    for (int i : new int[] {0, 1, 4}) {
+      assertEquals(statuses[i].toProto(), decoded[i].toProto());
+    }
+    assertEquals("file-0002", decoded[2].getName());
+    assertNull(decoded[2].asUfsFileStatus().getContentHash());
+    assertNull(decoded[2].getLastModifiedTime());
+    assertEquals(UfsFileStatus.UNKNOWN_BLOCK_SIZE, decoded[2].asUfsFileStatus().getBlockSize());
+    assertEquals(statuses[2].getUfsFullPath(), decoded[2].getUfsFullPath());
+    assertEquals("\uD83D\uDE00a", decoded[3].getName());
+    assertNull(decoded[3].getOwner());
+    assertNull(decoded[3].getGroup());
+  }
+
+  @Test
+  public void sharedPrefixes() {
+    UfsStatus[] statuses = files("partition=2023-01-01/part-", 1000);
+    int namesLength = 0;
+    for (UfsStatus status : statuses) {
+      namesLength += status.getName().length();
+    }
+    // the common prefixes are stored once
+    assertTrue(DoraListStatusCache.encode(statuses).length < namesLength);
+  }
+
+  @Test
+  public void getAndPut() {
+    mCache = new DoraListStatusCache(1024 * 1024, Duration.ofHours(1));
+    assertNull(mCache.get("/dir", -1));
+    mCache.put("/dir", files("file", 10));
+    UfsStatus[] cached = mCache.get("/dir", -1);
+    assertNotNull(cached);
+    assertEquals(10, cached.length);
+    // every hit returns new statuses
+    cached[0].setName("modified");
+    assertEquals("file0", mCache.get("/dir", -1)[0].getName());
+    assertTrue(mCache.getBytes() > 0);
+  }
+
+  @Test
+  public void syncInterval() throws Exception {
+    mCache = new DoraListStatusCache(1024 * 1024, Duration.ofHours(1));
+    mCache.put("/dir", files("file", 10));
+    Thread.sleep(10);
+    assertNull(mCache.get("/dir", 1));
+    assertNull(mCache.get("/dir", -1));
+    assertEquals(0, mCache.getBytes());
+  }
+
+  @Test
+  public void expireInBackground() throws Exception {
+    mCache = new DoraListStatusCache(1024 * 1024, Duration.ofMillis(100));
+    mCache.put("/dir", files("file", 10));
+    CommonUtils.waitFor("listing expires", () -> mCache.getBytes() == 0);
+  }
+
+  @Test
+  public void boundedByBytes() {
+    long maxBytes = 64 * 1024;
+    mCache = new DoraListStatusCache(maxBytes, Duration.ofHours(1));
+    for (int i = 0; i < 1000; i++) {
+      mCache.put("/dir" + i, files("file", 20));
+    }
+    assertTrue(mCache.size() < 1000);
+    assertTrue(mCache.getBytes() <= maxBytes);
+  }
+
+  @Test
+  public void largeListingNotCached() {
+    mCache = new DoraListStatusCache(64 * 1024, Duration.ofHours(1));
+    mCache.put("/small", files("file", 10));
+    mCache.put("/large", files("file", 100_000));
+    assertNull(mCache.get("/large", -1));
+    assertNotNull(mCache.get("/small", -1));
+  }
+
+  @Test
+  public void invalidateTree() {
+    mCache = new DoraListStatusCache(1024 * 1024, Duration.ofHours(1));
+    for (String path : new String[] {"/a", "/a/b", "/a/b/c", "/ab", "/d"}) {
+      mCache.put(path, files("file", 1));
+    }
+    mCache.invalidateTree("/a");
+    assertNull(mCache.get("/a", -1));
+    assertNull(mCache.get("/a/b", -1));
+    assertNull(mCache.get("/a/b/c", -1));
+    assertNotNull(mCache.get("/ab", -1));
+    assertNotNull(mCache.get("/d", -1));
+    assertEquals(2, mCache.size());
+  }
+
+  private static UfsStatus[] files(String prefix, int count) {
+    UfsStatus[] statuses = new UfsStatus[count];
+    for (int i = 0; i < count; i++) {
+      statuses[i] = new UfsFileStatus(prefix + i, "", i, 1000L + i, "user", "group",
+          (short) 0644, 64L);
+    }
+    return statuses;
+  }
+}
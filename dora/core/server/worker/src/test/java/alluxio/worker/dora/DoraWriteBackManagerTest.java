@@ -0,0 +1,321 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.FailedPreconditionException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.grpc.FileInfo;
+import alluxio.master.file.meta.PersistenceState;
+import alluxio.underfs.CancelableOutputStream;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.UnderFileSystemConfiguration;
+import alluxio.underfs.options.CreateOptions;
+import alluxio.util.CommonUtils;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DoraWriteBackManagerTest {
+  private static final int PAGE_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private final List<String> mUploaded = new CopyOnWriteArrayList<>();
+  private byte[] mData;
+  private CacheManager mCacheManager;
+  private UnderFileSystem mUfs;
+  private String mUfsPath;
+  private DoraWriteBackManager mManager;
+
+  @Before
+  public void before() throws Exception {
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_DIR, mTestFolder.newFolder("writeback"));
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.LOCAL);
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_RETRY_BASE_SLEEP, "10ms");
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_RETRY_MAX_SLEEP, "100ms");
+    mUfsPath = mTestFolder.getRoot().getAbsolutePath() + "/ufs/file";
+    mData = BufferUtils.getIncreasingByteArray(PAGE_SIZE * 2 + 100);
+    String fileId = new AlluxioURI(mUfsPath).hash();
+    mCacheManager = mock(CacheManager.class);
+    when(mCacheManager.state()).thenReturn(CacheManager.State.READ_WRITE);
+    doAnswer(invocation -> {
+      PageId pageId = invocation.getArgument(0);
+      int length = invocation.getArgument(1);
+      if (!pageId.getFileId().equals(fileId)) {
+        return 0;
+      }
+      System.arraycopy(mData, (int) pageId.getPageIndex() * PAGE_SIZE,
+          invocation.getArgument(2), invocation.getArgument(3), length);
+      return length;
+    }).when(mCacheManager).get(any(PageId.class), anyInt(), any(byte[].class), anyInt());
+    mUfs = UnderFileSystem.Factory.create(mTestFolder.getRoot().getAbsolutePath(),
+        UnderFileSystemConfiguration.defaults(mConf));
+  }
+
+  @After
+  public void after() {
+    if (mManager != null) {
+      mManager.close();
+    }
+  }
+
+  @Test
+  public void uploadFile() throws Exception {
+    mManager = createManager(mUfs);
+    mManager.open(mUfsPath);
+    assertTrue(mManager.isOpen(mUfsPath));
+    mManager.commit(fileInfo());
+    CommonUtils.waitFor("file is uploaded", () -> mManager.getNumDirtyFiles() == 0);
+    assertArrayEquals(mData, Files.readAllBytes(Paths.get(mUfsPath)));
+    assertEquals(Arrays.asList(mUfsPath), mUploaded);
+    assertEquals(0, mManager.getDirtyBytes());
+    assertFalse(mManager.getDirtyFileInfo(mUfsPath).isPresent());
+    String fileId = new AlluxioURI(mUfsPath).hash();
+    verify(mCacheManager).syncFile(fileId);
+    verify(mCacheManager).pinFile(fileId);
+    verify(mCacheManager).unpinFile(fileId);
+  }
+
+  @Test
+  public void rejectMemoryPageStore() throws Exception {
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.MEM);
+    mManager = createManager(mUfs);
+    assertThrows(FailedPreconditionException.class, () -> mManager.open(mUfsPath));
+    assertFalse(mManager.isOpen(mUfsPath));
+  }
+
+  @Test
+  public void lostFile() throws Exception {
+    doReturn(0).when(mCacheManager)
+        .get(any(PageId.class), anyInt(), any(byte[].class), anyInt());
+    mManager = createManager(mUfs);
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo());
+    CommonUtils.waitFor("file is lost", () -> mManager.getNumLostFiles() == 1);
+    // the file is reported instead of dropped
+    FileInfo lostInfo = mManager.getDirtyFileInfo(mUfsPath).get();
+    assertEquals(PersistenceState.LOST.name(), lostInfo.getPersistenceState());
+    assertEquals(0, mManager.getDirtyBytes());
+    String fileId = new AlluxioURI(mUfsPath).hash();
+    assertEquals(1, queueEntries().size());
+    assertTrue(queueEntries().get(0).startsWith(fileId));
+    assertFalse(Files.exists(Paths.get(mUfsPath)));
+    assertTrue(mUploaded.isEmpty());
+
+    assertTrue(mManager.cancel(mUfsPath));
+    CommonUtils.waitFor("file is removed", () -> mManager.getNumDirtyFiles() == 0);
+    assertEquals(0, mManager.getDirtyBytes());
+    verify(mCacheManager, times(1)).unpinFile(fileId);
+  }
+
+  @Test
+  public void cancelWhileUploading() throws Exception {
+    OutputStream out = mock(OutputStream.class,
+        withSettings().extraInterfaces(CancelableOutputStream.class));
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    when(ufs.create(anyString(), any(CreateOptions.class))).thenReturn(out);
+    // the file is canceled once the first page is uploaded
+    doAnswer(invocation -> {
+      mManager.cancel(mUfsPath);
+      return null;
+    }).when(out).write(any(byte[].class), anyInt(), anyInt());
+    mManager = createManager(ufs);
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo());
+    CommonUtils.waitFor("file is removed", () -> mManager.getNumDirtyFiles() == 0);
+    // the partial file is discarded rather than completed and deleted
+    verify((CancelableOutputStream) out).cancel();
+    verify(out, never()).close();
+    verify(ufs, never()).deleteExistingFile(anyString());
+    assertTrue(mUploaded.isEmpty());
+    assertEquals(0, mManager.getDirtyBytes());
+  }
+
+  @Test
+  public void uploadEmptyFile() throws Exception {
+    mManager = createManager(mUfs);
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo().toBuilder().setLength(0).build());
+    CommonUtils.waitFor("file is uploaded", () -> mManager.getNumDirtyFiles() == 0);
+    assertEquals(0, Files.size(Paths.get(mUfsPath)));
+    assertEquals(Arrays.asList(mUfsPath), mUploaded);
+    assertEquals(0, mManager.getDirtyBytes());
+    // the file has no pages to sync
+    verify(mCacheManager, never()).syncFile(anyString());
+  }
+
+  @Test
+  public void overwriteWhileUploading() throws Exception {
+    OutputStream out = mock(OutputStream.class,
+        withSettings().extraInterfaces(CancelableOutputStream.class));
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    // the new version is not uploaded until the worker restarts
+    when(ufs.create(anyString(), any(CreateOptions.class)))
+        .thenReturn(out)
+        .thenThrow(new IOException("UFS is not available"));
+    // the file is overwritten once the first page of the old version is uploaded
+    doAnswer(invocation -> {
+      mManager.open(mUfsPath);
+      mManager.commit(fileInfo());
+      return null;
+    }).when(out).write(any(byte[].class), anyInt(), anyInt());
+    String fileId = new AlluxioURI(mUfsPath).hash();
+    CountDownLatch oldVersionRemoved = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      oldVersionRemoved.countDown();
+      return null;
+    }).when(mCacheManager).unpinFile(fileId);
+    mManager = createManager(ufs);
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo());
+    assertTrue(oldVersionRemoved.await(10, TimeUnit.SECONDS));
+    verify((CancelableOutputStream) out).cancel();
+    // removing the old version keeps the entry of the new one
+    assertEquals(1, queueEntries().size());
+    mManager.close();
+
+    mManager = createManager(mUfs);
+    assertTrue(mManager.getDirtyFileInfo(mUfsPath).isPresent());
+    CommonUtils.waitFor("file is uploaded", () -> mManager.getNumDirtyFiles() == 0);
+    assertArrayEquals(mData, Files.readAllBytes(Paths.get(mUfsPath)));
+  }
+
+  @Test
+  public void reserveDirtyBytesOnOpen() throws Exception {
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES, PAGE_SIZE + "B");
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT, "100ms");
+    mManager = createManager(mUfs);
+    mManager.open(mUfsPath);
+    assertEquals(PAGE_SIZE, mManager.getDirtyBytes());
+    // the reservation of the first file is taken into account before it is committed
+    assertThrows(ResourceExhaustedException.class, () -> mManager.open(mUfsPath + "2"));
+    assertTrue(mManager.cancel(mUfsPath));
+    assertEquals(0, mManager.getDirtyBytes());
+    mManager.open(mUfsPath + "2");
+    assertTrue(mManager.isOpen(mUfsPath + "2"));
+  }
+
+  @Test
+  public void resumeAfterRestart() throws Exception {
+    mManager = createManager(failingUfs());
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo());
+    FileInfo dirtyInfo = mManager.getDirtyFileInfo(mUfsPath).get();
+    assertFalse(dirtyInfo.getPersisted());
+    assertEquals(PersistenceState.TO_BE_PERSISTED.name(), dirtyInfo.getPersistenceState());
+    assertEquals(mData.length, mManager.getDirtyBytes());
+    mManager.close();
+
+    mManager = createManager(mUfs);
+    assertTrue(mManager.getDirtyFileInfo(mUfsPath).isPresent());
+    CommonUtils.waitFor("file is uploaded", () -> mManager.getNumDirtyFiles() == 0);
+    assertArrayEquals(mData, Files.readAllBytes(Paths.get(mUfsPath)));
+  }
+
+  @Test
+  public void maxDirtyBytes() throws Exception {
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_MAX_DIRTY_BYTES, mData.length + "B");
+    mConf.set(PropertyKey.DORA_WORKER_WRITE_BACK_DIRTY_WAIT_TIMEOUT, "100ms");
+    mManager = createManager(failingUfs());
+    mManager.open(mUfsPath);
+    mManager.commit(fileInfo());
+    assertThrows(ResourceExhaustedException.class, () -> mManager.open(mUfsPath + "2"));
+    assertFalse(mManager.isOpen(mUfsPath + "2"));
+    // canceling the upload releases the dirty bytes
+    assertTrue(mManager.cancel(mUfsPath));
+    CommonUtils.waitFor("file is removed", () -> mManager.getNumDirtyFiles() == 0);
+    mManager.open(mUfsPath + "2");
+    assertTrue(mManager.isOpen(mUfsPath + "2"));
+  }
+
+  @Test
+  public void cancelOpenFile() throws Exception {
+    mManager = createManager(mUfs);
+    mManager.open(mUfsPath);
+    assertTrue(mManager.cancel(mUfsPath));
+    assertFalse(mManager.isOpen(mUfsPath));
+    assertFalse(mManager.cancel(mUfsPath));
+    assertEquals(0, mManager.getDirtyBytes());
+    String fileId = new AlluxioURI(mUfsPath).hash();
+    verify(mCacheManager, times(1)).unpinFile(fileId);
+  }
+
+  private DoraWriteBackManager createManager(UnderFileSystem ufs) throws IOException {
+    return new DoraWriteBackManager(mConf, mCacheManager, ufs, PAGE_SIZE, mUploaded::add);
+  }
+
+  private List<String> queueEntries() throws IOException {
+    try (Stream<Path> entries =
+        Files.list(Paths.get(mConf.getString(PropertyKey.DORA_WORKER_WRITE_BACK_DIR)))) {
+      return entries.map(entry -> entry.getFileName().toString()).collect(Collectors.toList());
+    }
+  }
+
+  private FileInfo fileInfo() {
+    return FileInfo.newBuilder()
+        .setUfsPath(mUfsPath)
+        .setPath(mUfsPath)
+        .setLength(mData.length)
+        .setMode(0644)
+        .build();
+  }
+
+  private static UnderFileSystem failingUfs() throws IOException {
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    when(ufs.create(anyString(), any(CreateOptions.class)))
+        .thenThrow(new IOException("UFS is not available"));
+    return ufs;
+  }
+}
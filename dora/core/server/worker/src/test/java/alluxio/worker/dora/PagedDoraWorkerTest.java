@@ -12,8 +12,14 @@
 package alluxio.worker.dora;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import alluxio.AlluxioURI;
 import alluxio.client.file.cache.CacheManager;
@@ -23,17 +29,24 @@ import alluxio.client.file.cache.PageMetaStore;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.AccessControlException;
+import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.FileSystemMasterCommonPOptions;
 import alluxio.grpc.GetStatusPOptions;
+import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.LoadFileFailure;
 import alluxio.grpc.Route;
 import alluxio.grpc.RouteFailure;
 import alluxio.grpc.SetAttributePOptions;
 import alluxio.grpc.UfsReadOptions;
 import alluxio.grpc.WriteOptions;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.security.authorization.Mode;
 import alluxio.underfs.Fingerprint;
+import alluxio.underfs.UfsDirectoryStatus;
 import alluxio.underfs.UfsStatus;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.ListOptions;
 import alluxio.util.io.BufferUtils;
 
 import com.google.common.base.Preconditions;
@@ -52,7 +65,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -74,6 +89,8 @@ public class PagedDoraWorkerTest {
   public void before() throws Exception {
     Configuration.set(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR,
         mTestFolder.newFolder("rocks"));
+    Configuration.set(PropertyKey.DORA_WORKER_WRITE_BACK_DIR,
+        mTestFolder.newFolder("writeback"));
     CacheManagerOptions cacheManagerOptions =
         CacheManagerOptions.createForWorker(Configuration.global());
 
@@ -118,6 +135,73 @@ public class PagedDoraWorkerTest {
     }
   }
 
+  @Test
+  public void testListStatusIterator() throws Exception {
+    File root = mTestFolder.newFolder("list");
+    for (String name : new String[] {"c", "a", "b"}) {
+      new File(root, name).createNewFile();
+    }
+    new File(root, "d").mkdir();
+    assertEquals(Arrays.asList("a", "b", "c", "d"),
+        listNames(root.getAbsolutePath(), ListStatusPOptions.getDefaultInstance()));
+    assertEquals(Arrays.asList("c", "d"), listNames(root.getAbsolutePath(),
+        ListStatusPOptions.newBuilder().setStartAfter("b").build()));
+    assertNull(mWorker.listStatusIterator(root.getAbsolutePath() + "/e",
+        ListStatusPOptions.getDefaultInstance()));
+  }
+
+  @Test
+  public void testListStatusIteratorRecursive() throws Exception {
+    File root = mTestFolder.newFolder("list");
+    new File(root, "a").mkdir();
+    for (String name : new String[] {"b", "a/y", "a/x"}) {
+      new File(root, name).createNewFile();
+    }
+    ListStatusPOptions recursive = ListStatusPOptions.newBuilder().setRecursive(true).build();
+    // the names of nested files are ordered like the names of the top level files
+    assertEquals(Arrays.asList("a", "a/x", "a/y", "b"),
+        listNames(root.getAbsolutePath(), recursive));
+    assertEquals(Arrays.asList("a/y", "b"), listNames(root.getAbsolutePath(),
+        recursive.toBuilder().setStartAfter("a/x").build()));
+  }
+
+  @Test
+  public void testListStatusIteratorObjectStore() throws Exception {
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    when(ufs.isObjectStorage()).thenReturn(true);
+    List<UfsStatus> statuses = Arrays.asList(
+        new UfsDirectoryStatus("b", "owner", "group", (short) 0755),
+        new UfsDirectoryStatus("b/x", "owner", "group", (short) 0755),
+        new UfsDirectoryStatus("c", "owner", "group", (short) 0755));
+    when(ufs.listStatusIterable(eq("s3://bucket/dir"), any(ListOptions.class), any(), eq(0)))
+        .thenAnswer(invocation -> statuses.iterator());
+    when(ufs.listStatusIterable(eq("s3://bucket/"), any(ListOptions.class), any(), eq(0)))
+        .thenAnswer(invocation -> statuses.iterator());
+    ListStatusPOptions recursive = ListStatusPOptions.newBuilder().setRecursive(true).build();
+
+    assertEquals(Arrays.asList("b", "b/x", "c"), listNames(
+        PagedDoraWorker.listStatusIterator(ufs, "s3://bucket/dir", recursive)));
+    // the object store resumes the listing after the key of the continuation token, and the
+    // statuses it returns up to the token are skipped
+    assertEquals(Arrays.asList("b/x", "c"), listNames(PagedDoraWorker.listStatusIterator(
+        ufs, "s3://bucket/dir", recursive.toBuilder().setStartAfter("b").build())));
+    verify(ufs).listStatusIterable(eq("s3://bucket/dir"), any(ListOptions.class), eq("dir/b"),
+        eq(0));
+    assertEquals(Collections.singletonList("c"), listNames(PagedDoraWorker.listStatusIterator(
+        ufs, "s3://bucket/", recursive.toBuilder().setStartAfter("b/x").build())));
+    verify(ufs).listStatusIterable(eq("s3://bucket/"), any(ListOptions.class), eq("b/x"), eq(0));
+  }
+
+  private List<String> listNames(String path, ListStatusPOptions options) throws Exception {
+    return listNames(mWorker.listStatusIterator(path, options));
+  }
+
+  private static List<String> listNames(Iterator<UfsStatus> statuses) {
+    List<String> names = new ArrayList<>();
+    statuses.forEachRemaining(status -> names.add(status.getName()));
+    return names;
+  }
+
   @Test
   public void testSingleFileCopy() throws IOException, ExecutionException, InterruptedException {
     File srcRoot = mTestFolder.newFolder("src");
@@ -400,6 +484,30 @@ public class PagedDoraWorkerTest {
     testSetAttribute(false);
   }
 
+  @Test
+  public void testNegativeMetadataCache() throws Exception {
+    File f = new File(mTestFolder.getRoot(), "missing");
+    long hits = MetricsSystem.counter(
+        MetricKey.WORKER_NEGATIVE_METADATA_CACHE_HITS.getName()).getCount();
+    assertThrows(FileNotFoundException.class,
+        () -> mWorker.getFileInfo(f.getPath(), GetStatusPOptions.getDefaultInstance()));
+    Files.write(f.toPath(), "foobar".getBytes());
+    // the file created in UFS by others is not visible until the lookup is synced
+    assertThrows(FileNotFoundException.class,
+        () -> mWorker.getFileInfo(f.getPath(), GetStatusPOptions.getDefaultInstance()));
+    assertEquals(hits + 1, MetricsSystem.counter(
+        MetricKey.WORKER_NEGATIVE_METADATA_CACHE_HITS.getName()).getCount());
+    assertEquals(6, mWorker.getFileInfo(f.getPath(), GET_STATUS_OPTIONS_MUST_SYNC).getLength());
+
+    // a path created through the worker is visible right away
+    File dir = new File(mTestFolder.getRoot(), "dir");
+    assertThrows(FileNotFoundException.class,
+        () -> mWorker.getFileInfo(dir.getPath(), GetStatusPOptions.getDefaultInstance()));
+    mWorker.createDirectory(dir.getPath(), CreateDirectoryPOptions.getDefaultInstance());
+    assertTrue(mWorker.getFileInfo(dir.getPath(), GetStatusPOptions.getDefaultInstance())
+        .isFolder());
+  }
+
   private void testSetAttribute(boolean populateFingerprint) throws Exception {
     mWorker.setPopulateMetadataFingerprint(populateFingerprint);
     String fileContent = "foobar";
@@ -0,0 +1,171 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import alluxio.PositionReader;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.file.FileId;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ParallelPageLoaderTest {
+  private static final int PAGE_SIZE = 1024;
+  private static final FileId FILE_ID = FileId.of("file");
+
+  private final Map<PageId, byte[]> mPages = new ConcurrentHashMap<>();
+  private final AtomicInteger mReads = new AtomicInteger();
+  private final AtomicInteger mActiveReads = new AtomicInteger();
+  private final AtomicInteger mMaxActiveReads = new AtomicInteger();
+  private byte[] mData;
+  private CacheManager mCacheManager;
+  private ParallelPageLoader mLoader;
+
+  @Before
+  public void before() {
+    mData = BufferUtils.getIncreasingByteArray(PAGE_SIZE * 10 + 100);
+    mCacheManager = mock(CacheManager.class);
+    doAnswer(invocation -> mPages.containsKey(invocation.<PageId>getArgument(0)))
+        .when(mCacheManager).hasPage(any(PageId.class));
+    doAnswer(invocation -> mPages.putIfAbsent(invocation.getArgument(0),
+        invocation.getArgument(1)) == null)
+        .when(mCacheManager).put(any(PageId.class), any(byte[].class), any(CacheContext.class));
+  }
+
+  @After
+  public void after() {
+    if (mLoader != null) {
+      mLoader.close();
+    }
+  }
+
+  @Test
+  public void loadMissingPages() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 8, 4);
+    mPages.put(new PageId(FILE_ID.toString(), 3), new byte[0]);
+    mLoader.load(FILE_ID, mData.length, () -> reader(-1), 0, mData.length,
+        CacheContext.defaults());
+    assertEquals(11, mPages.size());
+    assertEquals(10, mReads.get());
+    for (int i = 0; i < 11; i++) {
+      if (i == 3) {
+        continue;
+      }
+      int start = i * PAGE_SIZE;
+      int end = Math.min(mData.length, start + PAGE_SIZE);
+      assertArrayEquals(Arrays.copyOfRange(mData, start, end),
+          mPages.get(new PageId(FILE_ID.toString(), i)));
+    }
+  }
+
+  @Test
+  public void loadRange() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 8, 4);
+    // the range covers parts of pages 2 and 5
+    mLoader.load(FILE_ID, mData.length, () -> reader(-1), PAGE_SIZE * 2 + 10, PAGE_SIZE * 3,
+        CacheContext.defaults());
+    assertEquals(4, mPages.size());
+    for (int i = 2; i <= 5; i++) {
+      assertTrue(mPages.containsKey(new PageId(FILE_ID.toString(), i)));
+    }
+  }
+
+  @Test
+  public void singleMissingPage() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 8, 4);
+    mPages.put(new PageId(FILE_ID.toString(), 0), new byte[0]);
+    mLoader.load(FILE_ID, mData.length, () -> reader(-1), 0, PAGE_SIZE * 2,
+        CacheContext.defaults());
+    // a single page is left to the caller
+    assertEquals(0, mReads.get());
+    assertFalse(mPages.containsKey(new PageId(FILE_ID.toString(), 1)));
+  }
+
+  @Test
+  public void boundedPerFile() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 8, 2);
+    mLoader.load(FILE_ID, mData.length, () -> reader(-1), 0, mData.length,
+        CacheContext.defaults());
+    assertEquals(11, mPages.size());
+    assertTrue(mMaxActiveReads.get() <= 2);
+  }
+
+  @Test
+  public void workerConcurrencyExhausted() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 1, 4);
+    mLoader.load(FILE_ID, mData.length, () -> reader(-1), 0, mData.length,
+        CacheContext.defaults());
+    // the pages which could not be loaded by the worker threads are loaded by the caller
+    assertEquals(11, mPages.size());
+    assertTrue(mMaxActiveReads.get() <= 2);
+  }
+
+  @Test
+  public void failedPageSkipped() {
+    mLoader = new ParallelPageLoader(mCacheManager, PAGE_SIZE, 8, 4);
+    mLoader.load(FILE_ID, mData.length, () -> reader(4), 0, mData.length,
+        CacheContext.defaults());
+    assertEquals(10, mPages.size());
+    assertFalse(mPages.containsKey(new PageId(FILE_ID.toString(), 4)));
+  }
+
+  /**
+   * @param failedPage the index of the page failing to be read, or -1
+   * @return a reader of the data tracking the concurrent reads
+   */
+  private PositionReader reader(int failedPage) {
+    return new PositionReader() {
+      @Override
+      public int readInternal(long position, ReadTargetBuffer buffer, int length)
+          throws IOException {
+        mReads.incrementAndGet();
+        int active = mActiveReads.incrementAndGet();
+        mMaxActiveReads.accumulateAndGet(active, Math::max);
+        try {
+          Thread.sleep(10);
+          if (position / PAGE_SIZE == failedPage) {
+            throw new IOException("failed to read page " + failedPage);
+          }
+          int bytesToRead = (int) Math.min(length, mData.length - position);
+          if (bytesToRead <= 0) {
+            return -1;
+          }
+          buffer.writeBytes(mData, (int) position, bytesToRead);
+          return bytesToRead;
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        } finally {
+          mActiveReads.decrementAndGet();
+        }
+      }
+    };
+  }
+}
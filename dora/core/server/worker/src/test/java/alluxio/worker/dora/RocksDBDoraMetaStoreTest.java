@@ -17,6 +17,8 @@ import alluxio.util.CommonUtils;
 
 import junit.framework.TestCase;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class RocksDBDoraMetaStoreTest extends TestCase {
@@ -44,7 +46,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setRefreshTimeMs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
     Optional<DoraMeta.FileStatus> res = mTestMetastore.getDoraMeta(path);
@@ -70,7 +72,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setRefreshTimeMs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
     String pathNotExist = new String("/NOT_EXIST");
@@ -101,7 +103,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
         .build();
     DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
         .setFileInfo(fi)
-        .setTs(System.nanoTime())
+        .setRefreshTimeMs(System.currentTimeMillis())
         .build();
     mTestMetastore.putDoraMeta(path, fs);
 
@@ -118,6 +120,30 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     System.out.println("End testGetExpire");
   }
 
+  public void testGetWithoutRefreshTime() {
+    // metadata stored by older versions has no wall-clock refresh time
+    String path = "/NO_REFRESH_TIME";
+    DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setFileId(1234).build())
+        .build();
+    mTestMetastore.putDoraMeta(path, fs);
+    assertFalse(mTestMetastore.getDoraMeta(path).isPresent());
+  }
+
+  public void testPutDoraMetas() {
+    Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      metas.put("/BATCH" + i, DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(FileInfo.newBuilder().setFileId(i).build())
+          .setRefreshTimeMs(System.currentTimeMillis())
+          .build());
+    }
+    mTestMetastore.putDoraMetas(metas);
+    for (Map.Entry<String, DoraMeta.FileStatus> entry : metas.entrySet()) {
+      assertEquals(Optional.of(entry.getValue()), mTestMetastore.getDoraMeta(entry.getKey()));
+    }
+  }
+
   /**
    * Performance Testing.
    */
@@ -129,7 +155,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     for (int i = 0; i < N; i++) {
       String path = new String("/HELLO" + i);
 
-      long ts = System.nanoTime();
+      long ts = System.currentTimeMillis();
 
       FileInfo fi = FileInfo.newBuilder()
           .setFileId(10000000 + i)
@@ -138,7 +164,7 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
           .build();
       DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
           .setFileInfo(fi)
-          .setTs(ts)
+          .setRefreshTimeMs(ts)
           .build();
       mTestMetastore.putDoraMeta(path, fs);
       Optional<DoraMeta.FileStatus> res = mTestMetastore.getDoraMeta(path);
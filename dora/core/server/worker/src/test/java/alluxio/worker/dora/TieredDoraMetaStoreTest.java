@@ -0,0 +1,158 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta.FileStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public final class TieredDoraMetaStoreTest {
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  private DoraMetaStore mRocksStore;
+  private TieredDoraMetaStore mStore;
+
+  @Before
+  public void before() throws Exception {
+    mRocksStore = spy(new RocksDBDoraMetaStore(mTestFolder.getRoot().getAbsolutePath(), -1));
+    mStore = new TieredDoraMetaStore(mRocksStore, 1024 * 1024, -1);
+  }
+
+  @After
+  public void after() {
+    mStore.close();
+  }
+
+  @Test
+  public void readFromHeap() {
+    FileStatus meta = fileStatus(1);
+    mStore.putDoraMeta("/a", meta);
+    verify(mRocksStore).putDoraMeta("/a", meta);
+    assertEquals(Optional.of(meta), mStore.getDoraMeta("/a"));
+    verify(mRocksStore, never()).getDoraMeta(anyString());
+  }
+
+  @Test
+  public void loadFromStore() {
+    FileStatus meta = fileStatus(1);
+    mRocksStore.putDoraMeta("/a", meta);
+    assertEquals(Optional.of(meta), mStore.getDoraMeta("/a"));
+    assertEquals(Optional.of(meta), mStore.getDoraMeta("/a"));
+    // the second lookup is served from heap
+    verify(mRocksStore, times(1)).getDoraMeta("/a");
+  }
+
+  @Test
+  public void remove() {
+    mStore.putDoraMeta("/a", fileStatus(1));
+    mStore.removeDoraMeta("/a");
+    assertFalse(mStore.getDoraMeta("/a").isPresent());
+    assertFalse(mRocksStore.getDoraMeta("/a").isPresent());
+  }
+
+  @Test
+  public void lookupRacingWithRemove() {
+    mRocksStore.putDoraMeta("/a", fileStatus(1));
+    // the metadata is looked up after the removal starts and before it is removed from the store
+    doAnswer(invocation -> {
+      mStore.getDoraMeta("/a");
+      return invocation.callRealMethod();
+    }).when(mRocksStore).removeDoraMeta("/a");
+    mStore.removeDoraMeta("/a");
+    assertFalse(mStore.getDoraMeta("/a").isPresent());
+  }
+
+  @Test
+  public void lookupRacingWithClear() {
+    mRocksStore.putDoraMeta("/a", fileStatus(1));
+    doAnswer(invocation -> {
+      mStore.getDoraMeta("/a");
+      return invocation.callRealMethod();
+    }).when(mRocksStore).clear();
+    mStore.clear();
+    assertFalse(mStore.getDoraMeta("/a").isPresent());
+  }
+
+  @Test
+  public void putBatch() {
+    Map<String, FileStatus> metas = new LinkedHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      metas.put("/file" + i, fileStatus(i));
+    }
+    mStore.putDoraMetas(metas);
+    verify(mRocksStore).putDoraMetas(metas);
+    verify(mRocksStore, never()).putDoraMeta(anyString(), any(FileStatus.class));
+    for (Map.Entry<String, FileStatus> entry : metas.entrySet()) {
+      assertEquals(Optional.of(entry.getValue()), mStore.getDoraMeta(entry.getKey()));
+    }
+    verify(mRocksStore, never()).getDoraMeta(anyString());
+  }
+
+  @Test
+  public void boundedHeap() {
+    TieredDoraMetaStore store = new TieredDoraMetaStore(mRocksStore, 4096, -1);
+    FileStatus[] metas = new FileStatus[1000];
+    for (int i = 0; i < metas.length; i++) {
+      metas[i] = fileStatus(i);
+      store.putDoraMeta("/file" + i, metas[i]);
+    }
+    // all metadata is in the store, only the recently used part of it is on heap
+    for (int i = 0; i < metas.length; i++) {
+      assertEquals(Optional.of(metas[i]), store.getDoraMeta("/file" + i));
+    }
+    verify(mRocksStore, atLeast(900)).getDoraMeta(anyString());
+  }
+
+  @Test
+  public void expire() throws Exception {
+    TieredDoraMetaStore store = new TieredDoraMetaStore(new RocksDBDoraMetaStore(
+        mTestFolder.newFolder("ttl").getAbsolutePath(), 1), 1024 * 1024, 1);
+    try {
+      store.putDoraMeta("/a", fileStatus(1).toBuilder()
+          .setRefreshTimeMs(System.currentTimeMillis() - 2000).build());
+      assertFalse(store.getDoraMeta("/a").isPresent());
+      store.putDoraMeta("/b", fileStatus(2));
+      assertTrue(store.getDoraMeta("/b").isPresent());
+    } finally {
+      store.close();
+    }
+  }
+
+  private static FileStatus fileStatus(long fileId) {
+    return FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setFileId(fileId).setLength(fileId).build())
+        .setRefreshTimeMs(System.currentTimeMillis())
+        .build();
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.worker.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.runtime.NotFoundRuntimeException;
+import alluxio.exception.status.PermissionDeniedException;
+import alluxio.grpc.BatchGetStatusPRequest;
+import alluxio.grpc.BatchGetStatusPResponse;
+import alluxio.grpc.GetStatusPOptions;
+import alluxio.grpc.GetStatusResult;
+import alluxio.grpc.ListStatusPOptions;
+import alluxio.grpc.ListStatusPRequest;
+import alluxio.grpc.ListStatusPResponse;
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsStatus;
+import alluxio.wire.FileInfo;
+import alluxio.worker.dora.DoraWorker;
+import alluxio.worker.dora.PagedDoraWorker;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public final class DoraWorkerClientServiceHandlerTest {
+  private static final long TIMEOUT_MS = 10_000;
+
+  private DoraWorker mWorker;
+  private DoraWorkerClientServiceHandler mHandler;
+
+  @Before
+  public void before() throws Exception {
+    mWorker = mock(DoraWorker.class);
+    mHandler = new DoraWorkerClientServiceHandler(mWorker);
+  }
+
+  @Test
+  public void batchGetStatus() throws Exception {
+    for (String path : new String[] {"/a", "/b", "/c"}) {
+      when(mWorker.getFileInfo(eq(path), any(GetStatusPOptions.class)))
+          .thenReturn(new FileInfo().setPath(path).setLength(path.length()));
+    }
+    List<GetStatusResult> results = batchGetStatus("/c", "/a", "/b");
+    // the results are in the order of the requested paths
+    assertEquals(3, results.size());
+    String[] paths = new String[] {"/c", "/a", "/b"};
+    for (int i = 0; i < paths.length; i++) {
+      GetStatusResult result = results.get(i);
+      assertEquals(paths[i], result.getPath());
+      assertEquals(Status.Code.OK.value(), result.getCode());
+      assertEquals(paths[i], result.getFileInfo().getPath());
+    }
+  }
+
+  @Test
+  public void batchGetStatusMissingPaths() throws Exception {
+    when(mWorker.getFileInfo(any(String.class), any(GetStatusPOptions.class)))
+        .thenThrow(new NotFoundRuntimeException("not found"));
+    List<GetStatusResult> results = batchGetStatus("/missing1", "/missing2");
+    assertEquals(2, results.size());
+    for (GetStatusResult result : results) {
+      assertEquals(Status.Code.NOT_FOUND.value(), result.getCode());
+      assertFalse(result.hasFileInfo());
+    }
+    assertEquals("/missing1", results.get(0).getPath());
+    assertEquals("/missing2", results.get(1).getPath());
+  }
+
+  @Test
+  public void batchGetStatusMixedResults() throws Exception {
+    when(mWorker.getFileInfo(eq("/file"), any(GetStatusPOptions.class)))
+        .thenReturn(new FileInfo().setPath("/file"));
+    when(mWorker.getFileInfo(eq("/missing"), any(GetStatusPOptions.class)))
+        .thenThrow(new NotFoundRuntimeException("/missing not found"));
+    when(mWorker.getFileInfo(eq("/denied"), any(GetStatusPOptions.class)))
+        .thenThrow(new PermissionDeniedException("/denied is denied"));
+    List<GetStatusResult> results = batchGetStatus("/missing", "/file", "/denied");
+    assertEquals(3, results.size());
+    assertEquals("/missing", results.get(0).getPath());
+    assertEquals(Status.Code.NOT_FOUND.value(), results.get(0).getCode());
+    assertEquals("/missing not found", results.get(0).getMessage());
+    assertEquals("/file", results.get(1).getPath());
+    assertEquals(Status.Code.OK.value(), results.get(1).getCode());
+    assertTrue(results.get(1).hasFileInfo());
+    assertEquals("/denied", results.get(2).getPath());
+    assertEquals(Status.Code.PERMISSION_DENIED.value(), results.get(2).getCode());
+    assertFalse(results.get(2).hasFileInfo());
+  }
+
+  @Test
+  public void batchGetStatusEmpty() throws Exception {
+    assertTrue(batchGetStatus().isEmpty());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void listStatusFlowControl() throws Exception {
+    int batchSize =
+        Configuration.getInt(PropertyKey.MASTER_FILE_SYSTEM_LISTSTATUS_RESULTS_PER_MESSAGE);
+    AtomicInteger listed = new AtomicInteger();
+    Iterator<UfsStatus> statuses = IntStream.range(0, batchSize * 2 + 1)
+        .mapToObj(i -> (UfsStatus) new UfsDirectoryStatus(
+            String.format("%08d", i), "owner", "group", (short) 0755))
+        .peek(status -> listed.incrementAndGet())
+        .iterator();
+    PagedDoraWorker worker = mock(PagedDoraWorker.class);
+    when(worker.listStatusIterator(eq("/dir"), any(ListStatusPOptions.class)))
+        .thenReturn(statuses);
+    when(worker.buildFileInfoFromUfsStatus(any(UfsStatus.class), any(String.class)))
+        .thenAnswer(invocation -> alluxio.grpc.FileInfo.newBuilder()
+            .setPath(invocation.getArgument(1)).build());
+    // the client is ready for a single message at a time
+    AtomicBoolean ready = new AtomicBoolean(false);
+    ServerCallStreamObserver<ListStatusPResponse> observer =
+        mock(ServerCallStreamObserver.class);
+    when(observer.isReady()).thenAnswer(invocation -> ready.get());
+    doAnswer(invocation -> {
+      ready.set(false);
+      return null;
+    }).when(observer).onNext(any(ListStatusPResponse.class));
+
+    new DoraWorkerClientServiceHandler(worker).listStatus(ListStatusPRequest.newBuilder()
+        .setPath("/dir")
+        .setOptions(ListStatusPOptions.newBuilder().setRecursive(true))
+        .build(), observer);
+    ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+    verify(observer).setOnReadyHandler(onReady.capture());
+    // nothing is listed until the client is ready
+    verify(observer, never()).onNext(any(ListStatusPResponse.class));
+    assertEquals(0, listed.get());
+
+    for (int i = 1; i <= 3; i++) {
+      ready.set(true);
+      onReady.getValue().run();
+      verify(observer, times(i)).onNext(any(ListStatusPResponse.class));
+      // only the statuses of the batches sent are listed, and the next one to check for more
+      assertTrue(listed.get() <= batchSize * i + 1);
+    }
+    ArgumentCaptor<ListStatusPResponse> responses =
+        ArgumentCaptor.forClass(ListStatusPResponse.class);
+    verify(observer, times(3)).onNext(responses.capture());
+    verify(observer).onCompleted();
+    verify(observer, never()).onError(any());
+    List<ListStatusPResponse> sent = responses.getAllValues();
+    assertEquals(batchSize, sent.get(0).getFileInfosCount());
+    assertEquals(String.format("%08d", batchSize - 1), sent.get(0).getContinuationToken());
+    assertEquals(String.format("/dir/%08d", batchSize),
+        sent.get(1).getFileInfos(0).getPath());
+    assertEquals(1, sent.get(2).getFileInfosCount());
+    assertEquals(String.format("%08d", batchSize * 2), sent.get(2).getContinuationToken());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<GetStatusResult> batchGetStatus(String... paths) {
+    StreamObserver<BatchGetStatusPResponse> observer = mock(StreamObserver.class);
+    mHandler.batchGetStatus(BatchGetStatusPRequest.newBuilder()
+        .addAllPaths(Arrays.asList(paths))
+        .setOptions(GetStatusPOptions.getDefaultInstance())
+        .build(), observer);
+    ArgumentCaptor<BatchGetStatusPResponse> response =
+        ArgumentCaptor.forClass(BatchGetStatusPResponse.class);
+    verify(observer, timeout(TIMEOUT_MS)).onCompleted();
+    verify(observer).onNext(response.capture());
+    verify(observer, never()).onError(any());
+    return response.getValue().getResultsList();
+  }
+}
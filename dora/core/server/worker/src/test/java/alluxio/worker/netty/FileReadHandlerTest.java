@@ -0,0 +1,143 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+
+package alluxio.worker.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.network.netty.FileTransferType;
+import alluxio.network.protocol.databuffer.CompositeDataBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.proto.dataserver.Protocol;
+import alluxio.worker.block.io.BlockReader;
+import alluxio.worker.dora.DoraWorker;
+import alluxio.worker.dora.PagedFileReader;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class FileReadHandlerTest {
+  private static final int PACKET_SIZE = Constants.KB;
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private ExecutorService mExecutor;
+  private DoraWorker mWorker;
+  private Channel mChannel;
+  private ReadQosScheduler mScheduler;
+
+  @Before
+  public void before() {
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY, 1);
+    mScheduler = new ReadQosScheduler(mConf);
+    mExecutor = Executors.newSingleThreadExecutor();
+    mWorker = mock(DoraWorker.class);
+    mChannel = mock(Channel.class);
+    when(mChannel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  @Test(timeout = 10000)
+  public void copiedPacketsReleasePermitsOnceRead() throws Exception {
+    BlockReader reader = mock(BlockReader.class);
+    when(reader.transferTo(any(ByteBuf.class))).thenAnswer(invocation -> {
+      ByteBuf buf = invocation.getArgument(0);
+      int length = buf.writableBytes();
+      buf.writeZero(length);
+      return length;
+    });
+    when(mWorker.createFileReader(anyString(), anyLong(), anyBoolean(), any()))
+        .thenReturn(reader);
+    FileReadHandler.BlockPacketReader packetReader = createPacketReader(FileTransferType.MAPPED);
+    BlockReadRequestContext context = createContext();
+    // the client does not receive the packets, which does not hold the reads of other clients
+    List<DataBuffer> packets = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      DataBuffer packet =
+          packetReader.getDataBuffer(context, mChannel, (long) i * PACKET_SIZE, PACKET_SIZE);
+      assertNotNull(packet);
+      packets.add(packet);
+      assertEquals(0, mScheduler.getRunningReads());
+    }
+    packets.forEach(DataBuffer::release);
+    packetReader.completeRequest(context);
+  }
+
+  @Test(timeout = 10000)
+  public void zeroCopyPacketsHoldOnePermit() throws Exception {
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY, 2);
+    mScheduler = new ReadQosScheduler(mConf);
+    PagedFileReader reader = mock(PagedFileReader.class);
+    when(reader.getMultipleDataFileChannel(any(Channel.class), anyLong()))
+        .thenAnswer(invocation -> new CompositeDataBuffer(new ArrayList<>()));
+    when(mWorker.createFileReader(anyString(), anyLong(), anyBoolean(), any()))
+        .thenReturn(reader);
+    FileReadHandler.BlockPacketReader packetReader =
+        createPacketReader(FileTransferType.TRANSFER);
+    BlockReadRequestContext context = createContext();
+    List<DataBuffer> packets = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      packets.add(
+          packetReader.getDataBuffer(context, mChannel, (long) i * PACKET_SIZE, PACKET_SIZE));
+    }
+    // the packets not sent yet hold a single read of the scheduler
+    assertEquals(1, mScheduler.getRunningReads());
+    packetReader.onPacketSent(packets.get(1));
+    assertEquals(1, mScheduler.getRunningReads());
+    packetReader.onPacketSent(packets.get(0));
+    assertEquals(0, mScheduler.getRunningReads());
+
+    packetReader.getDataBuffer(context, mChannel, 3L * PACKET_SIZE, PACKET_SIZE);
+    assertEquals(1, mScheduler.getRunningReads());
+    // the permits of the packets never sent are released when the request completes
+    packetReader.completeRequest(context);
+    assertEquals(0, mScheduler.getRunningReads());
+  }
+
+  private FileReadHandler.BlockPacketReader createPacketReader(FileTransferType transferType) {
+    FileReadHandler handler = new FileReadHandler(mExecutor, mWorker, transferType, mScheduler);
+    return (FileReadHandler.BlockPacketReader) handler.createPacketReader();
+  }
+
+  private static BlockReadRequestContext createContext() {
+    return new BlockReadRequestContext(Protocol.ReadRequest.newBuilder()
+        .setBlockId(1)
+        .setOffset(0)
+        .setLength(PACKET_SIZE * 4)
+        .setChunkSize(PACKET_SIZE)
+        .setOpenUfsBlockOptions(Protocol.OpenUfsBlockOptions.newBuilder().setUfsPath("/file"))
+        .build());
+  }
+}
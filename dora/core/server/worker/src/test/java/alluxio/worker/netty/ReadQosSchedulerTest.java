@@ -0,0 +1,192 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public final class ReadQosSchedulerTest {
+  private static final int PACKET_SIZE = Constants.KB;
+
+  private final InstancedConfiguration mConf = Configuration.copyGlobal();
+  private ExecutorService mExecutor;
+
+  @Before
+  public void before() {
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY, 1);
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_QUANTUM, PACKET_SIZE);
+    mExecutor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  @Test
+  public void uncontended() throws Exception {
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY, 4);
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    List<ReadQosScheduler.Permit> permits = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      permits.add(scheduler.acquire("class" + i, PACKET_SIZE));
+    }
+    permits.forEach(ReadQosScheduler.Permit::close);
+    // closing a permit twice does not release another read
+    permits.get(0).close();
+    for (int i = 0; i < 4; i++) {
+      permits.set(i, scheduler.acquire(ReadQosScheduler.DEFAULT_CLASS, PACKET_SIZE));
+    }
+    Future<ReadQosScheduler.Permit> waiting =
+        mExecutor.submit(() -> scheduler.acquire(ReadQosScheduler.DEFAULT_CLASS, PACKET_SIZE));
+    waitForQueueDepth(scheduler, ReadQosScheduler.DEFAULT_CLASS, 1);
+    permits.get(0).close();
+    waiting.get().close();
+  }
+
+  @Test
+  public void weightedShare() throws Exception {
+    setWeight("sql", 3);
+    setWeight("scan", 1);
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    List<String> scheduled = new CopyOnWriteArrayList<>();
+    BlockingQueue<ReadQosScheduler.Permit> permits = new LinkedBlockingQueue<>();
+    permits.add(scheduler.acquire("scan", PACKET_SIZE));
+    for (String qosClass : new String[] {"sql", "scan"}) {
+      for (int i = 0; i < 8; i++) {
+        mExecutor.submit(() -> {
+          ReadQosScheduler.Permit permit = scheduler.acquire(qosClass, PACKET_SIZE);
+          scheduled.add(qosClass);
+          permits.add(permit);
+          return null;
+        });
+      }
+      waitForQueueDepth(scheduler, qosClass, 8);
+    }
+    for (int i = 0; i < 16; i++) {
+      permits.take().close();
+    }
+    // sql reads three packets for every packet of scan while both are waiting
+    assertEquals("[sql, sql, sql, scan, sql, sql, sql, scan]",
+        scheduled.subList(0, 8).toString());
+    assertEquals(16, scheduled.size());
+  }
+
+  @Test
+  public void largePackets() throws Exception {
+    setWeight("large", 1);
+    setWeight("small", 1);
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    List<String> scheduled = new CopyOnWriteArrayList<>();
+    BlockingQueue<ReadQosScheduler.Permit> permits = new LinkedBlockingQueue<>();
+    permits.add(scheduler.acquire("small", PACKET_SIZE));
+    String[] classes = new String[] {"large", "small"};
+    int[] packetSizes = new int[] {PACKET_SIZE * 2, PACKET_SIZE};
+    for (int c = 0; c < classes.length; c++) {
+      String qosClass = classes[c];
+      int packetSize = packetSizes[c];
+      for (int i = 0; i < 4; i++) {
+        mExecutor.submit(() -> {
+          ReadQosScheduler.Permit permit = scheduler.acquire(qosClass, packetSize);
+          scheduled.add(qosClass);
+          permits.add(permit);
+          return null;
+        });
+      }
+      waitForQueueDepth(scheduler, qosClass, 4);
+    }
+    for (int i = 0; i < 8; i++) {
+      permits.take().close();
+    }
+    // the classes read the same number of bytes
+    assertEquals("[small, large, small, small, large, small]",
+        scheduled.subList(0, 6).toString());
+  }
+
+  @Test
+  public void bandwidthCap() throws Exception {
+    mConf.set(PropertyKey.WORKER_NETWORK_NETTY_READ_QOS_CONCURRENCY, 4);
+    mConf.set(PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_BANDWIDTH.format("scan"),
+        "10KB");
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < 4; i++) {
+      scheduler.acquire("scan", PACKET_SIZE).close();
+    }
+    // 3 KB have to wait for the cap
+    assertTrue(System.currentTimeMillis() - start >= 200);
+    start = System.currentTimeMillis();
+    for (int i = 0; i < 4; i++) {
+      scheduler.acquire("sql", PACKET_SIZE).close();
+    }
+    assertTrue(System.currentTimeMillis() - start < 200);
+  }
+
+  @Test
+  public void interruptWaitingRead() throws Exception {
+    setWeight("sql", 1);
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    ReadQosScheduler.Permit permit = scheduler.acquire("scan", PACKET_SIZE);
+    Future<ReadQosScheduler.Permit> waiting =
+        mExecutor.submit(() -> scheduler.acquire("sql", PACKET_SIZE));
+    waitForQueueDepth(scheduler, "sql", 1);
+    waiting.cancel(true);
+    waitForQueueDepth(scheduler, "sql", 0);
+    permit.close();
+    scheduler.acquire("scan", PACKET_SIZE).close();
+  }
+
+  @Test
+  public void unconfiguredClass() throws Exception {
+    ReadQosScheduler scheduler = new ReadQosScheduler(mConf);
+    ReadQosScheduler.Permit permit = scheduler.acquire("tag1", PACKET_SIZE);
+    Future<ReadQosScheduler.Permit> waiting =
+        mExecutor.submit(() -> scheduler.acquire("tag2", PACKET_SIZE));
+    // reads of classes which are not configured wait in the default class
+    waitForQueueDepth(scheduler, ReadQosScheduler.DEFAULT_CLASS, 1);
+    assertEquals(0, scheduler.getQueueDepth("tag2"));
+    permit.close();
+    waiting.get().close();
+  }
+
+  private void setWeight(String qosClass, int weight) {
+    mConf.set(PropertyKey.Template.WORKER_NETWORK_NETTY_READ_QOS_CLASS_WEIGHT.format(qosClass),
+        weight);
+  }
+
+  private static void waitForQueueDepth(ReadQosScheduler scheduler, String qosClass, int depth)
+      throws Exception {
+    CommonUtils.waitFor(qosClass + " has " + depth + " waiting reads",
+        () -> scheduler.getQueueDepth(qosClass) == depth,
+        WaitForOptions.defaults().setTimeoutMs(10_000));
+  }
+}
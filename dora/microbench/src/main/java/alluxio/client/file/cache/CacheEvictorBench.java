@@ -0,0 +1,110 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the throughput of the {@link CacheEvictor}s under concurrent access.
+ * The following parameters can be varied:
+ * mEvictor - the class of the evictor
+ * mReadPercent - the percentage of operations which read a page, the others replace a page
+ * mNumPages - the number of pages tracked by the evictor
+ * The benchmark is run with 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CacheEvictorBench {
+  private static final int PAGES_PER_FILE = 64;
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+  @State(Scope.Benchmark)
+  public static class Evictor {
+    @Param({"LRUCacheEvictor", "LFUCacheEvictor", "FIFOCacheEvictor", "TwoChoiceRandomEvictor",
+        "NondeterministicLRUCacheEvictor", "TinyLFUCacheEvictor"})
+    public String mEvictor;
+
+    @Param({"100", "95", "50"})
+    public int mReadPercent;
+
+    @Param({"100000"})
+    public int mNumPages;
+
+    CacheEvictor mCacheEvictor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      mCacheEvictor = CacheEvictor.create(new CacheEvictorOptions().setEvictorClass(
+          Class.forName("alluxio.client.file.cache.evictor." + mEvictor)
+              .asSubclass(CacheEvictor.class)));
+      for (int i = 0; i < mNumPages; i++) {
+        mCacheEvictor.updateOnPut(pageId(i));
+      }
+    }
+
+    PageId pageId(int i) {
+      return new PageId("/warehouse/table/file-" + (i / PAGES_PER_FILE), i % PAGES_PER_FILE);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final Random mRandom = new Random();
+  }
+
+  @Benchmark
+  public void readWrite(Evictor evictor, ThreadState ts, Blackhole bh) {
+    PageId pageId = evictor.pageId(ts.mRandom.nextInt(evictor.mNumPages));
+    if (ts.mRandom.nextInt(100) < evictor.mReadPercent) {
+      evictor.mCacheEvictor.updateOnGet(pageId);
+    } else {
+      // replaces a page so the number of pages tracked by the evictor stays the same
+      bh.consume(evictor.mCacheEvictor.evict());
+      evictor.mCacheEvictor.updateOnDelete(pageId);
+      evictor.mCacheEvictor.updateOnPut(pageId);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    for (int threads : THREADS) {
+      Options opts = new OptionsBuilder()
+          .parent(argsCli)
+          .include(CacheEvictorBench.class.getName())
+          .forks(1)
+          .threads(threads)
+          .build();
+      new Runner(opts).run();
+    }
+  }
+}
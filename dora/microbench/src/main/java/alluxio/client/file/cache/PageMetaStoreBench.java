@@ -0,0 +1,136 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.UnevictableCacheEvictor;
+import alluxio.client.file.cache.store.MemoryPageStore;
+import alluxio.client.file.cache.store.MemoryPageStoreDir;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares the page tables backing {@link DefaultPageMetaStore}.
+ * The following parameters can be varied:
+ * mTable - the page table implementation
+ * mNumPages - the number of pages in the meta store
+ * mPagesPerFile - the number of pages of each file
+ * The heap used per page is printed after the meta store is populated, and the GC profiler
+ * reports allocation rate and GC time of each operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PageMetaStoreBench {
+  private static final long PAGE_SIZE = 1024 * 1024;
+
+  @State(Scope.Benchmark)
+  public static class MetaStore {
+    @Param({"INDEXED_SET", "COMPACT"})
+    public String mTable;
+
+    @Param({"1000000", "10000000"})
+    public int mNumPages;
+
+    @Param({"64"})
+    public int mPagesPerFile;
+
+    DefaultPageMetaStore mMetaStore;
+    PageStoreDir mDir;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      PageStoreOptions options = new PageStoreOptions()
+          .setPageSize(PAGE_SIZE)
+          .setCacheSize(Long.MAX_VALUE / 2);
+      mDir = new MemoryPageStoreDir(options, new MemoryPageStore((int) PAGE_SIZE),
+          new UnevictableCacheEvictor(new CacheEvictorOptions()));
+      List<PageStoreDir> dirs = ImmutableList.of(mDir);
+      PageTable pages = mTable.equals("COMPACT")
+          ? new CompactPageTable() : new IndexedSetPageTable();
+      long heapBefore = usedHeap();
+      mMetaStore = new DefaultPageMetaStore(dirs, new HashAllocator(dirs), pages);
+      for (int i = 0; i < mNumPages; i++) {
+        PageId pageId = pageId(i);
+        mMetaStore.addPage(pageId, new PageInfo(pageId, PAGE_SIZE, mDir));
+      }
+      System.out.printf("%n%s page table uses %d heap bytes per page%n", mTable,
+          (usedHeap() - heapBefore) / mNumPages);
+    }
+
+    PageId pageId(int i) {
+      return new PageId("/warehouse/table/file-" + (i / mPagesPerFile), i % mPagesPerFile);
+    }
+
+    private static long usedHeap() {
+      for (int i = 0; i < 3; i++) {
+        System.gc();
+      }
+      Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final Random mRandom = new Random();
+  }
+
+  @Benchmark
+  public void getPageInfo(MetaStore store, ThreadState ts, Blackhole bh) throws Exception {
+    PageId pageId = store.pageId(ts.mRandom.nextInt(store.mNumPages));
+    bh.consume(store.mMetaStore.getPageInfo(pageId));
+  }
+
+  @Benchmark
+  public void addAndRemovePage(MetaStore store, ThreadState ts, Blackhole bh) throws Exception {
+    // replaces a page so the size of the meta store stays the same
+    PageId pageId = store.pageId(ts.mRandom.nextInt(store.mNumPages));
+    bh.consume(store.mMetaStore.removePage(pageId));
+    store.mMetaStore.addPage(pageId, new PageInfo(pageId, PAGE_SIZE, store.mDir));
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(PageMetaStoreBench.class.getName())
+        .addProfiler(GCProfiler.class)
+        .forks(1)
+        .threads(1)
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.MemoryPageStore;
+import alluxio.client.file.cache.store.MemoryPageStoreDir;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * This benchmark measures the throughput of {@link DefaultPageMetaStore} under concurrent
+ * access, locking the meta store the same way as {@link LocalCacheManager} does.
+ * The following parameters can be varied:
+ * mReadPercent - the percentage of operations which read a page, the others replace a page
+ * mNumPages - the number of pages in the meta store
+ * The benchmark is run with 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageMetaStoreConcurrencyBench {
+  private static final long PAGE_SIZE = 1024 * 1024;
+  private static final int PAGES_PER_FILE = 64;
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+  @State(Scope.Benchmark)
+  public static class MetaStore {
+    @Param({"100", "95", "50"})
+    public int mReadPercent;
+
+    @Param({"1000000"})
+    public int mNumPages;
+
+    DefaultPageMetaStore mMetaStore;
+    PageStoreDir mDir;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      PageStoreOptions options = new PageStoreOptions()
+          .setPageSize(PAGE_SIZE)
+          .setCacheSize(Long.MAX_VALUE / 2);
+      mDir = new MemoryPageStoreDir(options, new MemoryPageStore((int) PAGE_SIZE),
+          new LRUCacheEvictor(new CacheEvictorOptions()));
+      List<PageStoreDir> dirs = ImmutableList.of(mDir);
+      mMetaStore = new DefaultPageMetaStore(dirs, new HashAllocator(dirs));
+      for (int i = 0; i < mNumPages; i++) {
+        PageId pageId = pageId(i);
+        mMetaStore.addPage(pageId, new PageInfo(pageId, PAGE_SIZE, mDir));
+      }
+    }
+
+    PageId pageId(int i) {
+      return new PageId("/warehouse/table/file-" + (i / PAGES_PER_FILE), i % PAGES_PER_FILE);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final Random mRandom = new Random();
+  }
+
+  @Benchmark
+  public void readWrite(MetaStore store, ThreadState ts, Blackhole bh) throws Exception {
+    PageId pageId = store.pageId(ts.mRandom.nextInt(store.mNumPages));
+    if (ts.mRandom.nextInt(100) < store.mReadPercent) {
+      Lock lock = store.mMetaStore.getLock().readLock();
+      lock.lock();
+      try {
+        bh.consume(store.mMetaStore.getPageInfo(pageId));
+      } finally {
+        lock.unlock();
+      }
+    } else {
+      // replaces a page so the size of the meta store stays the same
+      Lock lock = store.mMetaStore.getLock().writeLock();
+      lock.lock();
+      try {
+        bh.consume(store.mMetaStore.removePage(pageId));
+        store.mMetaStore.addPage(pageId, new PageInfo(pageId, PAGE_SIZE, store.mDir));
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    for (int threads : THREADS) {
+      Options opts = new OptionsBuilder()
+          .parent(argsCli)
+          .include(PageMetaStoreConcurrencyBench.class.getName())
+          .forks(1)
+          .threads(threads)
+          .build();
+      new Runner(opts).run();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static com.google.common.hash.Hashing.murmur3_32_fixed;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * This benchmark measures the lookups per second of {@link WorkerLocationPolicy}, compared with
+ * the previous lookup which rebuilt the worker address sets on each refresh, hashed a formatted
+ * string and searched a {@link TreeMap}. Run it with {@code -prof gc} to also report the
+ * allocation rate of the lookups.
+ * The following parameters can be varied:
+ * mImpl - "ring" for {@link WorkerLocationPolicy}, "treemap" for the previous lookup
+ * mNumWorkers - the number of workers
+ * mCount - the number of preferred workers of each lookup
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorkerLocationPolicyBench {
+  private static final int NUM_VIRTUAL_NODES = 2000;
+  private static final int NUM_FILES = 1 << 16;
+
+  @State(Scope.Benchmark)
+  public static class Policy {
+    @Param({"ring", "treemap"})
+    public String mImpl;
+
+    @Param({"10", "100", "1000"})
+    public int mNumWorkers;
+
+    @Param({"1", "3"})
+    public int mCount;
+
+    List<BlockWorkerInfo> mWorkers;
+    String[] mFileIds;
+    WorkerLocationPolicy mPolicy;
+    TreeMapPolicy mTreeMapPolicy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      List<BlockWorkerInfo> workers = new ArrayList<>(mNumWorkers);
+      for (int i = 0; i < mNumWorkers; i++) {
+        workers.add(new BlockWorkerInfo(
+            new WorkerNetAddress().setHost("worker-" + i).setRpcPort(29999), 0, 0));
+      }
+      mWorkers = ImmutableList.copyOf(workers);
+      mFileIds = new String[NUM_FILES];
+      for (int i = 0; i < NUM_FILES; i++) {
+        mFileIds[i] = "s3://bucket/warehouse/table/part-" + i + ".parquet";
+      }
+      mPolicy = new WorkerLocationPolicy(NUM_VIRTUAL_NODES);
+      mTreeMapPolicy = new TreeMapPolicy(NUM_VIRTUAL_NODES);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final Random mRandom = new Random();
+  }
+
+  @Benchmark
+  public List<BlockWorkerInfo> getPreferredWorkers(Policy policy, ThreadState ts) {
+    String fileId = policy.mFileIds[ts.mRandom.nextInt(NUM_FILES)];
+    if (policy.mImpl.equals("ring")) {
+      return policy.mPolicy.getPreferredWorkers(policy.mWorkers, fileId, policy.mCount);
+    }
+    return policy.mTreeMapPolicy.getPreferredWorkers(policy.mWorkers, fileId, policy.mCount);
+  }
+
+  /**
+   * The previous lookup of {@link WorkerLocationPolicy}, checking the workers at most once a
+   * second.
+   */
+  private static final class TreeMapPolicy {
+    private final int mNumVirtualNodes;
+    private final AtomicBoolean mNeedUpdate = new AtomicBoolean(false);
+    private volatile long mLastUpdatedTimestamp = 0L;
+    private volatile List<BlockWorkerInfo> mLastWorkerInfos = ImmutableList.of();
+    private volatile NavigableMap<Integer, BlockWorkerInfo> mRing;
+
+    TreeMapPolicy(int numVirtualNodes) {
+      mNumVirtualNodes = numVirtualNodes;
+    }
+
+    List<BlockWorkerInfo> getPreferredWorkers(List<BlockWorkerInfo> workerInfos,
+        String fileId, int count) {
+      if (mLastUpdatedTimestamp <= 0L
+          || System.currentTimeMillis() - mLastUpdatedTimestamp > 1000L) {
+        mNeedUpdate.set(true);
+      }
+      if (mNeedUpdate.compareAndSet(true, false)) {
+        refresh(workerInfos);
+        mLastUpdatedTimestamp = System.currentTimeMillis();
+      }
+      NavigableMap<Integer, BlockWorkerInfo> ring = mRing;
+      Set<BlockWorkerInfo> workers = new HashSet<>();
+      int attempts = 0;
+      while (workers.size() < count && attempts < 100) {
+        attempts++;
+        Map.Entry<Integer, BlockWorkerInfo> entry = ring.ceilingEntry(hash(fileId, attempts));
+        workers.add(entry != null ? entry.getValue() : ring.firstEntry().getValue());
+      }
+      return ImmutableList.copyOf(workers);
+    }
+
+    private void refresh(List<BlockWorkerInfo> workerInfos) {
+      Set<WorkerNetAddress> addresses = workerInfos.stream()
+          .map(BlockWorkerInfo::getNetAddress).collect(Collectors.toSet());
+      Set<WorkerNetAddress> lastAddresses = mLastWorkerInfos.stream()
+          .map(BlockWorkerInfo::getNetAddress).collect(Collectors.toSet());
+      if (!addresses.equals(lastAddresses)) {
+        NavigableMap<Integer, BlockWorkerInfo> ring = new TreeMap<>();
+        int weight = (int) Math.ceil(1.0 * mNumVirtualNodes / workerInfos.size());
+        for (BlockWorkerInfo workerInfo : workerInfos) {
+          for (int i = 0; i < weight; i++) {
+            ring.put(hash(workerInfo.getNetAddress().dumpMainInfo(), i), workerInfo);
+          }
+        }
+        mLastWorkerInfos = workerInfos;
+        mRing = ring;
+      }
+    }
+
+    private static int hash(String key, int index) {
+      return murmur3_32_fixed().hashString(String.format("%s%d", key, index), UTF_8).asInt();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .forks(1)
+        .parent(argsCli)
+        .include(WorkerLocationPolicyBench.class.getName())
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -11,6 +11,7 @@
 
 package alluxio.dora.meta;
 
+import static alluxio.dora.meta.DoraMetaBenchBase.HEAP_256MB_ROCKS;
 import static alluxio.dora.meta.DoraMetaBenchBase.ROCKS;
 import static alluxio.dora.meta.DoraMetaBenchBase.ROCKS_1GB_CACHE;
 import static alluxio.dora.meta.DoraMetaBenchBase.UFS_PATH_PREFIX;
@@ -18,9 +19,12 @@ import static alluxio.dora.meta.DoraMetaBenchBase.makeFileStatus;
 
 import alluxio.BaseFileStructure;
 import alluxio.BaseThreadState;
+import alluxio.proto.meta.DoraMeta;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -34,6 +38,9 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This benchmark measures the time it takes to read/write metadata from the dora worker metastore
  * The following parameters can be varied:
@@ -43,7 +50,9 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  *   with shallow depth will be more likely to be chosen, and files with
  *   larger ids are more likely to be chosen (i.e. those written later).
  * mType - the type of inode storage to use
- * mOperation - read or write
+ * mOperation - read, write, or write in batches as load jobs do
+ * mBatchSize - the number of file meta written at once by BATCH_WRITE
+ * The sample time mode reports the percentiles of the latency, e.g. p99 of READ.
  */
 public class DoraMetaBench {
   @State(Scope.Thread)
@@ -57,12 +66,15 @@ public class DoraMetaBench {
     @Param({"ZIPF"})
     public Distribution mDistribution;
 
-    @Param({ROCKS, ROCKS_1GB_CACHE})
+    @Param({ROCKS, ROCKS_1GB_CACHE, HEAP_256MB_ROCKS})
     public String mType;
 
     @Param({"READ"})
     public String mOperation;
 
+    @Param({"100"})
+    public int mBatchSize;
+
     DoraMetaBenchBase mBase;
 
     @Setup(Level.Trial)
@@ -83,9 +95,16 @@ public class DoraMetaBench {
   }
 
   @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
   public void testMethod(Db db, ThreadState ts, Blackhole bh) throws Exception {
     if (db.mOperation.equals("READ")) {
       bh.consume(db.mBase.getDoraMetaStore().getDoraMeta(UFS_PATH_PREFIX +  ts.nextFileId(db, 0)));
+    } else if (db.mOperation.equals("BATCH_WRITE")) {
+      Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+      for (int i = 0; i < db.mBatchSize; i++) {
+        metas.put(UFS_PATH_PREFIX + ts.nextFileId(db, 0), makeFileStatus());
+      }
+      db.mBase.getDoraMetaStore().putDoraMetas(metas);
     } else
     {
       db.mBase.getDoraMetaStore().putDoraMeta(
@@ -19,12 +19,14 @@ import alluxio.grpc.PAcl;
 import alluxio.proto.meta.DoraMeta;
 import alluxio.worker.dora.DoraMetaStore;
 import alluxio.worker.dora.RocksDBDoraMetaStore;
+import alluxio.worker.dora.TieredDoraMetaStore;
 
 import java.io.IOException;
 
 class DoraMetaBenchBase {
   public static final String ROCKS = "rocks";
   public static final String ROCKS_1GB_CACHE = "rocks-1gb-cache";
+  public static final String HEAP_256MB_ROCKS = "heap-256mb-rocks";
   private static final boolean BOOLEAN_FIELD = false;
   private static final int INT_FIELD = 1;
   private static final String STRING_FIELD = "foobar";
@@ -49,7 +51,7 @@ class DoraMetaBenchBase {
                     .setOwningGroup(STRING_FIELD)
                     .setIsDefault(BOOLEAN_FIELD)
                     .build())
-        ).setTs(INT_FIELD).build();
+        ).setRefreshTimeMs(INT_FIELD).build();
   }
 
   public static final DoraMeta.FileStatus FILE_STATUS = DoraMeta.FileStatus.newBuilder()
@@ -70,7 +72,7 @@ class DoraMetaBenchBase {
                   .setOwningGroup(STRING_FIELD)
                   .setIsDefault(BOOLEAN_FIELD)
                   .build())
-      ).setTs(INT_FIELD).build();
+      ).setRefreshTimeMs(INT_FIELD).build();
 
   private final DoraMetaStore mDoraMetaStore;
 
@@ -96,6 +98,9 @@ class DoraMetaBenchBase {
         Configuration.set(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_CACHE_SIZE,
             (long) 1024 * 1204 * 1024); // 1GB
         return new RocksDBDoraMetaStore(dir, -1);
+      case HEAP_256MB_ROCKS:
+        return new TieredDoraMetaStore(new RocksDBDoraMetaStore(dir, -1),
+            256L * 1024 * 1024, -1);
       default:
         throw new IllegalStateException("Invalid type: " + type);
     }
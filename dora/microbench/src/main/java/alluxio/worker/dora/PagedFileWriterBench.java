@@ -0,0 +1,126 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheManagerOptions;
+import alluxio.client.file.cache.LocalCacheManager;
+import alluxio.client.file.cache.PageMetaStore;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the write throughput of {@link PagedFileWriter} to a local page store,
+ * writing each file in chunks the way the worker receives them from the network. Each operation
+ * writes and commits a file of {@link #FILE_SIZE} bytes, so the throughput in bytes per second is
+ * the operations per second times the file size. Run it with {@code -prof gc} to report the
+ * allocation rate, where {@code gc.alloc.rate.norm} is the number of bytes allocated per file.
+ * The following parameters can be varied:
+ * mChunkSize - the number of bytes of each append
+ * mPageSize - the page size of the page store
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PagedFileWriterBench {
+  private static final int FILE_SIZE = 16 * Constants.MB;
+
+  @State(Scope.Benchmark)
+  public static class Writer {
+    @Param({"4096", "65536", "1048576"})
+    public int mChunkSize;
+
+    @Param({"1048576", "4194304"})
+    public int mPageSize;
+
+    File mDir;
+    CacheManager mCacheManager;
+    ByteBuf mChunk;
+    int mNumFiles;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      mDir = Files.createTempDirectory("paged-file-writer-bench").toFile();
+      InstancedConfiguration conf = Configuration.copyGlobal();
+      conf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.LOCAL);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_DIRS, mDir.getAbsolutePath());
+      conf.set(PropertyKey.WORKER_PAGE_STORE_SIZES, String.valueOf(4L * FILE_SIZE));
+      conf.set(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE, mPageSize);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED, false);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED, false);
+      CacheManagerOptions options = CacheManagerOptions.createForWorker(conf);
+      mCacheManager = LocalCacheManager.create(options, PageMetaStore.create(options));
+      // data received from the network is in direct buffers
+      mChunk = Unpooled.directBuffer(mChunkSize)
+          .writeBytes(BufferUtils.getIncreasingByteArray(mChunkSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mCacheManager.close();
+      mChunk.release();
+      FileUtils.deleteDirectory(mDir);
+    }
+  }
+
+  @Benchmark
+  public long writeFile(Writer writer) throws Exception {
+    String fileId = "file" + writer.mNumFiles++;
+    PagedFileWriter fileWriter =
+        new PagedFileWriter(writer.mCacheManager, fileId, writer.mPageSize);
+    for (int written = 0; written < FILE_SIZE; written += writer.mChunkSize) {
+      fileWriter.append(writer.mChunk.duplicate());
+    }
+    fileWriter.commitFile();
+    long position = fileWriter.getPosition();
+    // keeps the cache from filling up and evicting pages
+    writer.mCacheManager.deleteFile(fileId);
+    return position;
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .forks(1)
+        .parent(argsCli)
+        .include(PagedFileWriterBench.class.getName())
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.stress.client;
+
+import alluxio.stress.Parameters;
+
+import com.beust.jcommander.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parameters of CacheTraceReplayBench.
+ */
+public class CacheTraceReplayParameters extends Parameters {
+  @Parameter(names = {"--trace"},
+      description = "Path of the cache trace to replay, recorded by setting "
+          + "alluxio.user.client.cache.trace.file or alluxio.worker.page.store.trace.file.",
+      required = true)
+  public String mTrace;
+
+  @Parameter(names = {"--page-size"},
+      description = "Page size of the replayed cache. The recorded reads are split into pages "
+          + "of this size, so it can differ from the page size of the recorded cache.")
+  public String mPageSize = "1MB";
+
+  @Parameter(names = {"--cache-size"},
+      description = "Size of the replayed cache.")
+  public String mCacheSize = "1GB";
+
+  @Parameter(names = {"--evictor"},
+      description = "Class of the cache evictor, either fully qualified or a class in "
+          + "alluxio.client.file.cache.evictor.")
+  public String mEvictor = "LRUCacheEvictor";
+
+  @Parameter(names = {"--store-type"},
+      description = "Type of the page store, one of MEM, LOCAL or ROCKS. MEM is the fastest "
+          + "to replay with and gives the same hit ratios as the others.")
+  public String mStoreType = "MEM";
+
+  @Parameter(names = {"--cache-dir"},
+      description = "Directory of the page store, if it is not in memory.")
+  public String mCacheDir = "/tmp/alluxio-cache-trace-replay";
+
+  @Parameter(names = {"--compact-meta-store"},
+      description = "Set this flag to keep the page metadata in the compact page meta store.")
+  @BooleanDescription(trueDescription = "CompactMetaStore", falseDescription = "DefaultMetaStore")
+  public boolean mCompactMetaStore = false;
+
+  @Parameter(names = {"--property"},
+      description = "Set an Alluxio property of the replayed cache, e.g. "
+          + "alluxio.user.client.cache.quota.enabled=true. "
+          + "Can be repeated to set multiple properties.")
+  public List<String> mProperties = new ArrayList<>();
+}
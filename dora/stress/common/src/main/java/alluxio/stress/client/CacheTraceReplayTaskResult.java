@@ -0,0 +1,343 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.stress.client;
+
+import alluxio.collections.Pair;
+import alluxio.stress.BaseParameters;
+import alluxio.stress.Parameters;
+import alluxio.stress.Summary;
+import alluxio.stress.TaskResult;
+import alluxio.stress.graph.BarGraph;
+import alluxio.stress.graph.Graph;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Splitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Task results for the cache trace replay bench.
+ */
+public class CacheTraceReplayTaskResult implements TaskResult {
+  @JsonProperty("baseParameters")
+  private BaseParameters mBaseParameters;
+  @JsonProperty("parameters")
+  private CacheTraceReplayParameters mParameters;
+  @JsonProperty("errors")
+  private List<String> mErrors = new ArrayList<>();
+  /** The number of page reads replayed. */
+  @JsonProperty("gets")
+  private long mGets;
+  /** The number of page reads which hit the cache. */
+  @JsonProperty("hits")
+  private long mHits;
+  /** The number of bytes read. */
+  @JsonProperty("bytesRead")
+  private long mBytesRead;
+  /** The number of bytes read which hit the cache. */
+  @JsonProperty("bytesHit")
+  private long mBytesHit;
+  /** The number of pages put into the cache. */
+  @JsonProperty("puts")
+  private long mPuts;
+  /** The number of pages deleted from the cache by the trace. */
+  @JsonProperty("deletes")
+  private long mDeletes;
+  /** The number of pages evicted from the cache. */
+  @JsonProperty("pagesEvicted")
+  private long mPagesEvicted;
+  /** The number of bytes evicted from the cache. */
+  @JsonProperty("bytesEvicted")
+  private long mBytesEvicted;
+  /** The time taken to replay the trace. */
+  @JsonProperty("durationMs")
+  private long mDurationMs;
+
+  /**
+   * Creates an empty result.
+   */
+  @JsonCreator
+  public CacheTraceReplayTaskResult() {}
+
+  /**
+   * Copy constructor.
+   * @param from instance to copy from
+   */
+  public CacheTraceReplayTaskResult(CacheTraceReplayTaskResult from) {
+    mBaseParameters = from.mBaseParameters;
+    mParameters = from.mParameters;
+    merge(from);
+  }
+
+  /**
+   * Merges a result into this one.
+   * @param toMerge the result to merge
+   */
+  public void merge(CacheTraceReplayTaskResult toMerge) {
+    mGets += toMerge.mGets;
+    mHits += toMerge.mHits;
+    mBytesRead += toMerge.mBytesRead;
+    mBytesHit += toMerge.mBytesHit;
+    mPuts += toMerge.mPuts;
+    mDeletes += toMerge.mDeletes;
+    mPagesEvicted += toMerge.mPagesEvicted;
+    mBytesEvicted += toMerge.mBytesEvicted;
+    mDurationMs = Math.max(mDurationMs, toMerge.mDurationMs);
+    mErrors.addAll(toMerge.mErrors);
+  }
+
+  /**
+   * Records a read of a page.
+   *
+   * @param bytes the number of bytes read
+   * @param hit whether the page is cached
+   */
+  public void recordGet(long bytes, boolean hit) {
+    mGets++;
+    mBytesRead += bytes;
+    if (hit) {
+      mHits++;
+      mBytesHit += bytes;
+    }
+  }
+
+  /**
+   * Records a page put into the cache.
+   */
+  public void recordPut() {
+    mPuts++;
+  }
+
+  /**
+   * Records a page deleted from the cache.
+   */
+  public void recordDelete() {
+    mDeletes++;
+  }
+
+  /**
+   * @param pages the number of pages evicted
+   * @param bytes the number of bytes evicted
+   */
+  public void setEvicted(long pages, long bytes) {
+    mPagesEvicted = pages;
+    mBytesEvicted = bytes;
+  }
+
+  /**
+   * @param durationMs the time taken to replay the trace
+   */
+  public void setDurationMs(long durationMs) {
+    mDurationMs = durationMs;
+  }
+
+  @Override
+  @Nullable
+  public BaseParameters getBaseParameters() {
+    return mBaseParameters;
+  }
+
+  /**
+   * @param baseParameters the {@link BaseParameters} to use
+   */
+  public void setBaseParameters(BaseParameters baseParameters) {
+    mBaseParameters = baseParameters;
+  }
+
+  /**
+   * @return the {@link CacheTraceReplayParameters}
+   */
+  @Nullable
+  public CacheTraceReplayParameters getParameters() {
+    return mParameters;
+  }
+
+  /**
+   * @param parameters the {@link CacheTraceReplayParameters} to use
+   */
+  public void setParameters(CacheTraceReplayParameters parameters) {
+    mParameters = parameters;
+  }
+
+  /**
+   * @param errorMsg an error msg to add
+   */
+  public void addError(String errorMsg) {
+    mErrors.add(errorMsg);
+  }
+
+  @Override
+  public List<String> getErrors() {
+    return mErrors;
+  }
+
+  @Override
+  public Aggregator aggregator() {
+    return new Aggregator();
+  }
+
+  private static final class Aggregator
+      implements TaskResult.Aggregator<CacheTraceReplayTaskResult> {
+    @Override
+    public CacheTraceReplaySummary aggregate(Iterable<CacheTraceReplayTaskResult> results) {
+      Iterator<CacheTraceReplayTaskResult> iterator = results.iterator();
+      if (!iterator.hasNext()) {
+        return new CacheTraceReplaySummary(new CacheTraceReplayTaskResult());
+      }
+      CacheTraceReplayTaskResult mergedResult = new CacheTraceReplayTaskResult(iterator.next());
+      while (iterator.hasNext()) {
+        mergedResult.merge(iterator.next());
+      }
+      return new CacheTraceReplaySummary(mergedResult);
+    }
+  }
+
+  /**
+   * Summary of the cache trace replay, which can be compared with the summaries of other cache
+   * configurations by GenerateReport.
+   */
+  public static class CacheTraceReplaySummary implements Summary {
+    @JsonProperty("baseParameters")
+    private BaseParameters mBaseParameters;
+    @JsonProperty("parameters")
+    private CacheTraceReplayParameters mParameters;
+    @JsonProperty("errors")
+    private List<String> mErrors;
+    @JsonProperty("result")
+    private CacheTraceReplayTaskResult mResult;
+    @JsonProperty("hitRatio")
+    private double mHitRatio;
+    @JsonProperty("byteHitRatio")
+    private double mByteHitRatio;
+    /** The number of pages evicted per page read, which measures the churn of the cache. */
+    @JsonProperty("evictionsPerGet")
+    private double mEvictionsPerGet;
+    @JsonProperty("getsPerSecond")
+    private double mGetsPerSecond;
+
+    /**
+     * Used for deserialization.
+     */
+    @JsonCreator
+    public CacheTraceReplaySummary() {}
+
+    /**
+     * Creates a summary from a result object.
+     * @param mergedResult the final result
+     */
+    public CacheTraceReplaySummary(CacheTraceReplayTaskResult mergedResult) {
+      mBaseParameters = mergedResult.mBaseParameters;
+      mParameters = mergedResult.mParameters;
+      mErrors = mergedResult.mErrors;
+      mResult = mergedResult;
+      mHitRatio = ratio(mergedResult.mHits, mergedResult.mGets);
+      mByteHitRatio = ratio(mergedResult.mBytesHit, mergedResult.mBytesRead);
+      mEvictionsPerGet = ratio(mergedResult.mPagesEvicted, mergedResult.mGets);
+      mGetsPerSecond = ratio(mergedResult.mGets * 1000, mergedResult.mDurationMs);
+    }
+
+    private static double ratio(long numerator, long denominator) {
+      return denominator == 0 ? 0 : (double) numerator / denominator;
+    }
+
+    /**
+     * @return the ratio of page reads which hit the cache
+     */
+    public double getHitRatio() {
+      return mHitRatio;
+    }
+
+    /**
+     * @return the ratio of bytes read which hit the cache
+     */
+    public double getByteHitRatio() {
+      return mByteHitRatio;
+    }
+
+    /**
+     * @return the number of pages evicted per page read
+     */
+    public double getEvictionsPerGet() {
+      return mEvictionsPerGet;
+    }
+
+    /**
+     * @return the number of page reads replayed per second
+     */
+    public double getGetsPerSecond() {
+      return mGetsPerSecond;
+    }
+
+    @Override
+    public alluxio.stress.GraphGenerator graphGenerator() {
+      return new GraphGenerator();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("CacheTraceReplaySummary: {hitRatio=%.4f, byteHitRatio=%.4f, "
+              + "evictionsPerGet=%.4f, getsPerSecond=%.1f, errors=%s}",
+          mHitRatio, mByteHitRatio, mEvictionsPerGet, mGetsPerSecond, mErrors);
+    }
+  }
+
+  /**
+   * A graph generator comparing the summaries of cache trace replays.
+   */
+  public static final class GraphGenerator extends alluxio.stress.GraphGenerator {
+    @Override
+    public List<Graph> generate(List<? extends Summary> results) {
+      List<Graph> graphs = new ArrayList<>();
+      List<CacheTraceReplaySummary> summaries = results.stream()
+          .map(x -> (CacheTraceReplaySummary) x).collect(Collectors.toList());
+      if (summaries.isEmpty()) {
+        return graphs;
+      }
+
+      // first() is the list of common field names, second() is the list of unique field names
+      Pair<List<String>, List<String>> fieldNames = Parameters.partitionFieldNames(
+          summaries.stream().map(x -> x.mParameters).collect(Collectors.toList()));
+
+      // Split up common description into 100 character chunks, for the sub title
+      List<String> subTitle = new ArrayList<>(Splitter.fixedLength(100).splitToList(
+          summaries.get(0).mParameters.getDescription(fieldNames.getFirst())));
+
+      graphs.add(graph("Hit ratio", subTitle, "Ratio of page reads hitting the cache",
+          summaries, fieldNames, CacheTraceReplaySummary::getHitRatio));
+      graphs.add(graph("Byte hit ratio", subTitle, "Ratio of bytes read hitting the cache",
+          summaries, fieldNames, CacheTraceReplaySummary::getByteHitRatio));
+      graphs.add(graph("Eviction churn", subTitle, "Pages evicted per page read",
+          summaries, fieldNames, CacheTraceReplaySummary::getEvictionsPerGet));
+      graphs.add(graph("Throughput", subTitle, "Page reads per second",
+          summaries, fieldNames, CacheTraceReplaySummary::getGetsPerSecond));
+      return graphs;
+    }
+
+    private static BarGraph graph(String title, List<String> subTitle, String xTitle,
+        List<CacheTraceReplaySummary> summaries, Pair<List<String>, List<String>> fieldNames,
+        ToDoubleFunction<CacheTraceReplaySummary> value) {
+      BarGraph graph = new BarGraph(title, subTitle, xTitle);
+      for (CacheTraceReplaySummary summary : summaries) {
+        BarGraph.Data data = new BarGraph.Data();
+        data.addData(value.applyAsDouble(summary));
+        graph.addDataSeries(summary.mParameters.getDescription(fieldNames.getSecond()), data);
+      }
+      return graph;
+    }
+  }
+}
@@ -36,6 +36,7 @@ public final class WorkerBenchSummary extends GeneralBenchSummary<WorkerBenchTas
   private long mDurationMs;
   private long mEndTimeMs;
   private long mIOBytes;
+  private long mCpuTimeMs;
 
   /**
    * Creates an instance.
@@ -56,6 +57,7 @@ public final class WorkerBenchSummary extends GeneralBenchSummary<WorkerBenchTas
     mDurationMs = mergedTaskResults.getEndMs() - mergedTaskResults.getRecordStartMs();
     mEndTimeMs = mergedTaskResults.getEndMs();
     mIOBytes = mergedTaskResults.getIOBytes();
+    mCpuTimeMs = mergedTaskResults.getCpuTimeMs();
     mParameters = mergedTaskResults.getParameters();
     mNodeResults = nodes;
     mThroughput = getIOMBps();
@@ -75,6 +77,35 @@ public final class WorkerBenchSummary extends GeneralBenchSummary<WorkerBenchTas
     // ignore, since this is computed dynamically
   }
 
+  /**
+   * @return the CPU time (in ms) of the nodes per GB read, which compares the cost of serving
+   *         reads when the workers are configured differently
+   */
+  public float getCpuMsPerGB() {
+    return mIOBytes == 0 ? 0 : (float) mCpuTimeMs * Constants.GB / mIOBytes;
+  }
+
+  /**
+   * @param cpuMsPerGB the CPU time (in ms) per GB read
+   */
+  public void setCpuMsPerGB(float cpuMsPerGB) {
+    // ignore, since this is computed dynamically
+  }
+
+  /**
+   * @return the CPU time (in ms) used by the nodes while recording
+   */
+  public long getCpuTimeMs() {
+    return mCpuTimeMs;
+  }
+
+  /**
+   * @param cpuTimeMs the CPU time (in ms) used by the nodes while recording
+   */
+  public void setCpuTimeMs(long cpuTimeMs) {
+    mCpuTimeMs = cpuTimeMs;
+  }
+
   /**
    * @return the duration (in ms)
    */
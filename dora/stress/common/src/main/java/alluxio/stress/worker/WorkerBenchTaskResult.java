@@ -29,6 +29,7 @@ public final class WorkerBenchTaskResult implements TaskResult {
   private long mRecordStartMs;
   private long mEndMs;
   private long mIOBytes;
+  private long mCpuTimeMs;
   private List<String> mErrors;
 
   /**
@@ -64,6 +65,7 @@ public final class WorkerBenchTaskResult implements TaskResult {
     mRecordStartMs = result.mRecordStartMs;
     mEndMs = Math.max(mEndMs, result.mEndMs);
     mIOBytes += result.mIOBytes;
+    mCpuTimeMs += result.mCpuTimeMs;
   }
 
   /**
@@ -89,6 +91,20 @@ public final class WorkerBenchTaskResult implements TaskResult {
     mIOBytes = ioBytes;
   }
 
+  /**
+   * @return the CPU time (in ms) used by all processes of the node while recording
+   */
+  public long getCpuTimeMs() {
+    return mCpuTimeMs;
+  }
+
+  /**
+   * @param cpuTimeMs the CPU time (in ms) used by all processes of the node while recording
+   */
+  public void setCpuTimeMs(long cpuTimeMs) {
+    mCpuTimeMs = cpuTimeMs;
+  }
+
   @Override
   public BaseParameters getBaseParameters() {
     return mBaseParameters;
@@ -0,0 +1,237 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.stress.cli.client;
+
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheManagerOptions;
+import alluxio.client.file.cache.LocalCacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageMetaStore;
+import alluxio.client.file.cache.trace.CacheTraceReader;
+import alluxio.client.file.cache.trace.CacheTraceRecord;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.stress.cli.Benchmark;
+import alluxio.stress.client.CacheTraceReplayParameters;
+import alluxio.stress.client.CacheTraceReplayTaskResult;
+import alluxio.util.FormatUtils;
+
+import com.beust.jcommander.ParametersDelegate;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark that replays a recorded page cache trace against a local cache, to compare the hit
+ * ratios of cache sizes, page sizes and evictors offline.
+ */
+public class CacheTraceReplayBench extends Benchmark<CacheTraceReplayTaskResult> {
+  private static final Logger LOG = LoggerFactory.getLogger(CacheTraceReplayBench.class);
+  private static final String EVICTOR_PACKAGE = "alluxio.client.file.cache.evictor";
+
+  @ParametersDelegate
+  protected final CacheTraceReplayParameters mParameters = new CacheTraceReplayParameters();
+
+  private long mPageSize;
+  private byte[] mPage;
+  private byte[] mBuffer;
+  /** The end of the files learned from the trace, by file id. */
+  private final Map<String, Long> mFileLengths = new HashMap<>();
+
+  /**
+   * @param args command-line arguments
+   */
+  public static void main(String[] args) {
+    mainInternal(args, new CacheTraceReplayBench());
+  }
+
+  @Override
+  public String getBenchDescription() {
+    return String.join("\n", ImmutableList.of(
+        "A benchmark that replays a page cache trace against a local cache with the given "
+            + "configuration.",
+        "The trace is recorded by a client or worker with alluxio.user.client.cache.trace.file or",
+        "alluxio.worker.page.store.trace.file set. The summaries of several runs can be compared",
+        "with GenerateReport.",
+        "",
+        "Example:",
+        "# This example replays the trace against a 10GB cache of 4MB pages using TinyLFU",
+        "$ bin/alluxio runClass alluxio.stress.cli.client.CacheTraceReplayBench "
+            + "--trace /tmp/cache.trace "
+            + "--cache-size 10GB "
+            + "--page-size 4MB "
+            + "--evictor TinyLFUCacheEvictor"
+    ));
+  }
+
+  @Override
+  public void prepare() throws Exception {
+    mPageSize = FormatUtils.parseSpaceSize(mParameters.mPageSize);
+    Preconditions.checkArgument(mPageSize > 0 && mPageSize <= Integer.MAX_VALUE,
+        "Invalid page size %s", mParameters.mPageSize);
+    Preconditions.checkArgument(FormatUtils.parseSpaceSize(mParameters.mCacheSize) >= mPageSize,
+        "Cache size %s is smaller than the page size %s", mParameters.mCacheSize,
+        mParameters.mPageSize);
+  }
+
+  @Override
+  public CacheTraceReplayTaskResult runLocal() throws Exception {
+    Preconditions.checkArgument(new File(mParameters.mTrace).isFile(),
+        "Cache trace %s does not exist", mParameters.mTrace);
+    mPageSize = FormatUtils.parseSpaceSize(mParameters.mPageSize);
+    mPage = new byte[(int) mPageSize];
+    mBuffer = new byte[(int) mPageSize];
+    long tracePageSize = learnFileLengths();
+
+    CacheManagerOptions options = CacheManagerOptions.create(createConf());
+    CacheTraceReplayTaskResult result = new CacheTraceReplayTaskResult();
+    result.setBaseParameters(mBaseParameters);
+    result.setParameters(mParameters);
+    long pagesEvicted =
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_EVICTED.getName()).getCount();
+    long bytesEvicted =
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_EVICTED.getName()).getCount();
+    try (CacheManager cacheManager =
+             LocalCacheManager.create(options, PageMetaStore.create(options));
+         CacheTraceReader reader = CacheTraceReader.open(mParameters.mTrace)) {
+      Preconditions.checkState(cacheManager.state() == CacheManager.State.READ_WRITE,
+          "Cache is not writable: %s", cacheManager.state());
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      CacheTraceRecord record;
+      while ((record = reader.next()) != null) {
+        replay(cacheManager, record, tracePageSize, result);
+      }
+      result.setDurationMs(stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+    result.setEvicted(
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_EVICTED.getName()).getCount()
+            - pagesEvicted,
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_EVICTED.getName()).getCount()
+            - bytesEvicted);
+    return result;
+  }
+
+  private InstancedConfiguration createConf() {
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE, mParameters.mPageSize);
+    conf.set(PropertyKey.USER_CLIENT_CACHE_SIZE, mParameters.mCacheSize);
+    conf.set(PropertyKey.USER_CLIENT_CACHE_DIRS, mParameters.mCacheDir);
+    conf.set(PropertyKey.USER_CLIENT_CACHE_STORE_TYPE, mParameters.mStoreType);
+    String evictor = mParameters.mEvictor.contains(".")
+        ? mParameters.mEvictor : EVICTOR_PACKAGE + "." + mParameters.mEvictor;
+    conf.set(PropertyKey.USER_CLIENT_CACHE_EVICTOR_CLASS, evictor);
+    conf.set(PropertyKey.USER_CLIENT_CACHE_COMPACT_META_STORE_ENABLED,
+        mParameters.mCompactMetaStore);
+    // replay synchronously so that each access sees the effect of the previous ones
+    conf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED, false);
+    conf.set(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED, false);
+    for (String property : mParameters.mProperties) {
+      String[] parts = property.split("=", 2);
+      Preconditions.checkArgument(parts.length == 2,
+          "Property should be set as \"key=value\", got %s", property);
+      conf.set(PropertyKey.fromString(parts[0]), parts[1]);
+    }
+    // the replay must not record a trace of its own
+    conf.unset(PropertyKey.USER_CLIENT_CACHE_TRACE_FILE);
+    return conf;
+  }
+
+  /**
+   * Learns the length of the files from the trace. A page put with less than a full page of
+   * data is the last page of its file.
+   *
+   * @return the page size of the traced cache
+   */
+  private long learnFileLengths() throws IOException {
+    try (CacheTraceReader reader = CacheTraceReader.open(mParameters.mTrace)) {
+      long tracePageSize = reader.getPageSize();
+      CacheTraceRecord record;
+      while ((record = reader.next()) != null) {
+        if (record.getType() == CacheTraceRecord.Type.PUT
+            && record.getLength() < tracePageSize) {
+          mFileLengths.put(record.getPageId().getFileId(),
+              record.getPageId().getPageIndex() * tracePageSize + record.getLength());
+        }
+      }
+      return tracePageSize;
+    }
+  }
+
+  private void replay(CacheManager cacheManager, CacheTraceRecord record, long tracePageSize,
+      CacheTraceReplayTaskResult result) {
+    String fileId = record.getPageId().getFileId();
+    long start = record.getPageId().getPageIndex() * tracePageSize + record.getOffset();
+    long length;
+    switch (record.getType()) {
+      case GET_HIT:
+      case GET_MISS:
+        length = record.getLength() > 0 ? record.getLength() : tracePageSize - record.getOffset();
+        break;
+      case PUT:
+        length = record.getLength();
+        break;
+      default:
+        length = tracePageSize;
+    }
+    long end = Math.min(start + length, mFileLengths.getOrDefault(fileId, Long.MAX_VALUE));
+    // the recorded range is split into pages of the replayed page size
+    for (long pageIndex = start / mPageSize; pageIndex * mPageSize < end; pageIndex++) {
+      PageId pageId = new PageId(fileId, pageIndex);
+      long pageStart = pageIndex * mPageSize;
+      int pageLength = (int) Math.min(mPageSize,
+          mFileLengths.getOrDefault(fileId, Long.MAX_VALUE) - pageStart);
+      switch (record.getType()) {
+        case GET_HIT:
+        case GET_MISS:
+          int offset = (int) (Math.max(start, pageStart) - pageStart);
+          int bytes = (int) (Math.min(end, pageStart + mPageSize) - pageStart) - offset;
+          boolean hit = cacheManager.get(pageId, offset, bytes, mBuffer, 0) > 0;
+          result.recordGet(bytes, hit);
+          if (!hit) {
+            put(cacheManager, pageId, pageLength, result);
+          }
+          break;
+        case PUT:
+          // pages are also put without a preceding read, e.g. by prefetching
+          if (!cacheManager.hasPage(pageId)) {
+            put(cacheManager, pageId, pageLength, result);
+          }
+          break;
+        default:
+          if (cacheManager.hasPage(pageId) && cacheManager.delete(pageId)) {
+            result.recordDelete();
+          }
+      }
+    }
+  }
+
+  private void put(CacheManager cacheManager, PageId pageId, int pageLength,
+      CacheTraceReplayTaskResult result) {
+    if (cacheManager.put(pageId, ByteBuffer.wrap(mPage, 0, pageLength))) {
+      result.recordPut();
+    } else {
+      LOG.debug("Failed to put page {} into the cache", pageId);
+    }
+  }
+}
@@ -24,9 +24,11 @@ import alluxio.stress.worker.WorkerBenchParameters;
 import alluxio.stress.worker.WorkerBenchTaskResult;
 import alluxio.util.CommonUtils;
 import alluxio.util.FormatUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
 
 import com.google.common.collect.ImmutableList;
+import com.sun.management.OperatingSystemMXBean;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
@@ -36,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -44,6 +47,8 @@ import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +58,7 @@ import java.util.concurrent.TimeUnit;
 public class StressWorkerBench extends AbstractStressBench<WorkerBenchTaskResult,
     WorkerBenchParameters> {
   private static final Logger LOG = LoggerFactory.getLogger(StressWorkerBench.class);
+  private static final long CPU_SAMPLE_INTERVAL_MS = 100;
 
   private FileSystem[] mCachedFs;
   private Path[] mFilePaths;
@@ -90,7 +96,11 @@ public class StressWorkerBench extends AbstractStressBench<WorkerBenchTaskResult
             + "for 30s after 10s warmup",
         "$ bin/alluxio runClass alluxio.stress.cli.worker.StressWorkerBench --clients 1 "
             + "--base alluxio:///stress-worker-base --block-size 16k --file-size 100m "
-            + "--warmup 10s --duration 30s --cluster\n"
+            + "--warmup 10s --duration 30s --cluster\n",
+        "The CPU time used by each node while reading is reported as CPU ms per GB read. To "
+            + "compare the cost of serving reads with and without zero-copy, run the bench on the "
+            + "worker nodes twice, with alluxio.worker.network.netty.read.zero.copy.enabled set "
+            + "to true and to false on the workers, and tag the runs with --tag."
     ));
   }
 
@@ -212,13 +222,67 @@ public class StressWorkerBench extends AbstractStressBench<WorkerBenchTaskResult
     for (int i = 0; i < mParameters.mThreads; i++) {
       callables.add(new BenchThread(context, mCachedFs[i % mCachedFs.length]));
     }
-    service.invokeAll(callables, FormatUtils.parseTimeSize(mBaseParameters.mBenchTimeout),
-        TimeUnit.MILLISECONDS);
+    CpuSampler cpuSampler = new CpuSampler(startMs + warmupMs, endMs);
+    try {
+      service.invokeAll(callables, FormatUtils.parseTimeSize(mBaseParameters.mBenchTimeout),
+          TimeUnit.MILLISECONDS);
+    } finally {
+      cpuSampler.close();
+    }
 
     service.shutdownNow();
     service.awaitTermination(30, TimeUnit.SECONDS);
 
-    return context.getResult();
+    WorkerBenchTaskResult result = context.getResult();
+    if (result != null) {
+      result.setCpuTimeMs(cpuSampler.getCpuTimeMs());
+    }
+    return result;
+  }
+
+  /**
+   * Samples the CPU load of the node between the start and the end of recording, which includes
+   * the CPU used by the worker serving the reads when the bench runs on the worker node.
+   */
+  private static final class CpuSampler implements AutoCloseable {
+    private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor(
+        ThreadFactoryUtils.build("bench-cpu-sampler-%d", true));
+    private final long mRecordStartMs;
+    private final long mEndMs;
+    private final int mNumProcessors = Runtime.getRuntime().availableProcessors();
+    private double mCpuTimeMs;
+
+    CpuSampler(long recordStartMs, long endMs) {
+      mRecordStartMs = recordStartMs;
+      mEndMs = endMs;
+      java.lang.management.OperatingSystemMXBean bean =
+          ManagementFactory.getOperatingSystemMXBean();
+      if (bean instanceof OperatingSystemMXBean) {
+        OperatingSystemMXBean osBean = (OperatingSystemMXBean) bean;
+        mExecutor.scheduleAtFixedRate(() -> sample(osBean), CPU_SAMPLE_INTERVAL_MS,
+            CPU_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      } else {
+        LOG.warn("CPU load of the node is not available, CPU time will not be reported");
+      }
+    }
+
+    private synchronized void sample(OperatingSystemMXBean osBean) {
+      long now = CommonUtils.getCurrentMs();
+      double load = osBean.getSystemCpuLoad();
+      if (now > mRecordStartMs && now <= mEndMs && load >= 0) {
+        // the load is the fraction of all processors used since the last sample
+        mCpuTimeMs += load * mNumProcessors * CPU_SAMPLE_INTERVAL_MS;
+      }
+    }
+
+    synchronized long getCpuTimeMs() {
+      return (long) mCpuTimeMs;
+    }
+
+    @Override
+    public void close() {
+      mExecutor.shutdownNow();
+    }
   }
 
   @Override